@@ -42,6 +42,7 @@ import org.apache.camel.model.transformer.TransformerDefinition;
 import org.apache.camel.model.validator.ValidatorDefinition;
 import org.apache.camel.runtimecatalog.RuntimeCamelCatalog;
 import org.apache.camel.spi.AsyncProcessorAwaitManager;
+import org.apache.camel.spi.BufferPool;
 import org.apache.camel.spi.CamelContextNameStrategy;
 import org.apache.camel.spi.ClassResolver;
 import org.apache.camel.spi.DataFormat;
@@ -53,6 +54,7 @@ import org.apache.camel.spi.EndpointStrategy;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.Injector;
 import org.apache.camel.spi.InterceptStrategy;
@@ -1666,6 +1668,21 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setMessageHistoryFactory(MessageHistoryFactory messageHistoryFactory);
 
+    /**
+     * Gets the current {@link org.apache.camel.spi.HeadersMapFactory}
+     *
+     * @return the factory
+     */
+    HeadersMapFactory getHeadersMapFactory();
+
+    /**
+     * Sets a custom {@link org.apache.camel.spi.HeadersMapFactory} to control the {@link java.util.Map}
+     * implementation used for storing message headers.
+     *
+     * @param headersMapFactory the custom factory
+     */
+    void setHeadersMapFactory(HeadersMapFactory headersMapFactory);
+
     /**
      * Gets the current {@link Debugger}
      *
@@ -1764,6 +1781,27 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setUseBreadcrumb(Boolean useBreadcrumb);
 
+    /**
+     * Whether or not copy on write exchange copies is enabled.
+     *
+     * @return <tt>true</tt> if copy on write exchange copies is enabled
+     */
+    Boolean isExchangeCopyOnWrite();
+
+    /**
+     * Set whether copies of exchanges, such as those created by the multicast, splitter, recipient list and wire tap EIPs,
+     * should share the message headers and exchange properties of the source exchange until either of them is modified.
+     * <p/>
+     * This makes copying exchanges with many headers and properties cheap, as the headers are only copied
+     * when modified, and the properties set on the copy are kept on top of the shared properties of the source.
+     * The headers and properties must only be modified using the {@link Message} and {@link Exchange} API,
+     * as changing a {@link java.util.Map} obtained from {@link Message#getHeaders()} or {@link Exchange#getProperties()}
+     * before the exchange was copied, may be visible in the copies.
+     *
+     * @param exchangeCopyOnWrite <tt>true</tt> to enable copy on write exchange copies, <tt>false</tt> to disable
+     */
+    void setExchangeCopyOnWrite(Boolean exchangeCopyOnWrite);
+
     /**
      * Resolves a component's default name from its java type.
      * <p/>
@@ -1893,6 +1931,16 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setStreamCachingStrategy(StreamCachingStrategy streamCachingStrategy);
 
+    /**
+     * Gets the {@link BufferPool} to use for temporary buffers, such as when copying streams.
+     */
+    BufferPool getBufferPool();
+
+    /**
+     * Sets a custom {@link BufferPool} to use.
+     */
+    void setBufferPool(BufferPool bufferPool);
+
     /**
      * Gets the {@link UnitOfWorkFactory} to use.
      */
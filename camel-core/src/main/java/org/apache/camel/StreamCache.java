@@ -37,6 +37,7 @@ import java.io.OutputStream;
 public interface StreamCache {
 
     long DEFAULT_SPOOL_THRESHOLD = 128 * 1024;
+    long DEFAULT_SPOOL_OFF_HEAP_THRESHOLD = 8 * 1024 * 1024;
 
     /**
      * Resets the StreamCache for a new stream consumption.
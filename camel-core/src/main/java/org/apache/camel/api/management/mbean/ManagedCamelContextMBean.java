@@ -145,6 +145,9 @@ public interface ManagedCamelContextMBean extends ManagedPerformanceCounterMBean
     @ManagedAttribute(description = "Whether allowing access to the original message during routing")
     boolean isAllowUseOriginalMessage();
 
+    @ManagedAttribute(description = "Whether copies of exchanges share headers and properties until modified")
+    boolean isExchangeCopyOnWrite();
+
     @ManagedAttribute(description = "Whether message history is enabled")
     boolean isMessageHistory();
 
@@ -64,6 +64,12 @@ public interface ManagedRouteMBean extends ManagedPerformanceCounterMBean {
     @ManagedAttribute(description = "Route Policy List")
     String getRoutePolicyList();
 
+    @ManagedAttribute(description = "Number of processors which has been fused together (when processor fusion is enabled)")
+    Integer getFusedProcessorCount();
+
+    @ManagedAttribute(description = "The ids of the processors which has been fused together, listed for each fused group")
+    String getFusedProcessors();
+
     @ManagedAttribute(description = "Average load over the last minute")
     String getLoad01();
 
@@ -31,6 +31,12 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Chiper used if writing with encryption")
     String getSpoolChiper();
 
+    @ManagedAttribute(description = "Whether spooling to off heap memory and memory mapped files instead of temporary files")
+    boolean isSpoolOffHeap();
+
+    @ManagedAttribute(description = "Threshold in bytes when spooling to off heap memory until which the data is kept in direct buffers")
+    long getSpoolOffHeapThreshold();
+
     @ManagedAttribute(description = "Threshold in bytes when overflow and spooling to disk instead of keeping in memory")
     void setSpoolThreshold(long threshold);
 
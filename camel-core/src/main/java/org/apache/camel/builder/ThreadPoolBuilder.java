@@ -70,6 +70,11 @@ public final class ThreadPoolBuilder {
         profile.setRejectedPolicy(rejectedPolicy);
         return this;
     }
+
+    public ThreadPoolBuilder virtualThreads(boolean virtualThreads) {
+        profile.setVirtualThreads(virtualThreads);
+        return this;
+    }
     
     /**
      * Builds the new thread pool
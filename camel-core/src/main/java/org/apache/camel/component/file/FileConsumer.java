@@ -18,11 +18,18 @@ package org.apache.camel.component.file;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +38,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.Processor;
 import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
 
 /**
@@ -40,6 +48,12 @@ public class FileConsumer extends GenericFileConsumer<File> {
 
     private String endpointPath;
     private Set<String> extendedAttributes;
+    // when watching the directories, the files we have been notified about and which are not yet consumed
+    private WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Set<File> pendingFiles = new LinkedHashSet<>();
+    private boolean reconcile = true;
+    private long nextReconcileTime;
 
     public FileConsumer(FileEndpoint endpoint, Processor processor, GenericFileOperations<File> operations) {
         super(endpoint, processor, operations);
@@ -56,6 +70,21 @@ public class FileConsumer extends GenericFileConsumer<File> {
 
     @Override
     protected boolean pollDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
+        if (depth == 0 && watchService != null) {
+            if (!prepareWatchedPoll(fileName)) {
+                return pollWatchedFiles(fileName, fileList);
+            }
+            boolean answer = scanDirectory(fileName, fileList, depth);
+            if (!answer) {
+                // the scan was limited by maxMessagesPerPoll, so scan the rest of the directory on the next poll
+                reconcile = true;
+            }
+            return answer;
+        }
+        return scanDirectory(fileName, fileList, depth);
+    }
+
+    protected boolean scanDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
         log.trace("pollDirectory from fileName: {}", fileName);
 
         depth++;
@@ -115,50 +144,202 @@ public class FileConsumer extends GenericFileConsumer<File> {
                     log.trace("Adding valid file: {}", file);
                     // matched file so add
                     if (extendedAttributes != null) {
-                        Path path = file.toPath();
-                        Map<String, Object> allAttributes = new HashMap<>();
-                        for (String attribute : extendedAttributes) {
-                            try {
-                                String prefix = null;
-                                if (attribute.endsWith(":*")) {
-                                    prefix = attribute.substring(0, attribute.length() - 1);
-                                } else if (attribute.equals("*")) {
-                                    prefix = "basic:";
-                                }
-
-                                if (ObjectHelper.isNotEmpty(prefix)) {
-                                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
-                                    if (attributes != null) {
-                                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
-                                        }
-                                    }
-                                } else if (!attribute.contains(":")) {
-                                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
-                                } else {
-                                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
-                                }
-                            } catch (IOException e) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
-                                }
-                            }
-                        }
+                        gf.setExtendedAttributes(readExtendedAttributes(file));
+                    }
+                    fileList.add(gf);
+                    if (watchService != null) {
+                        pendingFiles.add(file.getAbsoluteFile());
+                    }
+                } else if (watchService != null && endpoint.getDoneFileName() != null) {
+                    // the file becomes valid when the done file is written
+                    pendingFiles.add(file.getAbsoluteFile());
+                }
+
+            }
+        }
+
+        return true;
+    }
+
+    private Map<String, Object> readExtendedAttributes(File file) {
+        Path path = file.toPath();
+        Map<String, Object> allAttributes = new HashMap<>();
+        for (String attribute : extendedAttributes) {
+            try {
+                String prefix = null;
+                if (attribute.endsWith(":*")) {
+                    prefix = attribute.substring(0, attribute.length() - 1);
+                } else if (attribute.equals("*")) {
+                    prefix = "basic:";
+                }
 
-                        gf.setExtendedAttributes(allAttributes);
+                if (ObjectHelper.isNotEmpty(prefix)) {
+                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
+                    if (attributes != null) {
+                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
+                        }
                     }
+                } else if (!attribute.contains(":")) {
+                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
+                } else {
+                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
+                }
+            }
+        }
+        return allAttributes;
+    }
 
-                    fileList.add(gf);
+    /**
+     * Processes the events of the watched directories, and decides whether the directory should be fully scanned.
+     *
+     * @param fileName the starting directory
+     * @return <tt>true</tt> to scan the directory fully, <tt>false</tt> to only poll the files we have been notified about
+     */
+    private boolean prepareWatchedPoll(String fileName) {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            Path dir = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    log.debug("Events have been lost while watching directory: {}, will scan the directory", dir);
+                    reconcile = true;
+                } else if (dir != null) {
+                    File file = dir.resolve((Path) event.context()).toFile();
+                    if (file.isDirectory()) {
+                        // a new directory may already contain files before we watch it, so we must scan it
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && endpoint.isRecursive() && !file.getName().startsWith(".")) {
+                            reconcile = true;
+                        }
+                    } else {
+                        pendingFiles.add(file);
+                    }
                 }
+            }
+            if (!key.reset()) {
+                // the directory is no longer accessible
+                watchedDirectories.remove(key);
+                reconcile = true;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (!reconcile && now < nextReconcileTime) {
+            return false;
+        }
 
+        File directory = new File(fileName);
+        if (!directory.isDirectory()) {
+            // let the regular poll deal with the missing directory
+            return true;
+        }
+        log.debug("Scanning directory: {} and watching its directories for new files", directory);
+        try {
+            watchDirectory(directory.getAbsoluteFile().toPath(), 0);
+        } catch (IOException e) {
+            throw new GenericFileOperationFailedException("Cannot watch directory: " + directory, e);
+        }
+        // the full scan will pick up all the pending files
+        pendingFiles.clear();
+        reconcile = false;
+        nextReconcileTime = now + getEndpoint().getWatchReconcileInterval();
+        return true;
+    }
+
+    private void watchDirectory(Path dir, int depth) throws IOException {
+        if (!watchedDirectories.containsValue(dir)) {
+            WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirectories.put(key, dir);
+        }
+        if (endpoint.isRecursive() && depth + 1 < endpoint.getMaxDepth()) {
+            File[] dirFiles = dir.toFile().listFiles();
+            if (dirFiles != null) {
+                for (File file : dirFiles) {
+                    // directories starting with a dot are never polled
+                    if (file.isDirectory() && !file.getName().startsWith(".")) {
+                        watchDirectory(file.toPath(), depth + 1);
+                    }
+                }
             }
         }
+    }
+
+    /**
+     * Polls the files we have been notified about. The files are kept as pending until they no longer exist,
+     * or are no longer valid to consume, as they may be rolled back or left behind due to maxMessagesPerPoll.
+     */
+    private boolean pollWatchedFiles(String fileName, List<GenericFile<File>> fileList) {
+        Path root = new File(fileName).getAbsoluteFile().toPath();
+        for (Iterator<File> it = pendingFiles.iterator(); it.hasNext();) {
+            // check if we can continue polling in files
+            if (!canPollMoreFiles(fileList)) {
+                return false;
+            }
+
+            File file = it.next();
+            if (!file.isFile()) {
+                // the file has been consumed or deleted
+                it.remove();
+                continue;
+            }
+            int depth = root.relativize(file.toPath()).getNameCount();
+            if (depth < endpoint.getMinDepth() || depth > endpoint.getMaxDepth()) {
+                it.remove();
+                continue;
+            }
+            if (endpoint.getInProgressRepository().contains(file.getAbsolutePath())) {
+                // its being processed, so check the file again on the next poll
+                continue;
+            }
 
+            // use the same path as the file would have when listing the directory
+            String path = fileName + File.separator + root.relativize(file.toPath()).toString();
+            GenericFile<File> gf = asGenericFile(endpointPath, new File(path), getEndpoint().getCharset(), getEndpoint().isProbeContentType());
+            if (isValidFile(gf, false, null)) {
+                log.trace("Adding valid file: {}", file);
+                if (extendedAttributes != null) {
+                    gf.setExtendedAttributes(readExtendedAttributes(file));
+                }
+                fileList.add(gf);
+            } else if (endpoint.getDoneFileName() == null) {
+                // the file is not valid, so forget about it until its modified again, or found by the next full scan,
+                // but keep it when using done files as it becomes valid when the done file is written
+                it.remove();
+            }
+        }
         return true;
     }
 
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (getEndpoint().isWatch()) {
+            watchService = FileSystems.getDefault().newWatchService();
+            reconcile = true;
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (watchService != null) {
+            IOHelper.close(watchService, "watchService", log);
+            watchService = null;
+        }
+        watchedDirectories.clear();
+        pendingFiles.clear();
+    }
+
     @Override
     protected boolean isMatched(GenericFile<File> file, String doneFileName, List<File> files) {
+        if (files == null) {
+            // the files in the directory are not known when polling the watched files
+            return new File(doneFileName).exists();
+        }
         String onlyName = FileUtil.stripPath(doneFileName);
         // the done file name must be among the files
         for (File f : files) {
@@ -59,6 +59,10 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
     private boolean probeContentType;
     @UriParam(label = "consumer,advanced")
     private String extendedAttributes;
+    @UriParam(label = "consumer,advanced")
+    private boolean watch;
+    @UriParam(label = "consumer,advanced", defaultValue = "60000")
+    private long watchReconcileInterval = 60000;
     @UriParam(label = "producer,advanced")
     private String chmod;
     @UriParam(label = "producer,advanced")
@@ -251,6 +255,34 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
         this.extendedAttributes = extendedAttributes;
     }
 
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Whether the consumer should use a {@link java.nio.file.WatchService} to be notified of new and modified files,
+     * instead of listing the directory on every poll. The consumer keeps track of the files which have been notified,
+     * so the cost of a poll depends on the number of new files, and not on the number of files in the directory.
+     * The directory is still scanned fully on the first poll, when notifications have been lost by the file system,
+     * and periodically as configured by the option watchReconcileInterval.
+     */
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public long getWatchReconcileInterval() {
+        return watchReconcileInterval;
+    }
+
+    /**
+     * The interval in millis between full scans of the directory, when the option watch is enabled.
+     * The full scans picks up any files which the consumer has not been notified about,
+     * such as files which were skipped by the consumer and are now to be consumed.
+     */
+    public void setWatchReconcileInterval(long watchReconcileInterval) {
+        this.watchReconcileInterval = watchReconcileInterval;
+    }
+
     /**
      * Chmod value must be between 000 and 777; If there is a leading digit like in 0755 we will ignore it.
      */
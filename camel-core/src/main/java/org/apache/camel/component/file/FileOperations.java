@@ -38,6 +38,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.InvalidPayloadException;
 import org.apache.camel.WrappedFile;
 import org.apache.camel.converter.IOConverter;
+import org.apache.camel.spi.BufferPool;
 import org.apache.camel.util.FileUtil;
 import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
@@ -443,16 +444,20 @@ public class FileOperations implements GenericFileOperations<File> {
         try {
             out = prepareOutputFileChannel(target);
             LOG.debug("Using InputStream to write file: {}", target);
-            int size = endpoint.getBufferSize();
-            byte[] buffer = new byte[size];
-            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
-            int bytesRead;
-            while ((bytesRead = in.read(buffer)) != -1) {
-                if (bytesRead < size) {
+            BufferPool pool = endpoint.getCamelContext().getBufferPool();
+            byte[] buffer = pool.acquire(endpoint.getBufferSize());
+            try {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+                int bytesRead;
+                while ((bytesRead = in.read(buffer)) != -1) {
                     byteBuffer.limit(bytesRead);
+                    while (byteBuffer.hasRemaining()) {
+                        out.write(byteBuffer);
+                    }
+                    byteBuffer.clear();
                 }
-                out.write(byteBuffer);
-                byteBuffer.clear();
+            } finally {
+                pool.release(buffer);
             }
         } finally {
             IOHelper.close(in, target.getName(), LOG);
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue;
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue.WaitStrategy;
+
+/**
+ * Implementation of {@link BlockingQueueFactory} producing {@link org.apache.camel.util.concurrent.RingBufferBlockingQueue}
+ * <p/>
+ * The ring buffer is pre-allocated with the capacity of the queue, so the queue must be bounded.
+ */
+public class RingBufferBlockingQueueFactory<E> implements BlockingQueueFactory<E> {
+    /**
+     * Capacity used when none provided
+     */
+    private int defaultCapacity = 1024;
+    /**
+     * Whether only a single thread takes from the queue
+     */
+    private boolean singleConsumer;
+    /**
+     * How threads wait for the queue
+     */
+    private WaitStrategy waitStrategy = WaitStrategy.PARK;
+
+    /**
+     * @return Default ring buffer capacity
+     */
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * @param defaultCapacity Default ring buffer capacity
+     */
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    /**
+     * @return Whether only a single thread takes from the queue
+     */
+    public boolean isSingleConsumer() {
+        return singleConsumer;
+    }
+
+    /**
+     * @param singleConsumer Whether only a single thread takes from the queue, which must only be enabled
+     *                       when the queue has a single consumer using one concurrent consumer
+     */
+    public void setSingleConsumer(boolean singleConsumer) {
+        this.singleConsumer = singleConsumer;
+    }
+
+    /**
+     * @return How threads wait for the queue
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * @param waitStrategy How threads wait for the queue to become non empty or non full
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public RingBufferBlockingQueue<E> create() {
+        return create(defaultCapacity);
+    }
+
+    @Override
+    public RingBufferBlockingQueue<E> create(int capacity) {
+        return new RingBufferBlockingQueue<E>(capacity, singleConsumer, waitStrategy);
+    }
+}
@@ -16,7 +16,10 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -25,7 +28,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
-import org.apache.camel.Consumer;
+import org.apache.camel.BatchConsumer;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
@@ -49,10 +52,14 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * In this implementation there is a little <i>slack period</i> when you suspend/stop the consumer, by which
  * the consumer may pickup a newly arrived messages and process it. That period is up till 1 second.
+ * <p/>
+ * When the endpoint is configured with <tt>maxMessagesPerPoll</tt> greater than 1, the consumer drains up to
+ * that number of exchanges from the queue per wake up, and processes them as a batch, where each exchange
+ * holds the batch index, size and completion as properties, as other {@link BatchConsumer}s do.
  *
  * @version 
  */
-public class SedaConsumer extends ServiceSupport implements Consumer, Runnable, ShutdownAware, Suspendable {
+public class SedaConsumer extends ServiceSupport implements BatchConsumer, Runnable, ShutdownAware, Suspendable {
     private static final Logger LOG = LoggerFactory.getLogger(SedaConsumer.class);
 
     private final AtomicInteger taskCount = new AtomicInteger();
@@ -64,11 +71,15 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private ExecutorService executor;
     private ExceptionHandler exceptionHandler;
     private final int pollTimeout;
+    private final long batchLinger;
+    private int maxMessagesPerPoll;
 
     public SedaConsumer(SedaEndpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
         this.processor = AsyncProcessorConverterHelper.convert(processor);
         this.pollTimeout = endpoint.getPollTimeout();
+        this.maxMessagesPerPoll = endpoint.getMaxMessagesPerPoll();
+        this.batchLinger = endpoint.getBatchLinger();
         this.exceptionHandler = new LoggingExceptionHandler(endpoint.getCamelContext(), getClass());
     }
 
@@ -93,6 +104,19 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         return processor;
     }
 
+    public void setMaxMessagesPerPoll(int maxMessagesPerPoll) {
+        this.maxMessagesPerPoll = maxMessagesPerPoll;
+    }
+
+    public int getMaxMessagesPerPoll() {
+        return maxMessagesPerPoll;
+    }
+
+    public boolean isBatchAllowed() {
+        // the exchanges of the batch have been taken from the queue, so we complete them unless forced to shutdown
+        return !forceShutdown;
+    }
+
     public boolean deferShutdown(ShutdownRunningTask shutdownRunningTask) {
         // deny stopping on shutdown as we want seda consumers to run in case some other queues
         // depend on this consumer to run, so it can complete its exchanges
@@ -200,24 +224,13 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                     LOG.trace("Polled queue {} with timeout {} ms. -> {}", new Object[]{ObjectHelper.getIdentityHashCode(queue), pollTimeout, exchange});
                 }
                 if (exchange != null) {
-                    try {
-                        // send a new copied exchange with new camel context
-                        Exchange newExchange = prepareExchange(exchange);
-                        // process the exchange
-                        sendToConsumers(newExchange);
-                        // copy the message back
-                        if (newExchange.hasOut()) {
-                            exchange.setOut(newExchange.getOut().copy());
-                        } else {
-                            exchange.setIn(newExchange.getIn());
-                        }
-                        // log exception if an exception occurred and was not handled
-                        if (newExchange.getException() != null) {
-                            exchange.setException(newExchange.getException());
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
-                        }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
+                    if (maxMessagesPerPoll > 1) {
+                        Queue<Object> batch = drainBatch(queue, exchange);
+                        // the exchange is part of the batch which handles its errors
+                        exchange = null;
+                        processBatch(batch);
+                    } else {
+                        processExchange(exchange, -1, 0);
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     LOG.trace("Shutdown is pending, so this consumer thread is breaking out because the task queue is empty.");
@@ -240,6 +253,91 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         LOG.debug("Ending this polling consumer thread, there are still {} consumer threads left.", latch.getCount());
     }
 
+    /**
+     * Drains up to maxMessagesPerPoll exchanges from the queue, waiting at most batchLinger millis
+     * for more exchanges to arrive if the queue holds fewer exchanges.
+     */
+    private Queue<Object> drainBatch(BlockingQueue<Exchange> queue, Exchange first) {
+        List<Exchange> drained = new ArrayList<>(Math.min(maxMessagesPerPoll, 1024));
+        drained.add(first);
+        queue.drainTo(drained, maxMessagesPerPoll - 1);
+        if (drained.size() < maxMessagesPerPoll && batchLinger > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchLinger);
+            while (drained.size() < maxMessagesPerPoll) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                Exchange exchange;
+                try {
+                    exchange = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // do not lose the exchanges we have already drained
+                    LOG.debug("Linger interrupted, are we stopping? {}", isStopping() || isStopped());
+                    break;
+                }
+                if (exchange == null) {
+                    break;
+                }
+                drained.add(exchange);
+                queue.drainTo(drained, maxMessagesPerPoll - drained.size());
+            }
+        }
+        LOG.trace("Drained {} exchanges from queue {}", drained.size(), ObjectHelper.getIdentityHashCode(queue));
+        return new ArrayDeque<Object>(drained);
+    }
+
+    public int processBatch(Queue<Object> exchanges) throws Exception {
+        int total = exchanges.size();
+        int answer = 0;
+
+        for (int index = 0; index < total; index++) {
+            Exchange exchange = (Exchange) exchanges.poll();
+            if (!isBatchAllowed()) {
+                // we are forced to shutdown, so put the exchanges back on the queue
+                if (!endpoint.getQueue().offer(exchange)) {
+                    getExceptionHandler().handleException("Cannot put exchange back on the queue as its full when shutting down", exchange, null);
+                }
+                continue;
+            }
+            try {
+                processExchange(exchange, index, total);
+            } catch (Throwable e) {
+                getExceptionHandler().handleException("Error processing exchange", exchange, e);
+            }
+            answer++;
+        }
+        return answer;
+    }
+
+    private void processExchange(Exchange exchange, int index, int total) {
+        try {
+            // send a new copied exchange with new camel context
+            Exchange newExchange = prepareExchange(exchange);
+            if (index >= 0) {
+                // add current index and total as properties
+                newExchange.setProperty(Exchange.BATCH_INDEX, index);
+                newExchange.setProperty(Exchange.BATCH_SIZE, total);
+                newExchange.setProperty(Exchange.BATCH_COMPLETE, index == total - 1);
+            }
+            // process the exchange
+            sendToConsumers(newExchange);
+            // copy the message back
+            if (newExchange.hasOut()) {
+                exchange.setOut(newExchange.getOut().copy());
+            } else {
+                exchange.setIn(newExchange.getIn());
+            }
+            // log exception if an exception occurred and was not handled
+            if (newExchange.getException() != null) {
+                exchange.setException(newExchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
+        }
+    }
+
     /**
      * Strategy to prepare exchange for being processed by this consumer
      *
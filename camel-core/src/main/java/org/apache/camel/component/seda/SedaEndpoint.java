@@ -45,6 +45,7 @@ import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriPath;
 import org.apache.camel.util.ServiceHelper;
 import org.apache.camel.util.URISupport;
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,6 +79,10 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
     private boolean purgeWhenStopping;
     @UriParam(label = "consumer,advanced", defaultValue = "1000")
     private int pollTimeout = 1000;
+    @UriParam(label = "consumer,advanced")
+    private int maxMessagesPerPoll;
+    @UriParam(label = "consumer,advanced")
+    private long batchLinger;
 
     @UriParam(label = "producer", defaultValue = "IfReplyExpected")
     private WaitForTaskToComplete waitForTaskToComplete = WaitForTaskToComplete.IfReplyExpected;
@@ -141,6 +146,14 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
             }
         }
 
+        BlockingQueue<Exchange> target = getQueue();
+        if (target instanceof RingBufferBlockingQueue && ((RingBufferBlockingQueue<Exchange>) target).isSingleConsumer()
+                && (getConcurrentConsumers() > 1 || isMultipleConsumers())) {
+            // the queue only supports a single thread taking from it
+            throw new IllegalArgumentException("Cannot use single consumer queue " + target + " with concurrentConsumers "
+                    + getConcurrentConsumers() + " and multipleConsumers " + isMultipleConsumers());
+        }
+
         Consumer answer = createNewConsumer(processor);
         configureConsumer(answer);
         return answer;
@@ -389,6 +402,34 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
         this.pollTimeout = pollTimeout;
     }
 
+    @ManagedAttribute
+    public int getMaxMessagesPerPoll() {
+        return maxMessagesPerPoll;
+    }
+
+    /**
+     * The maximum number of messages the consumer takes from the queue at once, and processes as a batch.
+     * The messages of a batch are processed one by one by the same consumer thread, and hold the batch index,
+     * size and completion as exchange properties, which allows aggregating the batch using completionFromBatchConsumer.
+     * By default the consumer takes one message at a time.
+     */
+    public void setMaxMessagesPerPoll(int maxMessagesPerPoll) {
+        this.maxMessagesPerPoll = maxMessagesPerPoll;
+    }
+
+    @ManagedAttribute
+    public long getBatchLinger() {
+        return batchLinger;
+    }
+
+    /**
+     * The maximum time in millis the consumer waits for more messages to arrive, when the queue holds fewer
+     * messages than maxMessagesPerPoll. By default the consumer processes the messages which are on the queue without waiting.
+     */
+    public void setBatchLinger(long batchLinger) {
+        this.batchLinger = batchLinger;
+    }
+
     @ManagedAttribute
     public boolean isPurgeWhenStopping() {
         return purgeWhenStopping;
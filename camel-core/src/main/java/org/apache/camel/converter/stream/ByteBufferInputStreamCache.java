@@ -0,0 +1,402 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamCache} for {@link ByteBuffer}s, such as the direct buffers and memory mapped files
+ * used when spooling to off heap memory.
+ * <p/>
+ * The stream reads from views of the buffers, so the data is not copied, and each copy of the stream cache
+ * reads from its own views of the same buffers.
+ */
+public final class ByteBufferInputStreamCache extends InputStream implements StreamCache {
+    private final ByteBuffer[] buffers;
+    private final long length;
+    private final OffHeapSpoolManager spoolManager;
+    private int current;
+
+    public ByteBufferInputStreamCache(ByteBuffer... buffers) {
+        this(null, buffers);
+    }
+
+    private ByteBufferInputStreamCache(OffHeapSpoolManager spoolManager, ByteBuffer[] buffers) {
+        this.spoolManager = spoolManager;
+        this.buffers = new ByteBuffer[buffers.length];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            // use our own view so the position of the given buffers is left untouched
+            this.buffers[i] = buffers[i].slice();
+            total += this.buffers[i].remaining();
+        }
+        this.length = total;
+    }
+
+    @Override
+    public void reset() {
+        for (ByteBuffer buffer : buffers) {
+            buffer.rewind();
+        }
+        current = 0;
+    }
+
+    @Override
+    public void close() {
+        // the buffers are released when the exchanges are done
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        checkNotReleased();
+        if (os instanceof WritableByteChannel) {
+            WritableByteChannel out = (WritableByteChannel) os;
+            for (; current < buffers.length; current++) {
+                while (buffers[current].hasRemaining()) {
+                    out.write(buffers[current]);
+                }
+            }
+        } else {
+            byte[] data = new byte[IOHelper.DEFAULT_BUFFER_SIZE];
+            int n;
+            while ((n = read(data, 0, data.length)) != -1) {
+                os.write(data, 0, n);
+            }
+        }
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        if (spoolManager != null) {
+            spoolManager.addExchange(exchange);
+        }
+        return new ByteBufferInputStreamCache(spoolManager, rewound());
+    }
+
+    public boolean inMemory() {
+        // the data has been spooled out of the heap
+        return false;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        long remaining = 0;
+        for (int i = current; i < buffers.length; i++) {
+            remaining += buffers[i].remaining();
+        }
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkNotReleased();
+        for (; current < buffers.length; current++) {
+            if (buffers[current].hasRemaining()) {
+                return buffers[current].get() & 0xff;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkNotReleased();
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        for (; current < buffers.length && n < len; current++) {
+            ByteBuffer buffer = buffers[current];
+            int chunk = Math.min(len - n, buffer.remaining());
+            buffer.get(b, off + n, chunk);
+            n += chunk;
+            if (buffer.hasRemaining()) {
+                break;
+            }
+        }
+        return n > 0 ? n : -1;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        for (; current < buffers.length && skipped < n; current++) {
+            ByteBuffer buffer = buffers[current];
+            int chunk = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + chunk);
+            skipped += chunk;
+            if (buffer.hasRemaining()) {
+                break;
+            }
+        }
+        return skipped;
+    }
+
+    private ByteBuffer[] rewound() {
+        ByteBuffer[] answer = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            answer[i] = buffers[i].duplicate();
+            answer[i].rewind();
+        }
+        return answer;
+    }
+
+    private void checkNotReleased() throws IOException {
+        // the direct buffers may already be reused by other stream caches
+        if (spoolManager != null && spoolManager.isReleased()) {
+            throw new IOException("Cannot read from stream cache as the spooled data has been released");
+        }
+    }
+
+    /**
+     * Manages the off heap memory of the spooled data for the byte buffer stream caches.
+     * <p/>
+     * The data is written to pooled direct buffers until the spool off heap threshold is exceeded, and then to a temporary
+     * file which is memory mapped for reading. Counts the number of exchanges which have a stream cache of the spooled data,
+     * and releases the direct buffers and deletes the temporary file, if all exchanges are done.
+     *
+     * @see CachedOutputStream
+     */
+    static class OffHeapSpoolManager {
+
+        private static final Logger LOG = LoggerFactory.getLogger(OffHeapSpoolManager.class);
+        private final boolean closedOnCompletion;
+        private final DirectBufferPool pool;
+        private final AtomicInteger exchangeCounter = new AtomicInteger();
+        // the direct buffers holding the data until moved to the file
+        private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+        private long threshold;
+        private long length;
+        private File tempFile;
+        private FileChannel channel;
+        // the data written to the file which is not yet flushed
+        private ByteBuffer fileBuffer;
+        private ByteBuffer[] mapped;
+        private long mappedLength;
+        private volatile boolean released;
+
+        OffHeapSpoolManager(boolean closedOnCompletion) {
+            this(closedOnCompletion, DirectBufferPool.SHARED);
+        }
+
+        OffHeapSpoolManager(boolean closedOnCompletion, DirectBufferPool pool) {
+            this.closedOnCompletion = closedOnCompletion;
+            this.pool = pool;
+        }
+
+        void addExchange(Exchange exchange) {
+            if (closedOnCompletion) {
+                exchangeCounter.incrementAndGet();
+                Synchronization onCompletion = new SynchronizationAdapter() {
+                    @Override
+                    public void onDone(Exchange exchange) {
+                        if (exchangeCounter.decrementAndGet() == 0) {
+                            release();
+                        }
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "OnCompletion[CachedOutputStream]";
+                    }
+                };
+                UnitOfWork streamCacheUnitOfWork = exchange.getProperty(Exchange.STREAM_CACHE_UNIT_OF_WORK, UnitOfWork.class);
+                if (streamCacheUnitOfWork != null) {
+                    // the stream cache of sub routes must be released with the unit of work of the main route
+                    streamCacheUnitOfWork.addSynchronization(onCompletion);
+                } else {
+                    exchange.addOnCompletion(onCompletion);
+                }
+            }
+        }
+
+        OutputStream createOutputStream(StreamCachingStrategy strategy) throws IOException {
+            // should only be called once
+            if (threshold > 0) {
+                throw new IllegalStateException("The method 'createOutputStream' can only be called once!");
+            }
+            threshold = Math.max(strategy.getSpoolOffHeapThreshold(), pool.getChunkSize());
+            final File spoolDirectory = strategy.getSpoolDirectory();
+
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    writeBuffer(spoolDirectory).put((byte) b);
+                    length++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    while (len > 0) {
+                        ByteBuffer buffer = writeBuffer(spoolDirectory);
+                        int n = Math.min(len, buffer.remaining());
+                        buffer.put(b, off, n);
+                        off += n;
+                        len -= n;
+                        length += n;
+                    }
+                }
+            };
+        }
+
+        /**
+         * Gets the buffer to write to, which has room for at least one more byte.
+         */
+        private synchronized ByteBuffer writeBuffer(File spoolDirectory) throws IOException {
+            if (released) {
+                throw new IOException("Cannot write to stream cache as the spooled data has been released");
+            }
+            if (channel != null) {
+                if (!fileBuffer.hasRemaining()) {
+                    flushFileBuffer();
+                }
+                return fileBuffer;
+            }
+            ByteBuffer last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (last != null && last.hasRemaining()) {
+                return last;
+            }
+            if (length + pool.getChunkSize() > threshold) {
+                moveToFile(spoolDirectory);
+                return fileBuffer;
+            }
+            ByteBuffer chunk = pool.acquire();
+            chunks.add(chunk);
+            return chunk;
+        }
+
+        private void moveToFile(File spoolDirectory) throws IOException {
+            tempFile = FileUtil.createTempFile("cos", ".tmp", spoolDirectory);
+            LOG.trace("Moving {} bytes of off heap stream cache to temporary file: {}", length, tempFile);
+            RandomAccessFile file = new RandomAccessFile(tempFile, "rw");
+            channel = file.getChannel();
+            for (ByteBuffer chunk : chunks) {
+                chunk.flip();
+                writeFully(chunk);
+            }
+            // keep one of the buffers for writing to the file, and release the others
+            fileBuffer = chunks.remove(chunks.size() - 1);
+            fileBuffer.clear();
+            releaseChunks();
+        }
+
+        private void flushFileBuffer() throws IOException {
+            fileBuffer.flip();
+            writeFully(fileBuffer);
+            fileBuffer.clear();
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        synchronized ByteBufferInputStreamCache newStreamCache() throws IOException {
+            if (released) {
+                throw new IOException("Cannot create stream cache as the spooled data has been released");
+            }
+            if (channel == null) {
+                ByteBuffer[] views = new ByteBuffer[chunks.size()];
+                for (int i = 0; i < views.length; i++) {
+                    views[i] = chunks.get(i).asReadOnlyBuffer();
+                    views[i].flip();
+                }
+                return new ByteBufferInputStreamCache(this, views);
+            }
+
+            if (fileBuffer.position() > 0) {
+                flushFileBuffer();
+            }
+            if (mapped == null || mappedLength != length) {
+                // map the file in regions as a mapped buffer cannot exceed 2gb
+                List<ByteBuffer> regions = new ArrayList<ByteBuffer>();
+                for (long pos = 0; pos < length; pos += Integer.MAX_VALUE) {
+                    regions.add(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(Integer.MAX_VALUE, length - pos)));
+                }
+                mapped = regions.toArray(new ByteBuffer[regions.size()]);
+                mappedLength = length;
+            }
+            return new ByteBufferInputStreamCache(this, mapped);
+        }
+
+        boolean isReleased() {
+            return released;
+        }
+
+        /**
+         * Releases the direct buffers back to the pool and deletes the temporary file.
+         */
+        synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            releaseChunks();
+            if (fileBuffer != null) {
+                pool.release(fileBuffer);
+                fileBuffer = null;
+            }
+            // the mapped buffers are unmapped when garbage collected
+            mapped = null;
+            IOHelper.close(channel, "spool file", LOG);
+            channel = null;
+            if (tempFile != null) {
+                try {
+                    FileUtil.deleteFile(tempFile);
+                } catch (Exception e) {
+                    LOG.warn("Error deleting temporary cache file: " + tempFile + ". This exception will be ignored.", e);
+                }
+                tempFile = null;
+            }
+        }
+
+        private void releaseChunks() {
+            for (ByteBuffer chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+        }
+
+        File getTempFile() {
+            return tempFile;
+        }
+    }
+}
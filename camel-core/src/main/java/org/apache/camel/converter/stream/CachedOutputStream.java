@@ -23,8 +23,10 @@ import java.io.OutputStream;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.ByteBufferInputStreamCache.OffHeapSpoolManager;
 import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
 import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.util.ObjectHelper;
 
 /**
  * This output stream will store the content into a File if the stream context size is exceed the
@@ -34,6 +36,9 @@ import org.apache.camel.spi.StreamCachingStrategy;
  * If you don't set the TEMP_DIR property, it will choose the directory which is set by the
  * system property of "java.io.tmpdir".
  * <p/>
+ * If the stream caching strategy spools to off heap memory, the content is stored in pooled direct buffers,
+ * and in a memory mapped temp file if the content exceeds the spool off heap threshold.
+ * <p/>
  * You can get a cached input stream of this stream. The temp file which is created with this 
  * output stream will be deleted when you close this output stream or the cached 
  * fileInputStream(s) is/are closed after all the exchanges using the temp file are completed.
@@ -53,6 +58,7 @@ public class CachedOutputStream extends OutputStream {
     private boolean inMemory = true;
     private int totalLength;
     private final TempFileManager tempFileManager;
+    private final OffHeapSpoolManager offHeapSpoolManager;
     private final boolean closedOnCompletion;
 
     public CachedOutputStream(Exchange exchange) {
@@ -61,9 +67,17 @@ public class CachedOutputStream extends OutputStream {
 
     public CachedOutputStream(Exchange exchange, final boolean closedOnCompletion) {
         this.closedOnCompletion = closedOnCompletion;
-        tempFileManager = new TempFileManager(closedOnCompletion);
-        tempFileManager.addExchange(exchange);
         this.strategy = exchange.getContext().getStreamCachingStrategy();
+        // spooling with a chiper requires a temp file
+        if (strategy.isSpoolOffHeap() && ObjectHelper.isEmpty(strategy.getSpoolChiper())) {
+            tempFileManager = null;
+            offHeapSpoolManager = new OffHeapSpoolManager(closedOnCompletion);
+            offHeapSpoolManager.addExchange(exchange);
+        } else {
+            tempFileManager = new TempFileManager(closedOnCompletion);
+            tempFileManager.addExchange(exchange);
+            offHeapSpoolManager = null;
+        }
         currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
     }
 
@@ -75,8 +89,12 @@ public class CachedOutputStream extends OutputStream {
         currentStream.close();
         // need to clean up the temp file this time
         if (!closedOnCompletion) {
-            tempFileManager.closeFileInputStreams();
-            tempFileManager.cleanUpTempFile();
+            if (offHeapSpoolManager != null) {
+                offHeapSpoolManager.release();
+            } else {
+                tempFileManager.closeFileInputStreams();
+                tempFileManager.cleanUpTempFile();
+            }
         }
     }
 
@@ -149,6 +167,8 @@ public class CachedOutputStream extends OutputStream {
             } else {
                 throw new IllegalStateException("CurrentStream should be an instance of CachedByteArrayOutputStream but is: " + currentStream.getClass().getName());
             }
+        } else if (offHeapSpoolManager != null) {
+            return offHeapSpoolManager.newStreamCache();
         } else {
             return tempFileManager.newStreamCache();
         }
@@ -159,8 +179,13 @@ public class CachedOutputStream extends OutputStream {
         flush();
         ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
         try {
-            // creates an tmp file and a file output stream
-            currentStream = tempFileManager.createOutputStream(strategy);
+            if (offHeapSpoolManager != null) {
+                // spools to direct buffers and a memory mapped tmp file
+                currentStream = offHeapSpoolManager.createOutputStream(strategy);
+            } else {
+                // creates an tmp file and a file output stream
+                currentStream = tempFileManager.createOutputStream(strategy);
+            }
             bout.writeTo(currentStream);
         } finally {
             // ensure flag is flipped to file based
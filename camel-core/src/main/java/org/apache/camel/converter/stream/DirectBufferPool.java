@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct {@link ByteBuffer}s of the same size, used for spooling stream caches to off heap memory.
+ * <p/>
+ * Allocating direct buffers is expensive, and the memory is only given back when the buffers are garbage collected,
+ * so the buffers are reused instead. The pool keeps up to a maximum number of free buffers, and any buffers released
+ * when the pool is full are left for the garbage collector.
+ */
+final class DirectBufferPool {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+    // keep up to 32mb of free direct buffers
+    static final DirectBufferPool SHARED = new DirectBufferPool(CHUNK_SIZE, 512);
+
+    private final int chunkSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    DirectBufferPool(int chunkSize, int maxPooled) {
+        this.chunkSize = chunkSize;
+        this.maxPooled = maxPooled;
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    int getPooled() {
+        return pooled.get();
+    }
+
+    /**
+     * Acquires a cleared buffer from the pool, or allocates a new buffer if the pool is empty.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(chunkSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Releases the buffer back to the pool. The buffer must no longer be used by the caller.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() != chunkSize || !buffer.isDirect()) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            pool.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
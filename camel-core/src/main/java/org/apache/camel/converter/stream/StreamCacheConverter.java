@@ -80,7 +80,7 @@ public final class StreamCacheConverter {
         // transfer the input stream to a cached output stream, and then creates a new stream cache view
         // of the data, which ensures the input stream is cached and re-readable.
         CachedOutputStream cos = new CachedOutputStream(exchange);
-        IOHelper.copyAndCloseInput(stream, cos);
+        IOHelper.copyAndCloseInput(stream, cos, cos.getStrategyBufferSize(), exchange.getContext().getBufferPool());
         return cos.newStreamCache();
     }
 
@@ -37,7 +37,7 @@ public final class StreamSourceCache extends StreamSource implements StreamCache
         if (source.getInputStream() != null) {
             // set up CachedOutputStream with the properties
             CachedOutputStream cos = new CachedOutputStream(exchange);
-            IOHelper.copyAndCloseInput(source.getInputStream(), cos);
+            IOHelper.copyAndCloseInput(source.getInputStream(), cos, cos.getStrategyBufferSize(), exchange.getContext().getBufferPool());
             streamCache = cos.newStreamCache();
             readCache = null;
             setSystemId(source.getSystemId());
@@ -0,0 +1,371 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.util.CamelObjectInputStream;
+
+/**
+ * {@link ExchangeCodec} which uses a compact binary format.
+ * <p/>
+ * The values of the common types such as String, byte[], primitives and their counter Objects, {@link Date},
+ * {@link BigDecimal}, {@link BigInteger}, and {@link HashMap}, {@link LinkedHashMap} and {@link ArrayList}
+ * with values of these types, are written as a type tag followed by the value, which avoids the class descriptors
+ * and object graph bookkeeping of Java serialization. Any other value (such as an exception) falls back to be
+ * Java serialized on its own.
+ * <p/>
+ * This codec can also decode a holder which was encoded using the {@link SerializationExchangeCodec},
+ * which allows to switch to this codec for a persistent store with existing exchanges.
+ */
+public class BinaryExchangeCodec implements ExchangeCodec {
+
+    private static final int MAGIC = 0xCB;
+    private static final int VERSION = 1;
+    // the first byte of a Java serialization stream
+    private static final int SERIALIZATION_MAGIC = 0xAC;
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int BYTES = 2;
+    private static final int INTEGER = 3;
+    private static final int LONG = 4;
+    private static final int TRUE = 5;
+    private static final int FALSE = 6;
+    private static final int DOUBLE = 7;
+    private static final int FLOAT = 8;
+    private static final int SHORT = 9;
+    private static final int BYTE = 10;
+    private static final int CHARACTER = 11;
+    private static final int DATE = 12;
+    private static final int BIG_DECIMAL = 13;
+    private static final int BIG_INTEGER = 14;
+    private static final int HASH_MAP = 15;
+    private static final int LINKED_HASH_MAP = 16;
+    private static final int ARRAY_LIST = 17;
+    private static final int SERIALIZED = 18;
+
+    private static final int FLAG_IN_FAULT = 1;
+    private static final int FLAG_OUT_FAULT = 2;
+
+    @Override
+    public void encode(DefaultExchangeHolder holder, OutputStream out) throws IOException {
+        DataOutputStream dout = new DataOutputStream(out);
+        dout.writeByte(MAGIC);
+        dout.writeByte(VERSION);
+
+        int flags = 0;
+        if (Boolean.TRUE.equals(holder.getInFaultFlag())) {
+            flags |= FLAG_IN_FAULT;
+        }
+        if (Boolean.TRUE.equals(holder.getOutFaultFlag())) {
+            flags |= FLAG_OUT_FAULT;
+        }
+        dout.writeByte(flags);
+
+        writeValue(dout, holder.getExchangeId());
+        writeValue(dout, holder.getInBody());
+        writeValue(dout, holder.getOutBody());
+        writeMap(dout, holder.getInHeaders());
+        writeMap(dout, holder.getOutHeaders());
+        writeMap(dout, holder.getProperties());
+        writeValue(dout, holder.getException());
+        dout.flush();
+    }
+
+    @Override
+    public DefaultExchangeHolder decode(CamelContext camelContext, InputStream in) throws IOException, ClassNotFoundException {
+        PushbackInputStream pin = new PushbackInputStream(in, 1);
+        int magic = pin.read();
+        if (magic == SERIALIZATION_MAGIC) {
+            // encoded using Java serialization
+            pin.unread(magic);
+            ObjectInputStream objectIn = new CamelObjectInputStream(pin, camelContext);
+            return (DefaultExchangeHolder) objectIn.readObject();
+        } else if (magic != MAGIC) {
+            throw new StreamCorruptedException("Invalid magic byte " + magic + " of binary encoded exchange");
+        }
+
+        DataInputStream din = new DataInputStream(pin);
+        int version = din.readUnsignedByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported version " + version + " of binary encoded exchange");
+        }
+        int flags = din.readUnsignedByte();
+
+        DefaultExchangeHolder holder = new DefaultExchangeHolder();
+        holder.setInFaultFlag((flags & FLAG_IN_FAULT) != 0);
+        holder.setOutFaultFlag((flags & FLAG_OUT_FAULT) != 0);
+        holder.setExchangeId((String) readValue(camelContext, din));
+        holder.setInBody(readValue(camelContext, din));
+        holder.setOutBody(readValue(camelContext, din));
+        holder.setInHeaders(readMap(camelContext, din));
+        holder.setOutHeaders(readMap(camelContext, din));
+        holder.setProperties(readMap(camelContext, din));
+        holder.setException((Exception) readValue(camelContext, din));
+        return holder;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        if (map == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(LINKED_HASH_MAP);
+            writeEntries(out, map);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readMap(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        return (Map<String, Object>) readValue(camelContext, in);
+    }
+
+    private static void writeEntries(DataOutputStream out, Map<?, ?> map) throws IOException {
+        writeVarInt(out, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+
+        // only the exact types so the decoded value is of the same type
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (type == byte[].class) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        } else if (type == Integer.class) {
+            out.writeByte(INTEGER);
+            writeVarLong(out, zigZag((Integer) value));
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            writeVarLong(out, zigZag((Long) value));
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (type == Short.class) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Character.class) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else if (type == Date.class) {
+            out.writeByte(DATE);
+            writeVarLong(out, zigZag(((Date) value).getTime()));
+        } else if (type == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(BIG_DECIMAL);
+            writeVarLong(out, zigZag(decimal.scale()));
+            writeBigInteger(out, decimal.unscaledValue());
+        } else if (type == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            writeBigInteger(out, (BigInteger) value);
+        } else if (type == LinkedHashMap.class) {
+            out.writeByte(LINKED_HASH_MAP);
+            writeEntries(out, (Map<?, ?>) value);
+        } else if (type == HashMap.class) {
+            out.writeByte(HASH_MAP);
+            writeEntries(out, (Map<?, ?>) value);
+        } else if (type == ArrayList.class) {
+            List<?> list = (List<?>) value;
+            out.writeByte(ARRAY_LIST);
+            writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream objectOut = new ObjectOutputStream(bytes);
+            objectOut.writeObject(value);
+            objectOut.close();
+            out.writeByte(SERIALIZED);
+            writeVarInt(out, bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    private static Object readValue(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(in);
+        case BYTES:
+            return readBytes(in);
+        case INTEGER:
+            return (int) unZigZag(readVarLong(in));
+        case LONG:
+            return unZigZag(readVarLong(in));
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        case DOUBLE:
+            return in.readDouble();
+        case FLOAT:
+            return in.readFloat();
+        case SHORT:
+            return in.readShort();
+        case BYTE:
+            return in.readByte();
+        case CHARACTER:
+            return in.readChar();
+        case DATE:
+            return new Date(unZigZag(readVarLong(in)));
+        case BIG_DECIMAL:
+            int scale = (int) unZigZag(readVarLong(in));
+            return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        case BIG_INTEGER:
+            return new BigInteger(readBytes(in));
+        case HASH_MAP:
+            return readEntries(camelContext, in, new HashMap<Object, Object>());
+        case LINKED_HASH_MAP:
+            return readEntries(camelContext, in, new LinkedHashMap<Object, Object>());
+        case ARRAY_LIST:
+            int size = readVarInt(in);
+            List<Object> list = new ArrayList<Object>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue(camelContext, in));
+            }
+            return list;
+        case SERIALIZED:
+            ObjectInputStream objectIn = new CamelObjectInputStream(new ByteArrayInputStream(readBytes(in)), camelContext);
+            return objectIn.readObject();
+        default:
+            throw new StreamCorruptedException("Invalid type tag " + tag + " of binary encoded exchange");
+        }
+    }
+
+    private static Map<Object, Object> readEntries(CamelContext camelContext, DataInputStream in, Map<Object, Object> map)
+        throws IOException, ClassNotFoundException {
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            Object key = readValue(camelContext, in);
+            map.put(key, readValue(camelContext, in));
+        }
+        return map;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBigInteger(DataOutputStream out, BigInteger value) throws IOException {
+        byte[] bytes = value.toByteArray();
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid length " + value + " of binary encoded exchange");
+        }
+        return (int) value;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        // 7 bits per byte with the high bit set when more bytes follow
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Invalid variable length number of binary encoded exchange");
+    }
+
+    private static long zigZag(long value) {
+        // so small negative numbers are also encoded using few bytes
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryExchangeCodec";
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.spi.BufferPool;
+
+/**
+ * Default {@link BufferPool} which pools the buffers in size classes of powers of two.
+ * <p/>
+ * Each thread keeps the last released buffer of each of the smaller size classes, so a thread which repeatedly
+ * acquires and releases a buffer does not touch any shared state. Other released buffers are kept in a shared queue
+ * per size class, holding up to {@link #getMaxPooledBytesPerSizeClass()} bytes. Buffers larger than
+ * {@link #getMaxBufferSize()} are not pooled.
+ */
+public class DefaultBufferPool implements BufferPool {
+
+    private static final int MIN_SIZE_SHIFT = 10;
+    private static final int MAX_SIZE_SHIFT = 18;
+    // buffers up to 64kb are kept per thread
+    private static final int MAX_THREAD_LOCAL_INDEX = 16 - MIN_SIZE_SHIFT;
+
+    private final SizeClass[] sizeClasses = new SizeClass[MAX_SIZE_SHIFT - MIN_SIZE_SHIFT + 1];
+    private final ThreadLocal<byte[][]> threadLocalBuffers = new ThreadLocal<byte[][]>() {
+        @Override
+        protected byte[][] initialValue() {
+            return new byte[MAX_THREAD_LOCAL_INDEX + 1][];
+        }
+    };
+    private volatile long maxPooledBytesPerSizeClass = 4 * 1024 * 1024;
+
+    public DefaultBufferPool() {
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(1 << (i + MIN_SIZE_SHIFT));
+        }
+    }
+
+    /**
+     * The largest buffer size which is pooled, which is 256kb.
+     */
+    public int getMaxBufferSize() {
+        return 1 << MAX_SIZE_SHIFT;
+    }
+
+    public long getMaxPooledBytesPerSizeClass() {
+        return maxPooledBytesPerSizeClass;
+    }
+
+    /**
+     * Sets the maximum number of bytes kept in the shared pool of each size class, not counting the buffers
+     * kept per thread. Is by default 4mb.
+     */
+    public void setMaxPooledBytesPerSizeClass(long maxPooledBytesPerSizeClass) {
+        this.maxPooledBytesPerSizeClass = maxPooledBytesPerSizeClass;
+    }
+
+    @Override
+    public byte[] acquire(int size) {
+        int index = sizeClassIndex(size);
+        if (index < 0) {
+            return new byte[size];
+        }
+        if (index <= MAX_THREAD_LOCAL_INDEX) {
+            byte[][] local = threadLocalBuffers.get();
+            byte[] buffer = local[index];
+            if (buffer != null) {
+                local[index] = null;
+                return buffer;
+            }
+        }
+        return sizeClasses[index].acquire();
+    }
+
+    @Override
+    public void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int index = sizeClassIndex(buffer.length);
+        if (index < 0 || sizeClasses[index].size != buffer.length) {
+            // not a buffer from this pool
+            return;
+        }
+        if (index <= MAX_THREAD_LOCAL_INDEX) {
+            byte[][] local = threadLocalBuffers.get();
+            if (local[index] == null) {
+                local[index] = buffer;
+                return;
+            }
+        }
+        sizeClasses[index].release(buffer, maxPooledBytesPerSizeClass);
+    }
+
+    /**
+     * Gets the index of the smallest size class holding the given size, or <tt>-1</tt> if the size is too large.
+     */
+    private static int sizeClassIndex(int size) {
+        if (size > 1 << MAX_SIZE_SHIFT) {
+            return -1;
+        }
+        if (size <= 1 << MIN_SIZE_SHIFT) {
+            return 0;
+        }
+        // the number of bits needed for size - 1 is the shift of the next power of two
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultBufferPool[maxBufferSize=" + getMaxBufferSize() + ", maxPooledBytesPerSizeClass=" + maxPooledBytesPerSizeClass + "]";
+    }
+
+    private static final class SizeClass {
+        private final int size;
+        private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<byte[]>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private SizeClass(int size) {
+            this.size = size;
+        }
+
+        byte[] acquire() {
+            byte[] buffer = buffers.poll();
+            if (buffer == null) {
+                return new byte[size];
+            }
+            count.decrementAndGet();
+            return buffer;
+        }
+
+        void release(byte[] buffer, long maxPooledBytes) {
+            if ((long) (count.incrementAndGet()) * size <= maxPooledBytes) {
+                buffers.offer(buffer);
+            } else {
+                count.decrementAndGet();
+            }
+        }
+    }
+}
@@ -122,6 +122,7 @@ import org.apache.camel.processor.interceptor.Tracer;
 import org.apache.camel.runtimecatalog.DefaultRuntimeCamelCatalog;
 import org.apache.camel.runtimecatalog.RuntimeCamelCatalog;
 import org.apache.camel.spi.AsyncProcessorAwaitManager;
+import org.apache.camel.spi.BufferPool;
 import org.apache.camel.spi.CamelContextNameStrategy;
 import org.apache.camel.spi.ClassResolver;
 import org.apache.camel.spi.ComponentResolver;
@@ -136,6 +137,7 @@ import org.apache.camel.spi.EventNotifier;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.Injector;
 import org.apache.camel.spi.InterceptStrategy;
@@ -254,6 +256,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private Boolean useMDCLogging = Boolean.FALSE;
     private Boolean useBreadcrumb = Boolean.TRUE;
     private Boolean allowUseOriginalMessage = Boolean.FALSE;
+    private Boolean exchangeCopyOnWrite = Boolean.FALSE;
     private Long delay;
     private ErrorHandlerFactory errorHandlerBuilder;
     private final Object errorHandlerExecutorServiceLock = new Object();
@@ -265,6 +268,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private FactoryFinder defaultFactoryFinder;
     private PropertiesComponent propertiesComponent;
     private StreamCachingStrategy streamCachingStrategy;
+    private BufferPool bufferPool;
     private final Map<String, FactoryFinder> factories = new HashMap<String, FactoryFinder>();
     private final Map<String, RouteService> routeServices = new LinkedHashMap<String, RouteService>();
     private final Map<String, RouteService> suspendedRouteServices = new LinkedHashMap<String, RouteService>();
@@ -277,6 +281,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private NodeIdFactory nodeIdFactory = new DefaultNodeIdFactory();
     private ProcessorFactory processorFactory = new DefaultProcessorFactory();
     private MessageHistoryFactory messageHistoryFactory = new DefaultMessageHistoryFactory();
+    private HeadersMapFactory headersMapFactory = new DefaultHeadersMapFactory();
     private InterceptStrategy defaultTracer;
     private InterceptStrategy defaultBacklogTracer;
     private InterceptStrategy defaultBacklogDebugger;
@@ -4223,6 +4228,14 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.useBreadcrumb = useBreadcrumb;
     }
 
+    public Boolean isExchangeCopyOnWrite() {
+        return exchangeCopyOnWrite != null && exchangeCopyOnWrite;
+    }
+
+    public void setExchangeCopyOnWrite(Boolean exchangeCopyOnWrite) {
+        this.exchangeCopyOnWrite = exchangeCopyOnWrite;
+    }
+
     public ClassLoader getApplicationContextClassLoader() {
         return applicationContextClassLoader;
     }
@@ -4350,6 +4363,14 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.messageHistoryFactory = messageHistoryFactory;
     }
 
+    public HeadersMapFactory getHeadersMapFactory() {
+        return headersMapFactory;
+    }
+
+    public void setHeadersMapFactory(HeadersMapFactory headersMapFactory) {
+        this.headersMapFactory = headersMapFactory;
+    }
+
     public Debugger getDebugger() {
         return debugger;
     }
@@ -4377,6 +4398,17 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.streamCachingStrategy = streamCachingStrategy;
     }
 
+    public BufferPool getBufferPool() {
+        if (bufferPool == null) {
+            bufferPool = new DefaultBufferPool();
+        }
+        return bufferPool;
+    }
+
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
     public RestRegistry getRestRegistry() {
         return restRegistry;
     }
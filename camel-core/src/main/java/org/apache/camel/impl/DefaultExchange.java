@@ -28,6 +28,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
 import org.apache.camel.Message;
 import org.apache.camel.MessageHistory;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.spi.UnitOfWork;
 import org.apache.camel.util.CaseInsensitiveMap;
@@ -42,8 +43,14 @@ import org.apache.camel.util.ObjectHelper;
  */
 public final class DefaultExchange implements Exchange {
 
+    // marks a shared property which has been removed from this exchange
+    private static final Object REMOVED_PROPERTY = new Object();
+
     protected final CamelContext context;
     private Map<String, Object> properties;
+    // the properties shared with other exchanges which must not be modified, in which case
+    // the properties of this exchange only holds the changes on top of the shared properties
+    private Map<String, Object> sharedProperties;
     private Message in;
     private Message out;
     private Exception exception;
@@ -92,12 +99,15 @@ public final class DefaultExchange implements Exchange {
 
     public Exchange copy(boolean safeCopy) {
         DefaultExchange exchange = new DefaultExchange(this);
+        boolean copyOnWrite = context != null && context.isExchangeCopyOnWrite();
 
         if (safeCopy) {
             exchange.getIn().setBody(getIn().getBody());
             exchange.getIn().setFault(getIn().isFault());
             if (getIn().hasHeaders()) {
-                exchange.getIn().setHeaders(safeCopyHeaders(getIn().getHeaders()));
+                if (!copyOnWrite || !shareHeaders(exchange.getIn(), getIn())) {
+                    exchange.getIn().setHeaders(safeCopyHeaders(context, getIn().getHeaders()));
+                }
                 // just copy the attachments here
                 exchange.getIn().copyAttachments(getIn());
             }
@@ -105,7 +115,9 @@ public final class DefaultExchange implements Exchange {
                 exchange.getOut().setBody(getOut().getBody());
                 exchange.getOut().setFault(getOut().isFault());
                 if (getOut().hasHeaders()) {
-                    exchange.getOut().setHeaders(safeCopyHeaders(getOut().getHeaders()));
+                    if (!copyOnWrite || !shareHeaders(exchange.getOut(), getOut())) {
+                        exchange.getOut().setHeaders(safeCopyHeaders(context, getOut().getHeaders()));
+                    }
                 }
                 // Just copy the attachments here
                 exchange.getOut().copyAttachments(getOut());
@@ -122,17 +134,100 @@ public final class DefaultExchange implements Exchange {
 
         // copy properties after body as body may trigger lazy init
         if (hasProperties()) {
-            exchange.setProperties(safeCopyProperties(getProperties()));
+            if (copyOnWrite) {
+                exchange.shareProperties(this);
+            } else {
+                exchange.setProperties(safeCopyProperties(getProperties()));
+            }
         }
 
         return exchange;
     }
 
-    private static Map<String, Object> safeCopyHeaders(Map<String, Object> headers) {
+    private static boolean shareHeaders(Message target, Message source) {
+        if (target instanceof DefaultMessage && source instanceof DefaultMessage) {
+            return ((DefaultMessage) target).shareHeaders((DefaultMessage) source);
+        }
+        return false;
+    }
+
+    /**
+     * Shares the properties of the given exchange with this exchange, so both exchanges keeps
+     * their changes to the properties on top of the shared properties.
+     */
+    private void shareProperties(DefaultExchange source) {
+        if (source.sharedProperties != null && (source.properties == null || source.properties.isEmpty())) {
+            // the source has not changed the properties it shares so we can share the same
+            sharedProperties = source.sharedProperties;
+        } else {
+            if (source.sharedProperties != null) {
+                source.unshareProperties();
+            }
+            sharedProperties = source.properties;
+            source.sharedProperties = source.properties;
+            source.properties = null;
+        }
+        properties = null;
+    }
+
+    /**
+     * Merges the changes of this exchange with the shared properties, into properties of its own.
+     */
+    @SuppressWarnings("unchecked")
+    private void unshareProperties() {
+        Map<String, Object> answer = new ConcurrentHashMap<String, Object>(sharedProperties);
+        if (properties != null) {
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                if (entry.getValue() == REMOVED_PROPERTY) {
+                    answer.remove(entry.getKey());
+                } else {
+                    answer.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        // safe copy message history using a defensive copy if its still the shared instance
+        Object history = answer.get(Exchange.MESSAGE_HISTORY);
+        if (history != null && history == sharedProperties.get(Exchange.MESSAGE_HISTORY)) {
+            answer.put(Exchange.MESSAGE_HISTORY, new LinkedList<>((List<MessageHistory>) history));
+        }
+
+        properties = answer;
+        sharedProperties = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object getSharedProperty(String name) {
+        Object answer = properties != null ? properties.get(name) : null;
+        if (answer == REMOVED_PROPERTY) {
+            return null;
+        } else if (answer == null) {
+            answer = sharedProperties.get(name);
+            if (answer != null && Exchange.MESSAGE_HISTORY.equals(name)) {
+                // the message history is added to during routing so we must use a defensive copy
+                answer = new LinkedList<>((List<MessageHistory>) answer);
+                getChangedProperties().put(name, answer);
+            }
+        }
+        return answer;
+    }
+
+    private Map<String, Object> getChangedProperties() {
+        if (properties == null) {
+            properties = new ConcurrentHashMap<String, Object>();
+        }
+        return properties;
+    }
+
+    private static Map<String, Object> safeCopyHeaders(CamelContext context, Map<String, Object> headers) {
         if (headers == null) {
             return null;
         }
 
+        HeadersMapFactory factory = context != null ? context.getHeadersMapFactory() : null;
+        if (factory != null) {
+            return factory.newMap(headers);
+        }
         Map<String, Object> answer = new CaseInsensitiveMap();
         answer.putAll(headers);
         return answer;
@@ -161,6 +256,9 @@ public final class DefaultExchange implements Exchange {
     }
 
     public Object getProperty(String name) {
+        if (sharedProperties != null) {
+            return getSharedProperty(name);
+        }
         if (properties != null) {
             return properties.get(name);
         }
@@ -213,6 +311,16 @@ public final class DefaultExchange implements Exchange {
     }
 
     public void setProperty(String name, Object value) {
+        if (sharedProperties != null) {
+            if (value != null) {
+                getChangedProperties().put(name, value);
+            } else if (sharedProperties.containsKey(name)) {
+                getChangedProperties().put(name, REMOVED_PROPERTY);
+            } else if (properties != null) {
+                properties.remove(name);
+            }
+            return;
+        }
         if (value != null) {
             // avoid the NullPointException
             getProperties().put(name, value);
@@ -228,6 +336,13 @@ public final class DefaultExchange implements Exchange {
         if (!hasProperties()) {
             return null;
         }
+        if (sharedProperties != null) {
+            Object answer = getProperty(name);
+            if (answer != null) {
+                setProperty(name, null);
+            }
+            return answer;
+        }
         return getProperties().remove(name);
     }
 
@@ -239,6 +354,9 @@ public final class DefaultExchange implements Exchange {
         if (!hasProperties()) {
             return false;
         }
+        if (sharedProperties != null) {
+            unshareProperties();
+        }
 
         boolean matches = false;
         for (Map.Entry<String, Object> entry : properties.entrySet()) {
@@ -256,17 +374,36 @@ public final class DefaultExchange implements Exchange {
     }
 
     public Map<String, Object> getProperties() {
-        if (properties == null) {
+        if (sharedProperties != null) {
+            // the caller may modify the returned map
+            unshareProperties();
+        } else if (properties == null) {
             properties = new ConcurrentHashMap<String, Object>();
         }
         return properties;
     }
 
     public boolean hasProperties() {
+        if (sharedProperties != null) {
+            if (properties != null) {
+                for (Object value : properties.values()) {
+                    if (value != REMOVED_PROPERTY) {
+                        return true;
+                    }
+                }
+            }
+            for (String key : sharedProperties.keySet()) {
+                if (properties == null || !properties.containsKey(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         return properties != null && !properties.isEmpty();
     }
 
     public void setProperties(Map<String, Object> properties) {
+        this.sharedProperties = null;
         this.properties = properties;
     }
 
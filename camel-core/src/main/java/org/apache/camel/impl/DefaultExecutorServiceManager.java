@@ -204,7 +204,13 @@ public class DefaultExecutorServiceManager extends ServiceSupport implements Exe
 
     @Override
     public ExecutorService newSingleThreadExecutor(Object source, String name) {
-        return newFixedThreadPool(source, name, 1);
+        ThreadPoolProfile profile = new ThreadPoolProfile(name);
+        profile.setPoolSize(1);
+        profile.setMaxPoolSize(1);
+        profile.setKeepAliveTime(0L);
+        // tasks must be processed in order by a single thread so virtual threads cannot be used
+        profile.setVirtualThreads(false);
+        return newThreadPool(source, name, profile);
     }
 
     @Override
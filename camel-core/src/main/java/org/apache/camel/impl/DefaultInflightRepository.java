@@ -21,11 +21,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
@@ -37,39 +39,74 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Default {@link org.apache.camel.spi.InflightRepository}.
+ * <p/>
+ * The inflight exchanges are spread over a number of stripes (by their exchange id) to reduce contention,
+ * where each stripe keeps its exchanges in a linked list in the order they became inflight. Adding and
+ * removing an exchange is therefore O(1), and browsing the <tt>k</tt> exchanges which has been inflight
+ * the longest time only has to look at the first <tt>k</tt> exchanges of each stripe, instead of sorting
+ * all the inflight exchanges. The counters are {@link LongAdder}s which scales well under contention.
  *
  * @version 
  */
 public class DefaultInflightRepository extends ServiceSupport implements InflightRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultInflightRepository.class);
-    private final ConcurrentMap<String, Exchange> inflight = new ConcurrentHashMap<String, Exchange>();
-    private final ConcurrentMap<String, AtomicInteger> routeCount = new ConcurrentHashMap<String, AtomicInteger>();
+    private final Stripe[] stripes;
+    private final LongAdder count = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> routeCount = new ConcurrentHashMap<String, LongAdder>();
+
+    public DefaultInflightRepository() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Creates the repository
+     *
+     * @param concurrencyLevel the estimated number of concurrently updating threads, which is used
+     *                         for sizing the number of stripes
+     */
+    public DefaultInflightRepository(int concurrencyLevel) {
+        // use a power of two number of stripes so we can use a bit mask to select the stripe
+        int size = Integer.highestOneBit(Math.max(1, concurrencyLevel) * 2 - 1);
+        stripes = new Stripe[Math.max(1, size)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
 
     public void add(Exchange exchange) {
-        inflight.put(exchange.getExchangeId(), exchange);
+        if (stripeFor(exchange.getExchangeId()).add(exchange)) {
+            count.increment();
+        }
     }
 
     public void remove(Exchange exchange) {
-        inflight.remove(exchange.getExchangeId());
+        if (stripeFor(exchange.getExchangeId()).remove(exchange.getExchangeId())) {
+            count.decrement();
+        }
     }
 
     public void add(Exchange exchange, String routeId) {
-        AtomicInteger existing = routeCount.putIfAbsent(routeId, new AtomicInteger(1));
-        if (existing != null) {
-            existing.incrementAndGet();
+        LongAdder existing = routeCount.get(routeId);
+        if (existing == null) {
+            LongAdder adder = new LongAdder();
+            existing = routeCount.putIfAbsent(routeId, adder);
+            if (existing == null) {
+                existing = adder;
+            }
         }
+        existing.increment();
     }
 
     public void remove(Exchange exchange, String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
+        LongAdder existing = routeCount.get(routeId);
         if (existing != null) {
-            existing.decrementAndGet();
+            existing.decrement();
         }
     }
 
     public int size() {
-        return inflight.size();
+        return count.intValue();
     }
 
     @Deprecated
@@ -84,8 +121,8 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public int size(String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
-        return existing != null ? existing.get() : 0;
+        LongAdder existing = routeCount.get(routeId);
+        return existing != null ? existing.intValue() : 0;
     }
 
     @Override
@@ -105,44 +142,35 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public Collection<InflightExchange> browse(String fromRouteId, int limit, boolean sortByLongestDuration) {
-        List<InflightExchange> answer = new ArrayList<InflightExchange>();
-
-        List<Exchange> values;
-        if (fromRouteId == null) {
-            // all values
-            values = new ArrayList<Exchange>(inflight.values());
-        } else {
-            // only if route match
-            values = new ArrayList<Exchange>();
-            for (Exchange exchange : inflight.values()) {
-                String exchangeRouteId = exchange.getFromRouteId();
-                if (fromRouteId.equals(exchangeRouteId)) {
-                    values.add(exchange);
-                }
-            }
-        }
-
+        List<Entry> values = new ArrayList<Entry>();
         if (sortByLongestDuration) {
-            values.sort(new Comparator<Exchange>() {
+            // each stripe is ordered by the time the exchanges became inflight, so we only need
+            // the first limit number of exchanges from each stripe, and then merge them
+            for (Stripe stripe : stripes) {
+                stripe.collect(fromRouteId, limit, values);
+            }
+            values.sort(new Comparator<Entry>() {
                 @Override
-                public int compare(Exchange e1, Exchange e2) {
-                    long d1 = getExchangeDuration(e1);
-                    long d2 = getExchangeDuration(e2);
-                    return Long.compare(d1, d2);
+                public int compare(Entry e1, Entry e2) {
+                    return Long.compare(e1.timestamp, e2.timestamp);
                 }
             });
         } else {
+            for (Stripe stripe : stripes) {
+                stripe.collect(fromRouteId, -1, values);
+            }
             // else sort by exchange id
-            values.sort(new Comparator<Exchange>() {
+            values.sort(new Comparator<Entry>() {
                 @Override
-                public int compare(Exchange e1, Exchange e2) {
-                    return e1.getExchangeId().compareTo(e2.getExchangeId());
+                public int compare(Entry e1, Entry e2) {
+                    return e1.exchangeId.compareTo(e2.exchangeId);
                 }
             });
         }
 
-        for (Exchange exchange : values) {
-            answer.add(new InflightExchangeEntry(exchange));
+        List<InflightExchange> answer = new ArrayList<InflightExchange>();
+        for (Entry entry : values) {
+            answer.add(new InflightExchangeEntry(entry.exchange));
             if (limit > 0 && answer.size() >= limit) {
                 break;
             }
@@ -165,6 +193,13 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         routeCount.clear();
     }
 
+    private Stripe stripeFor(String exchangeId) {
+        int hash = exchangeId.hashCode();
+        // spread the higher bits as exchange ids often only differ in their last characters
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
     private static long getExchangeDuration(Exchange exchange) {
         long duration = 0;
         Date created = exchange.getProperty(Exchange.CREATED_TIMESTAMP, Date.class);
@@ -174,6 +209,87 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         return duration;
     }
 
+    /**
+     * An inflight exchange which is linked to the previous and next exchange which became inflight in the same stripe.
+     */
+    private static final class Entry {
+        private final String exchangeId;
+        private final long timestamp;
+        private volatile Exchange exchange;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Exchange exchange, long timestamp) {
+            this.exchangeId = exchange.getExchangeId();
+            this.exchange = exchange;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * A stripe of the inflight exchanges, which keeps the exchanges in the order they became inflight.
+     */
+    private static final class Stripe {
+        private final Map<String, Entry> entries = new HashMap<String, Entry>();
+        private Entry head;
+        private Entry tail;
+
+        synchronized boolean add(Exchange exchange) {
+            Entry existing = entries.get(exchange.getExchangeId());
+            if (existing != null) {
+                // the same exchange is added again, so keep its position
+                existing.exchange = exchange;
+                return false;
+            }
+            Entry entry = new Entry(exchange, System.currentTimeMillis());
+            entries.put(entry.exchangeId, entry);
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+                entry.prev = tail;
+            }
+            tail = entry;
+            return true;
+        }
+
+        synchronized boolean remove(String exchangeId) {
+            Entry entry = entries.remove(exchangeId);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            return true;
+        }
+
+        /**
+         * Collects the exchanges (started from the given route) in the order they became inflight
+         */
+        synchronized void collect(String fromRouteId, int limit, List<Entry> answer) {
+            int found = 0;
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                if (fromRouteId == null || fromRouteId.equals(entry.exchange.getFromRouteId())) {
+                    answer.add(entry);
+                    found++;
+                    if (limit > 0 && found >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
     private static final class InflightExchangeEntry implements InflightExchange {
 
         private final Exchange exchange;
@@ -25,8 +25,9 @@ import javax.activation.DataHandler;
 
 import org.apache.camel.Attachment;
 import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.util.AttachmentMap;
-import org.apache.camel.util.CaseInsensitiveMap;
 import org.apache.camel.util.EndpointHelper;
 import org.apache.camel.util.ObjectHelper;
 
@@ -37,12 +38,21 @@ import org.apache.camel.util.ObjectHelper;
  * This allows us to be able to lookup headers using case insensitive keys, making it easier for end users
  * as they do not have to be worried about using exact keys.
  * See more details at {@link org.apache.camel.util.CaseInsensitiveMap}.
+ * <p/>
+ * The map implementation can be changed by configuring a {@link HeadersMapFactory} on the {@link org.apache.camel.CamelContext},
+ * which is used when the message is associated with an {@link Exchange}, or when the message is a copy of a message
+ * which is associated with an {@link Exchange}.
  *
  * @version 
  */
 public class DefaultMessage extends MessageSupport {
+    private static final HeadersMapFactory DEFAULT_HEADERS_MAP_FACTORY = new DefaultHeadersMapFactory();
     private boolean fault;
     private Map<String, Object> headers;
+    // whether the headers are shared with another message and must be copied before being modified
+    private boolean headersShared;
+    // the factory of the message copied from, which is used when this message is not associated with an exchange
+    private HeadersMapFactory headersMapFactory;
     private Map<String, DataHandler> attachments;
     private Map<String, Attachment> attachmentObjects;
 
@@ -56,21 +66,21 @@ public class DefaultMessage extends MessageSupport {
 
     public Object getHeader(String name) {
         if (hasHeaders()) {
-            return getHeaders().get(name);
+            return readHeaders().get(name);
         } else {
             return null;
         }
     }
 
     public Object getHeader(String name, Object defaultValue) {
-        Object answer = getHeaders().get(name);
+        Object answer = readHeaders().get(name);
         return answer != null ? answer : defaultValue;
     }
 
     public Object getHeader(String name, Supplier<Object> defaultValueSupplier) {
         ObjectHelper.notNull(name, "name");
         ObjectHelper.notNull(defaultValueSupplier, "defaultValueSupplier");
-        Object answer = getHeaders().get(name);
+        Object answer = readHeaders().get(name);
         return answer != null ? answer : defaultValueSupplier.get();
     }
 
@@ -155,6 +165,8 @@ public class DefaultMessage extends MessageSupport {
     public void setHeader(String name, Object value) {
         if (headers == null) {
             headers = createHeaders();
+        } else if (headersShared) {
+            unshareHeaders();
         }
         headers.put(name, value);
     }
@@ -163,6 +175,13 @@ public class DefaultMessage extends MessageSupport {
         if (!hasHeaders()) {
             return null;
         }
+        if (headersShared) {
+            if (!headers.containsKey(name)) {
+                // no need to copy the shared headers
+                return null;
+            }
+            unshareHeaders();
+        }
         return headers.remove(name);
     }
 
@@ -189,6 +208,9 @@ public class DefaultMessage extends MessageSupport {
                 toRemove.add(entry.getKey());
             }
         }
+        if (headersShared && !toRemove.isEmpty()) {
+            unshareHeaders();
+        }
         for (String key : toRemove) {
             headers.remove(key);
         }
@@ -199,16 +221,21 @@ public class DefaultMessage extends MessageSupport {
     public Map<String, Object> getHeaders() {
         if (headers == null) {
             headers = createHeaders();
+        } else if (headersShared) {
+            // the caller may modify the returned map
+            unshareHeaders();
         }
         return headers;
     }
 
     public void setHeaders(Map<String, Object> headers) {
-        if (headers instanceof CaseInsensitiveMap) {
+        this.headersShared = false;
+        HeadersMapFactory factory = getHeadersMapFactory();
+        if (factory.isInstanceOf(headers)) {
             this.headers = headers;
         } else {
             // wrap it in a case insensitive map
-            this.headers = new CaseInsensitiveMap(headers);
+            this.headers = factory.newMap(headers);
         }
     }
 
@@ -224,6 +251,44 @@ public class DefaultMessage extends MessageSupport {
         return new DefaultMessage();
     }
 
+    @Override
+    public void copyFromWithNewBody(Message that, Object newBody) {
+        if (that != this && that instanceof DefaultMessage && getExchange() == null) {
+            // create the headers the same way as the message copied from, without associating with its exchange
+            headersMapFactory = ((DefaultMessage) that).getHeadersMapFactory();
+        }
+        super.copyFromWithNewBody(that, newBody);
+    }
+
+    /**
+     * Shares the headers of the given message with this message, until either of the messages modifies its headers,
+     * which then copies the headers before modifying them.
+     *
+     * @param that the message to share the headers from
+     * @return <tt>true</tt> if the headers are shared, <tt>false</tt> if the given message has no headers to share
+     */
+    boolean shareHeaders(DefaultMessage that) {
+        if (!that.hasHeaders() || that.headers == null) {
+            return false;
+        }
+        this.headers = that.headers;
+        this.headersShared = true;
+        that.headersShared = true;
+        return true;
+    }
+
+    /**
+     * Gets the headers for reading, without copying the headers if they are shared.
+     */
+    private Map<String, Object> readHeaders() {
+        return headersShared ? headers : getHeaders();
+    }
+
+    private void unshareHeaders() {
+        headers = getHeadersMapFactory().newMap(headers);
+        headersShared = false;
+    }
+
     /**
      * A factory method to lazily create the headers to make it easy to create
      * efficient Message implementations which only construct and populate the
@@ -233,11 +298,29 @@ public class DefaultMessage extends MessageSupport {
      *         the underlying inbound transport
      */
     protected Map<String, Object> createHeaders() {
-        Map<String, Object> map = new CaseInsensitiveMap();
+        Map<String, Object> map = getHeadersMapFactory().newMap();
         populateInitialHeaders(map);
         return map;
     }
 
+    /**
+     * Gets the {@link HeadersMapFactory} from the {@link org.apache.camel.CamelContext} of the exchange,
+     * or the factory of the message this message was copied from, and falls back to use a factory creating
+     * {@link org.apache.camel.util.CaseInsensitiveMap} if not possible.
+     *
+     * @return the factory to use for creating the headers
+     */
+    protected HeadersMapFactory getHeadersMapFactory() {
+        Exchange exchange = getExchange();
+        if (exchange != null && exchange.getContext() != null) {
+            HeadersMapFactory factory = exchange.getContext().getHeadersMapFactory();
+            if (factory != null) {
+                return factory;
+            }
+        }
+        return headersMapFactory != null ? headersMapFactory : DEFAULT_HEADERS_MAP_FACTORY;
+    }
+
     /**
      * A factory method to lazily create the attachmentObjects to make it easy to
      * create efficient Message implementations which only construct and
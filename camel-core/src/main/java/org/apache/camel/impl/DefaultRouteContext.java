@@ -36,6 +36,7 @@ import org.apache.camel.model.ProcessorDefinition;
 import org.apache.camel.model.RouteDefinition;
 import org.apache.camel.processor.CamelInternalProcessor;
 import org.apache.camel.processor.ContractAdvice;
+import org.apache.camel.processor.FusedChannel;
 import org.apache.camel.processor.Pipeline;
 import org.apache.camel.spi.Contract;
 import org.apache.camel.spi.InterceptStrategy;
@@ -158,7 +159,12 @@ public class DefaultRouteContext implements RouteContext {
     public void commit() {
         // now lets turn all of the event driven consumer processors into a single route
         if (!eventDrivenProcessors.isEmpty()) {
-            Processor target = Pipeline.newInstance(getCamelContext(), eventDrivenProcessors);
+            List<Processor> processors = eventDrivenProcessors;
+            if (CamelContextHelper.isProcessorFusion(getCamelContext())) {
+                // fuse sequential synchronous processors to reduce the overhead per step
+                processors = FusedChannel.fuse(processors);
+            }
+            Processor target = Pipeline.newInstance(getCamelContext(), processors);
 
             // force creating the route id so its known ahead of the route is started
             String routeId = route.idOrCreate(getCamelContext().getNodeIdFactory());
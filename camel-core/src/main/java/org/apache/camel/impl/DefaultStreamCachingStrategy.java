@@ -59,6 +59,8 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
     private int spoolUsedHeapMemoryThreshold;
     private SpoolUsedHeapMemoryLimit spoolUsedHeapMemoryLimit;
     private String spoolChiper;
+    private boolean spoolOffHeap;
+    private long spoolOffHeapThreshold = StreamCache.DEFAULT_SPOOL_OFF_HEAP_THRESHOLD;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
     private boolean removeSpoolDirectoryWhenStopping = true;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
@@ -125,6 +127,22 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         this.spoolChiper = spoolChiper;
     }
 
+    public boolean isSpoolOffHeap() {
+        return spoolOffHeap;
+    }
+
+    public void setSpoolOffHeap(boolean spoolOffHeap) {
+        this.spoolOffHeap = spoolOffHeap;
+    }
+
+    public long getSpoolOffHeapThreshold() {
+        return spoolOffHeapThreshold;
+    }
+
+    public void setSpoolOffHeapThreshold(long spoolOffHeapThreshold) {
+        this.spoolOffHeapThreshold = spoolOffHeapThreshold;
+    }
+
     public int getBufferSize() {
         return bufferSize;
     }
@@ -310,6 +328,10 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             }
         }
 
+        if (spoolOffHeap && spoolChiper != null) {
+            LOG.warn("SpoolOffHeap is not in use as spooling with the chiper: {} requires spooling to temporary files", spoolChiper);
+        }
+
         LOG.debug("StreamCaching configuration {}", this.toString());
 
         if (spoolDirectory != null) {
@@ -338,6 +360,8 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         return "DefaultStreamCachingStrategy["
             + "spoolDirectory=" + spoolDirectory
             + ", spoolChiper=" + spoolChiper
+            + ", spoolOffHeap=" + spoolOffHeap
+            + ", spoolOffHeapThreshold=" + spoolOffHeapThreshold
             + ", spoolThreshold=" + spoolThreshold
             + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
             + ", bufferSize=" + bufferSize
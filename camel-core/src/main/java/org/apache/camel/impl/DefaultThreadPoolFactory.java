@@ -27,24 +27,41 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.camel.spi.ThreadPoolFactory;
 import org.apache.camel.spi.ThreadPoolProfile;
 import org.apache.camel.util.concurrent.RejectableScheduledThreadPoolExecutor;
 import org.apache.camel.util.concurrent.RejectableThreadPoolExecutor;
 import org.apache.camel.util.concurrent.SizedScheduledExecutorService;
+import org.apache.camel.util.concurrent.VirtualThreadHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Factory for thread pools that uses the JDK {@link Executors} for creating the thread pools.
+ * <p/>
+ * Thread pools from profiles which has {@link ThreadPoolProfile#getVirtualThreads() virtual threads} enabled
+ * starts a new virtual thread per task, when the JVM supports virtual threads.
  */
 public class DefaultThreadPoolFactory implements ThreadPoolFactory {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultThreadPoolFactory.class);
+    private static final AtomicBoolean UNSUPPORTED_LOGGED = new AtomicBoolean();
+
     public ExecutorService newCachedThreadPool(ThreadFactory threadFactory) {
         return Executors.newCachedThreadPool(threadFactory);
     }
     
     @Override
     public ExecutorService newThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        if (profile.getVirtualThreads() != null && profile.getVirtualThreads()) {
+            ExecutorService answer = newVirtualThreadPool(factory);
+            if (answer != null) {
+                return answer;
+            }
+        }
+
         // allow core thread timeout is default false if not configured
         boolean allow = profile.getAllowCoreThreadTimeOut() != null ? profile.getAllowCoreThreadTimeOut() : false;
         return newThreadPool(profile.getPoolSize(), 
@@ -57,6 +74,22 @@ public class DefaultThreadPoolFactory implements ThreadPoolFactory {
                              factory);
     }
 
+    /**
+     * Creates a new thread pool which starts a new virtual thread per task.
+     *
+     * @param threadFactory the thread factory which would otherwise be used, which is used for naming the virtual threads
+     * @return the thread pool, or <tt>null</tt> if the JVM does not support virtual threads
+     */
+    protected ExecutorService newVirtualThreadPool(ThreadFactory threadFactory) {
+        if (VirtualThreadHelper.isSupported()) {
+            return VirtualThreadHelper.newThreadPerTaskExecutor(threadFactory);
+        }
+        if (UNSUPPORTED_LOGGED.compareAndSet(false, true)) {
+            LOG.warn("Virtual threads are not supported on this JVM (Java {}). Regular thread pools are used instead.", System.getProperty("java.version"));
+        }
+        return null;
+    }
+
     public ExecutorService newThreadPool(int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit timeUnit, int maxQueueSize, boolean allowCoreThreadTimeOut,
                                          RejectedExecutionHandler rejectedExecutionHandler, ThreadFactory threadFactory) throws IllegalArgumentException {
 
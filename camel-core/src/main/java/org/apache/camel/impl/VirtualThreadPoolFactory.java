@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.camel.spi.ThreadPoolProfile;
+
+/**
+ * Factory for thread pools that starts a new virtual thread per task, when the JVM supports virtual threads.
+ * <p/>
+ * Thread pools created from profiles which has explicit disabled {@link ThreadPoolProfile#getVirtualThreads() virtual threads}
+ * (such as single threaded executors which must process tasks in order) and scheduled thread pools are using regular threads.
+ * If the JVM does not support virtual threads then regular thread pools are created as by {@link DefaultThreadPoolFactory}.
+ */
+public class VirtualThreadPoolFactory extends DefaultThreadPoolFactory {
+
+    @Override
+    public ExecutorService newCachedThreadPool(ThreadFactory threadFactory) {
+        ExecutorService answer = newVirtualThreadPool(threadFactory);
+        return answer != null ? answer : super.newCachedThreadPool(threadFactory);
+    }
+
+    @Override
+    public ExecutorService newThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        if (profile.getVirtualThreads() == null || profile.getVirtualThreads()) {
+            ExecutorService answer = newVirtualThreadPool(factory);
+            if (answer != null) {
+                return answer;
+            }
+        }
+        return super.newThreadPool(profile, factory);
+    }
+
+}
@@ -36,8 +36,14 @@ import static java.lang.reflect.Modifier.isStatic;
 import org.apache.camel.Converter;
 import org.apache.camel.Exchange;
 import org.apache.camel.FallbackConverter;
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.NoTypeConversionAvailableException;
+import org.apache.camel.TypeConversionException;
 import org.apache.camel.TypeConverter;
+import org.apache.camel.TypeConverterExists;
 import org.apache.camel.TypeConverterLoaderException;
+import org.apache.camel.TypeConverters;
+import org.apache.camel.spi.Injector;
 import org.apache.camel.spi.PackageScanClassResolver;
 import org.apache.camel.spi.TypeConverterLoader;
 import org.apache.camel.spi.TypeConverterRegistry;
@@ -61,19 +67,29 @@ import org.slf4j.LoggerFactory;
  * Therefore its recommended to specify FQN class names in the {@link #META_INF_SERVICES} file.
  * Likewise the procedure for scanning using {@link PackageScanClassResolver} may require custom implementations
  * to work in various containers such as JBoss, OSGi, etc.
+ * <p/>
+ * If the Camel annotation processor has generated a {@link TypeConverterLoader} for a {@link Converter} class,
+ * named as the class with the {@link #GENERATED_LOADER_SUFFIX} suffix, then the generated loader is used to load
+ * the type converters, which invokes the converter methods directly instead of using reflection.
+ * Generated loaders are not used by subclasses which override {@link #registerTypeConverter(TypeConverterRegistry, Method, Class, Class, TypeConverter)}
+ * or {@link #registerFallbackTypeConverter(TypeConverterRegistry, TypeConverter, Method)}, as those hooks are given the converter method.
  *
  * @version
  */
 public class AnnotationTypeConverterLoader implements TypeConverterLoader {
     public static final String META_INF_SERVICES = "META-INF/services/org/apache/camel/TypeConverter";
+    public static final String GENERATED_LOADER_SUFFIX = "Loader";
     private static final Logger LOG = LoggerFactory.getLogger(AnnotationTypeConverterLoader.class);
     private static final Charset UTF8 = Charset.forName("UTF-8");
     protected PackageScanClassResolver resolver;
     protected Set<Class<?>> visitedClasses = new HashSet<Class<?>>();
     protected Set<String> visitedURIs = new HashSet<String>();
+    private final boolean registrationHooksOverridden;
 
     public AnnotationTypeConverterLoader(PackageScanClassResolver resolver) {
         this.resolver = resolver;
+        this.registrationHooksOverridden = isOverridden("registerTypeConverter", TypeConverterRegistry.class, Method.class, Class.class, Class.class, TypeConverter.class)
+                || isOverridden("registerFallbackTypeConverter", TypeConverterRegistry.class, TypeConverter.class, Method.class);
     }
 
     @Override
@@ -258,6 +274,9 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
             return;
         }
         visitedClasses.add(type);
+        if (loadGeneratedConverters(registry, type)) {
+            return;
+        }
         try {
             Method[] methods = type.getDeclaredMethods();
             CachingInjector<?> injector = null;
@@ -301,6 +320,51 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
         }
     }
 
+    /**
+     * Loads the type converters using the {@link TypeConverterLoader} generated for the given type, if any.
+     *
+     * @return <tt>true</tt> if loaded, <tt>false</tt> if there is no generated loader
+     */
+    protected boolean loadGeneratedConverters(TypeConverterRegistry registry, Class<?> type) {
+        if (registrationHooksOverridden) {
+            // the generated loader cannot call the hooks as it does not use the converter methods
+            return false;
+        }
+        String name = type.getName() + GENERATED_LOADER_SUFFIX;
+        // the generated loader is in the same package as the converter class
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null || classLoader.getResource(name.replace('.', '/') + ".class") == null) {
+            return false;
+        }
+        Class<?> loaderClass;
+        try {
+            loaderClass = classLoader.loadClass(name);
+        } catch (Throwable e) {
+            // ignore as then we use reflection
+            return false;
+        }
+        if (!TypeConverterLoader.class.isAssignableFrom(loaderClass)) {
+            return false;
+        }
+
+        try {
+            TypeConverterLoader loader = (TypeConverterLoader) loaderClass.newInstance();
+            LOG.trace("Loading converter class: {} using generated loader: {}", ObjectHelper.name(type), name);
+            // only add the type converters when the loader completed, so reflection does not add them a second time
+            // the generated loader injects the registry as parent type converter if it is a type converter
+            DeferredTypeConverterRegistry deferred = registry instanceof TypeConverter
+                    ? new DeferredTypeConverter(registry) : new DeferredTypeConverterRegistry(registry);
+            loader.load(deferred);
+            deferred.commit();
+            return true;
+        } catch (Throwable e) {
+            // use reflection which logs the problem, such as when a dependent class could not be found
+            LOG.debug("Error loading converter class: " + ObjectHelper.name(type) + " using generated loader: " + name
+                    + ". Will use reflection instead due: " + e, e);
+            return false;
+        }
+    }
+
     private CachingInjector<?> handleHasConverterAnnotation(TypeConverterRegistry registry, Class<?> type,
                                                             CachingInjector<?> injector, Method method, boolean allowNull) {
         if (isValidConverterMethod(method)) {
@@ -391,6 +455,18 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
                 && (TypeConverterRegistry.class.isAssignableFrom(parameterTypes[parameterTypes.length - 1])));
     }
 
+    private boolean isOverridden(String methodName, Class<?>... parameterTypes) {
+        for (Class<?> clazz = getClass(); clazz != AnnotationTypeConverterLoader.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod(methodName, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared on this class
+            }
+        }
+        return false;
+    }
+
     /**
      * Filters the given list of packages
      *
@@ -411,4 +487,141 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
         return packages.toArray(new String[packages.size()]);
     }
 
+    /**
+     * A change to the actual registry which is deferred until the generated loader has completed.
+     */
+    private interface RegistryChange {
+        void apply(TypeConverterRegistry registry);
+    }
+
+    /**
+     * A {@link TypeConverterRegistry} which collects the changes made by a generated loader,
+     * and only applies them to the actual registry, in order, on {@link #commit()}.
+     */
+    private static class DeferredTypeConverterRegistry implements TypeConverterRegistry {
+        protected final TypeConverterRegistry registry;
+        private final List<RegistryChange> changes = new ArrayList<RegistryChange>();
+
+        DeferredTypeConverterRegistry(TypeConverterRegistry registry) {
+            this.registry = registry;
+        }
+
+        void commit() {
+            for (RegistryChange change : changes) {
+                change.apply(registry);
+            }
+            changes.clear();
+        }
+
+        public void addTypeConverter(Class<?> toType, Class<?> fromType, TypeConverter typeConverter) {
+            changes.add(r -> r.addTypeConverter(toType, fromType, typeConverter));
+        }
+
+        public void addFallbackTypeConverter(TypeConverter typeConverter, boolean canPromote) {
+            changes.add(r -> r.addFallbackTypeConverter(typeConverter, canPromote));
+        }
+
+        public boolean removeTypeConverter(Class<?> toType, Class<?> fromType) {
+            // the type converter is removed if it exists when the changes are applied
+            boolean exists = lookup(toType, fromType) != null;
+            changes.add(r -> r.removeTypeConverter(toType, fromType));
+            return exists;
+        }
+
+        public void addTypeConverters(TypeConverters typeConverters) {
+            changes.add(r -> r.addTypeConverters(typeConverters));
+        }
+
+        public TypeConverter lookup(Class<?> toType, Class<?> fromType) {
+            return registry.lookup(toType, fromType);
+        }
+
+        public List<Class<?>[]> listAllTypeConvertersFromTo() {
+            return registry.listAllTypeConvertersFromTo();
+        }
+
+        public void setInjector(Injector injector) {
+            registry.setInjector(injector);
+        }
+
+        public Injector getInjector() {
+            return registry.getInjector();
+        }
+
+        public Statistics getStatistics() {
+            return registry.getStatistics();
+        }
+
+        public int size() {
+            return registry.size();
+        }
+
+        public LoggingLevel getTypeConverterExistsLoggingLevel() {
+            return registry.getTypeConverterExistsLoggingLevel();
+        }
+
+        public void setTypeConverterExistsLoggingLevel(LoggingLevel typeConverterExistsLoggingLevel) {
+            registry.setTypeConverterExistsLoggingLevel(typeConverterExistsLoggingLevel);
+        }
+
+        public TypeConverterExists getTypeConverterExists() {
+            return registry.getTypeConverterExists();
+        }
+
+        public void setTypeConverterExists(TypeConverterExists typeConverterExists) {
+            registry.setTypeConverterExists(typeConverterExists);
+        }
+
+        public void start() throws Exception {
+            registry.start();
+        }
+
+        public void stop() throws Exception {
+            registry.stop();
+        }
+    }
+
+    /**
+     * A {@link DeferredTypeConverterRegistry} for a registry which is also a {@link TypeConverter}, so the
+     * generated loader can inject it as parent type converter into {@link org.apache.camel.spi.TypeConverterAware}
+     * converters. The conversions are delegated to the actual registry.
+     */
+    private static final class DeferredTypeConverter extends DeferredTypeConverterRegistry implements TypeConverter {
+
+        DeferredTypeConverter(TypeConverterRegistry registry) {
+            super(registry);
+        }
+
+        private TypeConverter getTypeConverter() {
+            return (TypeConverter) registry;
+        }
+
+        public boolean allowNull() {
+            return getTypeConverter().allowNull();
+        }
+
+        public <T> T convertTo(Class<T> type, Object value) throws TypeConversionException {
+            return getTypeConverter().convertTo(type, value);
+        }
+
+        public <T> T convertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException {
+            return getTypeConverter().convertTo(type, exchange, value);
+        }
+
+        public <T> T mandatoryConvertTo(Class<T> type, Object value) throws TypeConversionException, NoTypeConversionAvailableException {
+            return getTypeConverter().mandatoryConvertTo(type, value);
+        }
+
+        public <T> T mandatoryConvertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException, NoTypeConversionAvailableException {
+            return getTypeConverter().mandatoryConvertTo(type, exchange, value);
+        }
+
+        public <T> T tryConvertTo(Class<T> type, Object value) {
+            return getTypeConverter().tryConvertTo(type, value);
+        }
+
+        public <T> T tryConvertTo(Class<T> type, Exchange exchange, Object value) {
+            return getTypeConverter().tryConvertTo(type, exchange, value);
+        }
+    }
 }
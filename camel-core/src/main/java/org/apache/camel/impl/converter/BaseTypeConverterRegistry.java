@@ -65,6 +65,10 @@ import org.slf4j.LoggerFactory;
 public abstract class BaseTypeConverterRegistry extends ServiceSupport implements TypeConverter, TypeConverterRegistry, CamelContextAware {
     protected final Logger log = LoggerFactory.getLogger(getClass());
     protected final ConcurrentMap<TypeMapping, TypeConverter> typeMappings = new ConcurrentHashMap<TypeMapping, TypeConverter>();
+    // fast path for the found type converters keyed by the from and to types, which avoids creating a TypeMapping
+    // as the lookup key, and as classes are compared by identity the lookup is cheap
+    protected final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, TypeConverter>> foundConverters
+        = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, TypeConverter>>();
     // for misses use a soft reference cache map, as the classes may be un-deployed at runtime
     protected final LRUSoftCache<TypeMapping, TypeMapping> misses = new LRUSoftCache<TypeMapping, TypeMapping>(1000);
     protected final List<TypeConverterLoader> typeConverterLoaders = new ArrayList<TypeConverterLoader>();
@@ -288,17 +292,25 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             attemptCounter.incrementAndGet();
         }
 
-        // check if we have tried it before and if its a miss
-        TypeMapping key = new TypeMapping(type, value.getClass());
-        if (misses.containsKey(key)) {
-            // we have tried before but we cannot convert this one
-            return Void.TYPE;
+        // use the fast path if we have found the type converter before
+        TypeMapping key = null;
+        TypeConverter converter = getFoundTypeConverter(type, value.getClass());
+        if (converter == null) {
+            // check if we have tried it before and if its a miss
+            key = new TypeMapping(type, value.getClass());
+            if (misses.containsKey(key)) {
+                // we have tried before but we cannot convert this one
+                return Void.TYPE;
+            }
+
+            // try to find a suitable type converter
+            converter = getOrFindTypeConverter(key);
+            if (converter != null) {
+                addFoundTypeConverter(type, value.getClass(), converter);
+            }
         }
-        
-        // try to find a suitable type converter
-        TypeConverter converter = getOrFindTypeConverter(key);
         if (converter != null) {
-            log.trace("Using converter: {} to convert {}", converter, key);
+            log.trace("Using converter: {} to convert from: {} to: {}", converter, value.getClass(), type);
             Object rc;
             if (tryConvert) {
                 rc = converter.tryConvertTo(type, exchange, value);
@@ -379,6 +391,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (!tryConvert) {
             // Could not find suitable conversion, so remember it
             // do not register misses for try conversions
+            if (key == null) {
+                key = new TypeMapping(type, value.getClass());
+            }
             misses.put(key, key);
         }
 
@@ -418,6 +433,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
                 typeMappings.put(key, typeConverter);
                 // remove any previous misses, as we added the new type converter
                 misses.remove(key);
+                // the found type converters may no longer be the best match
+                foundConverters.clear();
             }
         }
     }
@@ -442,6 +459,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (converter != null) {
             typeMappings.remove(key);
             misses.remove(key);
+            foundConverters.clear();
         }
         return converter != null;
     }
@@ -503,6 +521,26 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         return typeMappings;
     }
 
+    /**
+     * Gets the type converter previously found to convert between the given types, using the fast path.
+     */
+    protected TypeConverter getFoundTypeConverter(Class<?> toType, Class<?> fromType) {
+        Map<Class<?>, TypeConverter> converters = foundConverters.get(fromType);
+        return converters != null ? converters.get(toType) : null;
+    }
+
+    protected void addFoundTypeConverter(Class<?> toType, Class<?> fromType, TypeConverter converter) {
+        ConcurrentMap<Class<?>, TypeConverter> converters = foundConverters.get(fromType);
+        if (converters == null) {
+            converters = new ConcurrentHashMap<Class<?>, TypeConverter>();
+            ConcurrentMap<Class<?>, TypeConverter> existing = foundConverters.putIfAbsent(fromType, converters);
+            if (existing != null) {
+                converters = existing;
+            }
+        }
+        converters.put(toType, converter);
+    }
+
     protected <T> TypeConverter getOrFindTypeConverter(TypeMapping key) {
         TypeConverter converter = typeMappings.get(key);
         if (converter == null) {
@@ -670,6 +708,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
 
         typeMappings.clear();
+        foundConverters.clear();
         misses.clear();
         statistics.reset();
     }
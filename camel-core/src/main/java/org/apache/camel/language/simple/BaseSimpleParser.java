@@ -45,12 +45,18 @@ public abstract class BaseSimpleParser {
     protected int previousIndex;
     protected int index;
     protected boolean allowEscape = true;
+    protected boolean compiled;
 
     protected BaseSimpleParser(String expression, boolean allowEscape) {
         this.expression = expression;
         this.allowEscape = allowEscape;
     }
 
+    protected BaseSimpleParser(String expression, boolean allowEscape, boolean compiled) {
+        this(expression, allowEscape);
+        this.compiled = compiled;
+    }
+
     /**
      * Advances the parser position to the next known {@link SimpleToken}
      * in the input.
@@ -0,0 +1,612 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.builder.ExpressionBuilder;
+import org.apache.camel.language.simple.ast.BinaryExpression;
+import org.apache.camel.language.simple.ast.CompositeNodes;
+import org.apache.camel.language.simple.ast.DoubleQuoteStart;
+import org.apache.camel.language.simple.ast.LiteralExpression;
+import org.apache.camel.language.simple.ast.LiteralNode;
+import org.apache.camel.language.simple.ast.LogicalExpression;
+import org.apache.camel.language.simple.ast.NullExpression;
+import org.apache.camel.language.simple.ast.SimpleFunctionExpression;
+import org.apache.camel.language.simple.ast.SimpleFunctionStart;
+import org.apache.camel.language.simple.ast.SimpleNode;
+import org.apache.camel.language.simple.ast.SingleQuoteStart;
+import org.apache.camel.language.simple.types.BinaryOperatorType;
+import org.apache.camel.language.simple.types.LogicalOperatorType;
+import org.apache.camel.util.ExpressionToPredicateAdapter;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.OgnlHelper;
+import org.apache.camel.util.StringHelper;
+
+/**
+ * Compiles the AST of a parsed simple expression or predicate into {@link Expression}s which
+ * have resolved as much as possible up front, and therefore are cheaper to evaluate.
+ * <p/>
+ * The compiler does the following:
+ * <ul>
+ *   <li>literals, quoted text and <tt>null</tt> are turned into constants, and adjacent constants are concatenated</li>
+ *   <li>binary and logical operators with constants on both sides are evaluated (folded) at compile time</li>
+ *   <li>header and exchange property functions with a plain name, such as <tt>${header.foo}</tt>, are looked up
+ *   directly on the exchange instead of resolving the name as a nested simple expression on each evaluation</li>
+ *   <li>binary operators with a constant on the right hand side, such as <tt>${header.foo} == 'bar'</tt> or
+ *   <tt>${header.count} > 100</tt>, convert the constant to the type needed for the comparison only once, instead
+ *   of on each evaluation</li>
+ *   <li>binary and logical operators are {@link Predicate}s which do not build a failure message when not matching,
+ *   and return their result without a type conversion when evaluated as an <tt>Object</tt> or <tt>Boolean</tt></li>
+ * </ul>
+ * Any other node is created as its regular expression, so the compiled expression always evaluates
+ * to the same result as when not compiled.
+ *
+ * @see SimpleLanguage#setCompiled(boolean)
+ */
+public final class SimpleCompiler {
+
+    private static final String[] HEADER_PREFIXES = {"in.headers", "in.header", "headers", "header"};
+    private static final String[] PROPERTY_PREFIXES = {"exchangeProperty", "property"};
+
+    private SimpleCompiler() {
+    }
+
+    /**
+     * Compiles the given node.
+     *
+     * @param node       the node
+     * @param expression the entire simple expression the node is part of
+     * @return the compiled expression, or <tt>null</tt> if the node does not create an expression
+     */
+    public static Expression compile(SimpleNode node, String expression) {
+        if (node instanceof SimpleFunctionStart) {
+            return compileFunction((SimpleFunctionStart) node, expression);
+        } else if (node instanceof SingleQuoteStart) {
+            return compileQuoted(((SingleQuoteStart) node).getBlock(), expression);
+        } else if (node instanceof DoubleQuoteStart) {
+            return compileQuoted(((DoubleQuoteStart) node).getBlock(), expression);
+        } else if (node instanceof LiteralExpression && !(node instanceof SimpleFunctionExpression)) {
+            return new ConstantExpression(((LiteralExpression) node).getText());
+        } else if (node instanceof NullExpression) {
+            return new ConstantExpression(null);
+        } else if (node instanceof BinaryExpression) {
+            return compileBinary((BinaryExpression) node, expression);
+        } else if (node instanceof LogicalExpression) {
+            return compileLogical((LogicalExpression) node, expression);
+        }
+        return node.createExpression(expression);
+    }
+
+    /**
+     * Concatenates the given expressions as a single expression, where adjacent constants are concatenated
+     * at compile time.
+     *
+     * @param expressions the expressions
+     * @param expression  the entire simple expression
+     * @return the concatenated expression, or <tt>null</tt> if there was no expressions
+     */
+    public static Expression concat(List<Expression> expressions, String expression) {
+        List<Expression> answer = new ArrayList<Expression>(expressions.size());
+        StringBuilder text = null;
+        for (Expression exp : expressions) {
+            if (exp instanceof ConstantExpression) {
+                Object value = ((ConstantExpression) exp).getValue();
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                if (value != null) {
+                    text.append(value);
+                }
+            } else {
+                if (text != null) {
+                    answer.add(new ConstantExpression(text.toString()));
+                    text = null;
+                }
+                answer.add(exp);
+            }
+        }
+        if (text != null) {
+            answer.add(new ConstantExpression(text.toString()));
+        }
+
+        if (answer.isEmpty()) {
+            return null;
+        } else if (answer.size() == 1) {
+            return answer.get(0);
+        } else {
+            return ExpressionBuilder.concatExpression(answer, expression);
+        }
+    }
+
+    private static Expression compileQuoted(CompositeNodes block, String expression) {
+        List<Expression> expressions = new ArrayList<Expression>();
+        for (SimpleNode child : block.getChildren()) {
+            Expression exp = compile(child, expression);
+            if (exp != null) {
+                expressions.add(exp);
+            }
+        }
+        Expression answer = concat(expressions, expression);
+        if (answer == null) {
+            // the quoted literal is empty
+            answer = new ConstantExpression("");
+        }
+        return answer;
+    }
+
+    private static Expression compileFunction(SimpleFunctionStart node, String expression) {
+        List<SimpleNode> children = node.getBlock().getChildren();
+        if (children.size() == 1 && children.get(0) instanceof LiteralNode) {
+            String function = ((LiteralNode) children.get(0)).getText();
+
+            String name = nameAfterPrefix(function, HEADER_PREFIXES);
+            if (name != null) {
+                name = StringHelper.removeLeadingAndEndingQuotes(name);
+                if (isPlainName(name)) {
+                    return new HeaderExpression(name);
+                }
+            }
+            name = nameAfterPrefix(function, PROPERTY_PREFIXES);
+            if (name != null && isPlainName(name)) {
+                return new PropertyExpression(name);
+            }
+        }
+        return node.createExpression(expression);
+    }
+
+    /**
+     * Returns the name in <tt>prefix.name</tt> or <tt>prefix[name]</tt>, using the first matching prefix.
+     */
+    private static String nameAfterPrefix(String function, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (function.startsWith(prefix)) {
+                String remainder = function.substring(prefix.length());
+                if (remainder.startsWith(".")) {
+                    remainder = remainder.substring(1);
+                } else if (!remainder.startsWith("[")) {
+                    return null;
+                }
+                // remove starting and ending brackets
+                if (remainder.startsWith("[") && remainder.endsWith("]")) {
+                    remainder = remainder.substring(1, remainder.length() - 1);
+                }
+                return remainder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the name is a plain name, which is neither using OGNL nor nested functions.
+     */
+    private static boolean isPlainName(String name) {
+        return !name.isEmpty()
+            && !OgnlHelper.isInvalidValidOgnlExpression(name)
+            && !OgnlHelper.isValidOgnlExpression(name)
+            && !SimpleLanguage.hasSimpleFunction(name);
+    }
+
+    private static Expression compileBinary(BinaryExpression node, String expression) {
+        BinaryOperatorType operator = node.getOperator();
+        if (!CompiledBinaryExpression.isSupported(operator) || node.getLeft() == null || node.getRight() == null) {
+            return node.createExpression(expression);
+        }
+
+        Expression left = compile(node.getLeft(), expression);
+        Expression right = compile(node.getRight(), expression);
+        CompiledBinaryExpression answer = new CompiledBinaryExpression(node.toString(), operator, left, right);
+        if (answer.isFoldable()) {
+            // there is no exchange and type converter in use when folding
+            return new ConstantExpression(answer.matches(null));
+        }
+        return answer;
+    }
+
+    private static Expression compileLogical(LogicalExpression node, String expression) {
+        LogicalOperatorType operator = node.getOperator();
+        if (node.getLeft() == null || node.getRight() == null) {
+            return node.createExpression(expression);
+        }
+
+        Expression left = compile(node.getLeft(), expression);
+        Expression right = compile(node.getRight(), expression);
+        if (left instanceof ConstantExpression) {
+            boolean value = ObjectHelper.evaluateValuePredicate(((ConstantExpression) left).getValue());
+            if (operator == LogicalOperatorType.AND && !value) {
+                return new ConstantExpression(false);
+            } else if (operator == LogicalOperatorType.OR && value) {
+                return new ConstantExpression(true);
+            } else if (right instanceof ConstantExpression) {
+                return new ConstantExpression(ObjectHelper.evaluateValuePredicate(((ConstantExpression) right).getValue()));
+            }
+        }
+        return new CompiledLogicalExpression(node.toString(), operator,
+                ExpressionToPredicateAdapter.toPredicate(left), ExpressionToPredicateAdapter.toPredicate(right));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T convertTo(Exchange exchange, Class<T> type, Object value) {
+        if (value == null || type == Object.class || type.isInstance(value)) {
+            return (T) value;
+        }
+        return exchange.getContext().getTypeConverter().convertTo(type, exchange, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T convertTo(Exchange exchange, Class<T> type, boolean value) {
+        if (type == Object.class || type == Boolean.class || type == boolean.class) {
+            return (T) Boolean.valueOf(value);
+        }
+        return exchange.getContext().getTypeConverter().convertTo(type, exchange, value);
+    }
+
+    /**
+     * A constant value.
+     */
+    static final class ConstantExpression implements Expression {
+        private final Object value;
+
+        ConstantExpression(Object value) {
+            this.value = value;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        @Override
+        public <T> T evaluate(Exchange exchange, Class<T> type) {
+            return convertTo(exchange, type, value);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    /**
+     * A header, which falls back to the exchange property with the same name, as the
+     * <tt>${header.name}</tt> function does.
+     */
+    static final class HeaderExpression implements Expression {
+        private final String name;
+
+        HeaderExpression(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T> T evaluate(Exchange exchange, Class<T> type) {
+            Object header = exchange.getIn().getHeader(name);
+            if (header == null) {
+                // fall back on a property
+                header = exchange.getProperty(name);
+            }
+            return convertTo(exchange, type, header);
+        }
+
+        @Override
+        public String toString() {
+            return "header(" + name + ")";
+        }
+    }
+
+    /**
+     * An exchange property.
+     */
+    static final class PropertyExpression implements Expression {
+        private final String name;
+
+        PropertyExpression(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T> T evaluate(Exchange exchange, Class<T> type) {
+            return convertTo(exchange, type, exchange.getProperty(name));
+        }
+
+        @Override
+        public String toString() {
+            return "exchangeProperty(" + name + ")";
+        }
+    }
+
+    /**
+     * A binary operator, which matches the same as the predicates from
+     * {@link org.apache.camel.builder.PredicateBuilder} used by {@link BinaryExpression}.
+     */
+    static final class CompiledBinaryExpression implements Expression, Predicate {
+        private final String text;
+        private final BinaryOperatorType operator;
+        private final Expression left;
+        private final Expression right;
+        private final boolean constant;
+        private final Object constantValue;
+        // the constant converted to the types used for comparisons, which is computed once for the type converter in use
+        private volatile ConvertedConstant converted;
+        private volatile ConvertedNumbers numbers;
+
+        CompiledBinaryExpression(String text, BinaryOperatorType operator, Expression left, Expression right) {
+            this.text = text;
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+            this.constant = right instanceof ConstantExpression;
+            this.constantValue = constant ? ((ConstantExpression) right).getValue() : null;
+        }
+
+        static boolean isSupported(BinaryOperatorType operator) {
+            switch (operator) {
+            case EQ:
+            case EQ_IGNORE:
+            case NOT_EQ:
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+            case CONTAINS:
+            case NOT_CONTAINS:
+            case STARTS_WITH:
+            case ENDS_WITH:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        /**
+         * Whether this operator can be evaluated at compile time, which is when both sides are
+         * constant text and the operator does not need a type converter.
+         */
+        boolean isFoldable() {
+            if (!constant || !(left instanceof ConstantExpression)) {
+                return false;
+            }
+            Object leftValue = ((ConstantExpression) left).getValue();
+            if (!(leftValue == null || leftValue instanceof String) || !(constantValue == null || constantValue instanceof String)) {
+                return false;
+            }
+            switch (operator) {
+            case EQ:
+            case EQ_IGNORE:
+            case NOT_EQ:
+            case CONTAINS:
+            case NOT_CONTAINS:
+            case STARTS_WITH:
+            case ENDS_WITH:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            Object leftValue = left.evaluate(exchange, Object.class);
+            Object rightValue = constant ? constantValue : right.evaluate(exchange, Object.class);
+
+            switch (operator) {
+            case EQ:
+                return isEqualTo(exchange, leftValue, rightValue, false);
+            case EQ_IGNORE:
+                return isEqualTo(exchange, leftValue, rightValue, true);
+            case NOT_EQ:
+                return !isEqualTo(exchange, leftValue, rightValue, false);
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+                if (leftValue == null || rightValue == null) {
+                    // only greater than is not matching when both are null
+                    return leftValue == rightValue && operator != BinaryOperatorType.GT;
+                }
+                int result = compare(exchange, leftValue, rightValue);
+                if (operator == BinaryOperatorType.GT) {
+                    return result > 0;
+                } else if (operator == BinaryOperatorType.GTE) {
+                    return result >= 0;
+                } else if (operator == BinaryOperatorType.LT) {
+                    return result < 0;
+                } else {
+                    return result <= 0;
+                }
+            case CONTAINS:
+                return contains(leftValue, rightValue);
+            case NOT_CONTAINS:
+                return !contains(leftValue, rightValue);
+            case STARTS_WITH:
+            case ENDS_WITH:
+                if (leftValue == null || rightValue == null) {
+                    return leftValue == rightValue;
+                }
+                String leftStr = toString(exchange, leftValue);
+                String rightStr = toString(exchange, rightValue);
+                if (leftStr == null || rightStr == null) {
+                    return false;
+                }
+                return operator == BinaryOperatorType.STARTS_WITH ? leftStr.startsWith(rightStr) : leftStr.endsWith(rightStr);
+            default:
+                throw new IllegalStateException("Unsupported binary operator " + operator);
+            }
+        }
+
+        @Override
+        public <T> T evaluate(Exchange exchange, Class<T> type) {
+            return convertTo(exchange, type, matches(exchange));
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+
+        private boolean isEqualTo(Exchange exchange, Object leftValue, Object rightValue, boolean ignoreCase) {
+            if (leftValue == null || rightValue == null) {
+                return leftValue == rightValue;
+            }
+            if (ObjectHelper.equal(leftValue, rightValue, ignoreCase)) {
+                return true;
+            }
+            // are they same type, if so they are not equal as the equals returned false
+            if (leftValue.getClass().isInstance(rightValue)) {
+                return false;
+            }
+
+            TypeConverter converter = exchange.getContext().getTypeConverter();
+            if (!constant) {
+                return ObjectHelper.typeCoerceEquals(converter, leftValue, rightValue, ignoreCase);
+            }
+
+            // convert the constant to the left type, which is the same for each evaluation of the same left type
+            Object value = convertConstant(converter, leftValue.getClass());
+            if (value != null && ObjectHelper.equal(leftValue, value, ignoreCase)) {
+                return true;
+            }
+            // convert left to the constant type
+            value = converter.tryConvertTo(rightValue.getClass(), leftValue);
+            return ObjectHelper.equal(value, rightValue, ignoreCase);
+        }
+
+        private int compare(Exchange exchange, Object leftValue, Object rightValue) {
+            TypeConverter converter = exchange.getContext().getTypeConverter();
+            if (constant) {
+                // if both values is numeric then compare using numeric
+                ConvertedNumbers constantNumbers = convertConstantToNumbers(converter);
+                if (constantNumbers.longValue != null) {
+                    Long leftNum = converter.tryConvertTo(Long.class, leftValue);
+                    if (leftNum != null) {
+                        return leftNum.compareTo(constantNumbers.longValue);
+                    }
+                }
+                if (constantNumbers.doubleValue != null) {
+                    Double leftDouble = converter.tryConvertTo(Double.class, leftValue);
+                    if (leftDouble != null) {
+                        return leftDouble.compareTo(constantNumbers.doubleValue);
+                    }
+                }
+            }
+            return ObjectHelper.typeCoerceCompare(converter, leftValue, rightValue);
+        }
+
+        private static boolean contains(Object leftValue, Object rightValue) {
+            if (leftValue == null || rightValue == null) {
+                return leftValue == rightValue;
+            }
+            return ObjectHelper.contains(leftValue, rightValue);
+        }
+
+        private static String toString(Exchange exchange, Object value) {
+            if (value instanceof String) {
+                return (String) value;
+            }
+            return exchange.getContext().getTypeConverter().convertTo(String.class, value);
+        }
+
+        private Object convertConstant(TypeConverter converter, Class<?> type) {
+            ConvertedConstant answer = converted;
+            if (answer == null || answer.converter != converter || answer.type != type) {
+                answer = new ConvertedConstant(converter, type, converter.tryConvertTo(type, constantValue));
+                converted = answer;
+            }
+            return answer.value;
+        }
+
+        private ConvertedNumbers convertConstantToNumbers(TypeConverter converter) {
+            ConvertedNumbers answer = numbers;
+            if (answer == null || answer.converter != converter) {
+                answer = new ConvertedNumbers(converter, converter.tryConvertTo(Long.class, constantValue),
+                        converter.tryConvertTo(Double.class, constantValue));
+                numbers = answer;
+            }
+            return answer;
+        }
+    }
+
+    /**
+     * The constant of a binary operator converted to the given type.
+     */
+    private static final class ConvertedConstant {
+        private final TypeConverter converter;
+        private final Class<?> type;
+        private final Object value;
+
+        ConvertedConstant(TypeConverter converter, Class<?> type, Object value) {
+            this.converter = converter;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The constant of a binary operator converted to the numeric types used for comparisons.
+     */
+    private static final class ConvertedNumbers {
+        private final TypeConverter converter;
+        private final Long longValue;
+        private final Double doubleValue;
+
+        ConvertedNumbers(TypeConverter converter, Long longValue, Double doubleValue) {
+            this.converter = converter;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+        }
+    }
+
+    /**
+     * A logical operator, which evaluates the right hand side only when needed.
+     */
+    static final class CompiledLogicalExpression implements Expression, Predicate {
+        private final String text;
+        private final LogicalOperatorType operator;
+        private final Predicate left;
+        private final Predicate right;
+
+        CompiledLogicalExpression(String text, LogicalOperatorType operator, Predicate left, Predicate right) {
+            this.text = text;
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            if (operator == LogicalOperatorType.AND) {
+                return left.matches(exchange) && right.matches(exchange);
+            } else {
+                return left.matches(exchange) || right.matches(exchange);
+            }
+        }
+
+        @Override
+        public <T> T evaluate(Exchange exchange, Class<T> type) {
+            return convertTo(exchange, type, matches(exchange));
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -47,6 +47,17 @@ public class SimpleExpressionParser extends BaseSimpleParser {
         super(expression, allowEscape);
     }
 
+    /**
+     * Creates a parser.
+     *
+     * @param expression  the expression to parse
+     * @param allowEscape whether to allow escaping characters
+     * @param compiled    whether to compile the parsed expression, see {@link SimpleCompiler}
+     */
+    public SimpleExpressionParser(String expression, boolean allowEscape, boolean compiled) {
+        super(expression, allowEscape, compiled);
+    }
+
     public Expression parseExpression() {
         clear();
         try {
@@ -84,7 +95,10 @@ public class SimpleExpressionParser extends BaseSimpleParser {
 
         // create and return as a Camel expression
         List<Expression> expressions = createExpressions();
-        if (expressions.isEmpty()) {
+        if (compiled && !expressions.isEmpty()) {
+            // concat the compiled expressions where adjacent constants are concatenated up front
+            return SimpleCompiler.concat(expressions, expression);
+        } else if (expressions.isEmpty()) {
             // return an empty string as response as there was nothing to parse
             return ExpressionBuilder.constantExpression("");
         } else if (expressions.size() == 1) {
@@ -160,7 +174,7 @@ public class SimpleExpressionParser extends BaseSimpleParser {
     private List<Expression> createExpressions() {
         List<Expression> answer = new ArrayList<Expression>();
         for (SimpleNode token : nodes) {
-            Expression exp = token.createExpression(expression);
+            Expression exp = compiled ? SimpleCompiler.compile(token, expression) : token.createExpression(expression);
             if (exp != null) {
                 answer.add(exp);
             }
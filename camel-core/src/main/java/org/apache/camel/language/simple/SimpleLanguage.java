@@ -94,6 +94,7 @@ public class SimpleLanguage extends LanguageSupport {
     private static final SimpleLanguage SIMPLE = new SimpleLanguage();
 
     protected boolean allowEscape = true;
+    protected boolean compiled;
 
     /**
      * Default constructor.
@@ -101,6 +102,24 @@ public class SimpleLanguage extends LanguageSupport {
     public SimpleLanguage() {
     }
 
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to compile the parsed expressions and predicates, which resolves constants, header and exchange
+     * property lookups, and the types used by operators such as <tt>==</tt> up front, so evaluating them is cheaper.
+     * This is useful for predicates which are evaluated for every message, such as in a content based router.
+     * <p/>
+     * The compiled expressions evaluates to the same result as when not compiled.
+     * Is by default <tt>false</tt>.
+     *
+     * @see SimpleCompiler
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
     public Predicate createPredicate(String expression) {
         ObjectHelper.notNull(expression, "expression");
 
@@ -111,7 +130,7 @@ public class SimpleLanguage extends LanguageSupport {
         Predicate answer = SimpleBackwardsCompatibleParser.parsePredicate(expression, allowEscape);
         if (answer == null) {
             // use the new parser
-            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape);
+            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, compiled);
             answer = parser.parsePredicate();
         }
         return answer;
@@ -127,7 +146,7 @@ public class SimpleLanguage extends LanguageSupport {
         Expression answer = SimpleBackwardsCompatibleParser.parseExpression(expression, allowEscape);
         if (answer == null) {
             // use the new parser
-            SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape);
+            SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape, compiled);
             answer = parser.parseExpression();
         }
         return answer;
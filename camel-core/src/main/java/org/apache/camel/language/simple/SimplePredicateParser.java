@@ -60,6 +60,17 @@ public class SimplePredicateParser extends BaseSimpleParser {
         super(expression, allowEscape);
     }
 
+    /**
+     * Creates a parser.
+     *
+     * @param expression  the predicate to parse
+     * @param allowEscape whether to allow escaping characters
+     * @param compiled    whether to compile the parsed predicate, see {@link SimpleCompiler}
+     */
+    public SimplePredicateParser(String expression, boolean allowEscape, boolean compiled) {
+        super(expression, allowEscape, compiled);
+    }
+
     public Predicate parsePredicate() {
         clear();
         try {
@@ -435,8 +446,11 @@ public class SimplePredicateParser extends BaseSimpleParser {
     private List<Predicate> createPredicates() {
         List<Predicate> answer = new ArrayList<Predicate>();
         for (SimpleNode node : nodes) {
-            Expression exp = node.createExpression(expression);
-            if (exp != null) {
+            Expression exp = compiled ? SimpleCompiler.compile(node, expression) : node.createExpression(expression);
+            if (compiled && exp instanceof Predicate) {
+                // compiled operators are predicates already
+                answer.add((Predicate) exp);
+            } else if (exp != null) {
                 Predicate predicate = ExpressionToPredicateAdapter.toPredicate(exp);
                 answer.add(predicate);
             }
@@ -38,6 +38,10 @@ public class DoubleQuoteStart extends BaseSimpleNode implements BlockStart {
         return "\"" + block + "\"";
     }
 
+    public CompositeNodes getBlock() {
+        return block;
+    }
+
     @Override
     public Expression createExpression(String expression) {
         Expression answer = null;
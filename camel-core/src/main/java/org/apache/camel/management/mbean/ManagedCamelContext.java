@@ -264,6 +264,10 @@ public class ManagedCamelContext extends ManagedPerformanceCounter implements Ti
         return context.isAllowUseOriginalMessage();
     }
 
+    public boolean isExchangeCopyOnWrite() {
+        return context.isExchangeCopyOnWrite();
+    }
+
     public boolean isMessageHistory() {
         return context.isMessageHistory() != null ? context.isMessageHistory() : false;
     }
@@ -41,6 +41,8 @@ import org.w3c.dom.Document;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.ManagementStatisticsLevel;
+import org.apache.camel.Navigate;
+import org.apache.camel.Processor;
 import org.apache.camel.Route;
 import org.apache.camel.ServiceStatus;
 import org.apache.camel.TimerListener;
@@ -50,6 +52,7 @@ import org.apache.camel.api.management.mbean.ManagedRouteMBean;
 import org.apache.camel.model.ModelCamelContext;
 import org.apache.camel.model.ModelHelper;
 import org.apache.camel.model.RouteDefinition;
+import org.apache.camel.processor.FusedChannel;
 import org.apache.camel.spi.ManagementStrategy;
 import org.apache.camel.spi.RoutePolicy;
 import org.apache.camel.util.ObjectHelper;
@@ -163,6 +166,52 @@ public class ManagedRoute extends ManagedPerformanceCounter implements TimerList
         return route.getRouteContext().isLogMask();
     }
 
+    public Integer getFusedProcessorCount() {
+        int count = 0;
+        for (FusedChannel fused : findFusedChannels()) {
+            count += fused.getChannels().size();
+        }
+        return count;
+    }
+
+    public String getFusedProcessors() {
+        List<FusedChannel> list = findFusedChannels();
+        if (list.isEmpty()) {
+            // return an empty string to have it displayed nicely in JMX consoles
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < list.size(); i++) {
+            sb.append(list.get(i).getFusedIds());
+            if (i < list.size() - 1) {
+                sb.append(", ");
+            }
+        }
+        return sb.toString();
+    }
+
+    private List<FusedChannel> findFusedChannels() {
+        List<FusedChannel> answer = new ArrayList<FusedChannel>();
+        findFusedChannels(route.navigate(), answer);
+        return answer;
+    }
+
+    private static void findFusedChannels(Navigate<Processor> nav, List<FusedChannel> answer) {
+        if (nav == null || !nav.hasNext()) {
+            return;
+        }
+        for (Processor processor : nav.next()) {
+            if (processor instanceof FusedChannel) {
+                answer.add((FusedChannel) processor);
+            } else if (processor instanceof Navigate) {
+                @SuppressWarnings("unchecked")
+                Navigate<Processor> child = (Navigate<Processor>) processor;
+                findFusedChannels(child, answer);
+            }
+        }
+    }
+
     public String getRoutePolicyList() {
         List<RoutePolicy> policyList = route.getRouteContext().getRoutePolicyList();
 
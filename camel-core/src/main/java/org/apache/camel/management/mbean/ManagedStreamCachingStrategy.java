@@ -53,6 +53,14 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getSpoolChiper();
     }
 
+    public boolean isSpoolOffHeap() {
+        return streamCachingStrategy.isSpoolOffHeap();
+    }
+
+    public long getSpoolOffHeapThreshold() {
+        return streamCachingStrategy.getSpoolOffHeapThreshold();
+    }
+
     public void setSpoolThreshold(long threshold) {
         streamCachingStrategy.setSpoolThreshold(threshold);
     }
@@ -65,6 +65,8 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
     private Boolean stopOnException;
     @XmlAttribute @Metadata(defaultValue = "0")
     private Long timeout;
+    @XmlAttribute @Metadata(defaultValue = "0")
+    private Integer maxInflight;
     @XmlTransient
     private AggregationStrategy aggregationStrategy;
     @XmlAttribute
@@ -309,6 +311,22 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         return this;
     }
 
+    /**
+     * Sets the maximum number of messages which can be in flight, when using parallel processing.
+     * A message is in flight from when it is submitted to the thread pool until it has been aggregated.
+     * When the limit is reached the Multicast waits for a message to be aggregated before it sends the next message,
+     * which applies back-pressure and keeps memory usage bounded, such as when splitting a big file in streaming mode.
+     * <p/>
+     * The default value is <tt>0</tt> which means unbounded.
+     *
+     * @param maxInflight the maximum number of messages in flight
+     * @return the builder
+     */
+    public MulticastDefinition maxInflight(int maxInflight) {
+        setMaxInflight(maxInflight);
+        return this;
+    }
+
     /**
      * Shares the {@link org.apache.camel.spi.UnitOfWork} with the parent and each of the sub messages.
      * Multicast will by default not share unit of work between the parent exchange and each multicasted exchange.
@@ -339,12 +357,17 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         if (timeout > 0 && !isParallelProcessing) {
             throw new IllegalArgumentException("Timeout is used but ParallelProcessing has not been enabled.");
         }
+        int maxInflight = getMaxInflight() != null ? getMaxInflight() : 0;
+        if (maxInflight > 0 && !isParallelProcessing) {
+            throw new IllegalArgumentException("MaxInflight is used but ParallelProcessing has not been enabled.");
+        }
         if (onPrepareRef != null) {
             onPrepare = CamelContextHelper.mandatoryLookup(routeContext.getCamelContext(), onPrepareRef, Processor.class);
         }
 
         MulticastProcessor answer = new MulticastProcessor(routeContext.getCamelContext(), list, strategy, isParallelProcessing,
                                       threadPool, shutdownThreadPool, isStreaming, isStopOnException, timeout, onPrepare, isShareUnitOfWork, isParallelAggregate, isStopOnAggregateException);
+        answer.setMaxInflight(maxInflight);
         return answer;
     }
 
@@ -479,6 +502,14 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         this.timeout = timeout;
     }
 
+    public Integer getMaxInflight() {
+        return maxInflight;
+    }
+
+    public void setMaxInflight(Integer maxInflight) {
+        this.maxInflight = maxInflight;
+    }
+
     public String getOnPrepareRef() {
         return onPrepareRef;
     }
@@ -2235,6 +2235,41 @@ public abstract class ProcessorDefinition<Type extends ProcessorDefinition<Type>
         addOutput(answer);
         return answer;
     }
+
+    /**
+     * <a href="http://camel.apache.org/throttler.html">Throttler EIP:</a>
+     * Creates a throttler allowing you to ensure that a specific endpoint does not get overloaded,
+     * or that we don't exceed an agreed SLA with some external service.
+     * <p/>
+     * The messages are grouped by the correlation expression, and each group is throttled independently,
+     * so setting the maximumRequestCount to eg 10 will default ensure at most 10 messages per second per group.
+     *
+     * @param maximumRequestCount  the maximum messages per group
+     * @param correlationExpression  an expression to calculate the correlation key used to group the messages
+     * @return the builder
+     */
+    public ThrottleDefinition throttle(long maximumRequestCount, Expression correlationExpression) {
+        return throttle(ExpressionBuilder.constantExpression(maximumRequestCount), correlationExpression);
+    }
+
+    /**
+     * <a href="http://camel.apache.org/throttler.html">Throttler EIP:</a>
+     * Creates a throttler allowing you to ensure that a specific endpoint does not get overloaded,
+     * or that we don't exceed an agreed SLA with some external service.
+     * <p/>
+     * The messages are grouped by the correlation expression, and each group is throttled independently
+     * using the maximum request count evaluated for the group.
+     *
+     * @param maximumRequestCount  an expression to calculate the maximum request count
+     * @param correlationExpression  an expression to calculate the correlation key used to group the messages
+     * @return the builder
+     */
+    public ThrottleDefinition throttle(Expression maximumRequestCount, Expression correlationExpression) {
+        ThrottleDefinition answer = new ThrottleDefinition(maximumRequestCount);
+        answer.correlationExpression(correlationExpression);
+        addOutput(answer);
+        return answer;
+    }
     
     /**
      * <a href="http://camel.apache.org/loop.html">Loop EIP:</a>
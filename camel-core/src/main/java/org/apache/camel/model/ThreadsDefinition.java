@@ -73,6 +73,8 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
     private ThreadPoolRejectedPolicy rejectedPolicy;
     @XmlAttribute @Metadata(defaultValue = "true")
     private Boolean callerRunsWhenRejected;
+    @XmlAttribute
+    private Boolean virtualThreads;
     
     public ThreadsDefinition() {
         this.threadName =  "Threads";
@@ -109,6 +111,7 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
                     .maxQueueSize(getMaxQueueSize())
                     .rejectedPolicy(policy)
                     .allowCoreThreadTimeOut(getAllowCoreThreadTimeOut())
+                    .virtualThreads(getVirtualThreads())
                     .build();
             threadPool = manager.newThreadPool(this, name, profile);
             shutdownThreadPool = true;
@@ -137,6 +140,9 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
             if (getAllowCoreThreadTimeOut() != null) {
                 throw new IllegalArgumentException("AllowCoreThreadTimeOut and executorServiceRef options cannot be used together.");
             }
+            if (getVirtualThreads() != null) {
+                throw new IllegalArgumentException("VirtualThreads and executorServiceRef options cannot be used together.");
+            }
         }
 
         ThreadsProcessor thread = new ThreadsProcessor(routeContext.getCamelContext(), threadPool, shutdownThreadPool, policy);
@@ -297,6 +303,22 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
         return this;
     }
 
+    /**
+     * Whether to start a new virtual thread per task instead of using a pool of threads, if supported by the JVM.
+     * If the JVM does not support virtual threads then a regular thread pool is used.
+     * <p/>
+     * The pool sizes, keep alive, queue size and rejected policy options are not in use for virtual threads.
+     * <p/>
+     * Is by default <tt>false</tt>
+     *
+     * @param virtualThreads <tt>true</tt> to use virtual threads
+     * @return the builder
+     */
+    public ThreadsDefinition virtualThreads(boolean virtualThreads) {
+        setVirtualThreads(virtualThreads);
+        return this;
+    }
+
     public ExecutorService getExecutorService() {
         return executorService;
     }
@@ -384,4 +406,12 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
     public void setAllowCoreThreadTimeOut(Boolean allowCoreThreadTimeOut) {
         this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
     }
+
+    public Boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(Boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
 }
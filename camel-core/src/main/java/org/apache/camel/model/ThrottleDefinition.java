@@ -21,6 +21,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -43,6 +44,8 @@ import org.apache.camel.spi.RouteContext;
 public class ThrottleDefinition extends ExpressionNode implements ExecutorServiceAwareDefinition<ThrottleDefinition> {
     // TODO: Camel 3.0 Should not support outputs
 
+    @XmlElement(name = "correlationExpression")
+    private ExpressionSubElementDefinition correlationExpression;
     @XmlTransient
     private ExecutorService executorService;
     @XmlAttribute
@@ -97,6 +100,9 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         boolean reject = getRejectExecution() != null && getRejectExecution();
         Throttler answer = new Throttler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
 
+        if (getCorrelationExpression() != null) {
+            answer.setCorrelationExpression(getCorrelationExpression().createExpression(routeContext));
+        }
         answer.setAsyncDelayed(async);
         if (getCallerRunsWhenRejected() == null) {
             // should be true by default
@@ -139,6 +145,20 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * To use an expression to calculate a correlation key, which groups the messages so each group is
+     * throttled independently with its own maximum request count per time period.
+     *
+     * @param correlationExpression  the expression to calculate the correlation key
+     * @return the builder
+     */
+    public ThrottleDefinition correlationExpression(Expression correlationExpression) {
+        ExpressionSubElementDefinition cor = new ExpressionSubElementDefinition();
+        cor.setExpressionType(ExpressionNodeHelper.toExpressionDefinition(correlationExpression));
+        setCorrelationExpression(cor);
+        return this;
+    }
+
     /**
      * Whether or not the caller should run the task when it was rejected by the thread pool.
      * <p/>
@@ -209,6 +229,19 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         super.setExpression(expression);
     }
 
+    public ExpressionSubElementDefinition getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * The expression used to calculate the correlation key to use for throttle grouping.
+     * The messages with the same correlation key are throttled together, and each group of messages
+     * is throttled independently of the other groups.
+     */
+    public void setCorrelationExpression(ExpressionSubElementDefinition correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
+
     public Long getTimePeriodMillis() {
         return timePeriodMillis;
     }
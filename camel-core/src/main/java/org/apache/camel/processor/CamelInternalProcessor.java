@@ -17,6 +17,7 @@
 package org.apache.camel.processor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
@@ -103,6 +104,15 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         advices.sort(new OrderedComparator());
     }
 
+    /**
+     * Gets the advices in the order they are executed.
+     *
+     * @return the advices (read-only)
+     */
+    public List<CamelInternalProcessorAdvice> getAdvices() {
+        return Collections.unmodifiableList(advices);
+    }
+
     /**
      * Gets the advice with the given type.
      *
@@ -545,6 +555,13 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.first = first;
         }
 
+        /**
+         * Whether the backlog tracer is enabled, if not then this advice does nothing.
+         */
+        public boolean isEnabled() {
+            return backlogTracer.isEnabled();
+        }
+
         @Override
         public Object before(Exchange exchange) throws Exception {
             if (backlogTracer.shouldTrace(processorDefinition, exchange)) {
@@ -598,6 +615,13 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.nodeId = definition.getId();
         }
 
+        /**
+         * Whether the backlog debugger is enabled, if not then this advice does nothing.
+         */
+        public boolean isEnabled() {
+            return backlogDebugger.isEnabled();
+        }
+
         @Override
         public StopWatch before(Exchange exchange) throws Exception {
             if (backlogDebugger.isEnabled() && (backlogDebugger.hasBreakpoint(nodeId) || backlogDebugger.isSingleStepMode())) {
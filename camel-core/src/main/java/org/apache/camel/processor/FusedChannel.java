@@ -0,0 +1,379 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.Navigate;
+import org.apache.camel.Processor;
+import org.apache.camel.Traceable;
+import org.apache.camel.model.ConvertBodyDefinition;
+import org.apache.camel.model.LogDefinition;
+import org.apache.camel.model.ProcessDefinition;
+import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.model.RemoveHeaderDefinition;
+import org.apache.camel.model.RemoveHeadersDefinition;
+import org.apache.camel.model.RemovePropertiesDefinition;
+import org.apache.camel.model.RemovePropertyDefinition;
+import org.apache.camel.model.SetBodyDefinition;
+import org.apache.camel.model.SetExchangePatternDefinition;
+import org.apache.camel.model.SetHeaderDefinition;
+import org.apache.camel.model.SetPropertyDefinition;
+import org.apache.camel.model.TransformDefinition;
+import org.apache.camel.processor.interceptor.DefaultChannel;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.apache.camel.util.ServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fuses a sequence of {@link DefaultChannel}s in a route into a single step of the {@link Pipeline}.
+ * <p/>
+ * Each channel keeps its own error handler, interceptors and advices (such as message history and JMX),
+ * but the channels are invoked directly one after the other, instead of the pipeline and each channel
+ * allocating callbacks and advice state per step. The backlog tracer and backlog debugger advices are
+ * skipped when they are disabled. If a step completes asynchronously, then the remaining steps are
+ * continued from its callback, as the pipeline does.
+ * <p/>
+ * Use {@link #fuse(List)} to fuse the processors of a route, which only fuses consecutive channels with
+ * the same kind of advices, that wraps simple synchronous processors such as setting headers or transforming
+ * the message body.
+ */
+public class FusedChannel extends ServiceSupport implements AsyncProcessor, Navigate<Processor>, Traceable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FusedChannel.class);
+    // marks an advice which was skipped as its disabled
+    private static final Object SKIPPED = new Object();
+
+    private final List<DefaultChannel> channels;
+    private final CamelInternalProcessorAdvice[][] advices;
+    private final int maxAdvices;
+
+    public FusedChannel(List<DefaultChannel> channels) {
+        this.channels = new ArrayList<DefaultChannel>(channels);
+        this.advices = new CamelInternalProcessorAdvice[channels.size()][];
+        int max = 0;
+        for (int i = 0; i < channels.size(); i++) {
+            List<CamelInternalProcessorAdvice> list = channels.get(i).getAdvices();
+            advices[i] = list.toArray(new CamelInternalProcessorAdvice[list.size()]);
+            max = Math.max(max, advices[i].length);
+        }
+        this.maxAdvices = max;
+    }
+
+    /**
+     * Fuses the consecutive channels in the given list of processors (the steps of a route) which can be fused.
+     *
+     * @param processors the processors
+     * @return the processors where the channels which could be fused has been replaced with {@link FusedChannel}s,
+     *         or the given list if nothing could be fused
+     */
+    public static List<Processor> fuse(List<Processor> processors) {
+        List<Processor> answer = new ArrayList<Processor>(processors.size());
+        List<DefaultChannel> group = new ArrayList<DefaultChannel>();
+        boolean fused = false;
+
+        for (Processor processor : processors) {
+            if (isFusable(processor)) {
+                DefaultChannel channel = (DefaultChannel) processor;
+                if (!group.isEmpty() && !isSameAdvices(group.get(0), channel)) {
+                    fused |= addGroup(answer, group);
+                }
+                group.add(channel);
+            } else {
+                fused |= addGroup(answer, group);
+                answer.add(processor);
+            }
+        }
+        fused |= addGroup(answer, group);
+
+        return fused ? answer : processors;
+    }
+
+    private static boolean addGroup(List<Processor> answer, List<DefaultChannel> group) {
+        boolean fused = false;
+        if (group.size() > 1) {
+            FusedChannel channel = new FusedChannel(group);
+            LOG.debug("Fused {} processors into {}", group.size(), channel);
+            answer.add(channel);
+            fused = true;
+        } else {
+            answer.addAll(group);
+        }
+        group.clear();
+        return fused;
+    }
+
+    private static boolean isFusable(Processor processor) {
+        if (!(processor instanceof DefaultChannel)) {
+            return false;
+        }
+        // only simple processors which do not route the message elsewhere and complete synchronously
+        ProcessorDefinition<?> definition = ((DefaultChannel) processor).getProcessorDefinition();
+        return definition instanceof SetHeaderDefinition
+            || definition instanceof SetPropertyDefinition
+            || definition instanceof SetBodyDefinition
+            || definition instanceof TransformDefinition
+            || definition instanceof ConvertBodyDefinition
+            || definition instanceof RemoveHeaderDefinition
+            || definition instanceof RemoveHeadersDefinition
+            || definition instanceof RemovePropertyDefinition
+            || definition instanceof RemovePropertiesDefinition
+            || definition instanceof SetExchangePatternDefinition
+            || definition instanceof LogDefinition
+            || definition instanceof ProcessDefinition;
+    }
+
+    private static boolean isSameAdvices(DefaultChannel channel, DefaultChannel other) {
+        List<CamelInternalProcessorAdvice> advices = channel.getAdvices();
+        List<CamelInternalProcessorAdvice> others = other.getAdvices();
+        if (advices.size() != others.size()) {
+            return false;
+        }
+        for (int i = 0; i < advices.size(); i++) {
+            if (advices.get(i).getClass() != others.get(i).getClass()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the channels which has been fused
+     */
+    public List<DefaultChannel> getChannels() {
+        return Collections.unmodifiableList(channels);
+    }
+
+    /**
+     * Gets the ids of the processors which has been fused
+     */
+    public List<String> getFusedIds() {
+        List<String> answer = new ArrayList<String>(channels.size());
+        for (DefaultChannel channel : channels) {
+            answer.add(channel.getProcessorDefinition().getId());
+        }
+        return answer;
+    }
+
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        // UNIT_OF_WORK_PROCESS_SYNC is @deprecated and we should remove it from Camel 3.0
+        boolean fallback = exchange.isTransacted() || exchange.getProperty(Exchange.UNIT_OF_WORK_PROCESS_SYNC) != null;
+        FusedTask task = new FusedTask(exchange, callback, fallback);
+        boolean sync = task.run();
+        if (sync) {
+            callback.done(true);
+        }
+        return sync;
+    }
+
+    @Override
+    public String toString() {
+        return "FusedChannel" + channels;
+    }
+
+    public String getTraceLabel() {
+        return "fused";
+    }
+
+    public List<Processor> next() {
+        if (!hasNext()) {
+            return null;
+        }
+        return new ArrayList<Processor>(channels);
+    }
+
+    public boolean hasNext() {
+        return !channels.isEmpty();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ServiceHelper.startServices(channels);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopServices(channels);
+    }
+
+    @Override
+    protected void doShutdown() throws Exception {
+        ServiceHelper.stopAndShutdownServices(channels);
+    }
+
+    private static boolean isSkipped(CamelInternalProcessorAdvice advice) {
+        if (advice instanceof CamelInternalProcessor.BacklogTracerAdvice) {
+            return !((CamelInternalProcessor.BacklogTracerAdvice) advice).isEnabled();
+        } else if (advice instanceof CamelInternalProcessor.BacklogDebuggerAdvice) {
+            return !((CamelInternalProcessor.BacklogDebuggerAdvice) advice).isEnabled();
+        }
+        return false;
+    }
+
+    /**
+     * Routes a single exchange through the fused channels, and is used as callback for the step which
+     * is currently being processed, so only this task is allocated per exchange.
+     */
+    private final class FusedTask implements AsyncCallback {
+
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final boolean fallback;
+        private final Object[] states;
+        // the step being processed
+        private int index;
+
+        private FusedTask(Exchange exchange, AsyncCallback callback, boolean fallback) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.fallback = fallback;
+            this.states = fallback ? null : new Object[maxAdvices];
+        }
+
+        /**
+         * Processes the remaining steps.
+         *
+         * @return <tt>true</tt> if all steps was processed synchronously, <tt>false</tt> if a step is
+         *         continued asynchronously, and this task will then continue the remaining steps
+         */
+        boolean run() {
+            while (index < channels.size()) {
+                if (index > 0) {
+                    // check for error if so we should break out, as the pipeline does between the steps
+                    if (!PipelineHelper.continueProcessing(exchange, "so breaking out of pipeline", LOG)) {
+                        break;
+                    }
+                    if (isRouteStop()) {
+                        break;
+                    }
+                    PipelineHelper.createNextExchange(exchange);
+                }
+
+                boolean sync = fallback ? channels.get(index).process(exchange, this) : processStep();
+                if (!sync) {
+                    LOG.trace("Processing exchangeId: {} is continued being processed asynchronously", exchange.getExchangeId());
+                    return false;
+                }
+                index++;
+            }
+            return true;
+        }
+
+        public void done(boolean doneSync) {
+            if (!fallback) {
+                // execute the after advices when the step is done, as the channel does
+                after();
+            }
+            // the synchronous completion is continued by the run loop
+            if (doneSync) {
+                return;
+            }
+            index++;
+            if (run()) {
+                callback.done(false);
+            }
+        }
+
+        private boolean processStep() {
+            DefaultChannel channel = channels.get(index);
+            AsyncProcessor processor = channel.getProcessor();
+
+            CamelInternalProcessorAdvice[] tasks = advices[index];
+            // mark the advices as skipped until we have executed them, so the after advices
+            // only executes the advices which has been executed before
+            for (int i = 0; i < tasks.length; i++) {
+                states[i] = SKIPPED;
+            }
+
+            if (processor == null || !channel.continueProcessing(exchange)) {
+                return true;
+            }
+
+            for (int i = 0; i < tasks.length; i++) {
+                CamelInternalProcessorAdvice task = tasks[i];
+                if (isSkipped(task)) {
+                    continue;
+                }
+                try {
+                    states[i] = task.before(exchange);
+                } catch (Throwable e) {
+                    exchange.setException(e);
+                    // the channel does not execute any after advices if a before advice failed
+                    for (int j = 0; j < tasks.length; j++) {
+                        states[j] = SKIPPED;
+                    }
+                    return true;
+                }
+            }
+
+            UnitOfWork uow = exchange.getUnitOfWork();
+            // allow unit of work to wrap callback in case it need to do some special work
+            // for example the MDCUnitOfWork
+            AsyncCallback async = this;
+            if (uow != null) {
+                async = uow.beforeProcess(processor, exchange, this);
+            }
+            boolean sync = processor.process(exchange, async);
+            if (uow != null) {
+                uow.afterProcess(processor, exchange, this, sync);
+            }
+            return sync;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void after() {
+            CamelInternalProcessorAdvice[] tasks = advices[index];
+            // we should call after in reverse order
+            for (int i = tasks.length - 1; i >= 0; i--) {
+                Object state = states[i];
+                if (state == SKIPPED) {
+                    continue;
+                }
+                try {
+                    tasks[i].after(exchange, state);
+                } catch (Exception e) {
+                    exchange.setException(e);
+                    // allow all advices to complete even if there was an exception
+                }
+            }
+        }
+
+        private boolean isRouteStop() {
+            Object stop = exchange.getProperty(Exchange.ROUTE_STOP);
+            if (stop != null) {
+                boolean doStop = exchange.getContext().getTypeConverter().convertTo(Boolean.class, stop);
+                if (doStop) {
+                    LOG.debug("ExchangeId: {} is marked to stop routing: {}", exchange.getExchangeId(), exchange);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -158,6 +159,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
     private final boolean shutdownExecutorService;
     private ExecutorService aggregateExecutorService;
     private final long timeout;
+    private int maxInflight;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<PreparedErrorHandler, Processor>();
     private final boolean shareUnitOfWork;
 
@@ -289,22 +291,39 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             // when parallel then aggregate on the fly
             final AtomicBoolean running = new AtomicBoolean(true);
             final AtomicBoolean allTasksSubmitted = new AtomicBoolean();
+            final AtomicBoolean timedOut = new AtomicBoolean();
             final CountDownLatch aggregationOnTheFlyDone = new CountDownLatch(1);
             final AtomicException executionException = new AtomicException();
+            // the permits bound the number of tasks which are submitted but not yet aggregated
+            final Semaphore inflight = maxInflight > 0 ? new Semaphore(maxInflight) : null;
 
             // issue task to execute in separate thread so it can aggregate on-the-fly
             // while we submit new tasks, and those tasks complete concurrently
             // this allows us to optimize work and reduce memory consumption
             final AggregateOnTheFlyTask aggregateOnTheFlyTask = new AggregateOnTheFlyTask(result, original, total, completion, running,
-                    aggregationOnTheFlyDone, allTasksSubmitted, executionException);
+                    aggregationOnTheFlyDone, allTasksSubmitted, executionException, timedOut, inflight);
             final AtomicBoolean aggregationTaskSubmitted = new AtomicBoolean();
 
             LOG.trace("Starting to submit parallel tasks");
 
             while (it.hasNext()) {
+                if (inflight != null) {
+                    // apply back-pressure by waiting for a previous task to be aggregated before we
+                    // pull the next message from the iterator, which keeps memory usage bounded
+                    inflight.acquire();
+                    if (timedOut.get() || aggregationOnTheFlyDone.getCount() == 0) {
+                        // the aggregation is done (eg timeout or stop on exception) so there is no need to submit more tasks
+                        LOG.debug("Stop submitting parallel tasks as the aggregation is done after {} tasks", total.get());
+                        break;
+                    }
+                }
+
                 final ProcessorExchangePair pair = it.next();
                 // in case the iterator returns null then continue to next
                 if (pair == null) {
+                    if (inflight != null) {
+                        inflight.release();
+                    }
                     continue;
                 }
 
@@ -396,11 +415,13 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         private final CountDownLatch aggregationOnTheFlyDone;
         private final AtomicBoolean allTasksSubmitted;
         private final AtomicException executionException;
+        private final AtomicBoolean timedOut;
+        private final Semaphore inflight;
 
         private AggregateOnTheFlyTask(AtomicExchange result, Exchange original, AtomicInteger total,
                                       CompletionService<Exchange> completion, AtomicBoolean running,
                                       CountDownLatch aggregationOnTheFlyDone, AtomicBoolean allTasksSubmitted,
-                                      AtomicException executionException) {
+                                      AtomicException executionException, AtomicBoolean timedOut, Semaphore inflight) {
             this.result = result;
             this.original = original;
             this.total = total;
@@ -409,6 +430,8 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             this.aggregationOnTheFlyDone = aggregationOnTheFlyDone;
             this.allTasksSubmitted = allTasksSubmitted;
             this.executionException = executionException;
+            this.timedOut = timedOut;
+            this.inflight = inflight;
         }
 
         public void run() {
@@ -427,11 +450,14 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                 LOG.debug("Signaling we are done aggregating on the fly for exchangeId: {}", original.getExchangeId());
                 LOG.trace("Aggregate on the fly task done for exchangeId: {}", original.getExchangeId());
                 aggregationOnTheFlyDone.countDown();
+                if (inflight != null) {
+                    // wakeup the submitting thread in case it waits for back-pressure, so it can see we are done
+                    inflight.release();
+                }
             }
         }
 
         private void aggregateOnTheFly() throws InterruptedException, ExecutionException {
-            final AtomicBoolean timedOut = new AtomicBoolean();
             boolean stoppedOnException = false;
             final StopWatch watch = new StopWatch();
             final AtomicInteger aggregated = new AtomicInteger();
@@ -468,7 +494,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                 }
 
                 if (future == null) {
-                    ParallelAggregateTimeoutTask task = new ParallelAggregateTimeoutTask(original, result, completion, aggregated, total, timedOut);
+                    ParallelAggregateTimeoutTask task = new ParallelAggregateTimeoutTask(original, result, completion, aggregated, total, timedOut, inflight);
                     if (parallelAggregate) {
                         aggregateExecutorService.submit(task);
                     } else {
@@ -492,7 +518,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                     }
 
                     // we got a result so aggregate it
-                    ParallelAggregateTask task = new ParallelAggregateTask(result, subExchange, aggregated);
+                    ParallelAggregateTask task = new ParallelAggregateTask(result, subExchange, aggregated, inflight);
                     if (parallelAggregate) {
                         aggregateExecutorService.submit(task);
                     } else {
@@ -523,11 +549,13 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         private final AtomicExchange result;
         private final Exchange subExchange;
         private final AtomicInteger aggregated;
+        private final Semaphore inflight;
 
-        private ParallelAggregateTask(AtomicExchange result, Exchange subExchange, AtomicInteger aggregated) {
+        private ParallelAggregateTask(AtomicExchange result, Exchange subExchange, AtomicInteger aggregated, Semaphore inflight) {
             this.result = result;
             this.subExchange = subExchange;
             this.aggregated = aggregated;
+            this.inflight = inflight;
         }
 
         @Override
@@ -549,6 +577,10 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                 }
             } finally {
                 aggregated.incrementAndGet();
+                if (inflight != null) {
+                    // the task has been aggregated so allow submitting a new task
+                    inflight.release();
+                }
             }
         }
     }
@@ -564,15 +596,17 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         private final AtomicInteger aggregated;
         private final AtomicInteger total;
         private final AtomicBoolean timedOut;
+        private final Semaphore inflight;
 
         private ParallelAggregateTimeoutTask(Exchange original, AtomicExchange result, CompletionService<Exchange> completion,
-                                             AtomicInteger aggregated, AtomicInteger total, AtomicBoolean timedOut) {
+                                             AtomicInteger aggregated, AtomicInteger total, AtomicBoolean timedOut, Semaphore inflight) {
             this.original = original;
             this.result = result;
             this.completion = completion;
             this.aggregated = aggregated;
             this.total = total;
             this.timedOut = timedOut;
+            this.inflight = inflight;
         }
 
         @Override
@@ -604,6 +638,10 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
 
             // we timed out so increment the counter
             aggregated.incrementAndGet();
+            if (inflight != null) {
+                // the timed out task will not be aggregated so allow the submitting thread to continue
+                inflight.release();
+            }
         }
     }
 
@@ -1315,6 +1353,25 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         return shareUnitOfWork;
     }
 
+    /**
+     * The maximum number of tasks in flight when using parallel processing
+     */
+    public int getMaxInflight() {
+        return maxInflight;
+    }
+
+    /**
+     * Sets the maximum number of tasks which can be in flight when using parallel processing, counting
+     * the tasks which has been submitted but not yet aggregated. When the limit is reached the next
+     * message is not taken from the iterator until a previous task has been aggregated. This
+     * applies back-pressure so memory usage stays bounded when streaming a big message.
+     * <p/>
+     * Is by default <tt>0</tt> which means unbounded.
+     */
+    public void setMaxInflight(int maxInflight) {
+        this.maxInflight = maxInflight;
+    }
+
     public List<Processor> next() {
         if (!hasNext()) {
             return null;
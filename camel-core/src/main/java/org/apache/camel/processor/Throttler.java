@@ -16,11 +16,17 @@
  */
 package org.apache.camel.processor;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
@@ -55,6 +61,13 @@ import org.slf4j.LoggerFactory;
  * callers point of view in the last timePeriodMillis no more than
  * maxRequestsPerPeriod have been allowed to be acquired.
  *
+ * When a correlation expression is configured the exchanges are grouped by the
+ * evaluated correlation key, and each group is throttled independently using a
+ * token bucket per key. A bucket holds at most maxRequestsPerPeriod tokens which are
+ * refilled continuously over timePeriodMillis, so changing the throttle rate of a group
+ * is a constant time operation. Buckets of groups which have been idle for a full time
+ * period are full, and are therefore evicted without changing the throttling behavior.
+ *
  * @version
  */
 public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAware {
@@ -62,6 +75,8 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
     private static final String PROPERTY_EXCHANGE_QUEUED_TIMESTAMP = "CamelThrottlerExchangeQueuedTimestamp";
     private static final String PROPERTY_EXCHANGE_STATE = "CamelThrottlerExchangeState";
 
+    private static final String DEFAULT_CORRELATION_KEY = "CamelThrottlerDefaultCorrelationKey";
+
     private enum State { SYNC, ASYNC, ASYNC_REJECTED }
 
     private final Logger log = LoggerFactory.getLogger(Throttler.class);
@@ -69,11 +84,14 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
     private final DelayQueue<ThrottlePermit> delayQueue = new DelayQueue<>();
     private final ExecutorService asyncExecutor;
     private final boolean shutdownAsyncExecutor;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong(System.nanoTime());
 
     private volatile long timePeriodMillis;
     private volatile int throttleRate;
     private String id;
     private Expression maxRequestsPerPeriodExpression;
+    private Expression correlationExpression;
     private boolean rejectExecution;
     private boolean asyncDelayed;
     private boolean callerRunsWhenRejected = true;
@@ -111,6 +129,21 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
                 throw new RejectedExecutionException("Run is not allowed");
             }
 
+            if (correlationExpression != null) {
+                long delay = acquireToken(exchange);
+                if (delay > 0) {
+                    if (isAsyncDelayed() && !exchange.isTransacted() && state == State.SYNC) {
+                        log.debug("Throttle rate exceeded but AsyncDelayed enabled, so scheduling for async processing, exchangeId: {}", exchange.getExchangeId());
+                        return processDelayed(exchange, callback, delay);
+                    }
+                    log.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(delay), exchange.getExchangeId());
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } else {
+                    log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+                }
+                return processNext(exchange, callback, doneSync);
+            }
+
             calculateAndSetMaxRequestsPerPeriod(exchange);
             ThrottlePermit permit = delayQueue.poll();
 
@@ -159,19 +192,7 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
                 }
             }
 
-            if (processor != null) {
-                if (doneSync) {
-                    return processor.process(exchange, callback);
-                } else {
-                    // if we are executing async, then we have to call the nested processor synchronously, and we
-                    // must not share our AsyncCallback, because the nested processing has no way of knowing that
-                    // we are already executing asynchronously.
-                    AsyncProcessorHelper.process(processor, exchange);
-                }
-            }
-
-            callback.done(doneSync);
-            return doneSync;
+            return processNext(exchange, callback, doneSync);
 
         } catch (final InterruptedException e) {
             // determine if we can still run, or the camel context is forcing a shutdown
@@ -192,6 +213,22 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         }
     }
 
+    private boolean processNext(final Exchange exchange, final AsyncCallback callback, final boolean doneSync) throws Exception {
+        if (processor != null) {
+            if (doneSync) {
+                return processor.process(exchange, callback);
+            } else {
+                // if we are executing async, then we have to call the nested processor synchronously, and we
+                // must not share our AsyncCallback, because the nested processing has no way of knowing that
+                // we are already executing asynchronously.
+                AsyncProcessorHelper.process(processor, exchange);
+            }
+        }
+
+        callback.done(doneSync);
+        return doneSync;
+    }
+
     /**
      * Delegate blocking on the DelayQueue to an asyncExecutor. Except if the executor rejects the submission
      * and isCallerRunsWhenRejected() is enabled, then this method will delegate back to process(), but not
@@ -220,6 +257,134 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         }
     }
 
+    /**
+     * Schedules the processing of an exchange, which has already reserved a token, on the asyncExecutor
+     * after the given delay, so no thread is blocked while the exchange is throttled. If the executor
+     * rejects the task and isCallerRunsWhenRejected() is enabled, then the current thread waits out the
+     * delay and continues processing the exchange.
+     */
+    protected boolean processDelayed(final Exchange exchange, final AsyncCallback callback, final long delay) throws Exception {
+        try {
+            if (asyncExecutor instanceof ScheduledExecutorService) {
+                ((ScheduledExecutorService) asyncExecutor).schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        processScheduled(exchange, callback);
+                    }
+                }, delay, TimeUnit.NANOSECONDS);
+            } else {
+                asyncExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(delay);
+                        } catch (InterruptedException e) {
+                            exchange.setException(e);
+                            callback.done(false);
+                            return;
+                        }
+                        processScheduled(exchange, callback);
+                    }
+                });
+            }
+            return false;
+        } catch (final RejectedExecutionException e) {
+            if (isCallerRunsWhenRejected()) {
+                log.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}", exchange.getExchangeId());
+                TimeUnit.NANOSECONDS.sleep(delay);
+                return processNext(exchange, callback, true);
+            }
+            throw e;
+        }
+    }
+
+    private void processScheduled(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            processNext(exchange, callback, false);
+        } catch (final Throwable t) {
+            exchange.setException(t);
+            callback.done(false);
+        }
+    }
+
+    /**
+     * Acquires a token from the token bucket of the correlation key of the exchange.
+     *
+     * @return the delay in nanos the exchange must wait before it can be processed, or <tt>0</tt> to process it now
+     */
+    protected long acquireToken(final Exchange exchange) throws Exception {
+        String key = correlationExpression.evaluate(exchange, String.class);
+        if (key == null) {
+            key = DEFAULT_CORRELATION_KEY;
+        }
+        Integer newThrottle = maxRequestsPerPeriodExpression.evaluate(exchange, Integer.class);
+        if (newThrottle != null && newThrottle < 0) {
+            throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            evictIdleBuckets(now);
+
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (newThrottle == null) {
+                    throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + maxRequestsPerPeriodExpression, exchange);
+                }
+                TokenBucket created = new TokenBucket(newThrottle, now);
+                bucket = buckets.putIfAbsent(key, created);
+                if (bucket == null) {
+                    bucket = created;
+                    log.debug("Initial throttle rate set to {} for correlation key: {}, triggered by ExchangeId: {}", newThrottle, key, exchange.getExchangeId());
+                }
+            }
+
+            // only wait for a token when we would block and not reject
+            long delay = bucket.acquire(newThrottle, TimeUnit.MILLISECONDS.toNanos(timePeriodMillis), now, !isRejectExecution());
+            if (delay == TokenBucket.EVICTED) {
+                // the bucket was evicted concurrently, so start over with a new bucket
+                continue;
+            } else if (delay == TokenBucket.NOT_AVAILABLE) {
+                if (isRejectExecution()) {
+                    throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
+                            + bucket.getRate() + " within " + timePeriodMillis + "ms for correlation key: " + key);
+                }
+                // the throttle rate is zero so wait a time period for the rate to change
+                log.trace("Throttle rate is zero for correlation key: {}, will re-evaluate after {}ms", key, timePeriodMillis);
+                TimeUnit.MILLISECONDS.sleep(timePeriodMillis);
+                continue;
+            }
+            return delay;
+        }
+    }
+
+    /**
+     * Evicts the token buckets which have been idle for at least a time period. The eviction is run at most once per
+     * time period (and at most once per second) and only by a single thread.
+     */
+    private void evictIdleBuckets(final long now) {
+        long next = nextEviction.get();
+        if (now - next < 0) {
+            return;
+        }
+        long period = TimeUnit.MILLISECONDS.toNanos(timePeriodMillis);
+        if (!nextEviction.compareAndSet(next, now + Math.max(period, TimeUnit.SECONDS.toNanos(1)))) {
+            // another thread is evicting
+            return;
+        }
+        int count = 0;
+        for (Iterator<Map.Entry<String, TokenBucket>> it = buckets.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, TokenBucket> entry = it.next();
+            if (entry.getValue().evictIfIdle(period, now)) {
+                it.remove();
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.debug("Evicted {} idle throttle groups, {} groups remaining", count, buckets.size());
+        }
+    }
+
     /**
      * Returns a permit to the DelayQueue, first resetting it's delay to be relative to now.
      */
@@ -287,6 +452,13 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         super.doStart();
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        // the groups are throttled from scratch when started again
+        buckets.clear();
+        super.doStop();
+    }
+
     @Override
     protected void doShutdown() throws Exception {
         if (shutdownAsyncExecutor && asyncExecutor != null) {
@@ -320,6 +492,85 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         }
     }
 
+    /**
+     * Token bucket for the throttling of a group of exchanges with the same correlation key.
+     * <p/>
+     * The bucket holds up to rate tokens and is refilled with rate tokens per time period. The number of
+     * tokens may become negative when exchanges reserve tokens ahead of time, which is how blocking callers
+     * are queued up, and the reservation tells the caller how long to wait.
+     */
+    private static final class TokenBucket {
+        static final long NOT_AVAILABLE = -1;
+        static final long EVICTED = -2;
+
+        private int rate;
+        private double tokens;
+        private long lastRefill;
+        private long lastUsed;
+        private boolean evicted;
+
+        TokenBucket(int rate, long now) {
+            this.rate = rate;
+            this.tokens = rate;
+            this.lastRefill = now;
+            this.lastUsed = now;
+        }
+
+        synchronized int getRate() {
+            return rate;
+        }
+
+        /**
+         * Acquires a token, optionally reserving a future token if none is available now.
+         *
+         * @return <tt>0</tt> if a token was acquired, the delay in nanos until a reserved token is available,
+         * {@link #NOT_AVAILABLE} if no token could be acquired or reserved, or {@link #EVICTED} if this bucket
+         * has been evicted and should no longer be used
+         */
+        synchronized long acquire(Integer newRate, long period, long now, boolean reserve) {
+            if (evicted) {
+                return EVICTED;
+            }
+            lastUsed = now;
+            refill(period, now);
+            if (newRate != null && newRate != rate) {
+                // the tokens already reserved are kept, but the bucket can not hold more than the new rate
+                rate = newRate;
+                tokens = Math.min(tokens, rate);
+            }
+            if (rate == 0) {
+                return NOT_AVAILABLE;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            if (!reserve) {
+                return NOT_AVAILABLE;
+            }
+            tokens -= 1;
+            // the time it takes to refill the missing tokens
+            return Math.max(1, (long) Math.ceil(-tokens * period / rate));
+        }
+
+        synchronized boolean evictIfIdle(long period, long now) {
+            // a full bucket is the same as a new bucket, so it can be removed without losing any state
+            refill(period, now);
+            if (now - lastUsed >= period && tokens >= rate) {
+                evicted = true;
+            }
+            return evicted;
+        }
+
+        private void refill(long period, long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(rate, tokens + (double) elapsed * rate / period);
+                lastRefill = now;
+            }
+        }
+    }
+
     public boolean isRejectExecution() {
         return rejectExecution;
     }
@@ -363,6 +614,25 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         return maxRequestsPerPeriodExpression;
     }
 
+    /**
+     * Sets the expression used to calculate the correlation key, which groups the exchanges
+     * which are throttled independently of the other groups.
+     */
+    public void setCorrelationExpression(Expression correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
+
+    public Expression getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * Gets the number of groups which are currently throttled when using a correlation expression.
+     */
+    public int getCurrentGroups() {
+        return buckets.size();
+    }
+
     /**
      * Gets the current maximum request per period value.
      */
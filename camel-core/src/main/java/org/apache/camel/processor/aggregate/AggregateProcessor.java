@@ -51,6 +51,7 @@ import org.apache.camel.Traceable;
 import org.apache.camel.spi.AggregationRepository;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.IdAware;
+import org.apache.camel.spi.IncrementalAggregationRepository;
 import org.apache.camel.spi.OptimisticLockingAggregationRepository;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.spi.ShutdownAware;
@@ -91,6 +92,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
 
     private final Lock lock = new ReentrantLock();
+    private Lock[] correlationKeyLocks;
     private final AtomicBoolean aggregateRepositoryWarned = new AtomicBoolean();
     private final CamelContext camelContext;
     private final Processor processor;
@@ -195,6 +197,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int lockStripes;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -341,12 +344,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             // when memory based then its fast using synchronized, but if the aggregation repository is IO
             // bound such as JPA etc then concurrent aggregation per correlation key could
             // improve performance as we can run aggregation repository get/add in parallel
+            // (which is what lockStripes offers by only locking the stripe the correlation key belongs to)
             List<Exchange> aggregated = null;
-            lock.lock();
+            Lock keyLock = getCorrelationKeyLock(key);
+            keyLock.lock();
             try {
                 aggregated = doAggregation(key, copy);
             } finally {
-                lock.unlock();
+                keyLock.unlock();
             }
 
             // we are completed so do that work outside the lock
@@ -368,7 +373,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
      * Aggregates the exchange with the given correlation key
      * <p/>
      * This method <b>must</b> be run synchronized as we cannot aggregate the same correlation key
-     * in parallel.
+     * in parallel. When using lock stripes it is sufficient to hold the lock returned by
+     * {@link #getCorrelationKeyLock(String)} for the given key.
      * <p/>
      * The returned {@link Exchange} should be send downstream using the {@link #onSubmitCompletion(String, org.apache.camel.Exchange)}
      * method which sends out the aggregated and completed {@link Exchange}.
@@ -444,6 +450,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             trackTimeout(key, newExchange);
         }
 
+        // an incremental repository stores the incoming exchange, so keep a copy as the aggregation strategy may change it
+        Exchange incomingExchange = isIncrementalAggregationRepository() ? newExchange.copy() : null;
+
         // aggregate the exchanges
         try {
             answer = onAggregation(oldExchange, newExchange);
@@ -478,7 +487,11 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         if (complete == null) {
             // only need to update aggregation repository if we are not complete
-            doAggregationRepositoryAdd(newExchange.getContext(), key, originalExchange, answer);
+            if (incomingExchange != null) {
+                doAggregationRepositoryAppend(newExchange.getContext(), key, originalExchange, incomingExchange, answer);
+            } else {
+                doAggregationRepositoryAdd(newExchange.getContext(), key, originalExchange, answer);
+            }
         } else {
             // if we are complete then add the answer to the list
             doAggregationComplete(complete, list, key, originalExchange, answer);
@@ -533,6 +546,24 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    protected void doAggregationRepositoryAppend(CamelContext camelContext, String key, Exchange oldExchange, Exchange incomingExchange, Exchange newExchange) {
+        LOG.trace("In progress aggregated oldExchange: {}, newExchange: {} appending incoming exchange: {} with correlation key: {}",
+            new Object[]{oldExchange, newExchange, incomingExchange, key});
+        try {
+            ((IncrementalAggregationRepository) aggregationRepository).append(camelContext, key, incomingExchange, newExchange);
+        } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+            if (optimisticLocking) {
+                onOptimisticLockingFailure(oldExchange, newExchange);
+            }
+            throw e;
+        }
+    }
+
+    protected boolean isIncrementalAggregationRepository() {
+        return aggregationRepository instanceof IncrementalAggregationRepository
+            && ((IncrementalAggregationRepository) aggregationRepository).isIncremental();
+    }
+
     protected void onOptimisticLockingFailure(Exchange oldExchange, Exchange newExchange) {
         AggregationStrategy strategy = aggregationStrategy;
         if (strategy instanceof DelegateAggregationStrategy) {
@@ -644,6 +675,26 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    /**
+     * Gets the lock which must be held while aggregating the given correlation key.
+     * <p/>
+     * This is the shared lock unless lock stripes is in use, where the lock of the stripe
+     * the correlation key belongs to is returned.
+     *
+     * @param key the correlation key
+     * @return the lock
+     */
+    protected Lock getCorrelationKeyLock(String key) {
+        Lock[] locks = correlationKeyLocks;
+        if (locks == null) {
+            return lock;
+        }
+        // spread the hash code as correlation keys are often similar strings
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return locks[(hash & 0x7fffffff) % locks.length];
+    }
+
     protected Exchange onAggregation(Exchange oldExchange, Exchange newExchange) {
         return aggregationStrategy.aggregate(oldExchange, newExchange);
     }
@@ -956,6 +1007,24 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.optimisticLocking = optimisticLocking;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of lock stripes to use when aggregating without optimistic locking.
+     * <p/>
+     * By default a single lock is shared by all correlation keys, which means only one
+     * aggregation can happen at any time. By using lock stripes each correlation key is guarded
+     * by the lock of the stripe it belongs to, which allows aggregating different correlation
+     * keys in parallel, while the same correlation key is still aggregated one at a time.
+     *
+     * @param lockStripes the number of lock stripes, use 0 or 1 to use a single shared lock
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1074,19 +1143,21 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
             // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead
+            // (when using lock stripes the entries are guarded by the stripe of the correlation key)
             super(executor, requestMapPollTimeMillis, optimisticLocking);
         }
 
         @Override
         public void purge() {
             // must acquire the shared aggregation lock to be able to purge
-            if (!optimisticLocking) {
+            boolean sharedLock = !optimisticLocking && correlationKeyLocks == null;
+            if (sharedLock) {
                 lock.lock();
             }
             try {
                 super.purge();
             } finally {
-                if (!optimisticLocking) {
+                if (sharedLock) {
                     lock.unlock();
                 }
             }
@@ -1094,6 +1165,31 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         @Override
         public boolean onEviction(String key, String exchangeId) {
+            if (correlationKeyLocks == null) {
+                return doEviction(key, exchangeId);
+            }
+
+            // must acquire the lock of the correlation key to be able to complete it
+            Lock keyLock = getCorrelationKeyLock(key);
+            keyLock.lock();
+            try {
+                // the correlation key may have been aggregated again after it was found expired,
+                // and if so the timeout was tracked again and it should not be completed
+                if (!exchangeId.equals(get(key))) {
+                    LOG.trace("Correlation key: {} was aggregated again before completion timeout could trigger.", key);
+                    return false;
+                }
+                doEviction(key, exchangeId);
+                // remove the entry while still holding the lock so we do not remove a new entry
+                // which may be tracked by a concurrent aggregation of the same correlation key
+                remove(key);
+            } finally {
+                keyLock.unlock();
+            }
+            return false;
+        }
+
+        private boolean doEviction(String key, String exchangeId) {
             log.debug("Completion timeout triggered for correlation key: {}", key);
 
             boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
@@ -1147,34 +1243,46 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
             if (keys != null && !keys.isEmpty()) {
                 // must acquire the shared aggregation lock to be able to trigger interval completion
-                if (!optimisticLocking) {
+                boolean sharedLock = !optimisticLocking && correlationKeyLocks == null;
+                if (sharedLock) {
                     lock.lock();
                 }
                 try {
                     for (String key : keys) {
-                        boolean stolenInterval = false;
-                        Exchange exchange = aggregationRepository.get(camelContext, key);
-                        if (exchange == null) {
-                            stolenInterval = true;
-                        } else {
-                            LOG.trace("Completion interval triggered for correlation key: {}", key);
-                            // indicate it was completed by interval
-                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "interval");
-                            try {
-                                Exchange answer = onCompletion(key, exchange, exchange, false);
-                                if (answer != null) {
-                                    onSubmitCompletion(key, answer);
-                                }
-                            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                        // when using lock stripes then acquire the lock of the correlation key instead
+                        Lock keyLock = correlationKeyLocks != null ? getCorrelationKeyLock(key) : null;
+                        if (keyLock != null) {
+                            keyLock.lock();
+                        }
+                        try {
+                            boolean stolenInterval = false;
+                            Exchange exchange = aggregationRepository.get(camelContext, key);
+                            if (exchange == null) {
                                 stolenInterval = true;
+                            } else {
+                                LOG.trace("Completion interval triggered for correlation key: {}", key);
+                                // indicate it was completed by interval
+                                exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "interval");
+                                try {
+                                    Exchange answer = onCompletion(key, exchange, exchange, false);
+                                    if (answer != null) {
+                                        onSubmitCompletion(key, answer);
+                                    }
+                                } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                                    stolenInterval = true;
+                                }
+                            }
+                            if (optimisticLocking && stolenInterval) {
+                                LOG.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
+                            }
+                        } finally {
+                            if (keyLock != null) {
+                                keyLock.unlock();
                             }
-                        }
-                        if (optimisticLocking && stolenInterval) {
-                            LOG.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
                         }
                     }
                 } finally {
-                    if (!optimisticLocking) {
+                    if (sharedLock) {
                         lock.unlock();
                     }
                 }
@@ -1325,6 +1433,28 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             LOG.info("Optimistic locking is enabled");
         }
 
+        if (isIncrementalAggregationRepository()) {
+            // the repository replays the appended exchanges using the same aggregation strategy
+            ((IncrementalAggregationRepository) aggregationRepository).setAggregationStrategy(aggregationStrategy);
+            LOG.info("Using incremental AggregationRepository which appends the incoming exchanges: {}", aggregationRepository);
+        }
+
+        if (lockStripes > 1) {
+            if (optimisticLocking) {
+                throw new IllegalArgumentException("Only one of optimisticLocking or lockStripes can be used, not both.");
+            }
+            if (isCompletionFromBatchConsumer()) {
+                throw new IllegalArgumentException("Only one of completionFromBatchConsumer or lockStripes can be used, not both.");
+            }
+            correlationKeyLocks = new Lock[lockStripes];
+            for (int i = 0; i < lockStripes; i++) {
+                correlationKeyLocks[i] = new ReentrantLock();
+            }
+            LOG.info("Using {} lock stripes to aggregate different correlation keys in parallel", lockStripes);
+        } else {
+            correlationKeyLocks = null;
+        }
+
         ServiceHelper.startServices(aggregationStrategy, processor, aggregationRepository);
 
         // should we use recover checker
@@ -1489,8 +1619,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
-        if (!optimisticLocking) {
-            lock.lock();
+        Lock keyLock = optimisticLocking ? null : getCorrelationKeyLock(key);
+        if (keyLock != null) {
+            keyLock.lock();
         }
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -1505,8 +1636,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 }
             }
         } finally {
-            if (!optimisticLocking) {
-                lock.unlock(); 
+            if (keyLock != null) {
+                keyLock.unlock();
             }
         }
         LOG.trace("Completed force completion of group {}", key);
@@ -1534,25 +1665,37 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
             // must acquire the shared aggregation lock to be able to trigger force completion
-            if (!optimisticLocking) {
+            boolean sharedLock = !optimisticLocking && correlationKeyLocks == null;
+            if (sharedLock) {
                 lock.lock(); 
             }
             total = keys.size();
             try {
                 for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        LOG.trace("Force completion triggered for correlation key: {}", key);
-                        // indicate it was completed by a force completion request
-                        exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "force");
-                        Exchange answer = onCompletion(key, exchange, exchange, false);
-                        if (answer != null) {
-                            onSubmitCompletion(key, answer);
+                    // when using lock stripes then acquire the lock of the correlation key instead
+                    Lock keyLock = correlationKeyLocks != null ? getCorrelationKeyLock(key) : null;
+                    if (keyLock != null) {
+                        keyLock.lock();
+                    }
+                    try {
+                        Exchange exchange = aggregationRepository.get(camelContext, key);
+                        if (exchange != null) {
+                            LOG.trace("Force completion triggered for correlation key: {}", key);
+                            // indicate it was completed by a force completion request
+                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "force");
+                            Exchange answer = onCompletion(key, exchange, exchange, false);
+                            if (answer != null) {
+                                onSubmitCompletion(key, answer);
+                            }
+                        }
+                    } finally {
+                        if (keyLock != null) {
+                            keyLock.unlock();
                         }
                     }
                 }
             } finally {
-                if (!optimisticLocking) {
+                if (sharedLock) {
                     lock.unlock();
                 }
             }
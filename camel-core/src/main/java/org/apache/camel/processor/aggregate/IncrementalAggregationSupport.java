@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.util.ExchangeHelper;
+import org.apache.camel.util.LRUCache;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Support class for implementing an {@link org.apache.camel.spi.IncrementalAggregationRepository}.
+ * <p/>
+ * The stored exchanges of a correlation group are numbered by a sequence number, where the sequence number of an
+ * incoming exchange is the {@link Exchange#AGGREGATED_SIZE} of the group after the exchange was aggregated, and the
+ * {@link #SNAPSHOT_SEQUENCE} is used for storing an aggregated exchange as a whole (such as when added using
+ * {@link org.apache.camel.spi.AggregationRepository#add(org.apache.camel.CamelContext, String, Exchange)}),
+ * which the following exchanges are aggregated onto.
+ * <p/>
+ * The latest aggregated exchange of the groups are kept in a LRU cache, which is tagged with the sequence number
+ * of the last stored exchange, so the stored exchanges only needs to be replayed when the cached exchange is missing or
+ * out of date (such as after a restart, or if another node has appended to the group).
+ */
+public class IncrementalAggregationSupport {
+
+    /**
+     * The sequence number used for storing an aggregated exchange as a whole.
+     */
+    public static final long SNAPSHOT_SEQUENCE = 0;
+
+    private final Map<String, CachedAggregation> cache;
+    private volatile AggregationStrategy aggregationStrategy;
+
+    public IncrementalAggregationSupport() {
+        this(1000);
+    }
+
+    public IncrementalAggregationSupport(int cacheSize) {
+        this.cache = new LRUCache<String, CachedAggregation>(16, cacheSize, false);
+    }
+
+    public AggregationStrategy getAggregationStrategy() {
+        return aggregationStrategy;
+    }
+
+    public void setAggregationStrategy(AggregationStrategy aggregationStrategy) {
+        this.aggregationStrategy = aggregationStrategy;
+    }
+
+    /**
+     * Gets the sequence number to store the incoming exchange at.
+     *
+     * @param aggregatedExchange the aggregated exchange which includes the incoming exchange
+     * @return the sequence number
+     */
+    public static long getSequence(Exchange aggregatedExchange) {
+        Integer size = aggregatedExchange.getProperty(Exchange.AGGREGATED_SIZE, Integer.class);
+        ObjectHelper.notNull(size, Exchange.AGGREGATED_SIZE + " property on the aggregated exchange");
+        return size;
+    }
+
+    /**
+     * Takes the cached aggregated exchange of the group.
+     * <p/>
+     * The exchange is removed from the cache, as the caller may change it when aggregating, and is to put
+     * it back using {@link #cache(String, Exchange, long)} when it has been stored.
+     *
+     * @param key          the correlation key
+     * @param lastSequence the sequence number of the last stored exchange of the group
+     * @return the aggregated exchange, or <tt>null</tt> if not cached or the cached exchange is out of date
+     */
+    public Exchange take(String key, long lastSequence) {
+        CachedAggregation cached = cache.remove(key);
+        if (cached != null && cached.sequence == lastSequence) {
+            return cached.exchange;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the aggregated exchange of the group.
+     *
+     * @param key        the correlation key
+     * @param aggregated the aggregated exchange
+     * @param sequence   the sequence number of the last stored exchange of the group
+     */
+    public void cache(String key, Exchange aggregated, long sequence) {
+        cache.put(key, new CachedAggregation(aggregated, sequence));
+    }
+
+    /**
+     * Evicts the cached aggregated exchange of the group, such as when the group is removed or storing failed.
+     *
+     * @param key the correlation key
+     */
+    public void evict(String key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Evicts all the cached aggregated exchanges.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Replays a stored exchange of the group by aggregating it onto the aggregated exchange of the group.
+     * <p/>
+     * The stored exchanges must be replayed in order of their sequence numbers.
+     *
+     * @param aggregated the aggregated exchange so far, or <tt>null</tt> when replaying the first exchange
+     * @param stored     the stored exchange
+     * @param sequence   the sequence number of the stored exchange
+     * @return the aggregated exchange
+     */
+    public Exchange replay(Exchange aggregated, Exchange stored, long sequence) {
+        if (sequence == SNAPSHOT_SEQUENCE) {
+            // an aggregated exchange stored as a whole
+            return stored;
+        }
+
+        AggregationStrategy strategy = aggregationStrategy;
+        ObjectHelper.notNull(strategy, "aggregationStrategy");
+        ExchangeHelper.prepareAggregation(aggregated, stored);
+        Exchange answer = strategy.aggregate(aggregated, stored);
+        if (answer == null) {
+            throw new IllegalStateException("AggregationStrategy " + strategy + " returned null which is not allowed");
+        }
+        answer.setProperty(Exchange.AGGREGATED_SIZE, (int) sequence);
+        return answer;
+    }
+
+    private static final class CachedAggregation {
+        private final Exchange exchange;
+        private final long sequence;
+
+        private CachedAggregation(Exchange exchange, long sequence) {
+            this.exchange = exchange;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,647 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.LRUCache;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file based implementation of {@link org.apache.camel.spi.IdempotentRepository} which only appends to the
+ * file store, as an alternative to {@link FileIdempotentRepository} which rewrites the file store when it is full
+ * and when keys are removed.
+ * <p/>
+ * The file store is a log with a line per added key, and a tombstone line (the key prefixed with <tt>-</tt>) per
+ * removed key, which is replayed into the 1st level cache when the repository is started. When the file store has
+ * grown beyond {@link #setMaxFileStoreSize(long) the max file store size} and to twice its size after it was last
+ * compacted, the keys in the 1st level cache are written to a new file store by a background thread, which then
+ * replaces the file store. The keys added and removed while compacting are appended to both file stores, so adding
+ * and removing keys is never blocked by compacting.
+ * <p/>
+ * A file store written by {@link FileIdempotentRepository} can be used by this repository, as long as no key
+ * starts with <tt>-</tt> or <tt>\</tt>, which this repository escapes with <tt>\</tt>.
+ *
+ * @version
+ */
+@ManagedResource(description = "Append only file based idempotent repository")
+public class AppendOnlyFileIdempotentRepository extends ServiceSupport implements CamelContextAware, IdempotentRepository<String> {
+    private static final Logger LOG = LoggerFactory.getLogger(AppendOnlyFileIdempotentRepository.class);
+    private static final char TOMBSTONE = '-';
+    private static final char ESCAPE = '\\';
+    private static final byte STORE_DELIMITER = '\n';
+    // the size of the regions of the file store to memory map at a time when loading the file store
+    private static final int MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
+    // guards writing to the file store
+    private final Lock lock = new ReentrantLock();
+    private final AtomicLong compactionCounter = new AtomicLong();
+    private CamelContext camelContext;
+    private File fileStore;
+    private long maxFileStoreSize = 1024 * 1000L; // 1mb store file
+    private boolean memoryMapped;
+    private Map<String, Object> cache;
+    private FileChannel channel;
+    private long fileStoreSize;
+    private long compactedFileStoreSize;
+    private ExecutorService compactor;
+    // the records appended while compacting, which must be appended to the compacted file store as well
+    private List<String> pending;
+    private volatile int compaction;
+    // the keys which have been evicted from the 1st level cache but are still in the file store,
+    // with the id of the last compaction scheduled before they were evicted
+    private final ConcurrentMap<String, Integer> evictedKeys = new ConcurrentHashMap<String, Integer>();
+
+    public AppendOnlyFileIdempotentRepository() {
+        // default use a 1st level cache
+        this.cache = new EvictionTrackingCache(1000);
+    }
+
+    public AppendOnlyFileIdempotentRepository(File fileStore, int cacheSize) {
+        this.fileStore = fileStore;
+        this.cache = new EvictionTrackingCache(cacheSize);
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    /**
+     * Creates a new append only file based repository using a {@link LRUCache}
+     * as 1st level cache with a default of 1000 entries in the cache.
+     *
+     * @param fileStore  the file store
+     */
+    public static IdempotentRepository<String> appendOnlyFileIdempotentRepository(File fileStore) {
+        return appendOnlyFileIdempotentRepository(fileStore, 1000);
+    }
+
+    /**
+     * Creates a new append only file based repository using a {@link LRUCache}
+     * as 1st level cache.
+     *
+     * @param fileStore  the file store
+     * @param cacheSize  the cache size
+     */
+    public static IdempotentRepository<String> appendOnlyFileIdempotentRepository(File fileStore, int cacheSize) {
+        return new AppendOnlyFileIdempotentRepository(fileStore, cacheSize);
+    }
+
+    /**
+     * Creates a new append only file based repository using a {@link LRUCache}
+     * as 1st level cache.
+     *
+     * @param fileStore  the file store
+     * @param cacheSize  the cache size
+     * @param maxFileStoreSize  the size in bytes the file store must grow beyond before it is compacted
+     */
+    public static IdempotentRepository<String> appendOnlyFileIdempotentRepository(File fileStore, int cacheSize, long maxFileStoreSize) {
+        AppendOnlyFileIdempotentRepository repository = new AppendOnlyFileIdempotentRepository(fileStore, cacheSize);
+        repository.setMaxFileStoreSize(maxFileStoreSize);
+        return repository;
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        if (cache.containsKey(key)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (cache.containsKey(key)) {
+                return false;
+            }
+            cache.put(key, key);
+            evictedKeys.remove(key);
+            if (key.length() > 0 && (key.charAt(0) == TOMBSTONE || key.charAt(0) == ESCAPE)) {
+                appendToStore(ESCAPE + key);
+            } else {
+                appendToStore(key);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        return cache.containsKey(key);
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        lock.lock();
+        try {
+            // the key may be in the file store even if it has been evicted from the cache
+            boolean answer = cache.remove(key) != null;
+            answer |= evictedKeys.remove(key) != null;
+            if (answer) {
+                appendToStore(TOMBSTONE + key);
+            }
+            return answer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public void clear() {
+        lock.lock();
+        try {
+            cache.clear();
+            evictedKeys.clear();
+            if (channel != null) {
+                channel.truncate(0);
+            }
+            fileStoreSize = 0;
+            compactedFileStoreSize = 0;
+            // abandon any running compaction
+            pending = null;
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compacts the file store in the background.
+     */
+    @ManagedOperation(description = "Compacts the file store in the background")
+    public void compact() {
+        lock.lock();
+        try {
+            scheduleCompaction();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public File getFileStore() {
+        return fileStore;
+    }
+
+    public void setFileStore(File fileStore) {
+        this.fileStore = fileStore;
+    }
+
+    @ManagedAttribute(description = "The file path for the store")
+    public String getFilePath() {
+        return fileStore.getPath();
+    }
+
+    @ManagedAttribute(description = "The maximum file size for the file store in bytes before it is compacted")
+    public long getMaxFileStoreSize() {
+        return maxFileStoreSize;
+    }
+
+    /**
+     * Sets the size in bytes the file store must grow beyond before it is compacted. The file store is also
+     * not compacted until it has grown to twice its size after it was last compacted.
+     * <p/>
+     * The default is 1mb.
+     */
+    public void setMaxFileStoreSize(long maxFileStoreSize) {
+        this.maxFileStoreSize = maxFileStoreSize;
+    }
+
+    @ManagedAttribute(description = "The current file size of the file store in bytes")
+    public long getFileStoreSize() {
+        lock.lock();
+        try {
+            return fileStoreSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The number of times the file store has been compacted")
+    public long getCompactionCounter() {
+        return compactionCounter.get();
+    }
+
+    /**
+     * Sets the cache size
+     */
+    public void setCacheSize(int size) {
+        if (cache != null) {
+            // the keys are still in the file store
+            for (String key : cache.keySet()) {
+                evictedKeys.put(key, compaction);
+            }
+            cache.clear();
+        }
+        cache = new EvictionTrackingCache(size);
+    }
+
+    @ManagedAttribute(description = "The current cache size")
+    public int getCacheSize() {
+        if (cache != null) {
+            return cache.size();
+        }
+        return 0;
+    }
+
+    @ManagedAttribute(description = "Whether the file store is memory mapped when loading")
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Whether to memory map the file store when loading it on startup, which avoids copying the file store
+     * through buffers and is faster for large file stores.
+     * <p/>
+     * The default is <tt>false</tt>.
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Appends the given record to the file store, and schedules a compaction if the file store has grown too large.
+     * <p/>
+     * Must be called while holding the lock.
+     */
+    protected void appendToStore(String record) {
+        LOG.trace("Appending {} to idempotent filestore: {}", record, fileStore);
+        byte[] bytes = (record + (char) STORE_DELIMITER).getBytes(StandardCharsets.UTF_8);
+        try {
+            if (channel == null) {
+                // keys can be added before the repository is started
+                openStore();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+        fileStoreSize += bytes.length;
+
+        if (pending != null) {
+            pending.add(record);
+        } else if (fileStoreSize > maxFileStoreSize && fileStoreSize > 2 * compactedFileStoreSize) {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock.
+     */
+    private void scheduleCompaction() {
+        if (pending != null || compactor == null) {
+            // already compacting or not started
+            return;
+        }
+        pending = new ArrayList<String>();
+        final List<String> records = pending;
+        final int id = ++compaction;
+        compactor.submit(new Runnable() {
+            @Override
+            public void run() {
+                compactStore(records, id);
+            }
+        });
+    }
+
+    /**
+     * Writes the keys in the 1st level cache to a new file store, which then replaces the file store.
+     *
+     * @param records the list of records appended while compacting
+     * @param id      the id of the compaction, which is used to detect if the compaction has been abandoned
+     */
+    protected void compactStore(List<String> records, int id) {
+        File compacted = new File(fileStore.getPath() + ".compact");
+        LOG.debug("Compacting idempotent filestore: {}", fileStore);
+        try {
+            // the keys added and removed while writing the keys are also appended to the records
+            // so it does not matter if the keys are included or not
+            OutputStream os = IOHelper.buffered(new FileOutputStream(compacted));
+            try {
+                for (String key : cache.keySet()) {
+                    writeRecord(os, key.length() > 0 && (key.charAt(0) == TOMBSTONE || key.charAt(0) == ESCAPE) ? ESCAPE + key : key);
+                }
+            } finally {
+                IOHelper.close(os, "Compacting file idempotent repository", LOG);
+            }
+
+            lock.lock();
+            try {
+                if (pending != records || compaction != id) {
+                    LOG.debug("Compacting idempotent filestore: {} abandoned", fileStore);
+                    FileUtil.deleteFile(compacted);
+                    return;
+                }
+                os = IOHelper.buffered(new FileOutputStream(compacted, true));
+                try {
+                    for (String record : records) {
+                        writeRecord(os, record);
+                    }
+                } finally {
+                    IOHelper.close(os, "Compacting file idempotent repository", LOG);
+                }
+
+                channel.close();
+                try {
+                    Files.move(compacted.toPath(), fileStore.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(compacted.toPath(), fileStore.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    openStore();
+                }
+                compactedFileStoreSize = fileStoreSize;
+                compactionCounter.incrementAndGet();
+                LOG.debug("Compacted idempotent filestore: {} to {} bytes", fileStore, fileStoreSize);
+            } finally {
+                pending = null;
+                lock.unlock();
+            }
+
+            // the keys evicted before the compaction was scheduled are no longer in the file store
+            for (Map.Entry<String, Integer> entry : evictedKeys.entrySet()) {
+                if (entry.getValue() < id) {
+                    evictedKeys.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (Throwable e) {
+            LOG.warn("Error compacting idempotent filestore: " + fileStore + ". This exception is ignored.", e);
+            FileUtil.deleteFile(compacted);
+            lock.lock();
+            try {
+                if (pending == records) {
+                    pending = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void writeRecord(OutputStream os, String record) throws IOException {
+        os.write(record.getBytes(StandardCharsets.UTF_8));
+        os.write(STORE_DELIMITER);
+    }
+
+    /**
+     * Opens the file store for appending.
+     */
+    private void openStore() throws IOException {
+        // create store parent directory if missing
+        File parent = fileStore.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        channel = FileChannel.open(fileStore.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileStoreSize = channel.size();
+    }
+
+    /**
+     * Loads the given file store into the 1st level cache
+     */
+    protected void loadStore() throws IOException {
+        // auto create starting directory if needed
+        if (!fileStore.exists()) {
+            LOG.debug("Creating filestore: {}", fileStore);
+            File parent = fileStore.getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            boolean created = FileUtil.createNewFile(fileStore);
+            if (!created) {
+                throw new IOException("Cannot create filestore: " + fileStore);
+            }
+        }
+
+        LOG.trace("Loading to 1st level cache from idempotent filestore: {}", fileStore);
+
+        cache.clear();
+        evictedKeys.clear();
+        long length = memoryMapped ? loadMappedStore() : loadBufferedStore();
+        if (length < fileStore.length()) {
+            // the last record is incomplete if the file store was not closed properly
+            LOG.warn("Truncating incomplete record at the end of idempotent filestore: {}", fileStore);
+            FileChannel fc = FileChannel.open(fileStore.toPath(), StandardOpenOption.WRITE);
+            try {
+                fc.truncate(length);
+            } finally {
+                IOHelper.close(fc);
+            }
+        }
+
+        LOG.debug("Loaded {} to the 1st level cache from idempotent filestore: {}", cache.size(), fileStore);
+    }
+
+    /**
+     * Reads the file store using a buffered stream.
+     *
+     * @return the length of the complete records in the file store
+     */
+    private long loadBufferedStore() throws IOException {
+        long length = 0;
+        InputStream is = IOHelper.buffered(new FileInputStream(fileStore));
+        try {
+            byte[] line = new byte[256];
+            int len = 0;
+            int b;
+            while ((b = is.read()) != -1) {
+                if (b == STORE_DELIMITER) {
+                    replay(new String(line, 0, len, StandardCharsets.UTF_8));
+                    length += len + 1;
+                    len = 0;
+                } else {
+                    if (len == line.length) {
+                        line = Arrays.copyOf(line, len * 2);
+                    }
+                    line[len++] = (byte) b;
+                }
+            }
+        } finally {
+            IOHelper.close(is);
+        }
+        return length;
+    }
+
+    /**
+     * Reads the file store by memory mapping it a region at a time.
+     *
+     * @return the length of the complete records in the file store
+     */
+    private long loadMappedStore() throws IOException {
+        FileChannel fc = FileChannel.open(fileStore.toPath(), StandardOpenOption.READ);
+        try {
+            long size = fc.size();
+            long position = 0;
+            byte[] line = new byte[256];
+            while (position < size) {
+                MappedByteBuffer buffer = fc.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_REGION_SIZE, size - position));
+                int start = 0;
+                int limit = buffer.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) == STORE_DELIMITER) {
+                        int len = i - start;
+                        if (line.length < len) {
+                            line = new byte[Math.max(len, line.length * 2)];
+                        }
+                        buffer.position(start);
+                        buffer.get(line, 0, len);
+                        replay(new String(line, 0, len, StandardCharsets.UTF_8));
+                        start = i + 1;
+                    }
+                }
+                if (start == 0 && limit == MAPPED_REGION_SIZE) {
+                    throw new IOException("Record longer than " + MAPPED_REGION_SIZE + " bytes in idempotent filestore: " + fileStore);
+                }
+                // continue from the incomplete record at the end of the region
+                position += start;
+                if (limit < MAPPED_REGION_SIZE) {
+                    break;
+                }
+            }
+            return position;
+        } finally {
+            IOHelper.close(fc);
+        }
+    }
+
+    private void replay(String record) {
+        if (record.length() > 0 && record.charAt(0) == TOMBSTONE) {
+            String key = record.substring(1);
+            cache.remove(key);
+            evictedKeys.remove(key);
+        } else {
+            String key = record.length() > 0 && record.charAt(0) == ESCAPE ? record.substring(1) : record;
+            cache.put(key, key);
+            evictedKeys.remove(key);
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(camelContext, "camelContext", this);
+        ObjectHelper.notNull(fileStore, "fileStore", this);
+
+        lock.lock();
+        try {
+            // the store may have been opened if keys was added before the repository was started
+            IOHelper.close(channel);
+            channel = null;
+            loadStore();
+            openStore();
+            compactedFileStoreSize = fileStoreSize;
+            compactor = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this, "AppendOnlyFileIdempotentRepositoryCompactor");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ExecutorService executor;
+        lock.lock();
+        try {
+            // abandon any running compaction
+            pending = null;
+            executor = compactor;
+            compactor = null;
+        } finally {
+            lock.unlock();
+        }
+        if (executor != null) {
+            camelContext.getExecutorServiceManager().shutdownGraceful(executor);
+        }
+
+        lock.lock();
+        try {
+            IOHelper.close(channel);
+            channel = null;
+            cache.clear();
+            evictedKeys.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The 1st level cache, which keeps track of the keys evicted from the cache, so a key which is only in the
+     * file store can be removed without reading the file store.
+     */
+    private final class EvictionTrackingCache extends LRUCache<String, Object> {
+        private static final long serialVersionUID = 1L;
+
+        EvictionTrackingCache(int maximumCacheSize) {
+            // use a synchronous listener so the key is tracked as soon as it is evicted
+            super(16, maximumCacheSize, false, false, false, true);
+        }
+
+        @Override
+        public void onRemoval(String key, Object value, RemovalCause cause) {
+            super.onRemoval(key, value, cause);
+            if (cause.wasEvicted()) {
+                evictedKeys.put(key, compaction);
+            }
+        }
+    }
+
+}
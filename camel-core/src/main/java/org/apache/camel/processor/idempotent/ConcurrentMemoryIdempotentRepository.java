@@ -0,0 +1,617 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+
+/**
+ * A memory based implementation of {@link org.apache.camel.spi.IdempotentRepository} which is designed for
+ * concurrent use, as an alternative to {@link MemoryIdempotentRepository} which synchronizes all access to the store.
+ * <p/>
+ * The keys are spread over a number of shards (see {@link #setConcurrencyLevel(int)}), which each holds up to its
+ * share of the {@link #setCacheSize(int) cache size}. When a shard is full the oldest key of the shard is evicted,
+ * and keys can also be evicted after a given {@link #setTimeToLive(long) time to live}. The keys are by default
+ * stored in a {@link ConcurrentHashMap} per shard which means that adding and looking up keys does not lock.
+ * <p/>
+ * In {@link #setCompact(boolean) compact} mode a 64-bit hash of the key is stored instead of the key itself, in
+ * pre allocated arrays per shard, which is guarded by a lock per shard that is not taken when looking up keys.
+ * This bounds the memory used to at most 24 bytes per key (32 bytes with a time to live) regardless of the length
+ * of the keys, so tens of millions of keys can be kept. As only the hash is stored there is a very small risk that a new key
+ * is regarded as a duplicate if its hash is the same as the hash of another key.
+ *
+ * The options take effect when the repository is created by one of the static factory methods, or when the
+ * repository is started.
+ *
+ * @version
+ */
+@ManagedResource(description = "Concurrent memory based idempotent repository")
+public class ConcurrentMemoryIdempotentRepository extends ServiceSupport implements IdempotentRepository<String> {
+
+    private int cacheSize = 1000;
+    private long timeToLive;
+    private int concurrencyLevel = 16;
+    private boolean compact;
+    // either a KeyShard[] or in compact mode a HashShard[]
+    private volatile Shard[] shards;
+    private boolean reconfigure;
+
+    public ConcurrentMemoryIdempotentRepository() {
+        this.shards = createShards();
+    }
+
+    public ConcurrentMemoryIdempotentRepository(int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.shards = createShards();
+    }
+
+    /**
+     * Creates a new concurrent memory based repository with a default of 1000 entries in the cache.
+     */
+    public static IdempotentRepository<String> concurrentMemoryIdempotentRepository() {
+        return new ConcurrentMemoryIdempotentRepository();
+    }
+
+    /**
+     * Creates a new concurrent memory based repository.
+     *
+     * @param cacheSize  the cache size
+     */
+    public static IdempotentRepository<String> concurrentMemoryIdempotentRepository(int cacheSize) {
+        return new ConcurrentMemoryIdempotentRepository(cacheSize);
+    }
+
+    /**
+     * Creates a new concurrent memory based repository.
+     *
+     * @param cacheSize   the cache size
+     * @param timeToLive  the time in millis before a key is evicted, use 0 to keep keys until the cache is full
+     * @param compact     whether to store a 64-bit hash of the keys instead of the keys
+     */
+    public static IdempotentRepository<String> concurrentMemoryIdempotentRepository(int cacheSize, long timeToLive, boolean compact) {
+        ConcurrentMemoryIdempotentRepository answer = new ConcurrentMemoryIdempotentRepository();
+        answer.setCacheSize(cacheSize);
+        answer.setTimeToLive(timeToLive);
+        answer.setCompact(compact);
+        answer.shards = answer.createShards();
+        answer.reconfigure = false;
+        return answer;
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        Shard[] array = shards;
+        if (array instanceof HashShard[]) {
+            long hash = hash(key);
+            return ((HashShard[]) array)[indexFor(hash, array.length)].add(hash, currentTime());
+        } else {
+            return ((KeyShard[]) array)[indexFor(spread(key.hashCode()), array.length)].add(key, currentTime());
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        Shard[] array = shards;
+        if (array instanceof HashShard[]) {
+            long hash = hash(key);
+            return ((HashShard[]) array)[indexFor(hash, array.length)].contains(hash, currentTime());
+        } else {
+            return ((KeyShard[]) array)[indexFor(spread(key.hashCode()), array.length)].contains(key, currentTime());
+        }
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        Shard[] array = shards;
+        if (array instanceof HashShard[]) {
+            long hash = hash(key);
+            return ((HashShard[]) array)[indexFor(hash, array.length)].remove(hash);
+        } else {
+            return ((KeyShard[]) array)[indexFor(spread(key.hashCode()), array.length)].remove(key);
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "The current cache size")
+    public int getCacheSize() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Sets the maximum number of keys to keep, which is divided evenly between the shards.
+     * Is by default 1000.
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.reconfigure = true;
+    }
+
+    @ManagedAttribute(description = "The time in millis before a key is evicted")
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets the time in millis after a key was added before the key is evicted.
+     * Is by default 0, which keeps the keys until they are evicted because the cache is full.
+     */
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        this.reconfigure = true;
+    }
+
+    @ManagedAttribute(description = "The number of shards")
+    public int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    /**
+     * Sets the number of shards the keys are spread over, which is rounded up to a power of two.
+     * Is by default 16.
+     */
+    public void setConcurrencyLevel(int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+        this.reconfigure = true;
+    }
+
+    @ManagedAttribute(description = "Whether a 64-bit hash of the keys is stored instead of the keys")
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Whether to store a 64-bit hash of the keys instead of the keys, which bounds the memory used per key.
+     * Is by default <tt>false</tt>.
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+        this.reconfigure = true;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // the options may have been changed after the repository was created
+        if (reconfigure) {
+            shards = createShards();
+            reconfigure = false;
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        clear();
+    }
+
+    private Shard[] createShards() {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(concurrencyLevel, cacheSize)) * 2 - 1);
+        int capacity = Math.max(1, (cacheSize + size - 1) / size);
+        if (compact) {
+            HashShard[] answer = new HashShard[size];
+            for (int i = 0; i < size; i++) {
+                answer[i] = new HashShard(capacity, timeToLive);
+            }
+            return answer;
+        } else {
+            KeyShard[] answer = new KeyShard[size];
+            for (int i = 0; i < size; i++) {
+                answer[i] = new KeyShard(capacity, timeToLive);
+            }
+            return answer;
+        }
+    }
+
+    private static int indexFor(long hash, int length) {
+        // use the high bits for the shard as the low bits are used for the hash table of the shard
+        return (int) (hash >>> 40) & (length - 1);
+    }
+
+    private long currentTime() {
+        return timeToLive > 0 ? System.currentTimeMillis() : 0;
+    }
+
+    private static long spread(int hashCode) {
+        return mix(hashCode);
+    }
+
+    /**
+     * Computes a 64-bit hash of the key using FNV-1a of the characters of the key, with the bits mixed
+     * using the finalizer of MurmurHash3 as the low bits of FNV-1a are not well distributed.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = mix(hash);
+        // zero is used for free slots
+        return hash != 0 ? hash : 1;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private abstract static class Shard {
+        protected final int capacity;
+        protected final long timeToLive;
+
+        Shard(int capacity, long timeToLive) {
+            this.capacity = capacity;
+            this.timeToLive = timeToLive;
+        }
+
+        abstract void clear();
+
+        abstract int size();
+
+        boolean isExpired(long time, long now) {
+            return timeToLive > 0 && now - time >= timeToLive;
+        }
+    }
+
+    /**
+     * A shard which stores the keys in a {@link ConcurrentHashMap} and keeps the order the keys were added in a
+     * {@link ConcurrentLinkedQueue} to evict the oldest keys.
+     */
+    private static final class KeyShard extends Shard {
+        private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+        private final Queue<Entry> order = new ConcurrentLinkedQueue<Entry>();
+        private final AtomicInteger size = new AtomicInteger();
+        // the number of entries in the order queue, which includes entries of keys which have been removed
+        private final AtomicInteger queued = new AtomicInteger();
+
+        KeyShard(int capacity, long timeToLive) {
+            super(capacity, timeToLive);
+        }
+
+        boolean add(String key, long now) {
+            Entry entry = new Entry(key, now);
+            Entry existing = entries.putIfAbsent(key, entry);
+            while (existing != null) {
+                if (!isExpired(existing.time, now)) {
+                    return false;
+                }
+                // replace the expired entry, which is then stale in the order queue
+                if (entries.replace(key, existing, entry)) {
+                    size.decrementAndGet();
+                    break;
+                }
+                existing = entries.putIfAbsent(key, entry);
+            }
+
+            size.incrementAndGet();
+            order.offer(entry);
+            queued.incrementAndGet();
+            evict(now);
+            return true;
+        }
+
+        boolean contains(String key, long now) {
+            Entry entry = entries.get(key);
+            return entry != null && !isExpired(entry.time, now);
+        }
+
+        boolean remove(String key) {
+            // the entry is left in the order queue, and is dropped when evicting
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void clear() {
+            entries.clear();
+            order.clear();
+            size.set(0);
+            queued.set(0);
+        }
+
+        @Override
+        int size() {
+            return size.get();
+        }
+
+        private void evict(long now) {
+            Entry head;
+            while ((head = order.peek()) != null) {
+                boolean live = entries.get(head.key) == head;
+                if (live && size.get() <= capacity && !isExpired(head.time, now)) {
+                    break;
+                }
+                // another thread may be evicting the same entry
+                if (order.remove(head)) {
+                    queued.decrementAndGet();
+                    if (live && entries.remove(head.key, head)) {
+                        size.decrementAndGet();
+                    }
+                }
+            }
+
+            // drop the entries of removed keys when they outnumber the keys
+            if (queued.get() > 2 * size.get() + 16) {
+                Iterator<Entry> it = order.iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next();
+                    if (entries.get(entry.key) != entry) {
+                        it.remove();
+                        queued.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long time;
+
+        Entry(String key, long time) {
+            this.key = key;
+            this.time = time;
+        }
+    }
+
+    /**
+     * A shard which stores the hashes of the keys in a ring buffer in the order they were added, and looks up
+     * the hashes using an open addressing hash table of positions in the ring buffer. The arrays are allocated
+     * up front and never grow.
+     * <p/>
+     * Removed keys are left as free slots in the ring buffer, which are reclaimed when the ring buffer is full and
+ * enough keys have been removed, so the cost of moving the keys is spread over many additions.
+     */
+    private static final class HashShard extends Shard {
+        private final StampedLock lock = new StampedLock();
+        private final long[] hashes;
+        private final long[] times;
+        // position in the ring buffer + 1, and 0 for free slots
+        private final int[] table;
+        private final int mask;
+        private int head;
+        private int count;
+        private int size;
+
+        HashShard(int capacity, long timeToLive) {
+            super(capacity, timeToLive);
+            this.hashes = new long[capacity];
+            this.times = timeToLive > 0 ? new long[capacity] : null;
+            this.table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            this.mask = table.length - 1;
+        }
+
+        boolean add(long hash, long now) {
+            long stamp = lock.writeLock();
+            try {
+                evictExpired(now);
+                if (indexOf(hash) >= 0) {
+                    return false;
+                }
+                if (count == capacity) {
+                    if (count - size >= Math.max(1, capacity >> 4)) {
+                        // make room by moving the removed keys out of the ring buffer
+                        compact();
+                    } else {
+                        // evict the oldest position in the ring buffer to make room
+                        evictHead();
+                    }
+                }
+                int pos = head + count;
+                if (pos >= capacity) {
+                    pos -= capacity;
+                }
+                hashes[pos] = hash;
+                if (times != null) {
+                    times[pos] = now;
+                }
+                insert(pos);
+                count++;
+                size++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean contains(long hash, long now) {
+            // look up without locking, and only lock if the shard was changed while looking up
+            long stamp = lock.tryOptimisticRead();
+            boolean answer = containsUnlocked(hash, now);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    answer = containsUnlocked(hash, now);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return answer;
+        }
+
+        boolean remove(long hash) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotOf(hash);
+                if (slot < 0) {
+                    return false;
+                }
+                int pos = table[slot] - 1;
+                deleteSlot(slot);
+                hashes[pos] = 0;
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(hashes, 0);
+                Arrays.fill(table, 0);
+                head = 0;
+                count = 0;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private boolean containsUnlocked(long hash, long now) {
+            int pos = indexOf(hash);
+            return pos >= 0 && (times == null || !isExpired(times[pos], now));
+        }
+
+        private int indexOf(long hash) {
+            int slot = slotOf(hash);
+            return slot >= 0 ? table[slot] - 1 : -1;
+        }
+
+        private int slotOf(long hash) {
+            int slot = (int) hash & mask;
+            // bound the probing as this may run concurrently with changes when looking up without locking
+            for (int i = 0; i < table.length; i++) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                if (hashes[entry - 1] == hash) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void evictExpired(long now) {
+            // the ring buffer is in the order the keys were added, so the expired keys are at the head
+            while (count > 0 && times != null && (hashes[head] == 0 || isExpired(times[head], now))) {
+                evictHead();
+            }
+        }
+
+        private void evictHead() {
+            long hash = hashes[head];
+            if (hash != 0) {
+                deleteSlot(slotOf(hash));
+                hashes[head] = 0;
+                size--;
+            }
+            head = head + 1 == capacity ? 0 : head + 1;
+            count--;
+        }
+
+        /**
+         * Moves the keys in the ring buffer together, keeping their order, and rebuilds the hash table.
+         */
+        private void compact() {
+            int to = head;
+            for (int i = 0, from = head; i < count; i++) {
+                if (hashes[from] != 0) {
+                    hashes[to] = hashes[from];
+                    if (times != null) {
+                        times[to] = times[from];
+                    }
+                    to = to + 1 == capacity ? 0 : to + 1;
+                }
+                from = from + 1 == capacity ? 0 : from + 1;
+            }
+            count = size;
+            for (int i = count; i < capacity; i++) {
+                hashes[to] = 0;
+                to = to + 1 == capacity ? 0 : to + 1;
+            }
+
+            Arrays.fill(table, 0);
+            for (int i = 0, pos = head; i < count; i++) {
+                insert(pos);
+                pos = pos + 1 == capacity ? 0 : pos + 1;
+            }
+        }
+
+        private void insert(int pos) {
+            int slot = (int) hashes[pos] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = pos + 1;
+        }
+
+        /**
+         * Deletes the slot from the hash table, and moves the following entries back so they can still be
+         * found when probing (backward shift deletion).
+         */
+        private void deleteSlot(int slot) {
+            int free = slot;
+            for (int i = (slot + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+                int home = (int) hashes[table[i] - 1] & mask;
+                // move the entry if its home slot is not between the free slot and its current slot
+                if (((i - home) & mask) >= ((i - free) & mask)) {
+                    table[free] = table[i];
+                    free = i;
+                }
+            }
+            table[free] = 0;
+        }
+    }
+}
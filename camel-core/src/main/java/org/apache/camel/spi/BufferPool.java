@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+/**
+ * A pool of byte arrays used as temporary buffers, such as when copying streams, so the buffers
+ * can be reused instead of allocated for each exchange.
+ * <p/>
+ * A buffer must only be released when the caller no longer uses it and no references to it have been handed out,
+ * as the buffer is given to the next caller acquiring a buffer of the same size.
+ */
+public interface BufferPool {
+
+    /**
+     * Acquires a buffer of at least the given size.
+     * <p/>
+     * The content of the buffer is undefined, and the buffer may be larger than the given size.
+     *
+     * @param size the minimum size of the buffer
+     * @return the buffer
+     */
+    byte[] acquire(int size);
+
+    /**
+     * Releases the buffer back to the pool.
+     * <p/>
+     * Buffers which are not of a size the pool can hold are ignored.
+     *
+     * @param buffer the buffer which must no longer be used
+     */
+    void release(byte[] buffer);
+}
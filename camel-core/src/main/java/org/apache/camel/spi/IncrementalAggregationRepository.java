@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+/**
+ * A specialized {@link org.apache.camel.spi.AggregationRepository} which can store the incoming exchanges
+ * of a correlation group one by one (append only), instead of storing the aggregated exchange as a whole
+ * every time an exchange is aggregated, which writes an amount of data growing with the square of the
+ * number of exchanges in the group.
+ * <p/>
+ * The repository rebuilds the aggregated exchange by replaying the stored exchanges using the
+ * {@link AggregationStrategy} when the aggregated exchange is not at hand, such as after a restart.
+ *
+ * @see org.apache.camel.processor.aggregate.IncrementalAggregationSupport
+ */
+public interface IncrementalAggregationRepository extends AggregationRepository {
+
+    /**
+     * Whether the incremental mode is enabled.
+     * <p/>
+     * If not enabled the repository is used as a regular {@link AggregationRepository} which stores the aggregated exchange.
+     *
+     * @return <tt>true</tt> if the incoming exchanges are appended, <tt>false</tt> otherwise
+     */
+    boolean isIncremental();
+
+    /**
+     * Sets the {@link AggregationStrategy} to use for replaying the stored exchanges.
+     * <p/>
+     * This is set by the aggregator using this repository, and therefore a repository in incremental mode
+     * cannot be shared by several aggregators.
+     *
+     * @param aggregationStrategy the aggregation strategy
+     */
+    void setAggregationStrategy(AggregationStrategy aggregationStrategy);
+
+    /**
+     * Appends the incoming {@link Exchange} to the correlation group of the given key.
+     * <p/>
+     * The sequence number of the incoming exchange in the group is the {@link Exchange#AGGREGATED_SIZE} property
+     * of the aggregated exchange.
+     *
+     * @param camelContext       the current CamelContext
+     * @param key                the correlation key
+     * @param newExchange        the incoming exchange as it was before being aggregated
+     * @param aggregatedExchange the aggregated exchange which includes the incoming exchange
+     * @throws OptimisticLockingAggregationRepository.OptimisticLockingException is thrown if the repository supports
+     *         optimistic locking, and another exchange has been appended at the same sequence number
+     */
+    void append(CamelContext camelContext, String key, Exchange newExchange, Exchange aggregatedExchange);
+
+}
@@ -173,6 +173,29 @@ public interface StreamCachingStrategy extends StaticService {
 
     String getSpoolChiper();
 
+    /**
+     * Sets whether to spool to off heap memory instead of to temporary files. The spooled data is kept in pooled
+     * direct buffers up to the {@link #setSpoolOffHeapThreshold(long)} size, and larger data is moved to a memory
+     * mapped file in the spool directory. The cached streams read the data using views of the buffers without copying it.
+     * <p/>
+     * This option is not in use if a {@link #setSpoolChiper(String) chiper} is configured.
+     * <p/>
+     * This option is default <tt>false</tt>
+     */
+    void setSpoolOffHeap(boolean spoolOffHeap);
+
+    boolean isSpoolOffHeap();
+
+    /**
+     * Sets the threshold in bytes until which a spooled stream is kept in pooled direct buffers when spooling
+     * to off heap memory, before the data is moved to a memory mapped file.
+     * <p/>
+     * The default threshold is {@link org.apache.camel.StreamCache#DEFAULT_SPOOL_OFF_HEAP_THRESHOLD} bytes (eg 8mb).
+     */
+    void setSpoolOffHeapThreshold(long threshold);
+
+    long getSpoolOffHeapThreshold();
+
     /**
      * Whether to remove the temporary directory when stopping.
      * <p/>
@@ -17,9 +17,9 @@
 package org.apache.camel.support;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -43,6 +43,11 @@ import org.slf4j.LoggerFactory;
  * You must provide a {@link java.util.concurrent.ScheduledExecutorService} in the constructor which is used
  * to schedule a background task which check for old entries to purge. This implementation will shutdown the scheduler
  * if its being stopped.
+ * <p/>
+ * The entries are kept in a hashed timing wheel with a slot per purge poll time, so adding, updating and removing
+ * an entry is O(1), and purging only has to look at the entries in the slots which has been passed since the
+ * last purge, instead of all the entries in the map. Entries which are further in the future than a full rotation
+ * of the wheel stay in their slot until the wheel has rotated enough times.
  * You must also invoke {@link #start()} to startup the timeout map, before its ready to be used.
  * And you must invoke {@link #stop()} to stop the map when no longer in use.
  *
@@ -50,6 +55,8 @@ import org.slf4j.LoggerFactory;
  */
 public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V>, Runnable {
 
+    private static final int WHEEL_SIZE = 512;
+
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
     private final ConcurrentMap<K, TimeoutMapEntry<K, V>> map = new ConcurrentHashMap<K, TimeoutMapEntry<K, V>>();
@@ -58,6 +65,13 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
     private final long purgePollTime;
     private final Lock lock = new ReentrantLock();
     private boolean useLock = true;
+    // the timing wheel is always guarded by its own lock, as the map can be used without locking
+    private final Object wheelLock = new Object();
+    @SuppressWarnings("unchecked")
+    private final TimeoutMapEntry<K, V>[] wheel = new TimeoutMapEntry[WHEEL_SIZE];
+    private final long tickDuration;
+    // the tick of the last purge, which is the first slot to look at on the next purge
+    private long lastTick = -1;
 
     public DefaultTimeoutMap(ScheduledExecutorService executor) {
         this(executor, 1000);
@@ -72,6 +86,7 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         this.executor = executor;
         this.purgePollTime = requestMapPollTimeMillis;
         this.useLock = useLock;
+        this.tickDuration = Math.max(1, requestMapPollTimeMillis);
     }
 
     public V get(K key) {
@@ -84,7 +99,13 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
             if (entry == null) {
                 return null;
             }
-            updateExpireTime(entry);
+            synchronized (wheelLock) {
+                updateExpireTime(entry);
+                if (entry.slot >= 0) {
+                    unlink(entry);
+                    link(entry);
+                }
+            }
         } finally {
             if (useLock) {
                 lock.unlock();
@@ -101,6 +122,12 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         try {
             updateExpireTime(entry);
             TimeoutMapEntry<K, V> result = map.put(key, entry);
+            synchronized (wheelLock) {
+                if (result != null) {
+                    unlink(result);
+                }
+                link(entry);
+            }
             return result != null ? result.getValue() : null;
         } finally {
             if (useLock) {
@@ -118,6 +145,11 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
             updateExpireTime(entry);
             //Just make sure we don't override the old entry
             TimeoutMapEntry<K, V> result = map.putIfAbsent(key, entry);
+            if (result == null) {
+                synchronized (wheelLock) {
+                    link(entry);
+                }
+            }
             return result != null ? result.getValue() : null;
         } finally {
             if (useLock) {
@@ -134,6 +166,11 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         }
         try {
             entry = map.remove(key);
+            if (entry != null) {
+                synchronized (wheelLock) {
+                    unlink(entry);
+                }
+            }
         } finally {
             if (useLock) {
                 lock.unlock();
@@ -191,20 +228,25 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         
         long now = currentTime();
 
-        List<TimeoutMapEntry<K, V>> expired = new ArrayList<TimeoutMapEntry<K, V>>();
-
         if (useLock) {
             lock.lock();
         }
         try {
-            // need to find the expired entries and add to the expired list
-            for (Map.Entry<K, TimeoutMapEntry<K, V>> entry : map.entrySet()) {
-                if (entry.getValue().getExpireTime() < now) {
-                    if (isValidForEviction(entry.getValue())) {
-                        log.debug("Evicting inactive entry ID: {}", entry.getValue());
-                        expired.add(entry.getValue());
-                    }
+            // need to find the expired entries in the slots which has passed since last purge
+            List<TimeoutMapEntry<K, V>> expired = new ArrayList<TimeoutMapEntry<K, V>>();
+            synchronized (wheelLock) {
+                long tick = now / tickDuration;
+                long from = lastTick < 0 ? tick : lastTick;
+                if (tick - from >= WHEEL_SIZE) {
+                    // we have not purged for a full rotation so look in all slots
+                    from = tick - WHEEL_SIZE + 1;
                 }
+                for (long t = from; t <= tick; t++) {
+                    collectExpired((int) (t & (WHEEL_SIZE - 1)), now, expired);
+                }
+                // the slot of the current tick must be looked at again on next purge
+                // as it can have entries which expire later during this tick
+                lastTick = Math.max(lastTick, tick);
             }
 
             // if we found any expired then we need to sort, onEviction and remove
@@ -220,26 +262,30 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
                     }
                 });
 
-                List<K> evicts = new ArrayList<K>(expired.size());
-                try {
-                    // now fire eviction notification
-                    for (TimeoutMapEntry<K, V> entry : expired) {
-                        boolean evict = false;
+                // now fire eviction notification
+                for (TimeoutMapEntry<K, V> entry : expired) {
+                    boolean evict = false;
+                    // the entry may have been updated since we found it expired
+                    if (entry.getExpireTime() < now && isValidForEviction(entry)) {
+                        log.debug("Evicting inactive entry ID: {}", entry.getValue());
                         try {
                             evict = onEviction(entry.getKey(), entry.getValue());
                         } catch (Throwable t) {
-                            log.warn("Exception happened during eviction of entry ID {}, won't evict and will continue trying: {}", 
+                            log.warn("Exception happened during eviction of entry ID {}, won't evict and will continue trying: {}",
                                     entry.getValue(), t);
                         }
-                        if (evict) {
-                            // okay this entry should be evicted
-                            evicts.add(entry.getKey());
-                        }
                     }
-                } finally {
-                    // and must remove from list after we have fired the notifications
-                    for (K key : evicts) {
-                        map.remove(key);
+                    if (evict) {
+                        // okay this entry should be evicted
+                        map.remove(entry.getKey(), entry);
+                    } else {
+                        // keep the entry in the wheel (if it has not been removed in the mean time)
+                        // so it is tried again on next purge
+                        synchronized (wheelLock) {
+                            if (entry.slot < 0 && map.get(entry.getKey()) == entry) {
+                                link(entry);
+                            }
+                        }
                     }
                 }
             }
@@ -291,6 +337,72 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         return System.currentTimeMillis();
     }
 
+    /**
+     * Links the entry into the slot of its expire time, or the slot of the last purge
+     * if it has already expired. Must be called while holding the wheel lock.
+     */
+    private void link(TimeoutMapEntry<K, V> entry) {
+        long tick = entry.getExpireTime() / tickDuration;
+        if (lastTick < 0) {
+            lastTick = currentTime() / tickDuration;
+        }
+        if (tick < lastTick) {
+            // the slots before the last purge are not looked at until the wheel has rotated
+            tick = lastTick;
+        }
+        int slot = (int) (tick & (WHEEL_SIZE - 1));
+        TimeoutMapEntry<K, V> head = wheel[slot];
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        wheel[slot] = entry;
+    }
+
+    /**
+     * Unlinks the entry from its slot. Must be called while holding the wheel lock.
+     */
+    private void unlink(TimeoutMapEntry<K, V> entry) {
+        if (entry.slot < 0) {
+            return;
+        }
+        if (entry.prev == null) {
+            wheel[entry.slot] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.slot = -1;
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * Unlinks the expired entries of the slot and adds them to the given list.
+     * Must be called while holding the wheel lock.
+     */
+    private void collectExpired(int slot, long now, List<TimeoutMapEntry<K, V>> expired) {
+        int start = expired.size();
+        TimeoutMapEntry<K, V> entry = wheel[slot];
+        while (entry != null) {
+            TimeoutMapEntry<K, V> next = entry.next;
+            if (entry.getExpireTime() < now) {
+                unlink(entry);
+                // the entry may have been replaced in the map
+                if (map.get(entry.getKey()) == entry) {
+                    expired.add(entry);
+                }
+            }
+            entry = next;
+        }
+        // the entries are linked as the head of the slot, so reverse to get them in the order they were added
+        Collections.reverse(expired.subList(start, expired.size()));
+    }
+
     @Override
     protected void doStart() throws Exception {
         if (executor.isShutdown()) {
@@ -307,6 +419,19 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         }
         // clear map if we stop
         map.clear();
+        synchronized (wheelLock) {
+            for (int i = 0; i < wheel.length; i++) {
+                TimeoutMapEntry<K, V> entry = wheel[i];
+                while (entry != null) {
+                    TimeoutMapEntry<K, V> next = entry.next;
+                    entry.slot = -1;
+                    entry.prev = null;
+                    entry.next = null;
+                    entry = next;
+                }
+                wheel[i] = null;
+            }
+        }
     }
 
 }
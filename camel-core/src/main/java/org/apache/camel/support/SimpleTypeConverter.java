@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A {@link org.apache.camel.TypeConverter} which converts using a {@link ConversionMethod}.
+ * <p/>
+ * This is used by the type converter loaders generated by the Camel annotation processor for
+ * {@link org.apache.camel.Converter} classes, which invokes the converter methods directly instead of using reflection.
+ */
+public class SimpleTypeConverter extends TypeConverterSupport {
+
+    private final boolean allowNull;
+    private final ConversionMethod method;
+
+    public SimpleTypeConverter(boolean allowNull, ConversionMethod method) {
+        this.allowNull = allowNull;
+        this.method = method;
+    }
+
+    @Override
+    public boolean allowNull() {
+        return allowNull;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+        try {
+            return (T) method.doConvert(type, exchange, value);
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleTypeConverter: " + method;
+    }
+
+    /**
+     * The method performing the conversion.
+     */
+    @FunctionalInterface
+    public interface ConversionMethod {
+
+        /**
+         * Converts the value to the given type.
+         *
+         * @param type     the requested type
+         * @param exchange the current exchange, may be <tt>null</tt>
+         * @param value    the value to be converted
+         * @return the converted value, or <tt>null</tt> if not possible to convert
+         * @throws Exception is thrown if error converting
+         */
+        Object doConvert(Class<?> type, Exchange exchange, Object value) throws Exception;
+    }
+
+}
@@ -30,6 +30,10 @@ public class TimeoutMapEntry<K, V> implements Comparable<Object>, Map.Entry<K, V
     private V value;
     private long timeout;
     private long expireTime;
+    // the slot and links of the entry in the timing wheel of the DefaultTimeoutMap
+    int slot = -1;
+    TimeoutMapEntry<K, V> prev;
+    TimeoutMapEntry<K, V> next;
 
     public TimeoutMapEntry(K id, V handler, long timeout) {
         this.key = id;
@@ -267,6 +267,28 @@ public final class CamelContextHelper {
         return 1000;
     }
 
+    /**
+     * Whether processor fusion is enabled, which fuses sequential synchronous processors in the routes
+     * into a single step.
+     * <p/>
+     * Will use the property set on CamelContext with the key {@link Exchange#PROCESSOR_FUSION}.
+     * If no property has been set, then it will fallback to return <tt>false</tt>.
+     *
+     * @param camelContext the camel context
+     * @return <tt>true</tt> if processor fusion is enabled
+     * @see org.apache.camel.processor.FusedChannel
+     */
+    public static boolean isProcessorFusion(CamelContext camelContext) {
+        if (camelContext != null) {
+            String s = camelContext.getGlobalOption(Exchange.PROCESSOR_FUSION);
+            if (s != null) {
+                // we cannot use Camel type converters as they may not be ready this early
+                return Boolean.parseBoolean(s.trim());
+            }
+        }
+        return false;
+    }
+
     /**
      * Gets the maximum transformer cache size.
      * <p/>
@@ -0,0 +1,403 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact map that uses case insensitive keys, but preserves the original key cases.
+ * <p/>
+ * The entries are stored in plain arrays in insertion order, and looked up using an open addressing
+ * hash table of the precomputed case insensitive hash codes of the keys. This avoids allocating an
+ * object per entry as {@link CaseInsensitiveMap} does, and lookups are O(1). Lookups of keys using the
+ * same {@link String} instance as the key was stored with, such as the constants from
+ * {@link org.apache.camel.Exchange}, are resolved by an identity check first when the map is small.
+ * <p/>
+ * Copying this map, by the copy constructor or by {@link #putAll(Map)} into an empty map, shares the
+ * arrays of the source map until either of the maps is modified (copy on write), which makes copying
+ * headers, as done when copying an {@link org.apache.camel.Exchange}, cheap.
+ * <p/>
+ * This map does not allow <tt>null</tt> keys. The iteration order is the insertion order of the keys.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed
+ * by the Camel routing engine.
+ */
+public class CompactCaseInsensitiveMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 5946183465329482911L;
+    private static final int DEFAULT_CAPACITY = 8;
+    // up to this size we look for the same key instance before we compute the hash code
+    private static final int IDENTITY_SCAN_THRESHOLD = 32;
+
+    private String[] keys;
+    private Object[] values;
+    private int[] hashes;
+    // open addressing hash table holding the position of the entry + 1, and 0 for free slots
+    private int[] table;
+    private int size;
+    // whether the arrays are shared with another map and must be copied before being modified
+    private transient boolean shared;
+    private transient int modCount;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    public CompactCaseInsensitiveMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CompactCaseInsensitiveMap(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 2));
+    }
+
+    public CompactCaseInsensitiveMap(Map<? extends String, ?> map) {
+        if (map instanceof CompactCaseInsensitiveMap) {
+            share((CompactCaseInsensitiveMap) map);
+        } else {
+            allocate(Math.max(map.size(), DEFAULT_CAPACITY));
+            putAll(map);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int pos = indexOf((String) key);
+        return pos >= 0 ? values[pos] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+        int hash = hash(key);
+        int pos = find(key, hash);
+        if (pos >= 0) {
+            // keep the existing key case as the TreeMap based CaseInsensitiveMap does
+            unshare();
+            Object answer = values[pos];
+            values[pos] = value;
+            return answer;
+        }
+
+        if (size == keys.length) {
+            resize(size * 2);
+        } else {
+            unshare();
+        }
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = hash;
+        insert(hash, size);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        if (size == 0 && map instanceof CompactCaseInsensitiveMap) {
+            // we are empty so we can just share the arrays of the other map
+            share((CompactCaseInsensitiveMap) map);
+            modCount++;
+            return;
+        }
+        for (Map.Entry<? extends String, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int pos = indexOf((String) key);
+        if (pos < 0) {
+            return null;
+        }
+        Object answer = values[pos];
+        removeAt(pos);
+        return answer;
+    }
+
+    @Override
+    public void clear() {
+        if (shared) {
+            // do not touch the shared arrays
+            allocate(keys.length);
+        } else {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            Arrays.fill(table, 0);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Computes the case insensitive hash code of the key, which is the same for all keys which are
+     * equal ignoring case as defined by {@link String#equalsIgnoreCase(String)}.
+     */
+    private static int hash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+        }
+        // spread the higher bits as the table size is a power of two
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(String key) {
+        if (size <= IDENTITY_SCAN_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        }
+        return find(key, hash(key));
+    }
+
+    private int find(String key, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int pos = entry - 1;
+            if (hashes[pos] == hash && (keys[pos] == key || keys[pos].equalsIgnoreCase(key))) {
+                return pos;
+            }
+        }
+    }
+
+    private void insert(int hash, int pos) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = pos + 1;
+    }
+
+    private void removeAt(int pos) {
+        unshare();
+        int moved = size - pos - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, pos + 1, keys, pos, moved);
+            System.arraycopy(values, pos + 1, values, pos, moved);
+            System.arraycopy(hashes, pos + 1, hashes, pos, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        // the positions of the entries have changed so the table must be rebuild
+        // which is cheap as headers are seldom removed and there are only a few of them
+        rebuild();
+        modCount++;
+    }
+
+    private void rebuild() {
+        Arrays.fill(table, 0);
+        for (int i = 0; i < size; i++) {
+            insert(hashes[i], i);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        table = new int[tableSizeFor(capacity)];
+        shared = false;
+    }
+
+    private void resize(int capacity) {
+        // copying the arrays means they are no longer shared
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        table = new int[tableSizeFor(capacity)];
+        shared = false;
+        rebuild();
+    }
+
+    private void share(CompactCaseInsensitiveMap map) {
+        keys = map.keys;
+        values = map.values;
+        hashes = map.hashes;
+        table = map.table;
+        size = map.size;
+        // both maps must copy the arrays before they are modified
+        shared = true;
+        map.shared = true;
+    }
+
+    private void unshare() {
+        if (shared) {
+            keys = keys.clone();
+            values = values.clone();
+            hashes = hashes.clone();
+            table = table.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * The table size is a power of two which is at least twice the capacity, so the table is at most half full.
+     */
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactCaseInsensitiveMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            // the following entries have been moved one position back
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, Object> {
+        private final int pos;
+
+        private Entry(int pos) {
+            this.pos = pos;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[pos];
+        }
+
+        @Override
+        public Object getValue() {
+            return values[pos];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            unshare();
+            Object answer = values[pos];
+            values[pos] = value;
+            return answer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return ObjectHelper.equal(getKey(), e.getKey()) && ObjectHelper.equal(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ (value != null ? value.hashCode() : 0);
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A bounded lock free {@link BlockingQueue} backed by a pre-allocated ring buffer.
+ * <p/>
+ * Each slot of the ring buffer holds a sequence number, which tells the producers and consumers whether the slot
+ * is free to be written or ready to be read, so neither the producers nor the consumers take any lock. The producers
+ * claim slots using compare and set on the tail of the ring buffer, and the consumers claim slots using compare and set
+ * on the head of the ring buffer, unless the queue is created for a single consumer, in which case the head is advanced
+ * without compare and set.
+ * <p/>
+ * As there are no locks there are no conditions to signal either, and threads waiting for the queue to become non empty
+ * (or non full) wait using the configured {@link WaitStrategy}. Busy spinning gives the lowest latency but keeps
+ * the waiting threads burning CPU for as long as they wait, which includes idle consumers waiting for messages.
+ * <p/>
+ * Removing an element other than the head of the queue, as done by the SEDA producer when an exchange times out,
+ * leaves a tombstone in the slot which is skipped by the consumers. Until then the tombstone is included in the
+ * {@link #size()} of the queue. The iterator is weakly consistent and iterates over a snapshot of the queue.
+ * <p/>
+ * This queue does not permit <tt>null</tt> elements.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * How threads wait for the queue to become non empty when taking, or non full when putting.
+     */
+    public enum WaitStrategy {
+        /**
+         * Keeps checking the queue without pausing, which gives the lowest latency at the cost of a CPU core per waiting thread.
+         */
+        BUSY_SPIN,
+        /**
+         * Yields the CPU to other threads between checking the queue.
+         */
+        YIELD,
+        /**
+         * Spins and yields for a short while, and then parks the thread for a short period between checking the queue.
+         */
+        PARK
+    }
+
+    private static final Object REMOVED = new Object();
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int capacity;
+    private final boolean singleConsumer;
+    private final WaitStrategy waitStrategy;
+    private final AtomicReferenceArray<Object> buffer;
+    // the sequence of a slot is twice its position when free to be written, and twice its position + 1 when ready
+    // to be read, which keeps the two states apart even when the capacity is one
+    private final AtomicLongArray sequences;
+    // the position of the next element to take
+    private final AtomicLong head = new AtomicLong();
+    // the position of the next element to put
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a queue for multiple producers and multiple consumers which parks the waiting threads.
+     *
+     * @param capacity the capacity of the queue
+     */
+    public RingBufferBlockingQueue(int capacity) {
+        this(capacity, false, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity       the capacity of the queue
+     * @param singleConsumer whether only a single thread at any time takes elements from the queue, which
+     *                       allows the consumer side to skip the compare and set.
+     * @param waitStrategy   how to wait for the queue to become non empty or non full
+     */
+    public RingBufferBlockingQueue(int capacity, boolean singleConsumer, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        ObjectHelper.notNull(waitStrategy, "waitStrategy");
+        this.capacity = capacity;
+        this.singleConsumer = singleConsumer;
+        this.waitStrategy = waitStrategy;
+        this.buffer = new AtomicReferenceArray<Object>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, 2L * i);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isSingleConsumer() {
+        return singleConsumer;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        ObjectHelper.notNull(e, "element");
+        long pos = tail.get();
+        while (true) {
+            int index = index(pos);
+            long diff = sequences.get(index) - 2 * pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(index, e);
+                    // publish the element to the consumers
+                    sequences.lazySet(index, 2 * pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot has not yet been taken by a consumer so the queue is full
+                return false;
+            } else {
+                // another producer claimed the slot
+                pos = tail.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = index(pos);
+            long diff = sequences.get(index) - (2 * pos + 1);
+            if (diff == 0) {
+                if (singleConsumer) {
+                    head.lazySet(pos + 1);
+                } else if (!head.compareAndSet(pos, pos + 1)) {
+                    pos = head.get();
+                    continue;
+                }
+                Object e = buffer.getAndSet(index, null);
+                // free the slot for the producers in the next round
+                sequences.lazySet(index, 2 * (pos + capacity));
+                if (e != REMOVED) {
+                    return (E) e;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // the slot has not yet been published by a producer so the queue is empty
+                return null;
+            } else {
+                // another consumer took the slot
+                pos = head.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            Object e = published(pos);
+            if (e != null) {
+                return (E) e;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        int idle = 0;
+        while (!offer(e)) {
+            idle = idle(idle, Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (!offer(e)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            idle = idle(idle, remaining);
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        int idle = 0;
+        E e;
+        while ((e = poll()) == null) {
+            idle = idle(idle, Long.MAX_VALUE);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        E e;
+        while ((e = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            idle = idle(idle, remaining);
+        }
+        return e;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        ObjectHelper.notNull(c, "collection");
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain a queue to itself");
+        }
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            Object e = published(pos);
+            // replace the element with a tombstone, unless a consumer took it in the meantime
+            if (e != null && o.equals(e) && buffer.compareAndSet(index(pos), e, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        while (true) {
+            long before = head.get();
+            long end = tail.get();
+            if (head.get() == before) {
+                // a producer may have claimed a slot it has not yet published
+                return (int) Math.max(0, Math.min(capacity, end - before));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        List<E> answer = new ArrayList<E>();
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            Object e = published(pos);
+            if (e != null) {
+                answer.add((E) e);
+            }
+        }
+        // the snapshot cannot be used to remove elements from the queue
+        return Collections.unmodifiableList(answer).iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "RingBufferBlockingQueue[capacity=" + capacity + ", size=" + size() + ", waitStrategy=" + waitStrategy + "]";
+    }
+
+    /**
+     * Gets the element at the given position if it has been published and not yet taken or removed.
+     */
+    private Object published(long pos) {
+        int index = index(pos);
+        if (sequences.get(index) != 2 * pos + 1) {
+            return null;
+        }
+        Object e = buffer.get(index);
+        return e == REMOVED ? null : e;
+    }
+
+    private int index(long pos) {
+        return (int) (pos % capacity);
+    }
+
+    /**
+     * Waits before checking the queue again according to the wait strategy.
+     *
+     * @param idle      the number of times the thread has waited so far
+     * @param remaining the remaining nanos the thread may wait
+     * @return the number of times the thread has waited
+     */
+    private int idle(int idle, long remaining) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (waitStrategy == WaitStrategy.YIELD) {
+            Thread.yield();
+        } else if (waitStrategy == WaitStrategy.PARK) {
+            if (idle < SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, Math.min(PARK_NANOS, remaining));
+            }
+        }
+        return idle < Integer.MAX_VALUE ? idle + 1 : idle;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Helper for using virtual threads when running on a JVM which supports them.
+ * <p/>
+ * Camel is compiled for Java 8 so the virtual thread API is looked up using method handles, and
+ * {@link #isSupported()} returns <tt>false</tt> on JVMs without virtual threads (or where they are
+ * a preview feature which has not been enabled), in which case regular threads should be used instead.
+ */
+public final class VirtualThreadHelper {
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle UNSTARTED;
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle unstarted = null;
+        MethodHandle newThreadPerTaskExecutor = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder))
+                    .asType(MethodType.methodType(Object.class));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, String.class));
+            unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class))
+                    .asType(MethodType.methodType(Thread.class, Object.class, Runnable.class));
+            newThreadPerTaskExecutor = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            // virtual threads may be a preview feature which fails when used, so create a builder to be sure
+            Object answer = (Object) ofVirtual.invokeExact();
+            ObjectHelper.notNull(answer, "Thread.ofVirtual()");
+        } catch (Throwable e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreadHelper() {
+    }
+
+    /**
+     * Whether virtual threads are supported by the JVM
+     *
+     * @return <tt>true</tt> if supported, <tt>false</tt> otherwise
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a new unstarted virtual thread.
+     *
+     * @param runnable   the task to run
+     * @param threadName the name of the thread, or <tt>null</tt> to not name the thread
+     * @return the unstarted virtual thread
+     * @throws UnsupportedOperationException is thrown if virtual threads are not supported
+     */
+    public static Thread newVirtualThread(Runnable runnable, String threadName) {
+        checkSupported();
+        try {
+            Object builder = (Object) OF_VIRTUAL.invokeExact();
+            if (threadName != null) {
+                builder = (Object) NAME.invokeExact(builder, threadName);
+            }
+            return (Thread) UNSTARTED.invokeExact(builder, runnable);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
+    /**
+     * Creates a new thread factory which creates virtual threads.
+     * <p/>
+     * If the given thread factory is a {@link CamelThreadFactory} then its thread name pattern is used for naming the virtual threads.
+     *
+     * @param threadFactory the thread factory which would otherwise be used for creating (platform) threads, can be <tt>null</tt>
+     * @return the virtual thread factory
+     * @throws UnsupportedOperationException is thrown if virtual threads are not supported
+     */
+    public static ThreadFactory newVirtualThreadFactory(ThreadFactory threadFactory) {
+        checkSupported();
+        if (threadFactory instanceof CamelThreadFactory) {
+            final CamelThreadFactory ctf = (CamelThreadFactory) threadFactory;
+            return new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    return newVirtualThread(runnable, ThreadHelper.resolveThreadName(ctf.getPattern(), ctf.getName()));
+                }
+
+                @Override
+                public String toString() {
+                    return "VirtualThreadFactory[" + ctf.getName() + "]";
+                }
+            };
+        }
+        return new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                return newVirtualThread(runnable, null);
+            }
+
+            @Override
+            public String toString() {
+                return "VirtualThreadFactory";
+            }
+        };
+    }
+
+    /**
+     * Creates a new executor service which starts a new virtual thread for each task.
+     * <p/>
+     * The executor service is unbounded as virtual threads are cheap to create, and should therefore not be pooled.
+     *
+     * @param threadFactory the thread factory which would otherwise be used for creating (platform) threads, can be <tt>null</tt>
+     * @return the executor service
+     * @throws UnsupportedOperationException is thrown if virtual threads are not supported
+     */
+    public static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        ThreadFactory factory = newVirtualThreadFactory(threadFactory);
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invokeExact(factory);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
+    private static void checkSupported() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported on this JVM: " + System.getProperty("java.version"));
+        }
+    }
+}
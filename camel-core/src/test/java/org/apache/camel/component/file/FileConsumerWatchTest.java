@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Unit test for consuming files using a watch service
+ */
+public class FileConsumerWatchTest extends ContextTestSupport {
+
+    private String fileUrl = "file://target/watch/";
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/watch");
+        super.setUp();
+    }
+
+    public void testWatch() throws Exception {
+        template.sendBodyAndHeader(fileUrl, "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello World");
+
+        // the existing file is found by the first scan
+        context.startRoute("foo");
+        assertMockEndpointsSatisfied();
+
+        // and the new files by the watch service
+        mock.reset();
+        mock.expectedBodiesReceivedInAnyOrder("Bye World", "Hi World", "Nested World");
+        mock.expectedFileExists("target/watch/.camel/bye.txt");
+
+        template.sendBodyAndHeader(fileUrl, "Bye World", Exchange.FILE_NAME, "bye.txt");
+        template.sendBodyAndHeader(fileUrl, "Hi World", Exchange.FILE_NAME, "hi.txt");
+        template.sendBodyAndHeader(fileUrl, "Nested World", Exchange.FILE_NAME, "sub/nested.txt");
+
+        assertMockEndpointsSatisfied();
+
+        // a file which is modified after being consumed is consumed again
+        mock.reset();
+        mock.expectedBodiesReceived("Bye Again");
+        template.sendBodyAndHeader(fileUrl, "Bye Again", Exchange.FILE_NAME, "bye.txt");
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWatchMaxMessagesPerPoll() throws Exception {
+        context.startRoute("limit");
+
+        MockEndpoint mock = getMockEndpoint("mock:limit");
+        mock.expectedMessageCount(3);
+        mock.message(0).exchangeProperty(Exchange.BATCH_SIZE).isEqualTo(1);
+
+        template.sendBodyAndHeader("file://target/watch/limit", "A", Exchange.FILE_NAME, "a.txt");
+        template.sendBodyAndHeader("file://target/watch/limit", "B", Exchange.FILE_NAME, "b.txt");
+        template.sendBodyAndHeader("file://target/watch/limit", "C", Exchange.FILE_NAME, "c.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWatchDoneFile() throws Exception {
+        context.startRoute("done");
+
+        MockEndpoint mock = getMockEndpoint("mock:done");
+        mock.expectedMessageCount(0);
+
+        template.sendBodyAndHeader("file://target/watch/done", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        // the file is not consumed without the done file
+        Thread.sleep(250);
+        assertMockEndpointsSatisfied();
+
+        mock.reset();
+        mock.expectedBodiesReceived("Hello World");
+
+        template.sendBodyAndHeader("file://target/watch/done", "", Exchange.FILE_NAME, "hello.txt.done");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from(fileUrl + "?watch=true&watchReconcileInterval=600000&recursive=true&initialDelay=0&delay=10")
+                    .routeId("foo").noAutoStartup()
+                    .convertBodyTo(String.class).to("mock:result");
+
+                from("file://target/watch/limit?watch=true&watchReconcileInterval=600000&maxMessagesPerPoll=1&initialDelay=0&delay=10")
+                    .routeId("limit").noAutoStartup()
+                    .convertBodyTo(String.class).to("mock:limit");
+
+                from("file://target/watch/done?watch=true&watchReconcileInterval=600000&doneFileName=${file:name}.done&initialDelay=0&delay=10")
+                    .routeId("done").noAutoStartup()
+                    .convertBodyTo(String.class).to("mock:done");
+            }
+        };
+    }
+
+}
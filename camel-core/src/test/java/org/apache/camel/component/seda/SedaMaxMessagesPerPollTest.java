@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+
+/**
+ * @version
+ */
+public class SedaMaxMessagesPerPollTest extends ContextTestSupport {
+
+    public void testMaxMessagesPerPoll() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("seda:batch?maxMessagesPerPoll=10", "Message " + i);
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:batch");
+        mock.expectedBodiesReceived("Message 0", "Message 1", "Message 2", "Message 3", "Message 4");
+        mock.allMessages().exchangeProperty(Exchange.BATCH_SIZE).isEqualTo(5);
+        mock.message(0).exchangeProperty(Exchange.BATCH_INDEX).isEqualTo(0);
+        mock.message(0).exchangeProperty(Exchange.BATCH_COMPLETE).isEqualTo(false);
+        mock.message(4).exchangeProperty(Exchange.BATCH_INDEX).isEqualTo(4);
+        mock.message(4).exchangeProperty(Exchange.BATCH_COMPLETE).isEqualTo(true);
+
+        getMockEndpoint("mock:aggregated").expectedBodiesReceived("Message 0+Message 1+Message 2+Message 3+Message 4");
+
+        // the queue holds all the messages when the consumer starts, so they are taken as a single batch
+        context.startRoute("batch");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testBatchLinger() throws Exception {
+        context.startRoute("linger");
+
+        MockEndpoint mock = getMockEndpoint("mock:linger");
+        mock.expectedBodiesReceived("A", "B", "C");
+        mock.allMessages().exchangeProperty(Exchange.BATCH_SIZE).isEqualTo(3);
+
+        template.sendBody("seda:linger?maxMessagesPerPoll=3&batchLinger=5000", "A");
+        Thread.sleep(50);
+        template.sendBody("seda:linger?maxMessagesPerPoll=3&batchLinger=5000", "B");
+        Thread.sleep(50);
+        template.sendBody("seda:linger?maxMessagesPerPoll=3&batchLinger=5000", "C");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testMaxMessagesPerPollInOut() throws Exception {
+        context.startRoute("batch");
+        getMockEndpoint("mock:batch").expectedMessageCount(1);
+
+        Object reply = template.requestBody("seda:batch?maxMessagesPerPoll=10", "Hello");
+        assertEquals("Bye Hello", reply);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:batch?maxMessagesPerPoll=10").routeId("batch").noAutoStartup()
+                    .to("mock:batch")
+                    .to("direct:aggregate")
+                    .transform(body().prepend("Bye "));
+
+                from("direct:aggregate")
+                    .aggregate(constant(true), new BodyInAggregatingStrategy()).completionFromBatchConsumer()
+                        .to("mock:aggregated");
+
+                from("seda:linger?maxMessagesPerPoll=3&batchLinger=5000").routeId("linger").noAutoStartup()
+                    .to("mock:linger");
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.FailedToCreateRouteException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue.WaitStrategy;
+
+/**
+ * @version 
+ */
+public class SedaRingBufferQueueTest extends ContextTestSupport {
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+
+        RingBufferBlockingQueueFactory<Exchange> factory = new RingBufferBlockingQueueFactory<Exchange>();
+        factory.setWaitStrategy(WaitStrategy.YIELD);
+        jndi.bind("ringBuffer", factory);
+
+        RingBufferBlockingQueueFactory<Exchange> single = new RingBufferBlockingQueueFactory<Exchange>();
+        single.setSingleConsumer(true);
+        jndi.bind("singleConsumerRingBuffer", single);
+        return jndi;
+    }
+
+    public void testConcurrentConsumers() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(200);
+
+        for (int i = 0; i < 200; i++) {
+            template.sendBody("seda:foo?queueFactory=#ringBuffer&size=16&blockWhenFull=true", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSingleConsumer() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:single");
+        mock.expectedMessageCount(100);
+        // a single consumer keeps the order of the messages
+        for (int i = 0; i < 100; i++) {
+            mock.message(i).body().isEqualTo("Message " + i);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            template.sendBody("seda:single?queueFactory=#singleConsumerRingBuffer", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSingleConsumerWithConcurrentConsumers() throws Exception {
+        try {
+            context.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("seda:bar?queueFactory=#singleConsumerRingBuffer&concurrentConsumers=2").to("mock:bar");
+                }
+            });
+            fail("Should have thrown an exception");
+        } catch (FailedToCreateRouteException e) {
+            IllegalArgumentException iae = assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+            assertTrue(iae.getMessage().startsWith("Cannot use single consumer queue"));
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#ringBuffer&size=16&concurrentConsumers=4").to("mock:result");
+
+                from("seda:single?queueFactory=#singleConsumerRingBuffer").to("mock:single");
+            }
+        };
+    }
+}
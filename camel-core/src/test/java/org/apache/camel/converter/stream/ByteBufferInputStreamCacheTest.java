@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.StreamCache;
+import org.apache.camel.impl.DefaultExchange;
+
+public class ByteBufferInputStreamCacheTest extends ContextTestSupport {
+
+    public void testReadSkipAndReset() throws Exception {
+        ByteBuffer first = ByteBuffer.wrap("Hello ".getBytes());
+        ByteBuffer second = ByteBuffer.allocateDirect(5);
+        second.put("World".getBytes()).flip();
+
+        ByteBufferInputStreamCache cache = new ByteBufferInputStreamCache(first, second);
+        assertEquals(11, cache.length());
+        assertEquals(11, cache.available());
+
+        assertEquals('H', cache.read());
+        assertEquals(4, cache.skip(4));
+        byte[] data = new byte[10];
+        assertEquals(6, cache.read(data, 0, 10));
+        assertEquals(" World", new String(data, 0, 6));
+        assertEquals(-1, cache.read());
+        assertEquals(0, cache.available());
+
+        cache.reset();
+        assertEquals("Hello World", context.getTypeConverter().convertTo(String.class, cache));
+
+        // the given buffers are not changed
+        assertEquals(0, first.position());
+        assertEquals(0, second.position());
+    }
+
+    public void testCopyAndWriteTo() throws Exception {
+        ByteBufferInputStreamCache cache = new ByteBufferInputStreamCache(ByteBuffer.wrap("Hello ".getBytes()), ByteBuffer.wrap("World".getBytes()));
+        assertEquals('H', cache.read());
+
+        // the copy starts from the start
+        StreamCache copy = cache.copy(new DefaultExchange(context));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        copy.writeTo(bos);
+        assertEquals("Hello World", bos.toString());
+
+        // write to a channel from the current position
+        bos = new ByteArrayOutputStream();
+        cache.writeTo(new ChannelOutputStream(Channels.newChannel(bos)));
+        assertEquals("ello World", bos.toString());
+    }
+
+    private static final class ChannelOutputStream extends OutputStream implements WritableByteChannel {
+        private final WritableByteChannel channel;
+
+        private ChannelOutputStream(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) b}));
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultUnitOfWork;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.util.IOHelper;
+
+public class CachedOutputStreamOffHeapTest extends ContextTestSupport {
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory("target/cachedir");
+        context.getStreamCachingStrategy().setSpoolThreshold(16);
+        context.getStreamCachingStrategy().setSpoolOffHeap(true);
+        context.getStreamCachingStrategy().setSpoolOffHeapThreshold(128 * 1024);
+        return context;
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteDirectory("target/cachedir");
+        createDirectory("target/cachedir");
+
+        exchange = new DefaultExchange(context);
+        UnitOfWork uow = new DefaultUnitOfWork(exchange);
+        exchange.setUnitOfWork(uow);
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    private static byte[] createData(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static byte[] toBytes(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IOHelper.copy(is, bos);
+        return bos.toByteArray();
+    }
+
+    public void testCacheStreamToDirectBuffers() throws Exception {
+        context.start();
+        byte[] data = createData(1000);
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data);
+
+        assertEquals("should not have a temp file", 0, new File("target/cachedir").list().length);
+
+        StreamCache cache = cos.newStreamCache();
+        ByteBufferInputStreamCache bis = assertIsInstanceOf(ByteBufferInputStreamCache.class, cache);
+        assertFalse(bis.inMemory());
+        assertEquals(1000, bis.length());
+        assertTrue(Arrays.equals(data, toBytes(bis)));
+
+        // the copy reads the same data from the start
+        InputStream copy = (InputStream) cache.copy(exchange);
+        assertTrue(Arrays.equals(data, toBytes(copy)));
+        cache.reset();
+        assertTrue(Arrays.equals(data, toBytes(bis)));
+
+        exchange.getUnitOfWork().done(exchange);
+        cache.reset();
+        try {
+            bis.read();
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            // expected as the direct buffers have been released
+        }
+        IOHelper.close(cos);
+    }
+
+    public void testCacheStreamToMemoryMappedFile() throws Exception {
+        context.start();
+        byte[] data = createData(300 * 1024 + 17);
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        for (int i = 0; i < data.length; i += 1000) {
+            cos.write(data, i, Math.min(1000, data.length - i));
+        }
+
+        File dir = new File("target/cachedir");
+        String[] files = dir.list();
+        assertEquals("we should have a temp file", 1, files.length);
+        assertTrue("The file name should start with cos", files[0].startsWith("cos"));
+
+        StreamCache cache = cos.newStreamCache();
+        assertIsInstanceOf(ByteBufferInputStreamCache.class, cache);
+        assertEquals(data.length, cache.length());
+        assertTrue(Arrays.equals(data, toBytes((InputStream) cache)));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        cache.copy(exchange).writeTo(bos);
+        assertTrue(Arrays.equals(data, bos.toByteArray()));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("we should not have a temp file", 0, dir.list().length);
+        IOHelper.close(cos);
+    }
+
+    public void testCacheStreamWithChiperUsesTempFile() throws Exception {
+        context.getStreamCachingStrategy().setSpoolChiper("RC4");
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(createData(1000));
+
+        StreamCache cache = cos.newStreamCache();
+        assertIsInstanceOf(FileInputStreamCache.class, cache);
+        ((InputStream) cache).close();
+
+        exchange.getUnitOfWork().done(exchange);
+        IOHelper.close(cos);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.ExchangeCodec;
+
+public class BinaryExchangeCodecTest extends ContextTestSupport {
+
+    private final ExchangeCodec codec = new BinaryExchangeCodec();
+
+    public void testEncodeDecode() throws Exception {
+        Date date = new Date();
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("string", "Camel");
+        exchange.getIn().setHeader("int", 123);
+        exchange.getIn().setHeader("negative", -5L);
+        exchange.getIn().setHeader("long", Long.MAX_VALUE);
+        exchange.getIn().setHeader("boolean", true);
+        exchange.getIn().setHeader("double", 1.5d);
+        exchange.getIn().setHeader("float", 2.5f);
+        exchange.getIn().setHeader("short", (short) 7);
+        exchange.getIn().setHeader("byte", (byte) 8);
+        exchange.getIn().setHeader("char", 'c');
+        exchange.getIn().setHeader("date", date);
+        exchange.getIn().setHeader("decimal", new BigDecimal("-123.456"));
+        exchange.getIn().setHeader("integer", new BigInteger("123456789012345678901234567890"));
+        exchange.getOut().setBody("Bye World");
+        exchange.getOut().setHeader("unicode", "Hej æøå 世界");
+        exchange.getOut().setFault(true);
+        exchange.setProperty("bar", 444);
+        exchange.setException(new IllegalArgumentException("Damn"));
+
+        Exchange answer = roundTrip(exchange, true);
+
+        assertEquals(exchange.getExchangeId(), answer.getExchangeId());
+        assertEquals("Hello World", answer.getIn().getBody());
+        assertEquals("Camel", answer.getIn().getHeader("string"));
+        assertEquals(123, answer.getIn().getHeader("int"));
+        assertEquals(-5L, answer.getIn().getHeader("negative"));
+        assertEquals(Long.MAX_VALUE, answer.getIn().getHeader("long"));
+        assertEquals(Boolean.TRUE, answer.getIn().getHeader("boolean"));
+        assertEquals(1.5d, answer.getIn().getHeader("double"));
+        assertEquals(2.5f, answer.getIn().getHeader("float"));
+        assertEquals((short) 7, answer.getIn().getHeader("short"));
+        assertEquals((byte) 8, answer.getIn().getHeader("byte"));
+        assertEquals('c', answer.getIn().getHeader("char"));
+        assertEquals(date, answer.getIn().getHeader("date"));
+        assertEquals(new BigDecimal("-123.456"), answer.getIn().getHeader("decimal"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), answer.getIn().getHeader("integer"));
+        assertEquals("Bye World", answer.getOut().getBody());
+        assertEquals("Hej æøå 世界", answer.getOut().getHeader("unicode"));
+        assertTrue(answer.getOut().isFault());
+        assertEquals(444, answer.getProperty("bar"));
+        assertIsInstanceOf(IllegalArgumentException.class, answer.getException());
+        assertEquals("Damn", answer.getException().getMessage());
+    }
+
+    public void testEncodeDecodeBodyTypes() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(new byte[]{1, 2, 3});
+        assertEquals(3, roundTrip(exchange, false).getIn().getBody(byte[].class).length);
+
+        List<Object> list = new ArrayList<Object>();
+        list.add("A");
+        list.add(1);
+        list.add(null);
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("list", list);
+        map.put("nested", new LinkedHashMap<String, Object>(map));
+        exchange.getIn().setBody(map);
+
+        Object body = roundTrip(exchange, false).getIn().getBody();
+        assertIsInstanceOf(HashMap.class, body);
+        assertEquals(map, body);
+
+        // fallback to serialization for other types
+        exchange.getIn().setBody(new java.sql.Timestamp(12345L));
+        body = roundTrip(exchange, false).getIn().getBody();
+        assertIsInstanceOf(java.sql.Timestamp.class, body);
+        assertEquals(12345L, ((Date) body).getTime());
+    }
+
+    public void testDecodeSerialized() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+
+        // encoded using serialization can be decoded to allow switching codec
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SerializationExchangeCodec().encode(DefaultExchangeHolder.marshal(exchange), bytes);
+
+        DefaultExchangeHolder holder = codec.decode(context, new ByteArrayInputStream(bytes.toByteArray()));
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, holder);
+        assertEquals("Hello World", answer.getIn().getBody());
+        assertEquals(123, answer.getIn().getHeader("foo"));
+    }
+
+    public void testSmallerThanSerialization() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.getIn().setHeader("bar", "Camel");
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange);
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        codec.encode(holder, binary);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        new SerializationExchangeCodec().encode(holder, serialized);
+
+        assertTrue("Binary " + binary.size() + " should be smaller than serialized " + serialized.size(),
+            binary.size() < serialized.size());
+    }
+
+    private Exchange roundTrip(Exchange exchange, boolean includeProperties) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.encode(DefaultExchangeHolder.marshal(exchange, includeProperties, false), bytes);
+
+        DefaultExchangeHolder holder = codec.decode(context, new ByteArrayInputStream(bytes.toByteArray()));
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, holder);
+        return answer;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.util.CompactCaseInsensitiveMap;
+
+/**
+ * @version 
+ */
+public class CompactHeadersMapFactoryTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setHeadersMapFactory(new CompactHeadersMapFactory());
+        return context;
+    }
+
+    public void testCompactHeaders() throws Exception {
+        MockEndpoint split = getMockEndpoint("mock:split");
+        split.expectedBodiesReceived("A", "B", "C");
+        split.message(0).header("item").isEqualTo("A");
+        split.message(1).header("item").isEqualTo("B");
+        split.message(2).header("item").isEqualTo("C");
+        split.allMessages().header("foo").isEqualTo("bar");
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(1);
+        result.message(0).header("item").isNull();
+        result.message(0).header("FOO").isEqualTo("bar");
+
+        template.sendBodyAndHeader("direct:start", "A,B,C", "foo", "bar");
+
+        assertMockEndpointsSatisfied();
+
+        for (Exchange exchange : split.getReceivedExchanges()) {
+            assertIsInstanceOf(CompactCaseInsensitiveMap.class, exchange.getIn().getHeaders());
+        }
+        assertIsInstanceOf(CompactCaseInsensitiveMap.class, result.getReceivedExchanges().get(0).getIn().getHeaders());
+    }
+
+    public void testCopyExchange() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("foo", "bar");
+        exchange.getIn().setHeader("beer", "Carlsberg");
+
+        Exchange copy = exchange.copy(true);
+        assertIsInstanceOf(CompactCaseInsensitiveMap.class, copy.getIn().getHeaders());
+        copy.getIn().setHeader("foo", "baz");
+        copy.getIn().removeHeader("beer");
+
+        assertEquals("bar", exchange.getIn().getHeader("FOO"));
+        assertEquals("Carlsberg", exchange.getIn().getHeader("Beer"));
+        assertEquals("baz", copy.getIn().getHeader("Foo"));
+        assertNull(copy.getIn().getHeader("beer"));
+    }
+
+    public void testCopyMessage() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("foo", "bar");
+
+        // the copy is not associated with the exchange, but creates its headers the same way
+        Message copy = exchange.getIn().copy();
+        assertNull(((MessageSupport) copy).getExchange());
+        assertIsInstanceOf(CompactCaseInsensitiveMap.class, copy.getHeaders());
+        assertEquals("bar", copy.getHeader("FOO"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .split(body().tokenize(","))
+                        .setHeader("item", body())
+                        .to("mock:split")
+                    .end()
+                    .to("mock:result");
+            }
+        };
+    }
+}
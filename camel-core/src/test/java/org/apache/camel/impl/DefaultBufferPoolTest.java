@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class DefaultBufferPoolTest extends TestCase {
+
+    public void testSizeClasses() throws Exception {
+        DefaultBufferPool pool = new DefaultBufferPool();
+
+        assertEquals(1024, pool.acquire(0).length);
+        assertEquals(1024, pool.acquire(1024).length);
+        assertEquals(2048, pool.acquire(1025).length);
+        assertEquals(4096, pool.acquire(4096).length);
+        assertEquals(256 * 1024, pool.acquire(256 * 1024).length);
+        // too large to be pooled
+        assertEquals(256 * 1024 + 1, pool.acquire(256 * 1024 + 1).length);
+    }
+
+    public void testReuse() throws Exception {
+        DefaultBufferPool pool = new DefaultBufferPool();
+
+        byte[] buffer = pool.acquire(4096);
+        pool.release(buffer);
+        assertSame("Should reuse the buffer kept by the thread", buffer, pool.acquire(4000));
+
+        byte[] other = pool.acquire(4096);
+        assertNotSame(buffer, other);
+        pool.release(buffer);
+        pool.release(other);
+        // one is kept by the thread and the other is shared
+        byte[] first = pool.acquire(4096);
+        byte[] second = pool.acquire(4096);
+        assertNotSame(first, second);
+        assertTrue((first == buffer && second == other) || (first == other && second == buffer));
+    }
+
+    public void testReuseLargeBuffersAcrossThreads() throws Exception {
+        final DefaultBufferPool pool = new DefaultBufferPool();
+
+        final byte[] buffer = new byte[128 * 1024];
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                pool.release(buffer);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertSame("Should reuse the buffer released by the other thread", buffer, pool.acquire(100 * 1024));
+    }
+
+    public void testMaxPooledBytes() throws Exception {
+        DefaultBufferPool pool = new DefaultBufferPool();
+        pool.setMaxPooledBytesPerSizeClass(256 * 1024);
+
+        byte[] first = pool.acquire(256 * 1024);
+        byte[] second = pool.acquire(256 * 1024);
+        pool.release(first);
+        // the pool is full
+        pool.release(second);
+
+        assertSame(first, pool.acquire(256 * 1024));
+        assertNotSame(second, pool.acquire(256 * 1024));
+    }
+
+    public void testReleaseIgnoresOtherSizes() throws Exception {
+        DefaultBufferPool pool = new DefaultBufferPool();
+
+        byte[] buffer = new byte[3000];
+        pool.release(buffer);
+        pool.release(null);
+        assertNotSame(buffer, pool.acquire(3000));
+    }
+}
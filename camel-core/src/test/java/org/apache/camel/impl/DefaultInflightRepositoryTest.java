@@ -16,6 +16,10 @@
  */
 package org.apache.camel.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import org.apache.camel.ContextTestSupport;
 import org.apache.camel.Exchange;
 import org.apache.camel.spi.InflightRepository;
@@ -44,4 +48,57 @@ public class DefaultInflightRepositoryTest extends ContextTestSupport {
         repo.remove(e1);
         assertEquals(0, repo.size());
     }
+
+    public void testDefaultInflightRepositoryAddTwice() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository();
+
+        Exchange e1 = new DefaultExchange(context);
+        repo.add(e1);
+        repo.add(e1);
+        assertEquals(1, repo.size());
+
+        repo.remove(e1);
+        assertEquals(0, repo.size());
+        repo.remove(e1);
+        assertEquals(0, repo.size());
+    }
+
+    public void testBrowseLongestDuration() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository(4);
+
+        List<Exchange> exchanges = new ArrayList<Exchange>();
+        for (int i = 0; i < 10; i++) {
+            DefaultExchange exchange = new DefaultExchange(context);
+            exchange.setFromRouteId(i % 2 == 0 ? "foo" : "bar");
+            exchanges.add(exchange);
+            repo.add(exchange);
+            // ensure the exchanges became inflight at different times
+            Thread.sleep(2);
+        }
+        repo.remove(exchanges.get(0));
+        repo.remove(exchanges.get(3));
+
+        Collection<InflightRepository.InflightExchange> oldest = repo.browse(3, true);
+        assertEquals(3, oldest.size());
+        List<Exchange> list = toExchanges(oldest);
+        assertSame(exchanges.get(1), list.get(0));
+        assertSame(exchanges.get(2), list.get(1));
+        assertSame(exchanges.get(4), list.get(2));
+
+        list = toExchanges(repo.browse("foo", 2, true));
+        assertEquals(2, list.size());
+        assertSame(exchanges.get(2), list.get(0));
+        assertSame(exchanges.get(4), list.get(1));
+
+        assertEquals(8, repo.browse().size());
+        assertEquals(4, repo.browse("bar").size());
+    }
+
+    private static List<Exchange> toExchanges(Collection<InflightRepository.InflightExchange> inflights) {
+        List<Exchange> answer = new ArrayList<Exchange>();
+        for (InflightRepository.InflightExchange inflight : inflights) {
+            answer.add(inflight.getExchange());
+        }
+        return answer;
+    }
 }
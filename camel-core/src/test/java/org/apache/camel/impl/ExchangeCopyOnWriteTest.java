@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class ExchangeCopyOnWriteTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setExchangeCopyOnWrite(true);
+        return context;
+    }
+
+    public void testCopyHeaders() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.getIn().setHeader("bar", "yes");
+
+        Exchange copy = exchange.copy(true);
+        assertEquals("Hello World", copy.getIn().getBody());
+        assertEquals(123, copy.getIn().getHeader("FOO"));
+        assertEquals("yes", copy.getIn().getHeader("bar", String.class));
+        assertEquals("no", copy.getIn().getHeader("beer", "no"));
+
+        copy.getIn().setHeader("foo", 456);
+        assertNull(copy.getIn().removeHeader("beer"));
+        assertEquals("yes", copy.getIn().removeHeader("bar"));
+        exchange.getIn().setHeader("beer", "Carlsberg");
+
+        assertEquals(123, exchange.getIn().getHeader("foo"));
+        assertEquals("yes", exchange.getIn().getHeader("bar"));
+        assertEquals(3, exchange.getIn().getHeaders().size());
+
+        assertEquals(456, copy.getIn().getHeader("foo"));
+        assertNull(copy.getIn().getHeader("bar"));
+        assertNull(copy.getIn().getHeader("beer"));
+        assertEquals(1, copy.getIn().getHeaders().size());
+    }
+
+    public void testCopyHeadersModifiedUsingMap() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("foo", 123);
+
+        Exchange copy = exchange.copy(true);
+        Exchange copy2 = exchange.copy(true);
+        copy.getIn().getHeaders().put("foo", 456);
+        exchange.getIn().getHeaders().remove("foo");
+
+        assertNull(exchange.getIn().getHeader("foo"));
+        assertEquals(456, copy.getIn().getHeader("foo"));
+        assertEquals(123, copy2.getIn().getHeader("foo"));
+        assertTrue(copy.getIn().removeHeaders("f*"));
+        assertFalse(copy.getIn().hasHeaders());
+        assertTrue(copy2.getIn().hasHeaders());
+    }
+
+    public void testCopyProperties() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.setProperty("foo", 123);
+        exchange.setProperty("bar", "yes");
+
+        Exchange copy = exchange.copy(true);
+        assertTrue(copy.hasProperties());
+        assertEquals(123, copy.getProperty("foo"));
+        assertEquals("yes", copy.getProperty("bar", String.class));
+
+        copy.setProperty("foo", 456);
+        copy.setProperty("beer", "Tuborg");
+        assertEquals("yes", copy.removeProperty("bar"));
+        assertNull(copy.removeProperty("bar"));
+        exchange.setProperty("foo", 789);
+
+        assertEquals(789, exchange.getProperty("foo"));
+        assertEquals("yes", exchange.getProperty("bar"));
+        assertNull(exchange.getProperty("beer"));
+        assertEquals(2, exchange.getProperties().size());
+
+        assertEquals(456, copy.getProperty("foo"));
+        assertNull(copy.getProperty("bar"));
+        assertEquals("Tuborg", copy.getProperty("beer"));
+
+        Map<String, Object> properties = copy.getProperties();
+        assertEquals(2, properties.size());
+        assertEquals(456, properties.get("foo"));
+        assertEquals("Tuborg", properties.get("beer"));
+    }
+
+    public void testCopyPropertiesRemoved() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.setProperty("foo", 123);
+
+        Exchange copy = exchange.copy(true);
+        copy.setProperty("foo", null);
+        assertFalse(copy.hasProperties());
+        assertTrue(exchange.hasProperties());
+
+        copy.setProperty("bar", "yes");
+        assertTrue(copy.hasProperties());
+        assertEquals(1, copy.getProperties().size());
+        assertFalse(copy.removeProperties("f*"));
+        assertTrue(copy.removeProperties("b*"));
+        assertFalse(copy.hasProperties());
+        assertEquals(123, exchange.getProperty("foo"));
+    }
+
+    public void testNestedCopies() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("foo", 1);
+        exchange.setProperty("foo", 1);
+
+        Exchange copy = exchange.copy(true);
+        copy.setProperty("bar", 2);
+        Exchange copy2 = copy.copy(true);
+        Exchange copy3 = copy.copy(true);
+        copy2.setProperty("foo", 3);
+        copy2.getIn().setHeader("foo", 3);
+        copy.setProperty("bar", 4);
+
+        assertEquals(1, exchange.getProperty("foo"));
+        assertNull(exchange.getProperty("bar"));
+        assertEquals(1, copy.getProperty("foo"));
+        assertEquals(4, copy.getProperty("bar"));
+        assertEquals(3, copy2.getProperty("foo"));
+        assertEquals(2, copy2.getProperty("bar"));
+        assertEquals(1, copy3.getProperty("foo"));
+        assertEquals(2, copy3.getProperty("bar"));
+
+        assertEquals(1, exchange.getIn().getHeader("foo"));
+        assertEquals(1, copy.getIn().getHeader("foo"));
+        assertEquals(3, copy2.getIn().getHeader("foo"));
+        assertEquals(1, copy3.getIn().getHeader("foo"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSplit() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:split");
+        mock.expectedBodiesReceived("A", "B", "C");
+        mock.expectedHeaderReceived("foo", 123);
+        mock.expectedPropertyReceived("bar", "yes");
+        mock.message(0).header("index").isEqualTo(0);
+        mock.message(1).header("index").isEqualTo(1);
+        mock.message(2).header("index").isEqualTo(2);
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(1);
+        result.message(0).header("index").isNull();
+        result.message(0).exchangeProperty(Exchange.SPLIT_INDEX).isNull();
+
+        template.sendBodyAndHeader("direct:start", "A,B,C", "foo", 123);
+
+        assertMockEndpointsSatisfied();
+
+        // each split exchange has its own message history
+        List<MessageHistory> history = mock.getReceivedExchanges().get(0).getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        List<MessageHistory> history2 = mock.getReceivedExchanges().get(1).getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertNotSame(history, history2);
+        List<MessageHistory> resultHistory = result.getReceivedExchanges().get(0).getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertNotSame(history, resultHistory);
+        assertEquals(2, history.size());
+        assertEquals(3, resultHistory.size());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .setProperty("bar", constant("yes"))
+                    .split(body().tokenize(","))
+                        .setHeader("index", exchangeProperty(Exchange.SPLIT_INDEX))
+                        .to("mock:split")
+                    .end()
+                    .to("mock:result");
+            }
+        };
+    }
+}
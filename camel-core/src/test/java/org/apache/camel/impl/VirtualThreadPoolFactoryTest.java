@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.concurrent.VirtualThreadHelper;
+
+/**
+ * Tests the {@link VirtualThreadPoolFactory} which falls back to regular thread pools if the JVM does not support virtual threads.
+ */
+public class VirtualThreadPoolFactoryTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getExecutorServiceManager().setThreadPoolFactory(new VirtualThreadPoolFactory());
+        return context;
+    }
+
+    public void testThreadPools() throws Exception {
+        boolean virtual = VirtualThreadHelper.isSupported();
+
+        ExecutorService pool = context.getExecutorServiceManager().newThreadPool(this, "foo", 5, 10);
+        assertEquals(virtual, !(pool instanceof ThreadPoolExecutor));
+
+        ExecutorService cached = context.getExecutorServiceManager().newCachedThreadPool(this, "bar");
+        assertEquals(virtual, !(cached instanceof ThreadPoolExecutor));
+
+        // must use a regular thread to process the tasks in order
+        ExecutorService single = context.getExecutorServiceManager().newSingleThreadExecutor(this, "single");
+        assertIsInstanceOf(ThreadPoolExecutor.class, single);
+
+        ScheduledExecutorService scheduled = context.getExecutorServiceManager().newScheduledThreadPool(this, "scheduled", 2);
+        assertNotNull(scheduled);
+    }
+
+    public void testSedaConsumer() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceivedInAnyOrder("A", "B", "C", "D");
+
+        template.sendBody("seda:start", "A");
+        template.sendBody("seda:start", "B");
+        template.sendBody("seda:start", "C");
+        template.sendBody("seda:start", "D");
+
+        assertMockEndpointsSatisfied();
+
+        String name = getMockEndpoint("mock:result").getReceivedExchanges().get(0).getIn().getHeader("threadName", String.class);
+        assertTrue("Should use the camel thread name pattern: " + name, name.contains("seda://start"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:start?concurrentConsumers=2")
+                    .setHeader("threadName", simple("${threadName}"))
+                    .to("mock:result");
+            }
+        };
+    }
+}
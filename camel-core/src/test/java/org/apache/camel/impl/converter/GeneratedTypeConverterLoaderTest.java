@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.spi.TypeConverterRegistry;
+import org.apache.camel.support.SimpleTypeConverter;
+import org.apache.camel.support.TypeConverterSupport;
+
+public class GeneratedTypeConverterLoaderTest extends ContextTestSupport {
+
+    public void testGeneratedLoader() throws Exception {
+        int before = context.getTypeConverterRegistry().size();
+
+        context.getTypeConverterRegistry().addTypeConverters(new MyLoadedConverters());
+
+        int after = context.getTypeConverterRegistry().size();
+        assertEquals("There should be 2 more type converters", 2, after - before);
+
+        // the converters are loaded by the generated loader
+        TypeConverter tc = context.getTypeConverterRegistry().lookup(Country.class, String.class);
+        assertIsInstanceOf(SimpleTypeConverter.class, tc);
+        tc = context.getTypeConverterRegistry().lookup(String.class, Country.class);
+        assertIsInstanceOf(SimpleTypeConverter.class, tc);
+
+        Country country = context.getTypeConverter().convertTo(Country.class, "dk");
+        assertEquals("dk", country.getIso());
+        assertEquals("Denmark", country.getName());
+        assertEquals("Denmark", context.getTypeConverter().convertTo(String.class, country));
+    }
+
+    public void testChangedTypeConverter() throws Exception {
+        context.getTypeConverterRegistry().addTypeConverters(new MyLoadedConverters());
+        assertEquals("dk", context.getTypeConverter().convertTo(Country.class, "dk").getIso());
+
+        // the type converter found before must not be used after it has been removed or replaced
+        assertTrue(context.getTypeConverterRegistry().removeTypeConverter(Country.class, String.class));
+        assertNull(context.getTypeConverter().tryConvertTo(Country.class, "dk"));
+
+        context.getTypeConverterRegistry().addTypeConverter(Country.class, String.class, new TypeConverterSupport() {
+            @Override
+            public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+                Country answer = new Country();
+                answer.setIso(value.toString().toUpperCase());
+                return type.cast(answer);
+            }
+        });
+        assertEquals("DK", context.getTypeConverter().convertTo(Country.class, "dk").getIso());
+    }
+
+    public void testGeneratedLoaderInjectsParentTypeConverter() throws Exception {
+        context.getTypeConverterRegistry().addTypeConverters(new MyAwareConverters());
+
+        TypeConverter tc = context.getTypeConverterRegistry().lookup(Country.class, byte[].class);
+        assertIsInstanceOf(SimpleTypeConverter.class, tc);
+
+        // the converter uses the parent type converter injected by the generated loader
+        Country country = context.getTypeConverter().convertTo(Country.class, "dk".getBytes());
+        assertEquals("dk", country.getIso());
+    }
+
+    public void testGeneratedLoaderFailsPartway() throws Exception {
+        context.getTypeConverterRegistry().addTypeConverters(new MyFailingConverters());
+
+        // the converter added by the failing loader must not be kept
+        assertNull(context.getTypeConverterRegistry().lookup(Country.class, Long.class));
+
+        // and the converters are loaded using reflection instead
+        TypeConverter tc = context.getTypeConverterRegistry().lookup(Country.class, Integer.class);
+        assertNotNull(tc);
+        assertFalse(tc instanceof SimpleTypeConverter);
+        assertEquals("45", context.getTypeConverter().convertTo(Country.class, 45).getIso());
+    }
+
+    public void testOverriddenHookSkipsGeneratedLoader() throws Exception {
+        final List<Method> methods = new ArrayList<Method>();
+        TypeConvertersLoader loader = new TypeConvertersLoader(new MyLoadedConverters()) {
+            @Override
+            protected void registerTypeConverter(TypeConverterRegistry registry, Method method, Class<?> toType, Class<?> fromType, TypeConverter typeConverter) {
+                methods.add(method);
+                super.registerTypeConverter(registry, method, toType, fromType, typeConverter);
+            }
+        };
+        loader.load(context.getTypeConverterRegistry());
+
+        // the hook is called for each converter method
+        assertEquals(2, methods.size());
+        assertFalse(context.getTypeConverterRegistry().lookup(Country.class, String.class) instanceof SimpleTypeConverter);
+        assertEquals("dk", context.getTypeConverter().convertTo(Country.class, "dk").getIso());
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.TypeConverterLoaderException;
+import org.apache.camel.spi.TypeConverterAware;
+import org.apache.camel.spi.TypeConverterLoader;
+import org.apache.camel.spi.TypeConverterRegistry;
+import org.apache.camel.support.SimpleTypeConverter;
+
+/**
+ * A loader for {@link MyAwareConverters} as generated by the Camel annotation processor.
+ */
+public final class MyAwareConvertersLoader implements TypeConverterLoader {
+
+    @Override
+    public void load(final TypeConverterRegistry registry) throws TypeConverterLoaderException {
+        final CachingInjector<MyAwareConverters> injector = new CachingInjector<MyAwareConverters>(registry, MyAwareConverters.class);
+        registry.addTypeConverter(Country.class, byte[].class, new SimpleTypeConverter(false,
+            (type, exchange, value) -> ((MyAwareConverters) converter(injector, registry)).toCountry((byte[]) value)));
+    }
+
+    private static Object converter(CachingInjector<?> injector, TypeConverterRegistry registry) {
+        Object instance = injector.newInstance();
+        if (instance == null) {
+            throw new RuntimeCamelException("Could not instantiate an instance of: org.apache.camel.impl.converter.MyAwareConverters");
+        }
+        // inject parent type converter
+        if (instance instanceof TypeConverterAware && registry instanceof TypeConverter) {
+            ((TypeConverterAware) instance).setTypeConverter((TypeConverter) registry);
+        }
+        return instance;
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.ExchangeTestSupport;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+
+/**
+ *
+ */
+public class SimpleCompilerTest extends ExchangeTestSupport {
+
+    public void testCompiledHeader() throws Exception {
+        exchange.getIn().setHeader("foo", "bar");
+        exchange.setProperty("cheese", "gouda");
+
+        Expression exp = new SimpleExpressionParser("${header.foo}", true, true).parseExpression();
+        assertIsInstanceOf(SimpleCompiler.HeaderExpression.class, exp);
+        assertEquals("bar", exp.evaluate(exchange, Object.class));
+
+        exp = new SimpleExpressionParser("${in.headers[foo]}", true, true).parseExpression();
+        assertIsInstanceOf(SimpleCompiler.HeaderExpression.class, exp);
+        assertEquals("bar", exp.evaluate(exchange, String.class));
+
+        // falls back on a property
+        exp = new SimpleExpressionParser("${header.cheese}", true, true).parseExpression();
+        assertEquals("gouda", exp.evaluate(exchange, Object.class));
+
+        exp = new SimpleExpressionParser("${exchangeProperty.cheese}", true, true).parseExpression();
+        assertIsInstanceOf(SimpleCompiler.PropertyExpression.class, exp);
+        assertEquals("gouda", exp.evaluate(exchange, Object.class));
+    }
+
+    public void testCompiledHeaderOgnlNotInlined() throws Exception {
+        exchange.getIn().setHeader("foo", "bar");
+        exchange.getIn().setHeader("name", "foo");
+
+        Expression exp = new SimpleExpressionParser("${header.foo.length()}", true, true).parseExpression();
+        assertFalse(exp instanceof SimpleCompiler.HeaderExpression);
+        assertEquals(3, exp.evaluate(exchange, Integer.class).intValue());
+
+        exp = new SimpleExpressionParser("${header.${header.name}}", true, true).parseExpression();
+        assertFalse(exp instanceof SimpleCompiler.HeaderExpression);
+        assertEquals("bar", exp.evaluate(exchange, String.class));
+    }
+
+    public void testCompiledConstants() throws Exception {
+        exchange.getIn().setHeader("foo", "bar");
+
+        Expression exp = new SimpleExpressionParser("Hello World", true, true).parseExpression();
+        assertIsInstanceOf(SimpleCompiler.ConstantExpression.class, exp);
+        assertEquals("Hello World", exp.evaluate(exchange, String.class));
+
+        exp = new SimpleExpressionParser("Hello ${header.foo} and ${header.foo}", true, true).parseExpression();
+        assertEquals("Hello bar and bar", exp.evaluate(exchange, String.class));
+
+        // folded at compile time
+        Predicate pre = new SimplePredicateParser("'foo' == 'foo'", true, true).parsePredicate();
+        assertEquals("true", pre.toString());
+        assertTrue(pre.matches(exchange));
+    }
+
+    public void testCompiledPredicates() throws Exception {
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", "bar");
+        exchange.getIn().setHeader("number", "123");
+        exchange.getIn().setHeader("high", true);
+        exchange.getIn().setHeader("price", 10.5d);
+
+        String[] predicates = {
+            "${header.foo} == 'bar'", "${header.foo} != 'bar'", "${header.foo} =~ 'BAR'", "${header.foo} == null",
+            "${header.unknown} == null", "${header.unknown} == 'bar'", "${header.unknown} < 5", "${header.unknown} > 5",
+            "${header.number} == 123", "${header.number} > 100", "${header.number} >= 123", "${header.number} < 123",
+            "${header.number} <= 200", "${header.number} > ${header.price}", "${header.price} > 10", "${header.price} <= 10.5",
+            "${header.high} == true", "${header.high} == 'false'", "${header.high}", "${body} contains 'World'",
+            "${body} not contains 'World'", "${body} starts with 'Hello'", "${body} ends with 'Hello'",
+            "${header.foo} == 'bar' && ${header.number} > 100", "${header.foo} == 'baz' || ${header.high} == true",
+            "${header.foo} == 'baz' || ${header.high} == false", "'foo' == 'bar' || ${header.high}", "true && ${header.high}",
+            "${header.foo} regex 'b.*'", "${header.number} in '100,123'", "${header.number} range '100..200'",
+            "${header.foo} is 'String'"
+        };
+
+        for (String predicate : predicates) {
+            boolean expected = new SimplePredicateParser(predicate, true).parsePredicate().matches(exchange);
+            Predicate compiled = new SimplePredicateParser(predicate, true, true).parsePredicate();
+            assertEquals("Compiled predicate: " + predicate, expected, compiled.matches(exchange));
+        }
+    }
+
+    public void testCompiledPredicateEvaluate() throws Exception {
+        exchange.getIn().setHeader("foo", "bar");
+
+        Expression exp = new SimpleLanguage().createExpression("${header.foo} == 'bar'", Boolean.class);
+        SimpleLanguage simple = new SimpleLanguage();
+        simple.setCompiled(true);
+        Expression compiled = simple.createExpression("${header.foo} == 'bar'", Boolean.class);
+
+        assertEquals(exp.evaluate(exchange, Boolean.class), compiled.evaluate(exchange, Boolean.class));
+        assertEquals(exp.evaluate(exchange, String.class), compiled.evaluate(exchange, String.class));
+        assertEquals("${header.foo} == 'bar'", simple.createPredicate("${header.foo} == 'bar'").toString());
+    }
+
+}
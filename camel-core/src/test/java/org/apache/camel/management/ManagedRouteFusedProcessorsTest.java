@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class ManagedRouteFusedProcessorsTest extends ManagementTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(Exchange.PROCESSOR_FUSION, "true");
+        return context;
+    }
+
+    public void testFusedProcessors() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye World");
+        template.sendBody("direct:start", "Hello World");
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=routes,name=\"foo\"");
+
+        Integer count = (Integer) mbeanServer.getAttribute(on, "FusedProcessorCount");
+        assertEquals(5, count.intValue());
+
+        String fused = (String) mbeanServer.getAttribute(on, "FusedProcessors");
+        assertEquals("[a, b, c], [e, f]", fused);
+
+        // the processors are still managed individually
+        ObjectName pon = ObjectName.getInstance("org.apache.camel:context=camel-1,type=processors,name=\"b\"");
+        Long completed = (Long) mbeanServer.getAttribute(pon, "ExchangesCompleted");
+        assertEquals(1, completed.longValue());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("foo")
+                    .setHeader("foo", constant("123")).id("a")
+                    .setHeader("bar", constant("456")).id("b")
+                    .transform(constant("Bye World")).id("c")
+                    .to("log:foo").id("d")
+                    .setHeader("beer", constant("Carlsberg")).id("e")
+                    .removeHeader("bar").id("f")
+                    .to("mock:result").id("g");
+            }
+        };
+    }
+}
@@ -353,6 +353,18 @@ public class XmlParseTest extends XmlTestSupport {
         assertEquals("constant", loop.getExpression().getLanguage());
     }
 
+    public void testParseThrottleCorrelationXml() throws Exception {
+        RouteDefinition route = assertOneRoute("throttleCorrelation.xml");
+        assertFrom(route, "direct:xml");
+        ThrottleDefinition throttle = assertOneProcessorInstanceOf(ThrottleDefinition.class, route);
+        assertEquals("constant", throttle.getExpression().getLanguage());
+        assertNotNull(throttle.getCorrelationExpression());
+        assertEquals("header", throttle.getCorrelationExpression().getExpressionType().getLanguage());
+        assertEquals("key", throttle.getCorrelationExpression().getExpressionType().getExpression());
+        assertEquals(Long.valueOf(10000), throttle.getTimePeriodMillis());
+        assertEquals(Boolean.TRUE, throttle.getRejectExecution());
+    }
+
     // Implementation methods
     // -------------------------------------------------------------------------
 
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.idempotent.AppendOnlyFileIdempotentRepository;
+
+/**
+ * @version
+ */
+public class AppendOnlyFileIdempotentConsumerTest extends ContextTestSupport {
+    private File store = new File("target/appendonlyidempotentfilestore.dat");
+    private AppendOnlyFileIdempotentRepository repo;
+
+    public void testDuplicateMessagesAreFilteredOut() throws Exception {
+        assertFalse(repo.contains("1"));
+        assertTrue(repo.contains("4"));
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("one", "two", "three");
+
+        sendMessage("1", "one");
+        sendMessage("2", "two");
+        sendMessage("1", "one");
+        sendMessage("2", "two");
+        sendMessage("4", "four");
+        sendMessage("1", "one");
+        sendMessage("3", "three");
+
+        assertMockEndpointsSatisfied();
+
+        assertTrue(repo.contains("1"));
+        assertTrue(repo.contains("2"));
+        assertTrue(repo.contains("3"));
+        assertTrue(repo.contains("4"));
+    }
+
+    public void testReload() throws Exception {
+        doTestReload(false);
+        doTestReload(true);
+    }
+
+    private void doTestReload(boolean memoryMapped) throws Exception {
+        repo.setMemoryMapped(memoryMapped);
+        assertTrue(repo.add("1"));
+        assertTrue(repo.add("2"));
+        assertTrue(repo.add("-3"));
+        assertTrue(repo.add("\\5"));
+        assertTrue(repo.remove("2"));
+        assertTrue(repo.remove("4"));
+
+        repo.stop();
+        repo.start();
+
+        assertTrue(repo.contains("1"));
+        assertFalse(repo.contains("2"));
+        assertTrue(repo.contains("-3"));
+        assertFalse(repo.contains("3"));
+        assertTrue(repo.contains("\\5"));
+        assertFalse(repo.contains("4"));
+        assertEquals(3, repo.getCacheSize());
+
+        repo.clear();
+        repo.add("4");
+    }
+
+    public void testRemoveAbsentKey() throws Exception {
+        long size = store.length();
+        assertFalse(repo.remove("5"));
+        assertEquals("Should not append a tombstone for an absent key", size, store.length());
+    }
+
+    public void testRemoveEvictedKey() throws Exception {
+        repo.stop();
+        repo.setCacheSize(2);
+        repo.start();
+
+        assertTrue(repo.add("1"));
+        assertTrue(repo.add("2"));
+        assertTrue(repo.add("3"));
+        assertFalse(repo.contains("1"));
+
+        // the key has been evicted from the cache but is still in the file store
+        assertTrue(repo.remove("1"));
+        assertFalse(repo.remove("1"));
+
+        List<String> lines = Files.readAllLines(store.toPath(), StandardCharsets.UTF_8);
+        assertEquals("-1", lines.get(lines.size() - 1));
+    }
+
+    public void testRemoveKeyEvictedBeforeCompaction() throws Exception {
+        repo.stop();
+        repo.setCacheSize(2);
+        repo.start();
+
+        assertTrue(repo.add("1"));
+        assertTrue(repo.add("2"));
+        assertTrue(repo.add("3"));
+        assertFalse(repo.contains("1"));
+
+        repo.compact();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (repo.getCompactionCounter() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Should have compacted", repo.getCompactionCounter() > 0);
+
+        // the compacted file store no longer has the evicted key
+        long size = store.length();
+        assertFalse(repo.remove("1"));
+        assertEquals("Should not append a tombstone for a compacted key", size, store.length());
+    }
+
+    public void testIncompleteRecordIsTruncated() throws Exception {
+        doTestIncompleteRecordIsTruncated(false);
+        doTestIncompleteRecordIsTruncated(true);
+    }
+
+    private void doTestIncompleteRecordIsTruncated(boolean memoryMapped) throws Exception {
+        repo.stop();
+        Files.write(store.toPath(), "a\nb\nc".getBytes(StandardCharsets.UTF_8));
+        repo.setMemoryMapped(memoryMapped);
+        repo.start();
+
+        assertTrue(repo.contains("a"));
+        assertTrue(repo.contains("b"));
+        assertFalse(repo.contains("c"));
+        assertEquals(4, store.length());
+
+        assertTrue(repo.add("d"));
+        repo.stop();
+        assertEquals("a\nb\nd\n", new String(Files.readAllBytes(store.toPath()), StandardCharsets.UTF_8));
+        repo.start();
+    }
+
+    public void testCompaction() throws Exception {
+        repo.setMaxFileStoreSize(100);
+
+        for (int i = 0; i < 200; i++) {
+            repo.add("key" + i);
+            if (i % 2 == 0) {
+                repo.remove("key" + i);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (repo.getCompactionCounter() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Should have compacted", repo.getCompactionCounter() > 0);
+
+        // wait for any running compaction to complete
+        repo.stop();
+        List<String> lines = Files.readAllLines(store.toPath(), StandardCharsets.UTF_8);
+        assertTrue("The store should have been compacted: " + lines.size(), lines.size() < 400);
+
+        repo.start();
+        assertEquals(101, repo.getCacheSize());
+        assertTrue(repo.contains("4"));
+        for (int i = 0; i < 200; i++) {
+            assertEquals("key" + i, i % 2 != 0, repo.contains("key" + i));
+        }
+    }
+
+    private void sendMessage(String messageId, String body) {
+        template.sendBodyAndHeader("direct:start", body, "messageId", messageId);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        // delete file store before testing
+        if (store.exists()) {
+            store.delete();
+        }
+
+        repo = new AppendOnlyFileIdempotentRepository(store, 1000);
+
+        // let's add 4 to start with
+        repo.add("4");
+
+        super.setUp();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), repo)
+                    .to("mock:result");
+            }
+        };
+    }
+}
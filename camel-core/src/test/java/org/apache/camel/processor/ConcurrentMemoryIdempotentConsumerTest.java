@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.idempotent.ConcurrentMemoryIdempotentRepository;
+
+/**
+ * @version
+ */
+public class ConcurrentMemoryIdempotentConsumerTest extends ContextTestSupport {
+
+    public void testDuplicateMessagesAreFilteredOut() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("one", "two", "three");
+
+        sendMessage("direct:start", "1", "one");
+        sendMessage("direct:start", "2", "two");
+        sendMessage("direct:start", "1", "one");
+        sendMessage("direct:start", "2", "two");
+        sendMessage("direct:start", "1", "one");
+        sendMessage("direct:start", "3", "three");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testDuplicateMessagesAreFilteredOutCompact() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:compact");
+        result.expectedBodiesReceived("one", "two", "three");
+
+        sendMessage("direct:compact", "1", "one");
+        sendMessage("direct:compact", "2", "two");
+        sendMessage("direct:compact", "1", "one");
+        sendMessage("direct:compact", "2", "two");
+        sendMessage("direct:compact", "1", "one");
+        sendMessage("direct:compact", "3", "three");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testAddContainsRemove() throws Exception {
+        doTestAddContainsRemove(false);
+        doTestAddContainsRemove(true);
+    }
+
+    private void doTestAddContainsRemove(boolean compact) throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = createRepository(100, 0, compact);
+
+        assertTrue(repo.add("A"));
+        assertFalse(repo.add("A"));
+        assertTrue(repo.contains("A"));
+        assertFalse(repo.contains("B"));
+        assertEquals(1, repo.getCacheSize());
+
+        assertTrue(repo.remove("A"));
+        assertFalse(repo.remove("A"));
+        assertFalse(repo.contains("A"));
+        assertEquals(0, repo.getCacheSize());
+        assertTrue(repo.add("A"));
+
+        repo.clear();
+        assertFalse(repo.contains("A"));
+        assertEquals(0, repo.getCacheSize());
+        repo.stop();
+    }
+
+    public void testEvictOldest() throws Exception {
+        doTestEvictOldest(false);
+        doTestEvictOldest(true);
+    }
+
+    private void doTestEvictOldest(boolean compact) throws Exception {
+        // use a single shard so the oldest keys are evicted
+        ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository(10);
+        repo.setConcurrencyLevel(1);
+        repo.setCompact(compact);
+        repo.start();
+
+        for (int i = 0; i < 15; i++) {
+            assertTrue(repo.add("key" + i));
+        }
+        assertEquals(10, repo.getCacheSize());
+        for (int i = 0; i < 5; i++) {
+            assertFalse("key" + i + " should be evicted", repo.contains("key" + i));
+        }
+        for (int i = 5; i < 15; i++) {
+            assertTrue("key" + i + " should be kept", repo.contains("key" + i));
+        }
+
+        // removed keys should not cause the keys added later to be evicted
+        assertTrue(repo.remove("key10"));
+        assertTrue(repo.add("key10"));
+        assertTrue(repo.contains("key5"));
+        assertTrue(repo.contains("key10"));
+        repo.stop();
+    }
+
+    public void testTimeToLive() throws Exception {
+        doTestTimeToLive(false);
+        doTestTimeToLive(true);
+    }
+
+    private void doTestTimeToLive(boolean compact) throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = createRepository(100, 200, compact);
+
+        assertTrue(repo.add("A"));
+        assertFalse(repo.add("A"));
+        assertTrue(repo.contains("A"));
+
+        Thread.sleep(300);
+
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.add("A"));
+        assertTrue(repo.contains("A"));
+        repo.stop();
+    }
+
+    public void testConcurrentAdd() throws Exception {
+        doTestConcurrentAdd(false);
+        doTestConcurrentAdd(true);
+    }
+
+    private void doTestConcurrentAdd(boolean compact) throws Exception {
+        final ConcurrentMemoryIdempotentRepository repo = createRepository(100000, 0, compact);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() throws Exception {
+                        // all the threads adds the same keys, so each key is only added once
+                        int added = 0;
+                        for (int i = 0; i < 10000; i++) {
+                            if (repo.add("key" + i)) {
+                                added++;
+                            }
+                        }
+                        return added;
+                    }
+                }));
+            }
+            int added = 0;
+            for (Future<Integer> future : futures) {
+                added += future.get();
+            }
+            assertEquals(10000, added);
+            assertEquals(10000, repo.getCacheSize());
+        } finally {
+            executor.shutdownNow();
+            repo.stop();
+        }
+    }
+
+    private static ConcurrentMemoryIdempotentRepository createRepository(int cacheSize, long timeToLive, boolean compact) throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository();
+        repo.setCacheSize(cacheSize);
+        repo.setTimeToLive(timeToLive);
+        repo.setCompact(compact);
+        repo.start();
+        return repo;
+    }
+
+    private void sendMessage(String uri, String messageId, String body) {
+        template.sendBodyAndHeader(uri, body, "messageId", messageId);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), ConcurrentMemoryIdempotentRepository.concurrentMemoryIdempotentRepository(200))
+                    .to("mock:result");
+
+                from("direct:compact")
+                    .idempotentConsumer(header("messageId"), ConcurrentMemoryIdempotentRepository.concurrentMemoryIdempotentRepository(200, 0, true))
+                    .to("mock:compact");
+            }
+        };
+    }
+}
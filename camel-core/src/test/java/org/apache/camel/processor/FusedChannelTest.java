@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.Navigate;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class FusedChannelTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(Exchange.PROCESSOR_FUSION, "true");
+        return context;
+    }
+
+    public void testFused() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello World");
+        mock.expectedHeaderReceived("foo", "123");
+        mock.expectedHeaderReceived("bar", "456");
+        mock.message(0).header("beer").isNull();
+
+        template.sendBodyAndHeader("direct:start", "World", "beer", "Carlsberg");
+
+        assertMockEndpointsSatisfied();
+
+        // the processors before the mock endpoint are fused, which is not
+        List<FusedChannel> fused = findFusedChannels("start");
+        assertEquals(1, fused.size());
+        assertEquals(5, fused.get(0).getChannels().size());
+        assertEquals("[a, b, c, d, e]", fused.get(0).getFusedIds().toString());
+
+        // the message history should still contain each step
+        List<MessageHistory> list = mock.getReceivedExchanges().get(0).getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertEquals(6, list.size());
+        assertEquals("a", list.get(0).getNode().getId());
+        assertEquals("e", list.get(4).getNode().getId());
+    }
+
+    public void testFusedException() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(0);
+        MockEndpoint dead = getMockEndpoint("mock:dead");
+        dead.expectedMessageCount(1);
+        dead.message(0).header("foo").isEqualTo("123");
+        dead.message(0).header("bar").isNull();
+
+        template.sendBody("direct:fail", "Hello World");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testFusedRouteStop() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(0);
+
+        Exchange out = template.request("direct:stop", new Processor() {
+            public void process(Exchange exchange) throws Exception {
+                exchange.getIn().setBody("Hello World");
+            }
+        });
+
+        assertMockEndpointsSatisfied();
+        assertEquals("123", out.getIn().getHeader("foo"));
+        assertNull(out.getIn().getHeader("bar"));
+    }
+
+    public void testNotFused() throws Exception {
+        // there is only a single simple processor in between the endpoints so nothing to fuse
+        assertEquals(0, findFusedChannels("notFused").size());
+
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye World");
+        template.sendBody("direct:notFused", "Hello World");
+        assertMockEndpointsSatisfied();
+    }
+
+    private List<FusedChannel> findFusedChannels(String routeId) {
+        List<FusedChannel> answer = new ArrayList<FusedChannel>();
+        findFusedChannels(context.getRoute(routeId).navigate(), answer);
+        return answer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void findFusedChannels(Navigate<Processor> nav, List<FusedChannel> answer) {
+        if (nav == null || !nav.hasNext()) {
+            return;
+        }
+        for (Processor processor : nav.next()) {
+            if (processor instanceof FusedChannel) {
+                answer.add((FusedChannel) processor);
+            } else if (processor instanceof Navigate) {
+                findFusedChannels((Navigate<Processor>) processor, answer);
+            }
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("start")
+                    .setHeader("foo", constant("123")).id("a")
+                    .setHeader("bar", constant("456")).id("b")
+                    .removeHeader("beer").id("c")
+                    .transform(simple("Hello ${body}")).id("d")
+                    .log("Got ${body}").id("e")
+                    .to("mock:result").id("f");
+
+                from("direct:fail").routeId("fail")
+                    .onException(IllegalArgumentException.class).handled(true).to("mock:dead").end()
+                    .setHeader("foo", constant("123"))
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            throw new IllegalArgumentException("Forced");
+                        }
+                    })
+                    .setHeader("bar", constant("456"))
+                    .to("mock:result");
+
+                from("direct:stop").routeId("stop")
+                    .setHeader("foo", constant("123"))
+                    .setProperty(Exchange.ROUTE_STOP, constant(true))
+                    .setHeader("bar", constant("456"))
+                    .to("mock:result");
+
+                from("direct:notFused").routeId("notFused")
+                    .to("log:foo")
+                    .transform(constant("Bye World"))
+                    .to("mock:result");
+            }
+        };
+    }
+}
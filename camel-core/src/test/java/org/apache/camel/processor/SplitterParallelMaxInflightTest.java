@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+/**
+ * @version 
+ */
+public class SplitterParallelMaxInflightTest extends ContextTestSupport {
+
+    private static final int MAX_INFLIGHT = 5;
+
+    private final AtomicInteger pulled = new AtomicInteger();
+    private final AtomicInteger aggregated = new AtomicInteger();
+    private final AtomicInteger maxSeen = new AtomicInteger();
+
+    public void testMaxInflight() throws Exception {
+        getMockEndpoint("mock:split").expectedMessageCount(100);
+        getMockEndpoint("mock:result").expectedBodiesReceived(100);
+
+        template.sendBody("direct:start", 100);
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(100, pulled.get());
+        assertEquals(100, aggregated.get());
+        assertTrue("Should not have more than " + MAX_INFLIGHT + " in flight but was " + maxSeen.get(), maxSeen.get() <= MAX_INFLIGHT);
+    }
+
+    public void testMaxInflightStopOnException() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(0);
+
+        try {
+            template.sendBody("direct:stop", 1000);
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause().getCause());
+        }
+
+        assertMockEndpointsSatisfied();
+
+        // the splitter should not continue pulling from the iterator after it stopped
+        assertTrue("Should stop pulling messages but pulled " + pulled.get(), pulled.get() < 1000);
+    }
+
+    public Iterator<Integer> createIterator(final int size) {
+        return new Iterator<Integer>() {
+            private int next;
+
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            public Integer next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                int inflight = pulled.incrementAndGet() - aggregated.get();
+                while (true) {
+                    int max = maxSeen.get();
+                    if (inflight <= max || maxSeen.compareAndSet(max, inflight)) {
+                        break;
+                    }
+                }
+                return next++;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .split(method(SplitterParallelMaxInflightTest.this, "createIterator"), new CountingAggregationStrategy())
+                        .streaming().parallelProcessing().maxInflight(MAX_INFLIGHT)
+                        .delay(5).end()
+                        .to("mock:split")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:stop")
+                    .split(method(SplitterParallelMaxInflightTest.this, "createIterator"))
+                        .streaming().parallelProcessing().maxInflight(MAX_INFLIGHT).stopOnException()
+                        .filter(body().isEqualTo(10))
+                            .throwException(new IllegalArgumentException("Forced"))
+                        .end()
+                        .delay(5).end()
+                    .end()
+                    .to("mock:result");
+            }
+        };
+    }
+
+    private final class CountingAggregationStrategy implements AggregationStrategy {
+
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            aggregated.incrementAndGet();
+            if (oldExchange == null) {
+                newExchange.getIn().setBody(1);
+                return newExchange;
+            }
+            oldExchange.getIn().setBody(oldExchange.getIn().getBody(Integer.class) + 1);
+            return oldExchange;
+        }
+    }
+}
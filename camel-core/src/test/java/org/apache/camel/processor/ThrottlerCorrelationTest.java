@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.model.RoutesDefinition;
+
+public class ThrottlerCorrelationTest extends ContextTestSupport {
+    private static final int INTERVAL = 500;
+
+    public void testRejectPerCorrelationKey() throws Exception {
+        getMockEndpoint("mock:reject").expectedBodiesReceived("a1", "b1", "c1");
+
+        template.sendBodyAndHeader("direct:reject", "a1", "key", "a");
+        template.sendBodyAndHeader("direct:reject", "b1", "key", "b");
+        try {
+            template.sendBodyAndHeader("direct:reject", "a2", "key", "a");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+        }
+        template.sendBodyAndHeader("direct:reject", "c1", "key", "c");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testThrottlePerCorrelationKey() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(6);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            template.sendBodyAndHeader("direct:start", "b" + i, "key", "b" + i);
+        }
+        // the other groups are not throttled
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Should not be throttled, was: " + elapsed, elapsed < INTERVAL);
+
+        for (int i = 0; i < 3; i++) {
+            template.sendBodyAndHeader("direct:start", "a" + i, "key", "a");
+        }
+        assertMockEndpointsSatisfied();
+
+        // the 2nd and 3rd message of the same group are throttled
+        elapsed = System.currentTimeMillis() - start;
+        assertTrue("Should take at least " + (2 * INTERVAL) + "ms, was: " + elapsed, elapsed + 50 >= 2 * INTERVAL);
+    }
+
+    public void testThrottleRateChangePerCorrelationKey() throws Exception {
+        getMockEndpoint("mock:rate").expectedBodiesReceived("a1", "a2", "b1", "b2");
+
+        assertTrue(sendRate("a1", "a", 2));
+        assertTrue(sendRate("a2", "a", 2));
+        assertFalse(sendRate("a3", "a", 2));
+
+        assertTrue(sendRate("b1", "b", 2));
+        // decreasing the rate keeps the available token
+        assertTrue(sendRate("b2", "b", 1));
+        assertFalse(sendRate("b3", "b", 1));
+
+        assertMockEndpointsSatisfied();
+    }
+
+    private boolean sendRate(String body, String key, int max) {
+        try {
+            Map<String, Object> headers = new HashMap<>();
+            headers.put("key", key);
+            headers.put("max", max);
+            template.sendBodyAndHeaders("direct:rate", body, headers);
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+            return false;
+        }
+        return true;
+    }
+
+    public void testAsyncDelayedPerCorrelationKey() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:async");
+        mock.expectedBodiesReceivedInAnyOrder("a1", "a2", "a3", "b1");
+
+        long start = System.currentTimeMillis();
+        template.sendBodyAndHeader("seda:async", "a1", "key", "a");
+        template.sendBodyAndHeader("seda:async", "a2", "key", "a");
+        template.sendBodyAndHeader("seda:async", "a3", "key", "a");
+        template.sendBodyAndHeader("seda:async", "b1", "key", "b");
+
+        assertMockEndpointsSatisfied();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Should take at least " + (2 * INTERVAL) + "ms, was: " + elapsed, elapsed + 50 >= 2 * INTERVAL);
+    }
+
+    public void testIdleGroupsAreEvicted() throws Exception {
+        Throttler throttler = context.getProcessor("evict", Throttler.class);
+        getMockEndpoint("mock:evict").expectedBodiesReceived("a1", "b1", "c1", "d1");
+
+        template.sendBodyAndHeader("direct:evict", "a1", "key", "a");
+        template.sendBodyAndHeader("direct:evict", "b1", "key", "b");
+        template.sendBodyAndHeader("direct:evict", "c1", "key", "c");
+        assertEquals(3, throttler.getCurrentGroups());
+
+        // the eviction runs at most once per second, and only evicts the groups which have been idle for a time period
+        Thread.sleep(1100);
+        template.sendBodyAndHeader("direct:evict", "d1", "key", "d");
+        assertEquals(1, throttler.getCurrentGroups());
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testGroupsAreClearedOnStop() throws Exception {
+        Throttler throttler = context.getProcessor("evict", Throttler.class);
+
+        template.sendBodyAndHeader("direct:evict", "a1", "key", "a");
+        template.sendBodyAndHeader("direct:evict", "b1", "key", "b");
+        assertEquals(2, throttler.getCurrentGroups());
+
+        context.stopRoute("evict-route");
+        assertEquals(0, throttler.getCurrentGroups());
+    }
+
+    public void testCorrelationExpressionInXml() throws Exception {
+        InputStream is = getClass().getResourceAsStream("/org/apache/camel/model/throttleCorrelation.xml");
+        RoutesDefinition routes = context.loadRoutesDefinition(is);
+        context.addRouteDefinitions(routes.getRoutes());
+
+        getMockEndpoint("mock:xml").expectedBodiesReceived("a1", "b1");
+
+        template.sendBodyAndHeader("direct:xml", "a1", "key", "a");
+        template.sendBodyAndHeader("direct:xml", "b1", "key", "b");
+        try {
+            template.sendBodyAndHeader("direct:xml", "a2", "key", "a");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:reject")
+                    .throttle(1, header("key")).timePeriodMillis(10000).rejectExecution(true)
+                    .to("mock:reject");
+
+                from("direct:rate")
+                    .throttle(header("max"), header("key")).timePeriodMillis(10000).rejectExecution(true)
+                    .to("mock:rate");
+
+                from("direct:start")
+                    .throttle(1, header("key")).timePeriodMillis(INTERVAL)
+                    .to("mock:result");
+
+                from("direct:evict").routeId("evict-route")
+                    .throttle(1, header("key")).timePeriodMillis(100).id("evict")
+                    .to("mock:evict");
+
+                from("seda:async")
+                    .throttle(1, header("key")).timePeriodMillis(INTERVAL).asyncDelayed()
+                    .to("mock:async");
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+import org.apache.camel.processor.aggregate.IncrementalAggregationSupport;
+import org.apache.camel.spi.IncrementalAggregationRepository;
+
+/**
+ * @version 
+ */
+public class AggregateIncrementalRepositoryTest extends ContextTestSupport {
+
+    private final MyIncrementalRepository repository = new MyIncrementalRepository();
+
+    public void testAppendIncomingExchanges() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B+C+D+E");
+        getMockEndpoint("mock:result").expectedPropertyReceived(Exchange.AGGREGATED_SIZE, 5);
+
+        for (String body : new String[]{"A", "B", "C", "D", "E"}) {
+            template.sendBodyAndHeader("direct:start", body, "id", 123);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        // the incoming exchanges are appended until the group is complete
+        assertEquals(4, repository.appended);
+        assertEquals(0, repository.added);
+        assertEquals(0, repository.replayed);
+        assertTrue(repository.getKeys().isEmpty());
+    }
+
+    public void testReplayIncomingExchanges() throws Exception {
+        // replay the appended exchanges every time such as after a restart
+        repository.replay = true;
+
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B+C+D+E");
+        getMockEndpoint("mock:result").expectedPropertyReceived(Exchange.AGGREGATED_SIZE, 5);
+
+        for (String body : new String[]{"A", "B", "C", "D", "E"}) {
+            template.sendBodyAndHeader("direct:start", body, "id", 123);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(4, repository.appended);
+        // 1 + 2 + 3 + 4 exchanges replayed
+        assertEquals(10, repository.replayed);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).aggregationRepository(repository).completionSize(5)
+                        .to("mock:result");
+            }
+        };
+    }
+
+    private static final class MyIncrementalRepository implements IncrementalAggregationRepository {
+
+        private final IncrementalAggregationSupport support = new IncrementalAggregationSupport();
+        private final Map<String, SortedMap<Long, Exchange>> groups = new ConcurrentHashMap<String, SortedMap<Long, Exchange>>();
+        private volatile boolean replay;
+        private volatile int appended;
+        private volatile int added;
+        private volatile int replayed;
+
+        @Override
+        public boolean isIncremental() {
+            return true;
+        }
+
+        @Override
+        public void setAggregationStrategy(AggregationStrategy aggregationStrategy) {
+            support.setAggregationStrategy(aggregationStrategy);
+        }
+
+        @Override
+        public void append(CamelContext camelContext, String key, Exchange newExchange, Exchange aggregatedExchange) {
+            long sequence = IncrementalAggregationSupport.getSequence(aggregatedExchange);
+            SortedMap<Long, Exchange> group = groups.get(key);
+            if (group == null) {
+                group = new TreeMap<Long, Exchange>();
+                groups.put(key, group);
+            }
+            group.put(sequence, newExchange);
+            support.cache(key, aggregatedExchange, sequence);
+            appended++;
+        }
+
+        @Override
+        public Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+            SortedMap<Long, Exchange> group = new TreeMap<Long, Exchange>();
+            group.put(IncrementalAggregationSupport.SNAPSHOT_SEQUENCE, exchange);
+            groups.put(key, group);
+            support.cache(key, exchange, IncrementalAggregationSupport.SNAPSHOT_SEQUENCE);
+            added++;
+            return null;
+        }
+
+        @Override
+        public Exchange get(CamelContext camelContext, String key) {
+            SortedMap<Long, Exchange> group = groups.get(key);
+            if (group == null) {
+                support.evict(key);
+                return null;
+            }
+            if (replay) {
+                support.clear();
+            }
+            Exchange answer = support.take(key, group.lastKey());
+            if (answer == null) {
+                for (Map.Entry<Long, Exchange> entry : group.entrySet()) {
+                    // replay a copy as the stored exchange would otherwise be changed when aggregating
+                    answer = support.replay(answer, entry.getValue().copy(), entry.getKey());
+                    replayed++;
+                }
+            }
+            return answer;
+        }
+
+        @Override
+        public void remove(CamelContext camelContext, String key, Exchange exchange) {
+            groups.remove(key);
+            support.evict(key);
+        }
+
+        @Override
+        public void confirm(CamelContext camelContext, String exchangeId) {
+            // noop
+        }
+
+        @Override
+        public Set<String> getKeys() {
+            return groups.keySet();
+        }
+    }
+}
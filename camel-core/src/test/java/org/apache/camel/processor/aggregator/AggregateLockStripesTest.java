@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+
+/**
+ * @version 
+ */
+public class AggregateLockStripesTest extends ContextTestSupport {
+
+    private final CountDownLatch latch = new CountDownLatch(2);
+
+    public void testAggregateConcurrentPerCorrelationKey() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int i = 0; i < 200; i++) {
+            final int id = i % 5;
+            final int count = i;
+            tasks.add(new Callable<Object>() {
+                public Object call() throws Exception {
+                    template.sendBodyAndHeader("direct:start", "" + count, "id", id);
+                    return null;
+                }
+            });
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(5);
+
+        // submit all tasks
+        service.invokeAll(tasks);
+
+        assertMockEndpointsSatisfied();
+        service.shutdownNow();
+
+        // each group must have aggregated all its 40 messages
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            assertEquals(40, exchange.getIn().getBody(String.class).split("\\+").length);
+        }
+    }
+
+    public void testAggregateDifferentCorrelationKeysInParallel() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:parallel");
+        mock.expectedBodiesReceivedInAnyOrder("A", "B");
+
+        // the aggregation strategy blocks until both correlation keys are being aggregated at the same time
+        // which is only possible when they are not guarded by the same lock
+        template.sendBodyAndHeader("seda:parallel", "A", "id", "A");
+        template.sendBodyAndHeader("seda:parallel", "B", "id", "B");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testAggregateCompletionTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedBodiesReceivedInAnyOrder("A+C", "B");
+        mock.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+
+        template.sendBodyAndHeader("direct:timeout", "A", "id", 1);
+        template.sendBodyAndHeader("direct:timeout", "B", "id", 2);
+        template.sendBodyAndHeader("direct:timeout", "C", "id", 1);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).completionSize(40).lockStripes(16)
+                        .to("mock:result");
+
+                from("seda:parallel?concurrentConsumers=2")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy() {
+                        @Override
+                        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+                            latch.countDown();
+                            try {
+                                if (!latch.await(5, TimeUnit.SECONDS)) {
+                                    throw new IllegalStateException("Took too long; assume correlation keys are aggregated one at a time");
+                                }
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                            return super.aggregate(oldExchange, newExchange);
+                        }
+                    }).completionSize(1).lockStripes(16)
+                        .to("mock:parallel");
+
+                from("direct:timeout")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).completionTimeout(500).lockStripes(8)
+                        .to("mock:timeout");
+            }
+        };
+    }
+}
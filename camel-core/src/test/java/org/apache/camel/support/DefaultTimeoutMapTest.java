@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import junit.framework.TestCase;
 import org.slf4j.Logger;
@@ -260,4 +261,66 @@ public class DefaultTimeoutMapTest extends TestCase {
         map.stop();
     }
 
+    public void testTimingWheelRotation() throws Exception {
+        final AtomicLong clock = new AtomicLong(1000000);
+        final List<String> keys = new ArrayList<String>();
+
+        DefaultTimeoutMap<String, Integer> map = new DefaultTimeoutMap<String, Integer>(executor, 100) {
+            @Override
+            protected long currentTime() {
+                return clock.get();
+            }
+
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                return true;
+            }
+        };
+
+        // more than a full rotation of the wheel
+        map.put("A", 1, 100000);
+        map.put("B", 2, 500);
+
+        clock.addAndGet(1000);
+        map.purge();
+        assertEquals(1, keys.size());
+        assertEquals("B", keys.get(0));
+
+        // A is in a slot which has been passed, but it is not expired yet
+        clock.addAndGet(60000);
+        map.purge();
+        assertEquals(1, keys.size());
+        assertEquals(Integer.valueOf(1), map.get("A"));
+
+        clock.addAndGet(101000);
+        map.purge();
+        assertEquals(2, keys.size());
+        assertEquals("A", keys.get(1));
+        assertEquals(0, map.size());
+    }
+
+    public void testGetUpdatesExpireTime() throws Exception {
+        final AtomicLong clock = new AtomicLong(1000000);
+
+        DefaultTimeoutMap<String, Integer> map = new DefaultTimeoutMap<String, Integer>(executor, 100) {
+            @Override
+            protected long currentTime() {
+                return clock.get();
+            }
+        };
+
+        map.put("A", 1, 500);
+        clock.addAndGet(300);
+        assertEquals(Integer.valueOf(1), map.get("A"));
+
+        clock.addAndGet(300);
+        map.purge();
+        assertEquals(1, map.size());
+
+        clock.addAndGet(300);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
 }
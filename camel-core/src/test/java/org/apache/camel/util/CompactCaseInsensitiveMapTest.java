@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import org.apache.camel.Exchange;
+
+/**
+ * @version 
+ */
+public class CompactCaseInsensitiveMapTest extends TestCase {
+
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+        assertTrue(map.containsKey("fOO"));
+        assertNull(map.get("unknown"));
+        assertNull(map.get(null));
+    }
+
+    public void testPreserveOriginalKeyCase() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put("Foo", "cheese");
+        map.put("FOO", "beer");
+
+        assertEquals(1, map.size());
+        assertEquals("beer", map.get("foo"));
+        assertEquals("Foo", map.keySet().iterator().next());
+    }
+
+    public void testConstantKeys() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put(Exchange.FILE_NAME, "hello.txt");
+        map.put(Exchange.HTTP_METHOD, "GET");
+
+        assertEquals("hello.txt", map.get(Exchange.FILE_NAME));
+        assertEquals("GET", map.get(Exchange.HTTP_METHOD));
+        assertEquals("hello.txt", map.get("camelfilename"));
+        assertNull(map.get(Exchange.HTTP_URI));
+    }
+
+    public void testInsertionOrder() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put("c", 1);
+        map.put("a", 2);
+        map.put("b", 3);
+
+        List<String> keys = new ArrayList<String>(map.keySet());
+        assertEquals("c", keys.get(0));
+        assertEquals("a", keys.get(1));
+        assertEquals("b", keys.get(2));
+    }
+
+    public void testManyKeys() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get("KEY" + i));
+        }
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, map.remove("Key" + i));
+        }
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                assertNull(map.get("key" + i));
+            } else {
+                assertEquals(i, map.get("key" + i));
+            }
+        }
+    }
+
+    public void testRemove() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+        map.put("baz", "wine");
+
+        assertEquals("beer", map.remove("BAR"));
+        assertNull(map.remove("bar"));
+        assertEquals(2, map.size());
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("wine", map.get("baz"));
+    }
+
+    public void testIteratorRemove() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+        map.put("baz", "wine");
+
+        Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey().startsWith("ba")) {
+                it.remove();
+            }
+        }
+
+        assertEquals(1, map.size());
+        assertEquals("cheese", map.get("FOO"));
+        assertNull(map.get("bar"));
+        assertNull(map.get("baz"));
+    }
+
+    public void testCopyOnWrite() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        Map<String, Object> copy = new CompactCaseInsensitiveMap(map);
+        assertEquals(map, copy);
+
+        // changing the copy must not affect the original
+        copy.put("foo", "gouda");
+        copy.put("baz", "wine");
+        copy.remove("bar");
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("beer", map.get("bar"));
+        assertNull(map.get("baz"));
+        assertEquals(2, map.size());
+
+        // changing the original must not affect another copy
+        Map<String, Object> copy2 = new CompactCaseInsensitiveMap();
+        copy2.putAll(map);
+        map.put("foo", "edam");
+        map.clear();
+        assertEquals(2, copy2.size());
+        assertEquals("cheese", copy2.get("FOO"));
+        assertEquals("beer", copy2.get("BAR"));
+        assertEquals(0, map.size());
+    }
+
+    public void testCopyOnWriteSetValue() {
+        Map<String, Object> map = new CompactCaseInsensitiveMap();
+        map.put("foo", "cheese");
+
+        Map<String, Object> copy = new CompactCaseInsensitiveMap(map);
+        copy.entrySet().iterator().next().setValue("gouda");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("gouda", copy.get("foo"));
+    }
+
+    public void testCopyFromOtherMap() {
+        Map<String, Object> other = new HashMap<String, Object>();
+        other.put("Foo", "cheese");
+        other.put("bar", "beer");
+
+        Map<String, Object> map = new CompactCaseInsensitiveMap(other);
+        assertEquals(2, map.size());
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("beer", map.get("BAR"));
+    }
+
+    public void testSerialization() throws Exception {
+        CompactCaseInsensitiveMap map = new CompactCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", 123);
+
+        ByteArrayOutputStream bStream = new ByteArrayOutputStream();
+        ObjectOutputStream objStream = new ObjectOutputStream(bStream);
+        objStream.writeObject(map);
+
+        ObjectInputStream inStream = new ObjectInputStream(new ByteArrayInputStream(bStream.toByteArray()));
+        CompactCaseInsensitiveMap result = (CompactCaseInsensitiveMap) inStream.readObject();
+        assertEquals(2, result.size());
+        assertEquals("cheese", result.get("FOO"));
+        assertEquals(123, result.get("Bar"));
+
+        result.put("baz", "wine");
+        assertEquals(3, result.size());
+    }
+
+}
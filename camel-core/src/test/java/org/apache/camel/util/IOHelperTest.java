@@ -16,6 +16,7 @@
  */
 package org.apache.camel.util;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -24,11 +25,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultBufferPool;
 import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.spi.BufferPool;
 
 /**
  * @version 
@@ -62,6 +66,33 @@ public class IOHelperTest extends TestCase {
         OutputStream os = new ByteArrayOutputStream();
         IOHelper.copyAndCloseInput(is, os, 256);
     }
+
+    public void testCopyUsingBufferPool() throws Exception {
+        final AtomicInteger acquired = new AtomicInteger();
+        final AtomicInteger released = new AtomicInteger();
+        BufferPool pool = new DefaultBufferPool() {
+            @Override
+            public byte[] acquire(int size) {
+                acquired.incrementAndGet();
+                return super.acquire(size);
+            }
+
+            @Override
+            public void release(byte[] buffer) {
+                released.incrementAndGet();
+                super.release(buffer);
+            }
+        };
+
+        // use a stream which is not a byte array stream so the buffer is smaller than the data
+        InputStream is = new BufferedInputStream(new ByteArrayInputStream(new byte[5000]), 1);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        IOHelper.copyAndCloseInput(is, os, 1024, pool);
+
+        assertEquals(5000, os.size());
+        assertEquals(1, acquired.get());
+        assertEquals(1, released.get());
+    }
     
     public void testCharsetNormalize() throws Exception {
         assertEquals("UTF-8", IOHelper.normalizeCharset("'UTF-8'"));
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue.WaitStrategy;
+
+/**
+ * @version 
+ */
+public class RingBufferBlockingQueueTest extends TestCase {
+
+    public void testOfferAndPoll() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(3);
+        assertTrue(queue.isEmpty());
+        assertEquals(3, queue.remainingCapacity());
+
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertFalse("Should be full", queue.offer("D"));
+        assertFalse("Should be full", queue.offer("D", 10, TimeUnit.MILLISECONDS));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+
+        assertEquals("A", queue.peek());
+        assertEquals("A", queue.poll());
+        // wraps around the ring buffer
+        assertTrue(queue.offer("D"));
+        assertEquals("B", queue.take());
+        assertEquals("C", queue.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals("D", queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testRemoveAndIterate() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(5);
+        queue.add("A");
+        queue.add("B");
+        queue.add("C");
+
+        assertTrue(queue.remove("B"));
+        assertFalse(queue.remove("B"));
+        assertTrue(queue.contains("A"));
+        assertFalse(queue.contains("B"));
+
+        List<String> list = new ArrayList<String>(queue);
+        assertEquals(2, list.size());
+        assertEquals("A", list.get(0));
+        assertEquals("C", list.get(1));
+
+        List<String> drained = new ArrayList<String>();
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals(list, drained);
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testPutBlocksWhenFull() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(1);
+        queue.put("A");
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    queue.put("B");
+                    latch.countDown();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        });
+        producer.start();
+
+        assertFalse("Should block while full", latch.await(100, TimeUnit.MILLISECONDS));
+        assertEquals("A", queue.take());
+        assertTrue("Should put when no longer full", latch.await(5, TimeUnit.SECONDS));
+        assertEquals("B", queue.take());
+    }
+
+    public void testTakeInterrupted() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(1);
+        Thread.currentThread().interrupt();
+        try {
+            queue.take();
+            fail("Should have been interrupted");
+        } catch (InterruptedException e) {
+            // expected
+        }
+    }
+
+    public void testMultipleProducersMultipleConsumers() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            doTestProducersAndConsumers(new RingBufferBlockingQueue<Long>(16, false, waitStrategy), 2, 2);
+        }
+    }
+
+    public void testMultipleProducersSingleConsumer() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            doTestProducersAndConsumers(new RingBufferBlockingQueue<Long>(16, true, waitStrategy), 3, 1);
+        }
+    }
+
+    private void doTestProducersAndConsumers(final RingBufferBlockingQueue<Long> queue, int producers, int consumers) throws Exception {
+        if (queue.getWaitStrategy() == WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < producers + consumers) {
+            // busy spinning threads need a core each to make progress
+            return;
+        }
+        final int messages = 10000;
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(producers * messages);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            for (int i = 0; i < consumers; i++) {
+                executor.submit(new Runnable() {
+                    public void run() {
+                        try {
+                            while (!Thread.currentThread().isInterrupted()) {
+                                Long value = queue.poll(100, TimeUnit.MILLISECONDS);
+                                if (value != null) {
+                                    sum.addAndGet(value);
+                                    count.incrementAndGet();
+                                    done.countDown();
+                                }
+                            }
+                        } catch (InterruptedException e) {
+                            // stop consuming
+                        }
+                    }
+                });
+            }
+            for (int i = 0; i < producers; i++) {
+                executor.submit(new Runnable() {
+                    public void run() {
+                        try {
+                            for (long j = 1; j <= messages; j++) {
+                                queue.put(j);
+                            }
+                        } catch (InterruptedException e) {
+                            // stop producing
+                        }
+                    }
+                });
+            }
+
+            assertTrue("Should consume all messages using " + queue, done.await(20, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(producers * messages, count.get());
+        assertEquals(producers * (long) messages * (messages + 1) / 2, sum.get());
+        assertTrue(queue.isEmpty());
+    }
+}
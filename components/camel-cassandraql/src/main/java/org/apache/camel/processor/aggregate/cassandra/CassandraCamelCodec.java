@@ -19,8 +19,6 @@ package org.apache.camel.processor.aggregate.cassandra;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
 
 import org.apache.camel.CamelContext;
@@ -28,6 +26,8 @@ import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.impl.SerializationExchangeCodec;
+import org.apache.camel.spi.ExchangeCodec;
 
 /**
  * Marshall/unmarshall Exchange to/from a ByteBuffer.
@@ -35,6 +35,19 @@ import org.apache.camel.impl.DefaultExchangeHolder;
  */
 public class CassandraCamelCodec {
 
+    private ExchangeCodec exchangeCodec = new SerializationExchangeCodec();
+
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the {@link ExchangeCodec} to use for encoding the exchanges, which by default is Java serialization.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec != null ? exchangeCodec : new SerializationExchangeCodec();
+    }
+
     public ByteBuffer marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders) throws IOException {
         // use DefaultExchangeHolder to marshal to a serialized object
         DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false, allowSerializedHeaders);
@@ -51,11 +64,13 @@ public class CassandraCamelCodec {
         if (exchange.getFromEndpoint() != null) {
             DefaultExchangeHolder.addProperty(pe, "CamelAggregatedFromEndpoint", exchange.getFromEndpoint().getEndpointUri());
         }
-        return ByteBuffer.wrap(serialize(pe));
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        exchangeCodec.encode(pe, bytesOut);
+        return ByteBuffer.wrap(bytesOut.toByteArray());
     }
 
     public Exchange unmarshallExchange(CamelContext camelContext, ByteBuffer buffer) throws IOException, ClassNotFoundException {
-        DefaultExchangeHolder pe = (DefaultExchangeHolder) deserialize(new ByteBufferInputStream(buffer));
+        DefaultExchangeHolder pe = exchangeCodec.decode(camelContext, new ByteBufferInputStream(buffer));
         Exchange answer = new DefaultExchange(camelContext);
         DefaultExchangeHolder.unmarshal(answer, pe);
         // restore the from endpoint
@@ -69,21 +84,6 @@ public class CassandraCamelCodec {
         return answer;
     }
 
-    private byte[] serialize(Object object) throws IOException {
-        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
-        ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut);
-        objectOut.writeObject(object);
-        objectOut.close();
-        return bytesOut.toByteArray();
-    }
-
-    private Object deserialize(InputStream bytes) throws IOException, ClassNotFoundException {
-        ObjectInputStream objectIn = new ObjectInputStream(bytes);
-        Object object = objectIn.readObject();
-        objectIn.close();
-        return object;
-    }
-
     private static class ByteBufferInputStream extends InputStream {
 
         private final ByteBuffer buffer;
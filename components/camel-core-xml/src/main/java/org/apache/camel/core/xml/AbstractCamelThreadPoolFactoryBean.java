@@ -66,6 +66,9 @@ public abstract class AbstractCamelThreadPoolFactoryBean extends AbstractCamelFa
     @XmlAttribute
     @Metadata(description = "Whether to use a scheduled thread pool", defaultValue = "false")
     private Boolean scheduled;
+    @XmlAttribute
+    @Metadata(description = "Whether to start a new virtual thread per task instead of using a pool of threads, if supported by the JVM", defaultValue = "false")
+    private String virtualThreads;
 
     public ExecutorService getObject() throws Exception {
         int size = CamelContextHelper.parseInteger(getCamelContext(), poolSize);
@@ -93,6 +96,11 @@ public abstract class AbstractCamelThreadPoolFactoryBean extends AbstractCamelFa
             allow = CamelContextHelper.parseBoolean(getCamelContext(), allowCoreThreadTimeOut);
         }
 
+        Boolean virtual = null;
+        if (virtualThreads != null) {
+            virtual = CamelContextHelper.parseBoolean(getCamelContext(), virtualThreads);
+        }
+
         ThreadPoolProfile profile = new ThreadPoolProfileBuilder(getId())
                 .poolSize(size)
                 .maxPoolSize(max)
@@ -100,6 +108,7 @@ public abstract class AbstractCamelThreadPoolFactoryBean extends AbstractCamelFa
                 .maxQueueSize(queueSize)
                 .allowCoreThreadTimeOut(allow)
                 .rejectedPolicy(rejectedPolicy)
+                .virtualThreads(virtual)
                 .build();
 
         ExecutorService answer;
@@ -187,4 +196,12 @@ public abstract class AbstractCamelThreadPoolFactoryBean extends AbstractCamelFa
         this.scheduled = scheduled;
     }
 
-}
\ No newline at end of file
+    public String getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(String virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+}
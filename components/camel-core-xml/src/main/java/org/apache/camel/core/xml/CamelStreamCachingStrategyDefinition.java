@@ -42,6 +42,10 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
     private String spoolChiper;
     @XmlAttribute
     private String spoolThreshold;
+    @XmlAttribute @Metadata(defaultValue = "false")
+    private String spoolOffHeap;
+    @XmlAttribute
+    private String spoolOffHeapThreshold;
     @XmlAttribute
     private String spoolUsedHeapMemoryThreshold;
     @XmlAttribute
@@ -111,6 +115,33 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
         this.spoolThreshold = spoolThreshold;
     }
 
+    public String getSpoolOffHeap() {
+        return spoolOffHeap;
+    }
+
+    /**
+     * Sets whether to spool to off heap memory instead of to temporary files. The spooled data is kept in pooled
+     * direct buffers up to the spoolOffHeapThreshold size, and larger data is moved to a memory mapped file in the spool directory.
+     * <p/>
+     * This option is not in use if a chiper is configured.
+     */
+    public void setSpoolOffHeap(String spoolOffHeap) {
+        this.spoolOffHeap = spoolOffHeap;
+    }
+
+    public String getSpoolOffHeapThreshold() {
+        return spoolOffHeapThreshold;
+    }
+
+    /**
+     * Threshold in bytes until which a spooled stream is kept in pooled direct buffers when spooling to off heap memory.
+     * <p/>
+     * The default threshold is {@link org.apache.camel.StreamCache#DEFAULT_SPOOL_OFF_HEAP_THRESHOLD} bytes (eg 8mb).
+     */
+    public void setSpoolOffHeapThreshold(String spoolOffHeapThreshold) {
+        this.spoolOffHeapThreshold = spoolOffHeapThreshold;
+    }
+
     public String getSpoolUsedHeapMemoryThreshold() {
         return spoolUsedHeapMemoryThreshold;
     }
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.spi.OptimisticLockingAggregationRepository;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.support.ServiceSupport;
@@ -484,6 +485,19 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return codec.getExchangeCodec();
+    }
+
+    /**
+     * Sets the codec to use for encoding the exchanges, such as {@link org.apache.camel.impl.BinaryExchangeCodec}
+     * which is faster and more compact than the Java serialization used by default. The codec must not be changed
+     * for an existing persistent store with exchanges.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        codec.setExchangeCodec(exchangeCodec);
+    }
+
     @Override
     protected void doStart() throws Exception {
         // either we have a HawtDB configured or we use a provided fileName
@@ -45,6 +45,7 @@ import org.apache.camel.Message;
 import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.StreamCache;
 import org.apache.camel.converter.stream.CachedOutputStream;
+import org.apache.camel.spi.BufferPool;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.util.GZIPHelper;
 import org.apache.camel.util.IOHelper;
@@ -426,10 +427,14 @@ public class DefaultHttpBinding implements HttpBinding {
     }
     
     protected int copyStream(InputStream is, OutputStream os, int bufferSize) throws IOException {
+        return copyStream(is, os, bufferSize, null);
+    }
+
+    protected int copyStream(InputStream is, OutputStream os, int bufferSize, BufferPool bufferPool) throws IOException {
         try {
             // copy stream, and must flush on each write as etc Jetty has better performance when
             // flushing after writing to its servlet output stream
-            return IOHelper.copy(is, os, bufferSize, true);
+            return IOHelper.copy(is, os, bufferSize, true, bufferPool);
         } finally {
             IOHelper.close(os, is);
         }
@@ -470,7 +475,7 @@ public class DefaultHttpBinding implements HttpBinding {
                 CachedOutputStream stream = new CachedOutputStream(exchange);
                 try {
                     // copy directly from input stream to the cached output stream to get the content length
-                    int len = copyStream(is, stream, response.getBufferSize());
+                    int len = copyStream(is, stream, response.getBufferSize(), exchange.getContext().getBufferPool());
                     // we need to setup the length if message is not chucked
                     response.setContentLength(len);
                     OutputStream current = stream.getCurrentStream();
@@ -484,7 +489,7 @@ public class DefaultHttpBinding implements HttpBinding {
                         if (LOG.isDebugEnabled()) {
                             LOG.debug("Streaming response in non-chunked mode with content-length {} and buffer size: {}", len, len);
                         }
-                        copyStream(stream.getInputStream(), os, len);
+                        copyStream(stream.getInputStream(), os, len, exchange.getContext().getBufferPool());
                     }
                 } finally {
                     IOHelper.close(is, os);
@@ -493,7 +498,7 @@ public class DefaultHttpBinding implements HttpBinding {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Streaming response in chunked mode with buffer size {}", response.getBufferSize());
                 }
-                copyStream(is, os, response.getBufferSize());
+                copyStream(is, os, response.getBufferSize(), exchange.getContext().getBufferPool());
             }
         } else {
             // not convertable as a stream so fallback as a String
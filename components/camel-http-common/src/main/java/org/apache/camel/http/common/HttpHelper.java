@@ -218,7 +218,7 @@ public final class HttpHelper {
             return is;
         } else {
             CachedOutputStream cos = new CachedOutputStream(exchange);
-            IOHelper.copyAndCloseInput(is, cos);
+            IOHelper.copyAndCloseInput(is, cos, cos.getStrategyBufferSize(), exchange.getContext().getBufferPool());
             return cos.newStreamCache();
         }
     }
@@ -241,7 +241,7 @@ public final class HttpHelper {
             return is;
         } else {
             CachedOutputStream cos = new CachedOutputStream(exchange);
-            IOHelper.copyAndCloseInput(is, cos);
+            IOHelper.copyAndCloseInput(is, cos, cos.getStrategyBufferSize(), exchange.getContext().getBufferPool());
             return cos.newStreamCache();
         }
     }
@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+
+/**
+ * A pluggable strategy for configuring the non-blocking HttpAsyncClient used by this component
+ * when the endpoint is configured with <tt>asyncClient=true</tt>.
+ * <p/>
+ * Configurers that implement both this and {@link HttpClientConfigurer} are applied to whichever
+ * client the endpoint creates.
+ */
+public interface HttpAsyncClientConfigurer {
+
+    /**
+     * Configure the HttpAsyncClient such as setting the authentication or proxying details
+     *
+     * @param clientBuilder the client
+     */
+    void configureHttpAsyncClient(HttpAsyncClientBuilder clientBuilder);
+}
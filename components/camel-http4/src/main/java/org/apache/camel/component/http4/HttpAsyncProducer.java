@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non-blocking producer which executes the requests using the Apache HttpAsyncClient, so
+ * the number of in-flight requests is bound by the connection pool and not by the calling threads.
+ * <p/>
+ * The request is created and the response is mapped the same way as by {@link HttpProducer}, but
+ * the response is mapped and routing continues on the I/O dispatcher thread of the client.
+ */
+public class HttpAsyncProducer extends HttpProducer implements AsyncProcessor {
+    private static final Logger LOG = LoggerFactory.getLogger(HttpAsyncProducer.class);
+    private HttpAsyncClient httpAsyncClient;
+
+    public HttpAsyncProducer(HttpEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        final HttpRequestBase httpRequest;
+        try {
+            httpRequest = prepareRequest(exchange);
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Executing async http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
+        }
+        try {
+            httpAsyncClient.execute(httpRequest, createLocalContext(), new FutureCallback<HttpResponse>() {
+                public void completed(HttpResponse httpResponse) {
+                    try {
+                        handleResponse(exchange, httpRequest, httpResponse);
+                    } catch (Exception e) {
+                        exchange.setException(e);
+                    } finally {
+                        releaseResponse(exchange, httpResponse);
+                        callback.done(false);
+                    }
+                }
+
+                public void failed(Exception e) {
+                    exchange.setException(e);
+                    callback.done(false);
+                }
+
+                public void cancelled() {
+                    exchange.setException(new CamelExchangeException("Http request " + httpRequest.getURI() + " was cancelled", exchange));
+                    callback.done(false);
+                }
+            });
+        } catch (Exception e) {
+            // such as when the I/O reactor of the client has been stopped
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (httpAsyncClient == null) {
+            httpAsyncClient = getEndpoint().getHttpAsyncClient();
+        }
+    }
+
+    public HttpAsyncClient getHttpAsyncClient() {
+        return httpAsyncClient;
+    }
+
+    public void setHttpAsyncClient(HttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
+    }
+}
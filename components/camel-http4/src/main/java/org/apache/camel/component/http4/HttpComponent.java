@@ -58,6 +58,15 @@ import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
 import org.slf4j.Logger;
@@ -177,6 +186,11 @@ public class HttpComponent extends HttpCommonComponent implements RestProducerFa
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
         Map<String, Object> httpClientParameters = new HashMap<String, Object>(parameters);
+        // the async client is configured from the same options as the blocking client, so keep a copy of them
+        Map<String, Object> httpAsyncClientParameters = null;
+        if (getParameter(parameters, "asyncClient", Boolean.class, false)) {
+            httpAsyncClientParameters = new HashMap<String, Object>(parameters);
+        }
         final Map<String, Object> httpClientOptions = new HashMap<>();
         final HttpClientBuilder clientBuilder = createHttpClientBuilder(uri, parameters, httpClientOptions);
         
@@ -236,6 +250,10 @@ public class HttpComponent extends HttpCommonComponent implements RestProducerFa
         LOG.debug("Creating endpoint uri {}", endpointUriString);
         final HttpClientConnectionManager localConnectionManager = createConnectionManager(parameters, sslContextParameters);
         HttpEndpoint endpoint = new HttpEndpoint(endpointUriString, this, clientBuilder, localConnectionManager, configurer);
+        if (httpAsyncClientParameters != null) {
+            endpoint.setAsyncClientBuilder(createHttpAsyncClientBuilder(httpAsyncClientParameters));
+            endpoint.setAsyncClientConnectionManager(createAsyncConnectionManager(httpAsyncClientParameters, sslContextParameters));
+        }
 
         // configure the endpoint with the common configuration from the component
         if (getHttpConfiguration() != null) {
@@ -330,6 +348,69 @@ public class HttpComponent extends HttpCommonComponent implements RestProducerFa
         return clientBuilder;
     }
 
+    protected HttpAsyncClientBuilder createHttpAsyncClientBuilder(final Map<String, Object> parameters) throws Exception {
+        HttpAsyncClientBuilder clientBuilder = HttpAsyncClientBuilder.create();
+        // only the request configuration applies to the async client, the httpClient. options
+        // have already been validated against the blocking client
+        Map<String, Object> httpClientOptions = IntrospectionSupport.extractProperties(parameters, "httpClient.");
+        RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
+        IntrospectionSupport.setProperties(requestConfigBuilder, httpClientOptions);
+        clientBuilder.setDefaultRequestConfig(requestConfigBuilder.build());
+        return clientBuilder;
+    }
+
+    protected NHttpClientConnectionManager createAsyncConnectionManager(final Map<String, Object> parameters,
+            final SSLContextParameters sslContextParameters) throws GeneralSecurityException, IOException {
+        final HostnameVerifier resolvedHostnameVerifier = resolveAndRemoveReferenceParameter(parameters, "x509HostnameVerifier", HostnameVerifier.class);
+        final HostnameVerifier hostnameVerifier = Optional.ofNullable(resolvedHostnameVerifier).orElse(x509HostnameVerifier);
+
+        final int maxTotalConnections = getAndRemoveParameter(parameters, "maxTotalConnections", int.class, 0);
+        final int connectionsPerRoute = getAndRemoveParameter(parameters, "connectionsPerRoute", int.class, 0);
+
+        final Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = createAsyncSessionStrategyRegistry(hostnameVerifier, sslContextParameters);
+
+        return createAsyncConnectionManager(sessionStrategyRegistry, maxTotalConnections, connectionsPerRoute);
+    }
+
+    protected Registry<SchemeIOSessionStrategy> createAsyncSessionStrategyRegistry(HostnameVerifier x509HostnameVerifier, SSLContextParameters sslContextParams)
+        throws GeneralSecurityException, IOException {
+        RegistryBuilder<SchemeIOSessionStrategy> builder = RegistryBuilder.<SchemeIOSessionStrategy>create();
+        builder.register("http", NoopIOSessionStrategy.INSTANCE);
+        builder.register("http4", NoopIOSessionStrategy.INSTANCE);
+        if (sslContextParams != null) {
+            builder.register("https", new SSLIOSessionStrategy(sslContextParams.createSSLContext(getCamelContext()), x509HostnameVerifier));
+            builder.register("https4", new SSLIOSessionStrategy(sslContextParams.createSSLContext(getCamelContext()), x509HostnameVerifier));
+        } else {
+            builder.register("https4", new SSLIOSessionStrategy(SSLContexts.createDefault(), x509HostnameVerifier));
+            builder.register("https", new SSLIOSessionStrategy(SSLContexts.createDefault(), x509HostnameVerifier));
+        }
+        return builder.build();
+    }
+
+    protected NHttpClientConnectionManager createAsyncConnectionManager(Registry<SchemeIOSessionStrategy> registry,
+                                                                        int maxTotalConnections, int connectionsPerRoute) throws IOReactorException {
+        // the connection pool is served by a single I/O reactor which is started together with the client
+        PoolingNHttpClientConnectionManager answer = new PoolingNHttpClientConnectionManager(
+            new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT), null, registry, null, null, getConnectionTimeToLive(), TimeUnit.MILLISECONDS);
+        int localMaxTotalConnections = maxTotalConnections;
+        if (localMaxTotalConnections == 0) {
+            localMaxTotalConnections = getMaxTotalConnections();
+        }
+        if (localMaxTotalConnections > 0) {
+            answer.setMaxTotal(localMaxTotalConnections);
+        }
+        int localConnectionsPerRoute = connectionsPerRoute;
+        if (localConnectionsPerRoute == 0) {
+            localConnectionsPerRoute = getConnectionsPerRoute();
+        }
+        if (localConnectionsPerRoute > 0) {
+            answer.setDefaultMaxPerRoute(localConnectionsPerRoute);
+        }
+        LOG.info("Created async ClientConnectionManager " + answer);
+
+        return answer;
+    }
+
     protected Registry<ConnectionSocketFactory> createConnectionRegistry(HostnameVerifier x509HostnameVerifier, SSLContextParameters sslContextParams)
         throws GeneralSecurityException, IOException {
         // create the default connection registry to use
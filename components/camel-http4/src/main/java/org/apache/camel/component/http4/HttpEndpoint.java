@@ -41,6 +41,9 @@ import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,6 +86,18 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     @UriParam(label = "producer", description = "Whether the HTTP DELETE should include the message body or not."
         + " By default HTTP DELETE do not include any HTTP message. However in some rare cases users may need to be able to include the message body.")
     private boolean deleteWithBody;
+    @UriParam(label = "producer", description = "Whether the producer should use the non-blocking Apache HttpAsyncClient instead of the blocking HttpClient."
+        + " The calling thread is then not blocked while waiting for the response, and the number of concurrent requests is limited by the"
+        + " connection pool (maxTotalConnections and connectionsPerRoute) instead of the number of threads."
+        + " Notice the response is processed and routing continues on the I/O dispatcher thread of the HttpAsyncClient,"
+        + " so long running work should be handed off to a thread pool (eg using threads) to not stall other requests.")
+    private boolean asyncClient;
+    @UriParam(label = "advanced", description = "To use a custom HttpAsyncClientBuilder when asyncClient is enabled.")
+    private HttpAsyncClientBuilder asyncClientBuilder;
+    @UriParam(label = "advanced", description = "To use a custom NHttpClientConnectionManager to manage connections when asyncClient is enabled.")
+    private NHttpClientConnectionManager asyncClientConnectionManager;
+    @UriParam(label = "advanced", description = "Sets a custom HttpAsyncClient to be used by the producer when asyncClient is enabled")
+    private CloseableHttpAsyncClient httpAsyncClient;
 
     @UriParam(label = "advanced", defaultValue = "200", description = "The maximum number of connections.")
     private int maxTotalConnections;
@@ -116,6 +131,9 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     }
 
     public Producer createProducer() throws Exception {
+        if (isAsyncClient()) {
+            return new HttpAsyncProducer(this);
+        }
         return new HttpProducer(this);
     }
 
@@ -163,16 +181,8 @@ public class HttpEndpoint extends HttpCommonEndpoint {
 
         if (!useSystemProperties) {
             // configure http proxy from camelContext
-            if (ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyHost")) && ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyPort"))) {
-                String host = getCamelContext().getProperty("http.proxyHost");
-                int port = Integer.parseInt(getCamelContext().getProperty("http.proxyPort"));
-                String scheme = getCamelContext().getProperty("http.proxyScheme");
-                // fallback and use either http or https depending on secure
-                if (scheme == null) {
-                    scheme = HttpHelper.isSecureConnection(getEndpointUri()) ? "https" : "http";
-                }
-                LOG.debug("CamelContext properties http.proxyHost, http.proxyPort, and http.proxyScheme detected. Using http proxy host: {} port: {} scheme: {}", new Object[]{host, port, scheme});
-                HttpHost proxy = new HttpHost(host, port, scheme);
+            HttpHost proxy = getCamelContextProxy();
+            if (proxy != null) {
                 clientBuilder.setProxy(proxy);
             }
         } else {
@@ -198,6 +208,100 @@ public class HttpEndpoint extends HttpCommonEndpoint {
         return clientBuilder.build();
     }
 
+    public synchronized CloseableHttpAsyncClient getHttpAsyncClient() {
+        if (httpAsyncClient == null) {
+            httpAsyncClient = createHttpAsyncClient();
+        }
+        if (!httpAsyncClient.isRunning()) {
+            // the client must be started to start its I/O reactor before executing requests
+            httpAsyncClient.start();
+        }
+        return httpAsyncClient;
+    }
+
+    /**
+     * Sets a custom HttpAsyncClient to be used by the producer when asyncClient is enabled
+     */
+    public void setHttpAsyncClient(CloseableHttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
+    }
+
+    /**
+     * Factory method to create a new {@link CloseableHttpAsyncClient} instance, which is configured
+     * the same way as the blocking client from {@link #createHttpClient()}.
+     * <p/>
+     * Producers should use the {@link #getHttpAsyncClient()} method instead.
+     */
+    protected CloseableHttpAsyncClient createHttpAsyncClient() {
+        if (asyncClientBuilder == null) {
+            asyncClientBuilder = HttpAsyncClientBuilder.create();
+        }
+
+        // setup the cookieStore
+        asyncClientBuilder.setDefaultCookieStore(cookieStore);
+        if (asyncClientConnectionManager != null) {
+            asyncClientBuilder.setConnectionManager(asyncClientConnectionManager);
+        } else {
+            // let the builder create the connection pool
+            if (maxTotalConnections > 0) {
+                asyncClientBuilder.setMaxConnTotal(maxTotalConnections);
+            }
+            if (connectionsPerRoute > 0) {
+                asyncClientBuilder.setMaxConnPerRoute(connectionsPerRoute);
+            }
+        }
+
+        if (!useSystemProperties) {
+            // configure http proxy from camelContext
+            HttpHost proxy = getCamelContextProxy();
+            if (proxy != null) {
+                asyncClientBuilder.setProxy(proxy);
+            }
+        } else {
+            asyncClientBuilder.useSystemProperties();
+        }
+
+        if (isAuthenticationPreemptive()) {
+            // setup the PreemptiveAuthInterceptor here
+            asyncClientBuilder.addInterceptorFirst(new PreemptiveAuthInterceptor());
+        }
+
+        HttpClientConfigurer configurer = getHttpClientConfigurer();
+        if (configurer instanceof HttpAsyncClientConfigurer) {
+            ((HttpAsyncClientConfigurer) configurer).configureHttpAsyncClient(asyncClientBuilder);
+        } else if (configurer != null) {
+            LOG.warn("The HttpClientConfigurer {} does not implement HttpAsyncClientConfigurer and is not applied to the HttpAsyncClient", configurer);
+        }
+
+        if (isBridgeEndpoint()) {
+            // need to use noop cookiestore as we do not want to keep cookies in memory
+            asyncClientBuilder.setDefaultCookieStore(new NoopCookieStore());
+        }
+
+        LOG.debug("Setup the HttpAsyncClientBuilder {}", asyncClientBuilder);
+        return asyncClientBuilder.build();
+    }
+
+    /**
+     * Gets the http proxy configured on the CamelContext using the http.proxyHost, http.proxyPort and http.proxyScheme properties
+     *
+     * @return the proxy, or <tt>null</tt> if no proxy is configured
+     */
+    private HttpHost getCamelContextProxy() {
+        if (ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyHost")) && ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyPort"))) {
+            String host = getCamelContext().getProperty("http.proxyHost");
+            int port = Integer.parseInt(getCamelContext().getProperty("http.proxyPort"));
+            String scheme = getCamelContext().getProperty("http.proxyScheme");
+            // fallback and use either http or https depending on secure
+            if (scheme == null) {
+                scheme = HttpHelper.isSecureConnection(getEndpointUri()) ? "https" : "http";
+            }
+            LOG.debug("CamelContext properties http.proxyHost, http.proxyPort, and http.proxyScheme detected. Using http proxy host: {} port: {} scheme: {}", new Object[]{host, port, scheme});
+            return new HttpHost(host, port, scheme);
+        }
+        return null;
+    }
+
     @Override
     public HttpComponent getComponent() {
         return (HttpComponent) super.getComponent();
@@ -212,6 +316,10 @@ public class HttpEndpoint extends HttpCommonEndpoint {
         if (httpClient != null && httpClient instanceof Closeable) {
             IOHelper.close((Closeable)httpClient);
         }
+        if (httpAsyncClient != null) {
+            // closing the client also shuts down its connection manager and I/O reactor
+            IOHelper.close(httpAsyncClient);
+        }
     }
 
     // Properties
@@ -229,6 +337,44 @@ public class HttpEndpoint extends HttpCommonEndpoint {
         this.clientBuilder = clientBuilder;
     }
 
+    public boolean isAsyncClient() {
+        return asyncClient;
+    }
+
+    /**
+     * Whether the producer should use the non-blocking Apache HttpAsyncClient instead of the blocking HttpClient.
+     * The calling thread is then not blocked while waiting for the response, and the number of concurrent requests
+     * is limited by the connection pool (maxTotalConnections and connectionsPerRoute) instead of the number of threads.
+     * <p/>
+     * Notice the response is processed and routing continues on the I/O dispatcher thread of the HttpAsyncClient,
+     * so long running work should be handed off to a thread pool (eg using threads) to not stall other requests.
+     */
+    public void setAsyncClient(boolean asyncClient) {
+        this.asyncClient = asyncClient;
+    }
+
+    public HttpAsyncClientBuilder getAsyncClientBuilder() {
+        return asyncClientBuilder;
+    }
+
+    /**
+     * To use a custom HttpAsyncClientBuilder when asyncClient is enabled.
+     */
+    public void setAsyncClientBuilder(HttpAsyncClientBuilder asyncClientBuilder) {
+        this.asyncClientBuilder = asyncClientBuilder;
+    }
+
+    public NHttpClientConnectionManager getAsyncClientConnectionManager() {
+        return asyncClientConnectionManager;
+    }
+
+    /**
+     * To use a custom NHttpClientConnectionManager to manage connections when asyncClient is enabled.
+     */
+    public void setAsyncClientConnectionManager(NHttpClientConnectionManager asyncClientConnectionManager) {
+        this.asyncClientConnectionManager = asyncClientConnectionManager;
+    }
+
     public HttpClientConfigurer getHttpClientConfigurer() {
         return httpClientConfigurer;
     }
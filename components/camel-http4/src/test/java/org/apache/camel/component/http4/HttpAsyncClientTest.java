@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.Producer;
+import org.apache.camel.http.common.HttpOperationFailedException;
+import org.apache.camel.util.StopWatch;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpAsyncClientTest extends BaseHttpTest {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private HttpServer localServer;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        localServer = ServerBootstrap.bootstrap().
+                setHttpProcessor(getBasicHttpProcessor()).
+                setConnectionReuseStrategy(getConnectionReuseStrategy()).
+                setResponseFactory(getHttpResponseFactory()).
+                setExpectationVerifier(getHttpExpectationVerifier()).
+                setSslContext(getSSLContext()).
+                registerHandler("/slow", new HttpRequestHandler() {
+                    public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws HttpException, IOException {
+                        try {
+                            Thread.sleep(500);
+                        } catch (InterruptedException e) {
+                            // ignore
+                        }
+                        response.setStatusCode(HttpStatus.SC_OK);
+                        response.setEntity(new StringEntity("" + counter.incrementAndGet()));
+                    }
+                }).
+                registerHandler("/missing", new HttpRequestHandler() {
+                    public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws HttpException, IOException {
+                        response.setStatusCode(HttpStatus.SC_NOT_FOUND);
+                        response.setEntity(new StringEntity("Not here"));
+                    }
+                }).create();
+        localServer.start();
+
+        super.setUp();
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        if (localServer != null) {
+            localServer.stop();
+        }
+    }
+
+    @Test
+    public void testAsyncClient() throws Exception {
+        String uri = "http4://" + localServer.getInetAddress().getHostName() + ":" + localServer.getLocalPort() + "/slow?asyncClient=true";
+
+        Producer producer = context.getEndpoint(uri).createProducer();
+        assertIsInstanceOf(HttpAsyncProducer.class, producer);
+
+        Exchange exchange = template.request(uri, null);
+        assertNull(exchange.getException());
+        assertEquals(200, exchange.getOut().getHeader(Exchange.HTTP_RESPONSE_CODE));
+        assertEquals("1", exchange.getOut().getBody(String.class));
+    }
+
+    @Test
+    public void testAsyncClientDoesNotBlock() throws Exception {
+        String uri = "http4://" + localServer.getInetAddress().getHostName() + ":" + localServer.getLocalPort() + "/slow?asyncClient=true";
+
+        HttpAsyncProducer producer = (HttpAsyncProducer) context.getEndpoint(uri).createProducer();
+        producer.start();
+        try {
+            final CountDownLatch latch = new CountDownLatch(10);
+            List<Exchange> exchanges = new ArrayList<Exchange>();
+
+            // all the requests are sent from this thread, which must not wait for the responses
+            StopWatch watch = new StopWatch();
+            for (int i = 0; i < 10; i++) {
+                Exchange exchange = producer.createExchange();
+                exchanges.add(exchange);
+                boolean sync = producer.process(exchange, new AsyncCallback() {
+                    public void done(boolean doneSync) {
+                        latch.countDown();
+                    }
+                });
+                assertFalse("Should be processed asynchronously", sync);
+            }
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            // the requests are in-flight at the same time so it takes about a single 500 millis round trip
+            long taken = watch.taken();
+            assertTrue("Should take less than 2500 millis, was " + taken, taken < 2500);
+
+            Set<String> unique = new HashSet<String>();
+            for (Exchange exchange : exchanges) {
+                assertNull(exchange.getException());
+                unique.add(exchange.getOut().getBody(String.class));
+            }
+            assertEquals("Should be 10 unique responses", 10, unique.size());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testAsyncClientStopped() throws Exception {
+        String uri = "http4://" + localServer.getInetAddress().getHostName() + ":" + localServer.getLocalPort() + "/slow?asyncClient=true";
+
+        HttpEndpoint endpoint = context.getEndpoint(uri, HttpEndpoint.class);
+        HttpAsyncProducer producer = (HttpAsyncProducer) endpoint.createProducer();
+        producer.start();
+        endpoint.getHttpAsyncClient().close();
+
+        // the failure to execute the request must be reported to the callback
+        final AtomicBoolean done = new AtomicBoolean();
+        Exchange exchange = producer.createExchange();
+        boolean sync = producer.process(exchange, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                done.set(doneSync);
+            }
+        });
+        assertTrue(sync);
+        assertTrue(done.get());
+        assertNotNull(exchange.getException());
+        producer.stop();
+    }
+
+    @Test
+    public void testAsyncClientThrowExceptionOnFailure() throws Exception {
+        String uri = "http4://" + localServer.getInetAddress().getHostName() + ":" + localServer.getLocalPort() + "/missing?asyncClient=true";
+
+        Exchange exchange = template.request(uri, null);
+        HttpOperationFailedException cause = assertIsInstanceOf(HttpOperationFailedException.class, exchange.getException());
+        assertEquals(404, cause.getStatusCode());
+        assertEquals("Not here", cause.getResponseBody());
+    }
+}
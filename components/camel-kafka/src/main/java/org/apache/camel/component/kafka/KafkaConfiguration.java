@@ -116,6 +116,12 @@ public class KafkaConfiguration implements Cloneable {
     @UriParam(label = "consumer", defaultValue = "sync", enums = "sync,async,none")
     private String autoCommitOnStop = "sync";
     @UriParam(label = "consumer")
+    private int partitionWorkerPoolSize;
+    @UriParam(label = "consumer", defaultValue = "500")
+    private int commitBatchSize = 500;
+    @UriParam(label = "consumer", defaultValue = "1000")
+    private long commitIntervalMs = 1000;
+    @UriParam(label = "consumer")
     private StateRepository<String, String> offsetRepository;
 
     //Producer Camel specific configuration properties
@@ -684,6 +690,46 @@ public class KafkaConfiguration implements Cloneable {
         this.autoCommitOnStop = autoCommitOnStop;
     }
 
+    public int getPartitionWorkerPoolSize() {
+        return partitionWorkerPoolSize;
+    }
+
+    /**
+     * Number of worker threads used to process the records of different partitions in parallel.
+     * The records of the same partition are still processed in order, one at a time.
+     * The poll thread keeps track of the offsets of the processed records and commits them
+     * (or stores them in the offset repository) in batches, see the options commitBatchSize and commitIntervalMs.
+     * The automatic commit of the Kafka client is not used in this mode, as it would commit records which have
+     * been polled but not yet processed. By default this is 0 which means the records are processed by the poll thread.
+     */
+    public void setPartitionWorkerPoolSize(int partitionWorkerPoolSize) {
+        this.partitionWorkerPoolSize = partitionWorkerPoolSize;
+    }
+
+    public int getCommitBatchSize() {
+        return commitBatchSize;
+    }
+
+    /**
+     * The number of processed records after which the offsets are committed asynchronously,
+     * when the records are processed by the partition worker pool.
+     */
+    public void setCommitBatchSize(int commitBatchSize) {
+        this.commitBatchSize = commitBatchSize;
+    }
+
+    public long getCommitIntervalMs() {
+        return commitIntervalMs;
+    }
+
+    /**
+     * The maximum time in millis between asynchronous commits of the offsets of the processed records,
+     * when the records are processed by the partition worker pool.
+     */
+    public void setCommitIntervalMs(long commitIntervalMs) {
+        this.commitIntervalMs = commitIntervalMs;
+    }
+
     public String getBrokers() {
         return brokers;
     }
@@ -18,12 +18,25 @@ package org.apache.camel.component.kafka;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
@@ -32,9 +45,11 @@ import org.apache.camel.spi.StateRepository;
 import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InterruptException;
 import org.slf4j.Logger;
@@ -43,8 +58,11 @@ import org.slf4j.LoggerFactory;
 public class KafkaConsumer extends DefaultConsumer {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaConsumer.class);
+    // the poll timeout to use while partitions are paused, so they are resumed soon after the workers caught up
+    private static final long PAUSED_POLL_TIMEOUT_MS = 100;
 
     protected ExecutorService executor;
+    protected ExecutorService workerExecutor;
     private final KafkaEndpoint endpoint;
     private final Processor processor;
     private final Long pollTimeoutMs;
@@ -83,6 +101,10 @@ public class KafkaConsumer extends DefaultConsumer {
 
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, endpoint.getConfiguration().getGroupId());
+        if (endpoint.getConfiguration().getPartitionWorkerPoolSize() > 0) {
+            // the offsets of the processed records are committed by the consumer itself
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        }
         return props;
     }
 
@@ -91,6 +113,9 @@ public class KafkaConsumer extends DefaultConsumer {
         LOG.info("Starting Kafka consumer");
         super.doStart();
 
+        if (endpoint.getConfiguration().getPartitionWorkerPoolSize() > 0) {
+            workerExecutor = endpoint.createPartitionWorkerExecutor();
+        }
         executor = endpoint.createExecutor();
         for (int i = 0; i < endpoint.getConfiguration().getConsumersCount(); i++) {
             KafkaFetchRecords task = new KafkaFetchRecords(endpoint.getConfiguration().getTopic(), i + "", getProps());
@@ -117,6 +142,16 @@ public class KafkaConsumer extends DefaultConsumer {
         tasks.clear();
         executor = null;
 
+        if (workerExecutor != null) {
+            // the records have been processed and committed by the tasks while they stopped
+            if (getEndpoint() != null && getEndpoint().getCamelContext() != null) {
+                getEndpoint().getCamelContext().getExecutorServiceManager().shutdownGraceful(workerExecutor);
+            } else {
+                workerExecutor.shutdownNow();
+            }
+            workerExecutor = null;
+        }
+
         super.doStop();
     }
 
@@ -126,6 +161,10 @@ public class KafkaConsumer extends DefaultConsumer {
         private final String topicName;
         private final String threadId;
         private final Properties kafkaProps;
+        // the partition workers and paused partitions are only accessed by the poll thread
+        private final Map<TopicPartition, PartitionWorker> workers = new HashMap<>();
+        private final Set<TopicPartition> paused = new HashSet<>();
+        private final AtomicLong processedCount = new AtomicLong();
 
         KafkaFetchRecords(String topicName, String id, Properties kafkaProps) {
             this.topicName = topicName;
@@ -147,7 +186,11 @@ public class KafkaConsumer extends DefaultConsumer {
         public void run() {
             try {
                 LOG.info("Subscribing {} to topic {}", threadId, topicName);
-                consumer.subscribe(Arrays.asList(topicName.split(",")));
+                if (workerExecutor != null) {
+                    consumer.subscribe(Arrays.asList(topicName.split(",")), new PartitionWorkersRebalanceListener(offsetRepository()));
+                } else {
+                    consumer.subscribe(Arrays.asList(topicName.split(",")));
+                }
 
                 StateRepository<String, String> offsetRepository = endpoint.getConfiguration().getOffsetRepository();
                 if (offsetRepository != null) {
@@ -185,7 +228,10 @@ public class KafkaConsumer extends DefaultConsumer {
                         consumer.seekToEnd(consumer.assignment());
                     }
                 }
-                while (isRunAllowed() && !isStoppingOrStopped() && !isSuspendingOrSuspended()) {
+                if (workerExecutor != null) {
+                    pollAndDispatch(offsetRepository);
+                }
+                while (workerExecutor == null && isRunAllowed() && !isStoppingOrStopped() && !isSuspendingOrSuspended()) {
                     ConsumerRecords<Object, Object> allRecords = consumer.poll(pollTimeoutMs);
                     for (TopicPartition partition : allRecords.partitions()) {
                         Iterator<ConsumerRecord<Object, Object>> recordIterator = allRecords.records(partition).iterator();
@@ -218,7 +264,7 @@ public class KafkaConsumer extends DefaultConsumer {
                     }
                 }
 
-                if (endpoint.getConfiguration().isAutoCommitEnable() != null && endpoint.getConfiguration().isAutoCommitEnable()) {
+                if (workerExecutor == null && endpoint.getConfiguration().isAutoCommitEnable() != null && endpoint.getConfiguration().isAutoCommitEnable()) {
                     if ("async".equals(endpoint.getConfiguration().getAutoCommitOnStop())) {
                         LOG.info("Auto commitAsync on stop {} from topic {}", threadId, topicName);
                         consumer.commitAsync();
@@ -247,6 +293,259 @@ public class KafkaConsumer extends DefaultConsumer {
             // As advised in the KAFKA-1894 ticket, calling this wakeup method breaks the infinite loop
             consumer.wakeup();
         }
+
+        private StateRepository<String, String> offsetRepository() {
+            return endpoint.getConfiguration().getOffsetRepository();
+        }
+
+        /**
+         * Polls the records and dispatches them to the partition workers, which process the records of each partition in order.
+         * The offsets of the processed records are committed asynchronously in batches by the poll thread, as the Kafka consumer
+         * must only be used by a single thread.
+         */
+        @SuppressWarnings("unchecked")
+        private void pollAndDispatch(StateRepository<String, String> offsetRepository) {
+            KafkaConfiguration configuration = endpoint.getConfiguration();
+            int maxPendingRecords = configuration.getMaxPollRecords() != null ? configuration.getMaxPollRecords() : 500;
+            long lastCommitTime = System.currentTimeMillis();
+            long lastCommitCount = 0;
+
+            while (isRunAllowed() && !isStoppingOrStopped() && !isSuspendingOrSuspended()) {
+                long timeout = Math.min(pollTimeoutMs, paused.isEmpty() ? configuration.getCommitIntervalMs() : PAUSED_POLL_TIMEOUT_MS);
+                ConsumerRecords<Object, Object> allRecords = consumer.poll(timeout);
+                for (TopicPartition partition : allRecords.partitions()) {
+                    PartitionWorker worker = workers.get(partition);
+                    if (worker == null) {
+                        worker = new PartitionWorker(partition, processedCount);
+                        workers.put(partition, worker);
+                    }
+                    worker.submit(allRecords.records(partition));
+                    // stop fetching from the partition until the worker has caught up
+                    if (worker.getPending() >= maxPendingRecords && paused.add(partition)) {
+                        LOG.trace("Pausing partition {} with {} pending records", partition, worker.getPending());
+                        consumer.pause(Collections.singleton(partition));
+                    }
+                }
+
+                for (Iterator<TopicPartition> it = paused.iterator(); it.hasNext();) {
+                    TopicPartition partition = it.next();
+                    if (workers.get(partition).getPending() <= maxPendingRecords / 2) {
+                        LOG.trace("Resuming partition {}", partition);
+                        consumer.resume(Collections.singleton(partition));
+                        it.remove();
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                long count = processedCount.get();
+                if (count - lastCommitCount >= configuration.getCommitBatchSize() || now - lastCommitTime >= configuration.getCommitIntervalMs()) {
+                    commitOffsets(workers.values(), offsetRepository, "async");
+                    lastCommitTime = now;
+                    lastCommitCount = count;
+                }
+            }
+
+            // let the workers complete the records which are pending before committing the final offsets
+            for (PartitionWorker worker : workers.values()) {
+                worker.awaitIdle(false);
+            }
+            String commitOnStop = offsetRepository != null ? "sync" : configuration.getAutoCommitOnStop();
+            LOG.info("Commit {} on stop {} from topic {}", commitOnStop, threadId, topicName);
+            commitOffsets(workers.values(), offsetRepository, commitOnStop);
+            workers.clear();
+            paused.clear();
+        }
+
+        /**
+         * Commits the offsets of the records which have been processed since the last commit.
+         *
+         * @param mode <tt>sync</tt>, <tt>async</tt> or <tt>none</tt> to not commit
+         */
+        private void commitOffsets(Collection<PartitionWorker> partitionWorkers, StateRepository<String, String> offsetRepository, String mode) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            for (PartitionWorker worker : partitionWorkers) {
+                long completed = worker.getCompletedOffset();
+                if (completed > worker.committedOffset) {
+                    if (offsetRepository != null) {
+                        offsetRepository.setState(serializeOffsetKey(worker.partition), serializeOffsetValue(completed));
+                    } else {
+                        offsets.put(worker.partition, new OffsetAndMetadata(completed + 1));
+                    }
+                    worker.committedOffset = completed;
+                }
+            }
+            if (offsets.isEmpty()) {
+                return;
+            }
+
+            if ("async".equals(mode)) {
+                LOG.trace("CommitAsync {} from topic {} with offsets {}", threadId, topicName, offsets);
+                consumer.commitAsync(offsets, new OffsetCommitCallback() {
+                    @Override
+                    public void onComplete(Map<TopicPartition, OffsetAndMetadata> committed, Exception exception) {
+                        if (exception != null) {
+                            LOG.warn("Error committing offsets " + offsets + " from topic " + topicName + ". The offsets will be committed again.", exception);
+                            // the callback is invoked by the poll thread, so we can safely reset the committed offsets
+                            for (TopicPartition partition : offsets.keySet()) {
+                                PartitionWorker worker = workers.get(partition);
+                                if (worker != null) {
+                                    worker.committedOffset = -1;
+                                }
+                            }
+                        }
+                    }
+                });
+            } else if ("sync".equals(mode)) {
+                LOG.trace("CommitSync {} from topic {} with offsets {}", threadId, topicName, offsets);
+                consumer.commitSync(offsets);
+            }
+        }
+
+        /**
+         * Stops the workers of the partitions which are revoked, and commits the offsets of the records they have
+         * processed, so the consumer which is assigned the partitions continues after these records.
+         */
+        private final class PartitionWorkersRebalanceListener implements ConsumerRebalanceListener {
+            private final StateRepository<String, String> offsetRepository;
+
+            PartitionWorkersRebalanceListener(StateRepository<String, String> offsetRepository) {
+                this.offsetRepository = offsetRepository;
+            }
+
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                List<PartitionWorker> revoked = new ArrayList<>();
+                for (TopicPartition partition : partitions) {
+                    PartitionWorker worker = workers.remove(partition);
+                    if (worker != null) {
+                        // the pending records are discarded as they will be consumed again from the committed offset
+                        worker.awaitIdle(true);
+                        revoked.add(worker);
+                    }
+                    paused.remove(partition);
+                }
+                LOG.debug("Partitions {} revoked from {}", partitions, threadId);
+                commitOffsets(revoked, offsetRepository, "sync");
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                LOG.debug("Partitions {} assigned to {}", partitions, threadId);
+            }
+        }
+    }
+
+    /**
+     * Processes the records of a single partition, in order, using the partition worker pool.
+     * The worker is only scheduled on the pool while it has records to process, so a pool with
+     * fewer threads than partitions is shared fairly among the partitions.
+     */
+    private final class PartitionWorker implements Runnable {
+        // the maximum number of records to process before giving other partitions a chance to run
+        private static final int MAX_RECORDS_PER_RUN = 100;
+
+        private final TopicPartition partition;
+        private final AtomicLong processedCount;
+        private final Queue<ConsumerRecord<Object, Object>> records = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // signalled when the worker is no longer scheduled, so the poll thread can wait until the worker is idle
+        private final Lock lock = new ReentrantLock();
+        private final Condition idle = lock.newCondition();
+        private volatile long completedOffset = -1;
+        private volatile boolean revoked;
+        // only accessed by the poll thread
+        private long committedOffset = -1;
+
+        PartitionWorker(TopicPartition partition, AtomicLong processedCount) {
+            this.partition = partition;
+            this.processedCount = processedCount;
+        }
+
+        void submit(List<ConsumerRecord<Object, Object>> partitionRecords) {
+            records.addAll(partitionRecords);
+            pending.addAndGet(partitionRecords.size());
+            schedule();
+        }
+
+        int getPending() {
+            return pending.get();
+        }
+
+        long getCompletedOffset() {
+            return completedOffset;
+        }
+
+        @Override
+        public void run() {
+            try {
+                ConsumerRecord<Object, Object> record;
+                for (int i = 0; i < MAX_RECORDS_PER_RUN && !revoked && (record = records.poll()) != null; i++) {
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("partition = {}, offset = {}, key = {}, value = {}", record.partition(), record.offset(), record.key(), record.value());
+                    }
+                    Exchange exchange = endpoint.createKafkaExchange(record);
+                    try {
+                        processor.process(exchange);
+                    } catch (Exception e) {
+                        getExceptionHandler().handleException("Error during processing", exchange, e);
+                    }
+                    completedOffset = record.offset();
+                    pending.decrementAndGet();
+                    processedCount.incrementAndGet();
+                }
+            } finally {
+                scheduled.set(false);
+                // records may have been submitted while we were finishing
+                if (!revoked && !records.isEmpty()) {
+                    schedule();
+                }
+                signalIdle();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workerExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    LOG.warn("Partition worker pool rejected processing the records of partition {}", partition);
+                    signalIdle();
+                }
+            }
+        }
+
+        private void signalIdle() {
+            lock.lock();
+            try {
+                idle.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until the worker is no longer processing records.
+         *
+         * @param revoke whether to discard the pending records, or to wait until they are processed
+         */
+        void awaitIdle(boolean revoke) {
+            if (revoke) {
+                revoked = true;
+                records.clear();
+            }
+            lock.lock();
+            try {
+                while (scheduled.get() || (!revoked && !records.isEmpty() && workerExecutor != null && !workerExecutor.isShutdown())) {
+                    idle.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
     }
 
     protected String serializeOffsetKey(TopicPartition topicPartition) {
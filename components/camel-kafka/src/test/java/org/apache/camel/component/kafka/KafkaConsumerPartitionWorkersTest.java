@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.Properties;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaConsumerPartitionWorkersTest extends BaseEmbeddedKafkaTest {
+
+    public static final String TOPIC = "partitionWorkers";
+
+    @EndpointInject(uri = "kafka:" + TOPIC
+            + "?groupId=group1"
+            + "&autoOffsetReset=earliest"
+            + "&partitionWorkerPoolSize=4"
+            + "&commitBatchSize=3"
+            + "&commitIntervalMs=500"
+    )
+    private Endpoint from;
+
+    @EndpointInject(uri = "mock:result")
+    private MockEndpoint to;
+
+    private org.apache.kafka.clients.producer.KafkaProducer<String, String> producer;
+
+    @Before
+    public void before() {
+        Properties props = getDefaultProperties();
+        producer = new org.apache.kafka.clients.producer.KafkaProducer<String, String>(props);
+    }
+
+    @After
+    public void after() {
+        if (producer != null) {
+            producer.close();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(from).routeId("foo").to(to);
+            }
+        };
+    }
+
+    @Test
+    public void kafkaMessagesAreConsumedInOrderAndCommitted() throws Exception {
+        // the records of a partition are processed in order
+        to.expectedBodiesReceived("m1", "m2", "m3", "m4", "m5");
+        for (int k = 1; k <= 5; k++) {
+            producer.send(new ProducerRecord<String, String>(TOPIC, "1", "m" + k));
+        }
+        to.assertIsSatisfied();
+
+        to.reset();
+        // the processed records have been committed when the consumer stopped, so they are not consumed again
+        to.expectedBodiesReceived("m6", "m7");
+
+        context.stopRoute("foo");
+        context.startRoute("foo");
+
+        for (int k = 6; k <= 7; k++) {
+            producer.send(new ProducerRecord<String, String>(TOPIC, "1", "m" + k));
+        }
+
+        to.assertIsSatisfied();
+    }
+}
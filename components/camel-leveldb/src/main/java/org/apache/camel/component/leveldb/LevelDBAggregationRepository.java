@@ -20,11 +20,16 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+import org.apache.camel.processor.aggregate.IncrementalAggregationSupport;
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.spi.IncrementalAggregationRepository;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.IOHelper;
@@ -40,8 +45,12 @@ import static org.fusesource.leveldbjni.JniDBFactory.asString;
 
 /**
  * An instance of {@link org.apache.camel.spi.AggregationRepository} which is backed by a {@link LevelDBFile}.
+ * <p/>
+ * When {@link #setIncremental(boolean) incremental} is enabled, then each incoming exchange is appended as its own
+ * record keyed by the correlation key and a sequence number, instead of writing the aggregated exchange as a whole,
+ * and the records are only replayed using the aggregation strategy when needed (such as after a restart).
  */
-public class LevelDBAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository {
+public class LevelDBAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository, IncrementalAggregationRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(LevelDBAggregationRepository.class);
     private LevelDBFile levelDBFile;
@@ -55,6 +64,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
     private int maximumRedeliveries;
     private String deadLetterUri;
     private boolean allowSerializedHeaders;
+    private boolean incremental;
+    private int incrementalCacheSize = 1000;
+    private IncrementalAggregationSupport incrementalSupport;
 
     /**
      * Creates an aggregation repository
@@ -101,6 +113,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
     public Exchange add(final CamelContext camelContext, final String key, final Exchange exchange) {
         LOG.debug("Adding key [{}] -> {}", key, exchange);
+        if (isIncremental()) {
+            return addSnapshot(camelContext, key, exchange);
+        }
         try {
             byte[] lDbKey = keyBuilder(repositoryName, key);
             final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
@@ -129,9 +144,66 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return null;
     }
 
+    public void append(final CamelContext camelContext, final String key, final Exchange newExchange, final Exchange aggregatedExchange) {
+        final long sequence = IncrementalAggregationSupport.getSequence(aggregatedExchange);
+        LOG.debug("Appending key [{}] with sequence {} -> {}", new Object[]{key, sequence, newExchange});
+
+        try {
+            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, newExchange, allowSerializedHeaders);
+
+            WriteBatch batch = levelDBFile.getDb().createWriteBatch();
+            try {
+                batch.put(recordKeyBuilder(key, sequence), exchangeBuffer.toByteArray());
+                // the key index holds the sequence of the last record of the group
+                batch.put(keyBuilder(repositoryName, key), sequenceBytes(sequence));
+                levelDBFile.getDb().write(batch, levelDBFile.getWriteOptions());
+            } finally {
+                batch.close();
+            }
+        } catch (IOException e) {
+            incrementalSupport.evict(key);
+            throw new RuntimeException("Error appending to repository " + repositoryName + " with key " + key, e);
+        }
+
+        incrementalSupport.cache(key, aggregatedExchange, sequence);
+    }
+
+    private Exchange addSnapshot(final CamelContext camelContext, final String key, final Exchange exchange) {
+        try {
+            Exchange answer = null;
+            if (isReturnOldExchange()) {
+                answer = getIncremental(camelContext, key);
+            }
+
+            incrementalSupport.evict(key);
+            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+
+            WriteBatch batch = levelDBFile.getDb().createWriteBatch();
+            try {
+                deleteRecords(batch, key);
+                batch.put(recordKeyBuilder(key, IncrementalAggregationSupport.SNAPSHOT_SEQUENCE), exchangeBuffer.toByteArray());
+                batch.put(keyBuilder(repositoryName, key), sequenceBytes(IncrementalAggregationSupport.SNAPSHOT_SEQUENCE));
+                levelDBFile.getDb().write(batch, levelDBFile.getWriteOptions());
+            } finally {
+                batch.close();
+            }
+
+            incrementalSupport.cache(key, exchange, IncrementalAggregationSupport.SNAPSHOT_SEQUENCE);
+            return answer;
+        } catch (IOException e) {
+            throw new RuntimeException("Error adding to repository " + repositoryName + " with key " + key, e);
+        }
+    }
+
     public Exchange get(final CamelContext camelContext, final String key) {
         Exchange answer = null;
 
+        if (isIncremental()) {
+            answer = getIncremental(camelContext, key);
+            LOG.debug("Getting key  [{}] -> {}", key, answer);
+            return answer;
+        }
+
         try {
             byte[] lDbKey = keyBuilder(repositoryName, key);
             LOG.trace("Getting key index {}", key);
@@ -148,6 +220,60 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return answer;
     }
 
+    private Exchange getIncremental(final CamelContext camelContext, final String key) {
+        byte[] rc = levelDBFile.getDb().get(keyBuilder(repositoryName, key));
+        if (rc == null) {
+            incrementalSupport.evict(key);
+            return null;
+        }
+
+        long last = Long.parseLong(asString(rc));
+        Exchange answer = incrementalSupport.take(key, last);
+        if (answer != null) {
+            return answer;
+        }
+
+        // not cached or out of date so replay the records of the group
+        LOG.debug("Replaying records of key [{}] up to sequence {}", key, last);
+        DBIterator it = levelDBFile.getDb().iterator();
+        try {
+            String prefix = getRepositoryNameRecords() + '\0' + key + '\0';
+            for (it.seek(keyBuilder(getRepositoryNameRecords(), key + '\0')); it.hasNext(); it.next()) {
+                Map.Entry<byte[], byte[]> entry = it.peekNext();
+                String keyBuffer = asString(entry.getKey());
+                if (!keyBuffer.startsWith(prefix)) {
+                    break;
+                }
+                long sequence = Long.parseLong(keyBuffer.substring(prefix.length()));
+                Exchange stored = codec.unmarshallExchange(camelContext, new Buffer(entry.getValue()));
+                answer = incrementalSupport.replay(answer, stored, sequence);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error getting key " + key + " from repository " + repositoryName, e);
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+        return answer;
+    }
+
+    private void deleteRecords(WriteBatch batch, String key) {
+        DBIterator it = levelDBFile.getDb().iterator();
+        try {
+            String prefix = getRepositoryNameRecords() + '\0' + key + '\0';
+            for (it.seek(keyBuilder(getRepositoryNameRecords(), key + '\0')); it.hasNext(); it.next()) {
+                byte[] recordKey = it.peekNext().getKey();
+                if (!asString(recordKey).startsWith(prefix)) {
+                    break;
+                }
+                batch.delete(recordKey);
+            }
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+    }
+
     public void remove(final CamelContext camelContext, final String key, final Exchange exchange) {
         LOG.debug("Removing key [{}]", key);
 
@@ -164,6 +290,10 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
                 try {
                     batch.delete(lDbKey);
                     LOG.trace("Removed key index {} -> {}", key, new Buffer(rc));
+                    if (isIncremental()) {
+                        incrementalSupport.evict(key);
+                        deleteRecords(batch, key);
+                    }
 
                     // add exchange to confirmed index
                     byte[] confirmedLDBKey = keyBuilder(getRepositoryNameCompleted(), exchangeId);
@@ -326,6 +456,10 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return repositoryName + "-completed";
     }
 
+    private String getRepositoryNameRecords() {
+        return repositoryName + "-records";
+    }
+
     public void setRepositoryName(String repositoryName) {
         this.repositoryName = repositoryName;
     }
@@ -398,6 +532,53 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return codec.getExchangeCodec();
+    }
+
+    /**
+     * Sets the codec to use for encoding the exchanges, such as {@link org.apache.camel.impl.BinaryExchangeCodec}
+     * which is faster and more compact than the Java serialization used by default. The codec must not be changed
+     * for an existing persistent store with exchanges.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        codec.setExchangeCodec(exchangeCodec);
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Whether to append each incoming exchange as its own record keyed by the correlation key and a sequence number,
+     * instead of writing the aggregated exchange as a whole. The records are replayed using the aggregation strategy
+     * of the aggregator when the aggregated exchange is not cached (such as after a restart), and therefore the
+     * repository must not be shared between aggregators. This option is by default false, and cannot be changed
+     * for an existing persistent store with exchanges not completed.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public int getIncrementalCacheSize() {
+        return incrementalCacheSize;
+    }
+
+    /**
+     * The maximum number of aggregated exchanges to cache in incremental mode, to avoid replaying the records
+     * of the group. By default 1000.
+     */
+    public void setIncrementalCacheSize(int incrementalCacheSize) {
+        this.incrementalCacheSize = incrementalCacheSize;
+    }
+
+    public void setAggregationStrategy(AggregationStrategy aggregationStrategy) {
+        if (incrementalSupport == null) {
+            incrementalSupport = new IncrementalAggregationSupport(incrementalCacheSize);
+        }
+        incrementalSupport.setAggregationStrategy(aggregationStrategy);
+    }
+
     @Override
     protected void doStart() throws Exception {
         // either we have a LevelDB configured or we use a provided fileName
@@ -412,6 +593,11 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
         ServiceHelper.startService(levelDBFile);
 
+        if (incremental && incrementalSupport == null) {
+            // the aggregation strategy is set by the aggregator
+            incrementalSupport = new IncrementalAggregationSupport(incrementalCacheSize);
+        }
+
         // log number of existing exchanges
         int current = size(getRepositoryName());
         int completed = size(getRepositoryNameCompleted());
@@ -430,6 +616,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
     @Override
     protected void doStop() throws Exception {
+        if (incrementalSupport != null) {
+            incrementalSupport.clear();
+        }
         ServiceHelper.stopService(levelDBFile);
     }
 
@@ -441,4 +630,17 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         }
     }
 
+    private byte[] recordKeyBuilder(String key, long sequence) {
+        // zero padded so the records of the group are sorted by sequence
+        return keyBuilder(getRepositoryNameRecords(), key + '\0' + String.format("%019d", sequence));
+    }
+
+    private static byte[] sequenceBytes(long sequence) {
+        try {
+            return Long.toString(sequence).getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
@@ -16,18 +16,25 @@
  */
 package org.apache.camel.component.leveldb;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.impl.SerializationExchangeCodec;
+import org.apache.camel.spi.ExchangeCodec;
 import org.fusesource.hawtbuf.Buffer;
 import org.fusesource.hawtbuf.DataByteArrayInputStream;
 import org.fusesource.hawtbuf.DataByteArrayOutputStream;
 import org.fusesource.hawtbuf.codec.Codec;
-import org.fusesource.hawtbuf.codec.ObjectCodec;
 import org.fusesource.hawtbuf.codec.StringCodec;
 
 /**
@@ -36,7 +43,18 @@ import org.fusesource.hawtbuf.codec.StringCodec;
 public final class LevelDBCamelCodec {
 
     private Codec<String> keyCodec = new StringCodec();
-    private Codec<DefaultExchangeHolder> exchangeCodec = new ObjectCodec<DefaultExchangeHolder>();
+    private ExchangeCodec exchangeCodec = new LengthPrefixedSerializationExchangeCodec();
+
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the {@link ExchangeCodec} to use for encoding the exchanges, which by default is Java serialization.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec != null ? exchangeCodec : new LengthPrefixedSerializationExchangeCodec();
+    }
 
     public Buffer marshallKey(String key) throws IOException {
         DataByteArrayOutputStream baos = new DataByteArrayOutputStream();
@@ -73,7 +91,12 @@ public final class LevelDBCamelCodec {
 
     public Exchange unmarshallExchange(CamelContext camelContext, Buffer buffer) throws IOException {
         DataByteArrayInputStream bais = new DataByteArrayInputStream(buffer);
-        DefaultExchangeHolder pe = exchangeCodec.decode(bais);
+        DefaultExchangeHolder pe;
+        try {
+            pe = exchangeCodec.decode(camelContext, bais);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Error decoding exchange", e);
+        }
         Exchange answer = new DefaultExchange(camelContext);
         DefaultExchangeHolder.unmarshal(answer, pe);
         // restore the from endpoint
@@ -87,4 +110,29 @@ public final class LevelDBCamelCodec {
         return answer;
     }
 
+    /**
+     * Java serialization prefixed with the length of the data, which is the format the exchanges
+     * have been stored in using the hawtbuf object codec.
+     */
+    private static final class LengthPrefixedSerializationExchangeCodec extends SerializationExchangeCodec {
+
+        @Override
+        public void encode(DefaultExchangeHolder holder, OutputStream out) throws IOException {
+            ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+            super.encode(holder, bytesOut);
+            DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeInt(bytesOut.size());
+            bytesOut.writeTo(dataOut);
+            dataOut.flush();
+        }
+
+        @Override
+        public DefaultExchangeHolder decode(CamelContext camelContext, InputStream in) throws IOException, ClassNotFoundException {
+            DataInputStream dataIn = new DataInputStream(in);
+            byte[] data = new byte[dataIn.readInt()];
+            dataIn.readFully(data);
+            return super.decode(camelContext, new ByteArrayInputStream(data));
+        }
+    }
+
 }
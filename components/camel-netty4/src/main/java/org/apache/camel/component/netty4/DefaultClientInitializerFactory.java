@@ -81,8 +81,8 @@ public class DefaultClientInitializerFactory extends ClientInitializerFactory  {
             addToPipeline("encoder-" + x, channelPipeline, encoder);
         }
 
-        // do we use request timeout?
-        if (producer.getConfiguration().getRequestTimeout() > 0) {
+        // do we use request timeout? (not when using a correlation manager as the channel is shared by many requests)
+        if (producer.getConfiguration().getRequestTimeout() > 0 && producer.getConfiguration().getCorrelationManager() == null) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Using request timeout {} millis", producer.getConfiguration().getRequestTimeout());
             }
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * To manage and correlate the {@link NettyCamelState} of the exchanges which the {@link NettyProducer}
+ * is sending, with the replies received by the {@link org.apache.camel.component.netty4.handlers.ClientChannelHandler}.
+ * <p/>
+ * The default implementation keeps one state per {@link Channel}, which means a channel can only be used by
+ * one exchange at any time, and the channel is not returned to the producer pool before the reply has been received.
+ * <p/>
+ * A custom implementation which correlates the replies with the requests, such as by a request id which is
+ * part of the messages, allows many exchanges to share the same channel at the same time (multiplexing).
+ * When a custom correlation manager is configured, the producer returns the channel to the pool as soon as the
+ * request has been written, and the correlation manager is responsible for timing out requests which does not
+ * receive a reply. See {@link TimeoutCorrelationManagerSupport} which can be used as base class.
+ * <p/>
+ * If the correlation manager is a {@link org.apache.camel.Service} then the producer will start and stop it.
+ */
+public interface NettyCamelStateCorrelationManager {
+
+    /**
+     * Puts the state for the exchange which is about to be sent on the channel.
+     *
+     * @param channel the channel
+     * @param state   the state
+     */
+    void putState(Channel channel, NettyCamelState state);
+
+    /**
+     * Removes the state(s) of the channel, as the channel has been closed.
+     *
+     * @param ctx     the channel handler context, may be <tt>null</tt>
+     * @param channel the channel
+     */
+    void removeState(ChannelHandlerContext ctx, Channel channel);
+
+    /**
+     * Gets the state for the received message.
+     *
+     * @param ctx     the channel handler context, may be <tt>null</tt>
+     * @param channel the channel
+     * @param msg     the received message, is <tt>null</tt> when the channel has been closed
+     * @return the state, or <tt>null</tt> if no state could be correlated to the message
+     */
+    NettyCamelState getState(ChannelHandlerContext ctx, Channel channel, Object msg);
+
+    /**
+     * Gets the state for the exception which was thrown from Netty.
+     *
+     * @param ctx     the channel handler context, may be <tt>null</tt>
+     * @param channel the channel
+     * @param cause   the exception
+     * @return the state, or <tt>null</tt> if no state could be correlated to the exception
+     */
+    NettyCamelState getState(ChannelHandlerContext ctx, Channel channel, Throwable cause);
+
+}
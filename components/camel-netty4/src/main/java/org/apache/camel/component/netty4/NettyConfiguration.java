@@ -107,9 +107,13 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
     @UriParam(label = "producer,advanced")
     private boolean useByteBuf;
     @UriParam(label = "advanced")
+    private boolean zeroCopy;
+    @UriParam(label = "advanced")
     private boolean udpByteArrayCodec;
     @UriParam(label = "producer")
     private boolean reuseChannel;
+    @UriParam(label = "producer,advanced")
+    private NettyCamelStateCorrelationManager correlationManager;
 
     /**
      * Returns a copy of this configuration
@@ -191,6 +195,7 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
         // clientPipelineFactory is @deprecated and to be removed
         clientInitializerFactory = component.getAndRemoveOrResolveReferenceParameter(parameters, "clientPipelineFactory", ClientInitializerFactory.class, clientInitializerFactory);
         clientInitializerFactory = component.getAndRemoveOrResolveReferenceParameter(parameters, "clientInitializerFactory", ClientInitializerFactory.class, clientInitializerFactory);
+        correlationManager = component.getAndRemoveOrResolveReferenceParameter(parameters, "correlationManager", NettyCamelStateCorrelationManager.class, correlationManager);
         // serverPipelineFactory is @deprecated and to be removed
         serverInitializerFactory = component.getAndRemoveOrResolveReferenceParameter(parameters, "serverPipelineFactory", ServerInitializerFactory.class, serverInitializerFactory);
         serverInitializerFactory = component.getAndRemoveOrResolveReferenceParameter(parameters, "serverInitializerFactory", ServerInitializerFactory.class, serverInitializerFactory);
@@ -627,6 +632,21 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
         this.useByteBuf = useByteBuf;
     }
 
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    /**
+     * If the zeroCopy is true, the received {@link ByteBuf} messages are used as the message body as-is, without copying
+     * the data into a byte array, and are released when the {@link Exchange} is done. Such a body is sent out again
+     * by the netty consumer (reply) and the netty producer (request) without copying as well, which allows to proxy
+     * between netty endpoints without copying the data. Use this together with <tt>allowDefaultCodec=false</tt> or
+     * custom decoders which outputs {@link ByteBuf}, as the default codecs decodes into objects or strings.
+     */
+    public void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
+
     public boolean isUdpByteArrayCodec() {
         return udpByteArrayCodec;
     }
@@ -655,6 +675,24 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
         this.reuseChannel = reuseChannel;
     }
 
+    public NettyCamelStateCorrelationManager getCorrelationManager() {
+        return correlationManager;
+    }
+
+    /**
+     * To use a custom correlation manager to manage how request and reply messages are mapped when using request/reply with the netty producer.
+     * This should only be used if you have a way to map requests together with replies such as if there is correlation ids in both the request
+     * and reply messages. This can be used if you want to multiplex concurrent messages on the same channel (aka connection) in netty. When doing
+     * this you must have a way to correlate the request and reply messages so you can store the right reply on the inflight Camel Exchange before
+     * its continued routed.
+     * <p/>
+     * We recommend extending the {@link TimeoutCorrelationManagerSupport} when you build custom correlation managers.
+     * This provides support for timeout and other complexities you otherwise would need to implement as well.
+     */
+    public void setCorrelationManager(NettyCamelStateCorrelationManager correlationManager) {
+        this.correlationManager = correlationManager;
+    }
+
     private static <T> void addToHandlersList(List<T> configured, List<T> handlers, Class<T> handlerType) {
         if (handlers != null) {
             for (T handler : handlers) {
@@ -21,6 +21,8 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXSource;
@@ -32,9 +34,11 @@ import org.w3c.dom.Document;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.util.CharsetUtil;
 
 import org.apache.camel.Converter;
 import org.apache.camel.Exchange;
+import org.apache.camel.util.IOHelper;
 
 /**
  * A set of converter methods for working with Netty types
@@ -50,7 +54,9 @@ public final class NettyConverter {
 
     @Converter
     public static byte[] toByteArray(ByteBuf buffer, Exchange exchange) {
-        if (buffer.hasArray()) {
+        // only use the backing array as-is if it holds exactly the readable bytes
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.readerIndex() == 0
+                && buffer.readableBytes() == buffer.array().length) {
             return buffer.array();
         }
         byte[] bytes = new byte[buffer.readableBytes()];
@@ -66,17 +72,28 @@ public final class NettyConverter {
 
     @Converter
     public static String toString(ByteBuf buffer, Exchange exchange) throws UnsupportedEncodingException {
-        byte[] bytes = toByteArray(buffer, exchange);
-        // use type converter as it can handle encoding set on the Exchange
-        if (exchange != null) {
-            return exchange.getContext().getTypeConverter().convertTo(String.class, exchange, bytes);
-        }
-        return new String(bytes, "UTF-8");
+        // decode directly from the buffer (also direct buffers) using the encoding set on the Exchange
+        Charset charset = exchange != null ? Charset.forName(IOHelper.getCharsetName(exchange)) : CharsetUtil.UTF_8;
+        return buffer.toString(charset);
+    }
+
+    /**
+     * Gets a read-only view of the readable bytes of the buffer, which shares the content with the buffer
+     * (only a composite buffer may need copying), so the buffer must not be released while the view is in use.
+     */
+    @Converter
+    public static ByteBuffer toNioByteBuffer(ByteBuf buffer, Exchange exchange) {
+        return buffer.nioBuffer().asReadOnlyBuffer();
     }
 
+    /**
+     * Gets a stream reading from the buffer without changing the reader index of the buffer, so the buffer
+     * can be read again, which shares the content with the buffer so the buffer must not be released while
+     * the stream is in use.
+     */
     @Converter
     public static InputStream toInputStream(ByteBuf buffer, Exchange exchange) {
-        return new ByteBufInputStream(buffer);
+        return new ByteBufInputStream(buffer.duplicate());
     }
 
     @Converter
@@ -18,14 +18,20 @@ package org.apache.camel.component.netty4;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.AddressedEnvelope;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.DefaultAddressedEnvelope;
+import io.netty.util.ReferenceCounted;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.NoTypeConversionAvailableException;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,6 +116,72 @@ public final class NettyHelper {
         }
     }
 
+    /**
+     * Retains the given message received from Netty and releases it again when the exchange is done,
+     * which allows to use a pooled {@link ByteBuf} as the message body without copying it (zero copy).
+     *
+     * @param exchange the exchange
+     * @param msg      the received message
+     */
+    public static void retainUntilDone(Exchange exchange, Object msg) {
+        final Object content = msg instanceof AddressedEnvelope ? ((AddressedEnvelope<?, ?>) msg).content() : msg;
+        if (!(content instanceof ReferenceCounted)) {
+            return;
+        }
+
+        ((ReferenceCounted) content).retain();
+        getRetainedMessages(exchange, true).add(content);
+        exchange.addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                ReferenceCounted counted = (ReferenceCounted) content;
+                if (counted.refCnt() > 0) {
+                    LOG.trace("Releasing message: {} as the exchange is done", counted);
+                    counted.release();
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "ReleaseOnDone[" + content + "]";
+            }
+        });
+    }
+
+    /**
+     * Gets the body to write to Netty, when the body may be a message retained by {@link #retainUntilDone(Exchange, Object)}.
+     * <p/>
+     * Netty releases the body when it has been written, so such a {@link ByteBuf} is written as a retained duplicate
+     * which shares the content, and the body itself is released when the exchange is done.
+     *
+     * @param exchange the exchange
+     * @param body     the body
+     * @return the body to write
+     */
+    public static Object getZeroCopyBody(Exchange exchange, Object body) {
+        if (body instanceof ByteBuf) {
+            List<Object> retained = getRetainedMessages(exchange, false);
+            if (retained != null) {
+                for (Object msg : retained) {
+                    if (msg == body) {
+                        return ((ByteBuf) body).retainedDuplicate();
+                    }
+                }
+            }
+        }
+        return body;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> getRetainedMessages(Exchange exchange, boolean create) {
+        List<Object> answer = exchange.getProperty(NettyConstants.NETTY_RETAINED_MESSAGES, List.class);
+        if (answer == null && create) {
+            answer = new CopyOnWriteArrayList<Object>();
+            exchange.setProperty(NettyConstants.NETTY_RETAINED_MESSAGES, answer);
+        }
+        return answer;
+    }
+
     /**
      * Closes the given channel asynchronously
      *
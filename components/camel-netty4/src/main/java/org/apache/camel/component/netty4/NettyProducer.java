@@ -18,8 +18,6 @@ package org.apache.camel.component.netty4;
 
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -42,6 +40,7 @@ import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultAsyncProducer;
@@ -49,6 +48,7 @@ import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.util.CamelLogger;
 import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ServiceHelper;
 import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
 import org.apache.commons.pool.impl.GenericObjectPool;
@@ -64,7 +64,7 @@ public class NettyProducer extends DefaultAsyncProducer {
     private CamelLogger noReplyLogger;
     private EventLoopGroup workerGroup;
     private ObjectPool<ChannelFuture> pool;
-    private Map<Channel, NettyCamelState> nettyCamelStatesMap = new ConcurrentHashMap<Channel, NettyCamelState>();
+    private NettyCamelStateCorrelationManager correlationManager;
 
     public NettyProducer(NettyEndpoint nettyEndpoint, NettyConfiguration configuration) {
         super(nettyEndpoint);
@@ -91,9 +91,35 @@ public class NettyProducer extends DefaultAsyncProducer {
         return configuration.getProtocol().equalsIgnoreCase("tcp");
     }
 
+    public NettyCamelStateCorrelationManager getCorrelationManager() {
+        return correlationManager;
+    }
+
+    /**
+     * Whether a custom {@link NettyCamelStateCorrelationManager} is configured, which allows
+     * many concurrent requests to share the same channel (multiplexing).
+     */
+    public boolean isMultiplexing() {
+        return configuration.getCorrelationManager() != null;
+    }
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
+        if (isMultiplexing() && configuration.isDisconnect()) {
+            throw new IllegalArgumentException("The disconnect option cannot be enabled when using a correlationManager,"
+                + " as the channel is shared by concurrent requests");
+        }
+        if (configuration.getCorrelationManager() != null) {
+            correlationManager = configuration.getCorrelationManager();
+        } else {
+            correlationManager = new DefaultNettyCamelStateCorrelationManager();
+        }
+        if (correlationManager instanceof CamelContextAware) {
+            ((CamelContextAware) correlationManager).setCamelContext(getContext());
+        }
+        ServiceHelper.startService(correlationManager);
+
         if (configuration.getWorkerGroup() == null) {
             // create new pool which we should shutdown when stopping as its not shared
             workerGroup = new NettyWorkerPoolBuilder()
@@ -174,6 +200,8 @@ public class NettyProducer extends DefaultAsyncProducer {
             pool = null;
         }
 
+        ServiceHelper.stopService(correlationManager);
+
         super.doStop();
     }
 
@@ -278,40 +306,60 @@ public class NettyProducer extends DefaultAsyncProducer {
             });
         }
 
-        if (exchange.getIn().getHeader(NettyConstants.NETTY_REQUEST_TIMEOUT) != null) {
-            long timeoutInMs = exchange.getIn().getHeader(NettyConstants.NETTY_REQUEST_TIMEOUT, Long.class);
-            ChannelHandler oldHandler = channel.pipeline().get("timeout");
-            ReadTimeoutHandler newHandler = new ReadTimeoutHandler(timeoutInMs, TimeUnit.MILLISECONDS);
-            if (oldHandler == null) {
-                channel.pipeline().addBefore("handler", "timeout", newHandler);
-            } else {
-                channel.pipeline().replace(oldHandler, "timeout", newHandler);
-            }
-        }
-
         //This will refer to original callback since netty will release body by itself
         final AsyncCallback producerCallback;
+        InetSocketAddress remoteAddress = null;
+        try {
+            // the correlation manager handles the request timeout when multiplexing as the channel is shared
+            if (!isMultiplexing() && exchange.getIn().getHeader(NettyConstants.NETTY_REQUEST_TIMEOUT) != null) {
+                long timeoutInMs = exchange.getIn().getHeader(NettyConstants.NETTY_REQUEST_TIMEOUT, Long.class);
+                ChannelHandler oldHandler = channel.pipeline().get("timeout");
+                ReadTimeoutHandler newHandler = new ReadTimeoutHandler(timeoutInMs, TimeUnit.MILLISECONDS);
+                if (oldHandler == null) {
+                    channel.pipeline().addBefore("handler", "timeout", newHandler);
+                } else {
+                    channel.pipeline().replace(oldHandler, "timeout", newHandler);
+                }
+            }
 
-        if (configuration.isReuseChannel()) {
-            // use callback as-is because we should not put it back in the pool as NettyProducerCallback would do
-            // as when reuse channel is enabled it will put the channel back in the pool when exchange is done using on completion
-            producerCallback = callback.getOriginalCallback();
-        } else {
-            producerCallback = new NettyProducerCallback(channelFuture, callback.getOriginalCallback());
-        }
+            if (configuration.isReuseChannel()) {
+                // use callback as-is because we should not put it back in the pool as NettyProducerCallback would do
+                // as when reuse channel is enabled it will put the channel back in the pool when exchange is done using on completion
+                producerCallback = callback.getOriginalCallback();
+            } else if (isMultiplexing()) {
+                // use callback as-is because the channel is put back in the pool as soon as the request has been written,
+                // so other requests can be sent on the same channel while waiting for the reply
+                producerCallback = callback.getOriginalCallback();
+            } else {
+                producerCallback = new NettyProducerCallback(channelFuture, callback.getOriginalCallback());
+            }
 
-        // setup state as attachment on the channel, so we can access the state later when needed
-        putState(channel, new NettyCamelState(producerCallback, exchange));
-        // here we need to setup the remote address information here
-        InetSocketAddress remoteAddress = null;
-        if (!isTcp()) {
-            remoteAddress = new InetSocketAddress(configuration.getHost(), configuration.getPort()); 
+            // setup state as attachment on the channel, so we can access the state later when needed
+            // (when multiplexing there is no reply to correlate unless in sync mode)
+            if (!isMultiplexing() || configuration.isSync()) {
+                correlationManager.putState(channel, new NettyCamelState(producerCallback, exchange));
+            }
+            // here we need to setup the remote address information here
+            if (!isTcp()) {
+                remoteAddress = new InetSocketAddress(configuration.getHost(), configuration.getPort()); 
+            }
+        } catch (Throwable e) {
+            if (!configuration.isReuseChannel()) {
+                // the channel is only put back in the pool when the request has been written, or the reply received,
+                // so put it back now as the request will not be written
+                releaseChannel(channelFuture);
+            }
+            throw e;
         }
 
         // write body
         NettyHelper.writeBodyAsync(LOG, channel, remoteAddress, body, exchange, new ChannelFutureListener() {
             public void operationComplete(ChannelFuture channelFuture) throws Exception {
                 LOG.trace("Operation complete {}", channelFuture);
+                if (isMultiplexing() && !configuration.isReuseChannel()) {
+                    // the request has been written so the channel can be used by other requests
+                    releaseChannel(channelFuture);
+                }
                 if (!channelFuture.isSuccess()) {
                     // no success then exit, (any exception has been handled by ClientChannelHandler#exceptionCaught)
                     return;
@@ -334,8 +382,8 @@ public class NettyProducer extends DefaultAsyncProducer {
                             disconnect = close;
                         }
 
-                        // we should not close if we are reusing the channel
-                        if (!configuration.isReuseChannel() && disconnect) {
+                        // we should not close if we are reusing the channel, or if the channel is shared by other requests
+                        if (!configuration.isReuseChannel() && !isMultiplexing() && disconnect) {
                             if (LOG.isTraceEnabled()) {
                                 LOG.trace("Closing channel when complete at address: {}", getEndpoint().getConfiguration().getAddress());
                             }
@@ -364,6 +412,10 @@ public class NettyProducer extends DefaultAsyncProducer {
             return null;
         }
 
+        if (getConfiguration().isZeroCopy()) {
+            body = NettyHelper.getZeroCopyBody(exchange, body);
+        }
+
         // if textline enabled then covert to a String which must be used for textline
         if (getConfiguration().isTextline()) {
             body = NettyHelper.getTextlineBody(body, exchange, getConfiguration().getDelimiter(), getConfiguration().isAutoAppendDelimiter());
@@ -374,24 +426,33 @@ public class NettyProducer extends DefaultAsyncProducer {
 
     /**
      * To get the {@link NettyCamelState} from the given channel.
+     *
+     * @deprecated use {@link #getCorrelationManager()}
      */
+    @Deprecated
     public NettyCamelState getState(Channel channel) {
-        return nettyCamelStatesMap.get(channel);
+        return correlationManager.getState(null, channel, (Object) null);
     }
 
     /**
      * To remove the {@link NettyCamelState} stored on the channel,
      * when no longer needed
+     *
+     * @deprecated use {@link #getCorrelationManager()}
      */
+    @Deprecated
     public void removeState(Channel channel) {
-        nettyCamelStatesMap.remove(channel);
+        correlationManager.removeState(null, channel);
     }
 
     /**
      * Put the {@link NettyCamelState} into the map use the given channel as the key
+     *
+     * @deprecated use {@link #getCorrelationManager()}
      */
+    @Deprecated
     public void putState(Channel channel, NettyCamelState state) {
-        nettyCamelStatesMap.put(channel, state);
+        correlationManager.putState(channel, state);
     }
 
     protected EventLoopGroup getWorkerGroup() {
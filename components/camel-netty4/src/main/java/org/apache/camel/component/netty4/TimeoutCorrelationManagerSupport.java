@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.ExchangeHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.ServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A base class for a {@link NettyCamelStateCorrelationManager} which correlates the replies to the requests
+ * by a correlation id which is part of the messages, which allows many exchanges to share the same channel
+ * at the same time (multiplexing).
+ * <p/>
+ * The requests which has not received a reply within the timeout are failed with an {@link ExchangeTimedOutException},
+ * unless {@link #getTimeoutResponse(String, Object)} returns a response to use instead. The timeout can be set per
+ * message using the {@link NettyConstants#NETTY_REQUEST_TIMEOUT} header. The <tt>requestTimeout</tt> option of the
+ * producer is not in use when using a correlation manager.
+ * <p/>
+ * The requests which are pending on a channel which is closed are failed as well. A request with the same correlation id
+ * as a request which is still waiting for its reply is failed with an {@link IllegalStateException} without being sent.
+ */
+public abstract class TimeoutCorrelationManagerSupport extends ServiceSupport implements NettyCamelStateCorrelationManager, CamelContextAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimeoutCorrelationManagerSupport.class);
+
+    private final ConcurrentMap<Channel, Set<String>> channelCorrelationIds = new ConcurrentHashMap<Channel, Set<String>>();
+    private CamelContext camelContext;
+    private ScheduledExecutorService scheduledExecutorService;
+    private ReplyTimeoutMap map;
+    private long timeout = 30000;
+    private long timeoutChecker = 1000;
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the default timeout in millis for waiting for a reply.
+     * <p/>
+     * The default value is 30000 millis (30 seconds).
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getTimeoutChecker() {
+        return timeoutChecker;
+    }
+
+    /**
+     * Sets the interval in millis for checking for requests which has timed out.
+     * <p/>
+     * The default value is 1000 millis (1 second).
+     */
+    public void setTimeoutChecker(long timeoutChecker) {
+        this.timeoutChecker = timeoutChecker;
+    }
+
+    /**
+     * Gets the correlation id from the request message which is about to be sent.
+     *
+     * @param request the request message
+     * @return the correlation id, must not be <tt>null</tt>
+     */
+    public abstract String getRequestCorrelationId(Object request);
+
+    /**
+     * Gets the correlation id from the received reply message.
+     *
+     * @param response the reply message
+     * @return the correlation id, or <tt>null</tt> if the message is not a reply
+     */
+    public abstract String getResponseCorrelationId(Object response);
+
+    /**
+     * Gets the response to use when no reply was received within the timeout.
+     * <p/>
+     * By default <tt>null</tt> is returned, which fails the exchange with an {@link ExchangeTimedOutException}.
+     *
+     * @param correlationId the correlation id
+     * @param request       the request message
+     * @return the response to use, or <tt>null</tt> to fail the exchange
+     */
+    public Object getTimeoutResponse(String correlationId, Object request) {
+        return null;
+    }
+
+    @Override
+    public void putState(Channel channel, NettyCamelState state) {
+        Exchange exchange = state.getExchange();
+        String correlationId = getRequestCorrelationId(exchange.getIn().getBody());
+        if (correlationId == null) {
+            throw new IllegalArgumentException("No correlation id for the request on exchange: " + exchange);
+        }
+        long requestTimeout = exchange.getIn().getHeader(NettyConstants.NETTY_REQUEST_TIMEOUT, timeout, Long.class);
+
+        Set<String> ids = channelCorrelationIds.get(channel);
+        if (ids == null) {
+            Set<String> newIds = ConcurrentHashMap.newKeySet();
+            ids = channelCorrelationIds.putIfAbsent(channel, newIds);
+            if (ids == null) {
+                ids = newIds;
+            }
+        }
+        ids.add(correlationId);
+
+        LOG.trace("Waiting for reply with correlation id: {} on channel: {}", correlationId, channel);
+        PendingReply existing = map.putIfAbsent(correlationId, new PendingReply(channel, state, requestTimeout), requestTimeout);
+        if (existing != null) {
+            // the reply could not be correlated to either request, so fail the new request and keep the pending one
+            throw new IllegalStateException("A request with correlation id: " + correlationId
+                + " is already waiting for its reply on channel: " + existing.channel + " for exchange: " + exchange);
+        }
+    }
+
+    @Override
+    public void removeState(ChannelHandlerContext ctx, Channel channel) {
+        Set<String> ids = channelCorrelationIds.remove(channel);
+        if (ids == null) {
+            return;
+        }
+        // the channel is closed so the pending requests will not receive a reply
+        for (String correlationId : ids) {
+            PendingReply pending = map.remove(correlationId);
+            if (pending != null && pending.complete()) {
+                Exchange exchange = pending.state.getExchange();
+                if (exchange.getException() == null) {
+                    exchange.setException(new CamelExchangeException("Channel was closed before a response was received from remote server: "
+                            + channel.remoteAddress(), exchange));
+                }
+                pending.state.getCallback().done(false);
+            }
+        }
+    }
+
+    @Override
+    public NettyCamelState getState(ChannelHandlerContext ctx, Channel channel, Object msg) {
+        if (msg == null) {
+            return null;
+        }
+        String correlationId = getResponseCorrelationId(msg);
+        if (correlationId == null) {
+            LOG.debug("No correlation id for the received message on channel: {}", channel);
+            return null;
+        }
+        PendingReply pending = map.remove(correlationId);
+        if (pending == null || !pending.complete()) {
+            LOG.debug("No pending request for the received message with correlation id: {}. The request may have timed out.", correlationId);
+            return null;
+        }
+        removeCorrelationId(pending.channel, correlationId);
+        return pending.state;
+    }
+
+    @Override
+    public NettyCamelState getState(ChannelHandlerContext ctx, Channel channel, Throwable cause) {
+        // an exception cannot be correlated to a request, and the producer will close the channel
+        // which then fails the pending requests on the channel
+        return null;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(camelContext, "camelContext");
+        scheduledExecutorService = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "NettyTimeoutCorrelationManager");
+        map = new ReplyTimeoutMap(scheduledExecutorService, timeoutChecker);
+        ServiceHelper.startService(map);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopService(map);
+        if (scheduledExecutorService != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(scheduledExecutorService);
+            scheduledExecutorService = null;
+        }
+        channelCorrelationIds.clear();
+    }
+
+    private void removeCorrelationId(Channel channel, String correlationId) {
+        Set<String> ids = channelCorrelationIds.get(channel);
+        if (ids != null) {
+            ids.remove(correlationId);
+        }
+    }
+
+    /**
+     * A request which is waiting for its reply.
+     */
+    private static final class PendingReply {
+        private final Channel channel;
+        private final NettyCamelState state;
+        private final long timeout;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private PendingReply(Channel channel, NettyCamelState state, long timeout) {
+            this.channel = channel;
+            this.state = state;
+            this.timeout = timeout;
+        }
+
+        /**
+         * Marks the request as complete, which only succeeds once, so either the reply, the timeout
+         * or the channel being closed completes the request.
+         */
+        boolean complete() {
+            return done.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * The timeout map for the pending requests, which uses the timing wheel of {@link DefaultTimeoutMap}.
+     */
+    private final class ReplyTimeoutMap extends DefaultTimeoutMap<String, PendingReply> {
+
+        private ReplyTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+            // no need for locking as the pending requests are completed only once
+            super(executor, requestMapPollTimeMillis, false);
+        }
+
+        @Override
+        public boolean onEviction(String correlationId, PendingReply pending) {
+            removeCorrelationId(pending.channel, correlationId);
+            if (!pending.complete()) {
+                return true;
+            }
+
+            Exchange exchange = pending.state.getExchange();
+            LOG.debug("Timeout waiting for reply with correlation id: {} after {} millis", correlationId, pending.timeout);
+            try {
+                Object response = getTimeoutResponse(correlationId, exchange.getIn().getBody());
+                if (response != null) {
+                    if (ExchangeHelper.isOutCapable(exchange)) {
+                        exchange.getOut().setBody(response);
+                    } else {
+                        exchange.getIn().setBody(response);
+                    }
+                } else {
+                    exchange.setException(new ExchangeTimedOutException(exchange, pending.timeout));
+                }
+            } catch (Throwable e) {
+                exchange.setException(e);
+            } finally {
+                pending.state.getCallback().done(false);
+            }
+            return true;
+        }
+    }
+}
@@ -75,8 +75,15 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
             LOG.debug("Closing channel as an exception was thrown from Netty", cause);
         }
 
-        Exchange exchange = getExchange(ctx);
-        AsyncCallback callback = getAsyncCallback(ctx);
+        NettyCamelState state = getState(ctx, cause);
+        Exchange exchange = state != null ? state.getExchange() : null;
+        AsyncCallback callback = state != null ? state.getCallback() : null;
+
+        if (state == null && producer.getConfiguration().getCorrelationManager() != null) {
+            // the exception cannot be correlated to a request on a shared channel, so close the channel
+            // which lets the correlation manager fail the pending requests on the channel
+            NettyHelper.close(ctx.channel());
+        }
 
         // the state may not be set
         if (exchange != null && callback != null) {
@@ -102,18 +109,19 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
             LOG.trace("Channel closed: {}", ctx.channel());
         }
 
-        Exchange exchange = getExchange(ctx);
-        AsyncCallback callback = getAsyncCallback(ctx);
+        NettyCamelState state = getState(ctx, (Object) null);
+        Exchange exchange = state != null ? state.getExchange() : null;
+        AsyncCallback callback = state != null ? state.getCallback() : null;
 
         // remove state
-        producer.removeState(ctx.channel());
+        producer.getCorrelationManager().removeState(ctx, ctx.channel());
 
         // to keep track of open sockets
         producer.getAllChannels().remove(ctx.channel());
 
         // this channel is maybe closing graceful and the exchange is already done
         // and if so we should not trigger an exception
-        boolean doneUoW = exchange.getUnitOfWork() == null;
+        boolean doneUoW = exchange == null || exchange.getUnitOfWork() == null;
 
         NettyConfiguration configuration = producer.getConfiguration();
         if (configuration.isSync() && !doneUoW && !messageReceived && !exceptionHandled) {
@@ -151,12 +159,14 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
             ctx.pipeline().remove(handler);
         }
 
-        Exchange exchange = getExchange(ctx);
-        if (exchange == null) {
+        NettyCamelState state = getState(ctx, msg);
+        if (state == null) {
             // we just ignore the received message as the channel is closed
+            // (or the request it belongs to has timed out)
             return;
         }
-        AsyncCallback callback = getAsyncCallback(ctx);
+        Exchange exchange = state.getExchange();
+        AsyncCallback callback = state.getCallback();
 
         Message message;
         try {
@@ -193,8 +203,8 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
             if (close != null) {
                 disconnect = close;
             }
-            // we should not close if we are reusing the channel
-            if (!producer.getConfiguration().isReuseChannel() && disconnect) {
+            // we should not close if we are reusing the channel, or if the channel is shared by other requests
+            if (!producer.getConfiguration().isReuseChannel() && !producer.isMultiplexing() && disconnect) {
                 if (LOG.isTraceEnabled()) {
                     LOG.trace("Closing channel when complete at address: {}", producer.getConfiguration().getAddress());
                 }
@@ -236,6 +246,11 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
             body = producer.getContext().getTypeConverter().mandatoryConvertTo(String.class, exchange, message);
         }
 
+        if (producer.getConfiguration().isZeroCopy()) {
+            // use the received message without copying, and release it when the exchange is done
+            NettyHelper.retainUntilDone(exchange, body);
+        }
+
         // set the result on either IN or OUT on the original exchange depending on its pattern
         if (ExchangeHelper.isOutCapable(exchange)) {
             NettyPayloadHelper.setOut(exchange, body);
@@ -246,14 +261,12 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
         }
     }
 
-    private Exchange getExchange(ChannelHandlerContext ctx) {
-        NettyCamelState state = producer.getState(ctx.channel());
-        return state != null ? state.getExchange() : null;
+    private NettyCamelState getState(ChannelHandlerContext ctx, Object msg) {
+        return producer.getCorrelationManager().getState(ctx, ctx.channel(), msg);
     }
 
-    private AsyncCallback getAsyncCallback(ChannelHandlerContext ctx) {
-        NettyCamelState state = producer.getState(ctx.channel());
-        return state != null ? state.getCallback() : null;
+    private NettyCamelState getState(ChannelHandlerContext ctx, Throwable cause) {
+        return producer.getCorrelationManager().getState(ctx, ctx.channel(), cause);
     }
 
 }
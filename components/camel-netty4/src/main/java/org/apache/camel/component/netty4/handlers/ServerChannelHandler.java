@@ -100,6 +100,11 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
         // we want to handle the UoW
         consumer.createUoW(exchange);
 
+        if (consumer.getConfiguration().isZeroCopy()) {
+            // use the received message without copying, and release it when the exchange is done
+            NettyHelper.retainUntilDone(exchange, msg);
+        }
+
         beforeProcess(exchange, ctx, msg);
 
         // process accordingly to endpoint configuration
@@ -194,11 +199,16 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
         if (exception) {
             return exchange.getException();
         }
+        Object body;
         if (exchange.hasOut()) {
-            return NettyPayloadHelper.getOut(consumer.getEndpoint(), exchange);
+            body = NettyPayloadHelper.getOut(consumer.getEndpoint(), exchange);
         } else {
-            return NettyPayloadHelper.getIn(consumer.getEndpoint(), exchange);
+            body = NettyPayloadHelper.getIn(consumer.getEndpoint(), exchange);
+        }
+        if (consumer.getConfiguration().isZeroCopy()) {
+            body = NettyHelper.getZeroCopyBody(exchange, body);
         }
+        return body;
     }
 
     /**
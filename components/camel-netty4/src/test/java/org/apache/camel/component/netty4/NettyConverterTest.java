@@ -16,8 +16,13 @@
  */
 package org.apache.camel.component.netty4;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.apache.camel.converter.IOConverter;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.test.junit4.CamelTestSupport;
 import org.junit.After;
@@ -62,4 +67,32 @@ public class NettyConverterTest extends CamelTestSupport {
         assertEquals(PAYLOAD, result);
     }
 
+    @Test
+    public void testConversionToByteBufferView() {
+        ByteBuffer result = context.getTypeConverter().convertTo(ByteBuffer.class, buf);
+        assertNotNull(result);
+        assertTrue(result.isReadOnly());
+        assertEquals(PAYLOAD.length(), result.remaining());
+        assertEquals('T', result.get(0));
+        // the buffer is not read
+        assertEquals(PAYLOAD.length(), buf.readableBytes());
+    }
+
+    @Test
+    public void testConversionToInputStreamDoesNotReadBuffer() throws Exception {
+        InputStream is = context.getTypeConverter().convertTo(InputStream.class, buf);
+        assertNotNull(is);
+        assertEquals(PAYLOAD, IOConverter.toString(is));
+        // the buffer can be read again
+        assertEquals(PAYLOAD, context.getTypeConverter().convertTo(String.class, buf));
+    }
+
+    @Test
+    public void testConversionOfSliceToByteArray() {
+        ByteBuf heap = Unpooled.wrappedBuffer(("Hello " + PAYLOAD).getBytes());
+        ByteBuf slice = heap.slice(6, PAYLOAD.length());
+        byte[] result = context.getTypeConverter().convertTo(byte[].class, slice);
+        assertEquals(PAYLOAD, new String(result));
+    }
+
 }
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+import org.junit.Test;
+
+public class NettyProducerCorrelationManagerTest extends BaseNettyTest {
+
+    private final MyCorrelationManager myManager = new MyCorrelationManager();
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        myManager.setTimeout(2000);
+        myManager.setTimeoutChecker(100);
+        jndi.bind("myManager", myManager);
+        return jndi;
+    }
+
+    @Test
+    public void testConcurrentRequestsOnSharedChannel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<String>> replies = new ArrayList<Future<String>>();
+        for (int i = 0; i < 20; i++) {
+            final String id = String.format("%04d", i);
+            replies.add(executor.submit(new Callable<String>() {
+                public String call() throws Exception {
+                    return template.requestBody("direct:start", id + ":" + (id.hashCode() % 5) * 20, String.class);
+                }
+            }));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            String id = String.format("%04d", i);
+            assertEquals(id + ":Bye", replies.get(i).get());
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        try {
+            template.requestBodyAndHeader("direct:start", "9999:1000", NettyConstants.NETTY_REQUEST_TIMEOUT, 200, String.class);
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ExchangeTimedOutException.class, e.getCause());
+        }
+
+        // the channel can still be used for the next request
+        assertEquals("1234:Bye", template.requestBody("direct:start", "1234:0", String.class));
+    }
+
+    @Test
+    public void testCloseChannelWhenCompleteIgnored() throws Exception {
+        // a slow request which is waiting for its reply on the shared channel
+        Future<String> slow = template.asyncRequestBody("direct:start", "0001:1000", String.class);
+        Thread.sleep(200);
+
+        // a reply asking to close the channel must not close the channel shared with the slow request
+        Exchange exchange = template.request("direct:start", new Processor() {
+            public void process(Exchange exchange) throws Exception {
+                exchange.getIn().setBody("0002:0");
+                exchange.setProperty(NettyConstants.NETTY_CLOSE_CHANNEL_WHEN_COMPLETE, true);
+            }
+        });
+        assertEquals("0002:Bye", exchange.getOut().getBody(String.class));
+
+        assertEquals("0001:Bye", slow.get());
+    }
+
+    @Test
+    public void testSameCorrelationId() throws Exception {
+        // a slow request which is waiting for its reply on the shared channel
+        Future<String> slow = template.asyncRequestBody("direct:start", "0003:1000", String.class);
+        Thread.sleep(200);
+
+        // a request with the same correlation id is failed, as its reply could not be told apart
+        try {
+            template.requestBody("direct:start", "0003:0", String.class);
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            IllegalStateException cause = assertIsInstanceOf(IllegalStateException.class, e.getCause());
+            assertTrue(cause.getMessage().startsWith("A request with correlation id: 0003 is already waiting for its reply"));
+        }
+
+        // and the pending request still receives its reply
+        assertEquals("0003:Bye", slow.get());
+    }
+
+    @Test
+    public void testChannelReleasedWhenRequestNotSent() throws Exception {
+        // the pool has a single channel, which must be put back in the pool when the request cannot be sent
+        for (int i = 0; i < 3; i++) {
+            try {
+                template.requestBody("direct:pool", "foo", String.class);
+                fail("Should have thrown exception");
+            } catch (CamelExecutionException e) {
+                assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+            }
+        }
+
+        assertEquals("1234:Bye", template.requestBody("direct:pool", "1234:0", String.class));
+    }
+
+    @Test
+    public void testDisconnectNotAllowed() throws Exception {
+        Producer producer = context.getEndpoint("netty4:tcp://localhost:" + getPort()
+            + "?textline=true&sync=true&disconnect=true&correlationManager=#myManager").createProducer();
+        try {
+            producer.start();
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("The disconnect option cannot be enabled when using a correlationManager"));
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // use a single channel which is shared by all the requests
+                from("direct:start")
+                    .to("netty4:tcp://localhost:{{port}}?textline=true&sync=true&producerPoolEnabled=false&correlationManager=#myManager");
+
+                // use a pool with a single channel
+                from("direct:pool")
+                    .to("netty4:tcp://localhost:{{port}}?textline=true&sync=true&producerPoolMaxActive=1&correlationManager=#myManager");
+
+                // reply in a different order than the requests was received
+                from("netty4:tcp://localhost:{{port}}?textline=true&sync=true&usingExecutorService=false")
+                    .threads(10)
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            String body = exchange.getIn().getBody(String.class);
+                            String id = body.substring(0, 4);
+                            Thread.sleep(Long.parseLong(body.substring(5)));
+                            exchange.getOut().setBody(id + ":Bye");
+                        }
+                    });
+            }
+        };
+    }
+
+    private static final class MyCorrelationManager extends TimeoutCorrelationManagerSupport {
+
+        @Override
+        public String getRequestCorrelationId(Object request) {
+            String body = request.toString();
+            return body.length() < 4 ? null : body.substring(0, 4);
+        }
+
+        @Override
+        public String getResponseCorrelationId(Object response) {
+            return response.toString().substring(0, 4);
+        }
+    }
+}
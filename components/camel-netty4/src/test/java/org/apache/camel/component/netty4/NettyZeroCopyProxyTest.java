@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class NettyZeroCopyProxyTest extends BaseNettyTest {
+
+    private final AtomicReference<ByteBuf> request = new AtomicReference<ByteBuf>();
+    private final AtomicReference<ByteBuf> reply = new AtomicReference<ByteBuf>();
+    private int port1;
+    private int port2;
+
+    @Test
+    public void testZeroCopyProxy() throws Exception {
+        NotifyBuilder notify = new NotifyBuilder(context).fromRoute("proxy").whenDone(1).create();
+
+        Object body = template.requestBody("netty4:tcp://localhost:" + port1 + "?sync=true&textline=true", "Camel\n");
+        assertEquals("Bye Camel", body);
+
+        assertTrue(notify.matches(5, TimeUnit.SECONDS));
+
+        // the buffers should be released when the exchange is done
+        assertNotNull(request.get());
+        assertNotNull(reply.get());
+        assertEquals(0, request.get().refCnt());
+        assertEquals(0, reply.get().refCnt());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                port1 = getPort();
+                port2 = getNextPort();
+
+                // forward the received bytes as-is in both directions
+                fromF("netty4:tcp://localhost:%s?sync=true&allowDefaultCodec=false&zeroCopy=true", port1).routeId("proxy")
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            request.set(exchange.getIn().getBody(ByteBuf.class));
+                            assertSame(request.get(), exchange.getIn().getBody());
+                        }
+                    })
+                    .toF("netty4:tcp://localhost:%s?sync=true&allowDefaultCodec=false&zeroCopy=true&useByteBuf=true", port2)
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            Object body = exchange.hasOut() ? exchange.getOut().getBody() : exchange.getIn().getBody();
+                            reply.set(assertIsInstanceOf(ByteBuf.class, body));
+                            assertTrue(reply.get().refCnt() > 0);
+                        }
+                    });
+
+                fromF("netty4:tcp://localhost:%s?sync=true&textline=true", port2)
+                    .transform().simple("Bye ${body}\n");
+            }
+        };
+    }
+}
@@ -28,6 +28,10 @@ import javax.sql.DataSource;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+import org.apache.camel.processor.aggregate.IncrementalAggregationSupport;
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.spi.IncrementalAggregationRepository;
 import org.apache.camel.spi.OptimisticLockingAggregationRepository;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.support.ServiceSupport;
@@ -36,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.support.AbstractLobCreatingPreparedStatementCallback;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
@@ -54,13 +59,19 @@ import org.springframework.transaction.support.TransactionTemplate;
  * data types. If a data type is not such a type its dropped and a WARN is
  * logged. And it only persists the Message body and the Message headers.
  * The Exchange properties are not persisted.
+ * <p/>
+ * When {@link #setIncremental(boolean) incremental} is enabled, then each incoming exchange is appended as its own row
+ * keyed by the correlation key and a sequence number, instead of updating the aggregated exchange as a whole,
+ * and the rows are only replayed using the aggregation strategy when needed (such as on recovery).
  */
-public class JdbcAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository, OptimisticLockingAggregationRepository {
+public class JdbcAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository, OptimisticLockingAggregationRepository,
+        IncrementalAggregationRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(JdbcAggregationRepository.class);
     private static final String ID = "id";
     private static final String EXCHANGE = "exchange";
     private static final String BODY = "body";
+    private static final String SEQUENCE = "seq";
     private JdbcOptimisticLockingExceptionMapper jdbcOptimisticLockingExceptionMapper = new DefaultJdbcOptimisticLockingExceptionMapper();
     private PlatformTransactionManager transactionManager;
     private DataSource dataSource;
@@ -78,6 +89,9 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     private List<String> headersToStoreAsText;
     private boolean storeBodyAsText;
     private boolean allowSerializedHeaders;
+    private boolean incremental;
+    private int incrementalCacheSize = 1000;
+    private IncrementalAggregationSupport incrementalSupport;
 
     /**
      * Creates an aggregation repository
@@ -147,6 +161,10 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
                 try {
                     LOG.debug("Adding exchange with key: [{}]", key);
 
+                    if (isIncremental()) {
+                        return addSnapshot(camelContext, key, exchange);
+                    }
+
                     boolean present = jdbcTemplate.queryForObject(
                             "SELECT COUNT(*) FROM " + getRepositoryName() + " WHERE " + ID + " = ?", Integer.class, key) != 0;
 
@@ -170,6 +188,108 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         });
     }
 
+    @Override
+    public void append(final CamelContext camelContext, final String correlationId,
+                       final Exchange newExchange, final Exchange aggregatedExchange) throws OptimisticLockingException {
+        final long sequence = IncrementalAggregationSupport.getSequence(aggregatedExchange);
+        try {
+            transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    LOG.debug("Appending exchange with key: [{}] and sequence: {}", correlationId, sequence);
+                    try {
+                        insertRecord(camelContext, correlationId, sequence, newExchange);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error appending to repository " + repositoryName + " with key " + correlationId, e);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            incrementalSupport.evict(correlationId);
+            // another node has appended the same sequence to the group
+            if (jdbcOptimisticLockingExceptionMapper != null && jdbcOptimisticLockingExceptionMapper.isOptimisticLocking(e)) {
+                throw new OptimisticLockingException();
+            } else {
+                throw ObjectHelper.wrapRuntimeCamelException(e);
+            }
+        }
+        incrementalSupport.cache(correlationId, aggregatedExchange, sequence);
+    }
+
+    /**
+     * Stores the aggregated exchange as a whole in incremental mode, replacing the existing rows of the group.
+     */
+    private Exchange addSnapshot(final CamelContext camelContext, final String key, final Exchange exchange) throws Exception {
+        Exchange result = null;
+        if (isReturnOldExchange()) {
+            result = getIncremental(camelContext, key);
+        }
+
+        incrementalSupport.evict(key);
+        jdbcTemplate.update("DELETE FROM " + getRepositoryName() + " WHERE " + ID + " = ?", key);
+        insertRecord(camelContext, key, IncrementalAggregationSupport.SNAPSHOT_SEQUENCE, exchange);
+        incrementalSupport.cache(key, exchange, IncrementalAggregationSupport.SNAPSHOT_SEQUENCE);
+
+        return result;
+    }
+
+    /**
+     * Inserts a new row with the given sequence number into the repository table, when in incremental mode.
+     *
+     * @param camelContext  the current CamelContext
+     * @param key           the correlation key
+     * @param sequence      the sequence number of the exchange in the group
+     * @param exchange      the exchange to insert. The headers will be persisted but not the properties.
+     * @throws Exception
+     */
+    protected void insertRecord(final CamelContext camelContext, final String key, final long sequence, final Exchange exchange) throws Exception {
+        StringBuilder queryBuilder = new StringBuilder()
+                .append("INSERT INTO ").append(getRepositoryName())
+                .append('(')
+                .append(EXCHANGE).append(", ")
+                .append(ID).append(", ")
+                .append(SEQUENCE);
+        int totalParameterIndex = 3;
+
+        if (storeBodyAsText) {
+            queryBuilder.append(", ").append(BODY);
+            totalParameterIndex++;
+        }
+
+        if (hasHeadersToStoreAsText()) {
+            for (String headerName : headersToStoreAsText) {
+                queryBuilder.append(", ").append(headerName);
+                totalParameterIndex++;
+            }
+        }
+
+        queryBuilder.append(") VALUES (");
+        for (int i = 0; i < totalParameterIndex - 1; i++) {
+            queryBuilder.append("?, ");
+        }
+        queryBuilder.append("?)");
+
+        final byte[] data = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+        jdbcTemplate.execute(queryBuilder.toString(),
+                new AbstractLobCreatingPreparedStatementCallback(getLobHandler()) {
+                    @Override
+                    protected void setValues(PreparedStatement ps, LobCreator lobCreator) throws SQLException {
+                        int totalParameterIndex = 0;
+                        lobCreator.setBlobAsBytes(ps, ++totalParameterIndex, data);
+                        ps.setString(++totalParameterIndex, key);
+                        ps.setLong(++totalParameterIndex, sequence);
+                        if (storeBodyAsText) {
+                            ps.setString(++totalParameterIndex, exchange.getIn().getBody(String.class));
+                        }
+                        if (hasHeadersToStoreAsText()) {
+                            for (String headerName : headersToStoreAsText) {
+                                String headerValue = exchange.getIn().getHeader(headerName, String.class);
+                                ps.setString(++totalParameterIndex, headerValue);
+                            }
+                        }
+                    }
+                });
+    }
+
     /**
      * Updates the current exchange details in the given repository table
      *
@@ -273,7 +393,7 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     @Override
     public Exchange get(final CamelContext camelContext, final String correlationId) {
         final String key = correlationId;
-        Exchange result = get(key, getRepositoryName(), camelContext);
+        Exchange result = isIncremental() ? getIncremental(camelContext, key) : get(key, getRepositoryName(), camelContext);
 
         LOG.debug("Getting key  [{}] -> {}", key, result);
 
@@ -301,6 +421,47 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         });
     }
 
+    private Exchange getIncremental(final CamelContext camelContext, final String key) {
+        return transactionTemplateReadOnly.execute(new TransactionCallback<Exchange>() {
+            public Exchange doInTransaction(TransactionStatus status) {
+                Long last = jdbcTemplate.queryForObject(
+                        "SELECT MAX(" + SEQUENCE + ") FROM " + getRepositoryName() + " WHERE " + ID + " = ?", Long.class, key);
+                if (last == null) {
+                    incrementalSupport.evict(key);
+                    return null;
+                }
+
+                Exchange answer = incrementalSupport.take(key, last);
+                if (answer != null) {
+                    return answer;
+                }
+
+                // not cached or out of date so replay the rows of the group
+                LOG.debug("Replaying exchanges with key: [{}] up to sequence: {}", key, last);
+                final Exchange[] aggregated = new Exchange[1];
+                jdbcTemplate.query("SELECT " + SEQUENCE + ", " + EXCHANGE + " FROM " + getRepositoryName()
+                                + " WHERE " + ID + " = ? ORDER BY " + SEQUENCE, new Object[]{key},
+                        new RowCallbackHandler() {
+                            public void processRow(ResultSet rs) throws SQLException {
+                                long sequence = rs.getLong(SEQUENCE);
+                                byte[] data = getLobHandler().getBlobAsBytes(rs, EXCHANGE);
+                                try {
+                                    Exchange stored = codec.unmarshallExchange(camelContext, data);
+                                    aggregated[0] = incrementalSupport.replay(aggregated[0], stored, sequence);
+                                } catch (IOException e) {
+                                    // Rollback the transaction
+                                    throw new RuntimeException("Error getting key " + key + " from repository " + repositoryName, e);
+                                } catch (ClassNotFoundException e) {
+                                    // Rollback the transaction
+                                    throw new RuntimeException(e);
+                                }
+                            }
+                        });
+                return aggregated[0];
+            }
+        });
+    }
+
     @Override
     public void remove(final CamelContext camelContext, final String correlationId, final Exchange exchange) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
@@ -310,6 +471,9 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
                 try {
                     LOG.debug("Removing key [{}]", key);
 
+                    if (isIncremental()) {
+                        incrementalSupport.evict(key);
+                    }
                     jdbcTemplate.update("DELETE FROM " + getRepositoryName() + " WHERE " + ID + " = ?", key);
 
                     insert(camelContext, confirmKey, exchange, getRepositoryNameCompleted());
@@ -354,7 +518,9 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     protected Set<String> getKeys(final String repositoryName) {
         return transactionTemplateReadOnly.execute(new TransactionCallback<LinkedHashSet<String>>() {
             public LinkedHashSet<String> doInTransaction(TransactionStatus status) {
-                List<String> keys = jdbcTemplate.query("SELECT " + ID + " FROM " + repositoryName,
+                // in incremental mode there are a row per exchange in the group
+                String distinct = isIncremental() && repositoryName.equals(getRepositoryName()) ? "DISTINCT " : "";
+                List<String> keys = jdbcTemplate.query("SELECT " + distinct + ID + " FROM " + repositoryName,
                         new RowMapper<String>() {
                             public String mapRow(ResultSet rs, int rowNum) throws SQLException {
                                 String id = rs.getString(ID);
@@ -449,6 +615,20 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         this.codec = codec;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return codec.getExchangeCodec();
+    }
+
+    /**
+     *
+     * @param exchangeCodec The codec to use for encoding the exchanges, such as
+     *                      {@link org.apache.camel.impl.BinaryExchangeCodec} which is faster and more compact than
+     *                      the Java serialization used by default.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        codec.setExchangeCodec(exchangeCodec);
+    }
+
     public boolean hasHeadersToStoreAsText() {
         return this.headersToStoreAsText != null && !this.headersToStoreAsText.isEmpty();
     }
@@ -479,6 +659,45 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    @Override
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     *
+     * @param incremental Whether to append each incoming exchange as its own row keyed by the correlation key and a
+     *                    sequence number, instead of updating the aggregated exchange as a whole. The rows are replayed
+     *                    using the aggregation strategy of the aggregator when the aggregated exchange is not cached
+     *                    (such as on startup), and therefore the repository must not be shared between aggregators.
+     *                    The repository table must have a <tt>seq</tt> column which together with the <tt>id</tt>
+     *                    column is the primary key. This option is by default false.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public int getIncrementalCacheSize() {
+        return incrementalCacheSize;
+    }
+
+    /**
+     *
+     * @param incrementalCacheSize The maximum number of aggregated exchanges to cache in incremental mode,
+     *                             to avoid replaying the rows of the group. By default 1000.
+     */
+    public void setIncrementalCacheSize(int incrementalCacheSize) {
+        this.incrementalCacheSize = incrementalCacheSize;
+    }
+
+    @Override
+    public void setAggregationStrategy(AggregationStrategy aggregationStrategy) {
+        if (incrementalSupport == null) {
+            incrementalSupport = new IncrementalAggregationSupport(incrementalCacheSize);
+        }
+        incrementalSupport.setAggregationStrategy(aggregationStrategy);
+    }
+
    /**
      * @return the lobHandler
      */
@@ -514,6 +733,10 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         ObjectHelper.notNull(repositoryName, "RepositoryName");
         ObjectHelper.notNull(transactionManager, "TransactionManager");
         ObjectHelper.notNull(dataSource, "DataSource");
+        if (incremental && incrementalSupport == null) {
+            // the aggregation strategy is set by the aggregator
+            incrementalSupport = new IncrementalAggregationSupport(incrementalCacheSize);
+        }
 
         // log number of existing exchanges
         int current = getKeys().size();
@@ -533,7 +756,9 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
 
     @Override
     protected void doStop() throws Exception {
-        // noop
+        if (incrementalSupport != null) {
+            incrementalSupport.clear();
+        }
     }
 
 }
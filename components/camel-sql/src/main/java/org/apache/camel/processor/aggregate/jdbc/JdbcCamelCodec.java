@@ -19,21 +19,35 @@ package org.apache.camel.processor.aggregate.jdbc;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
-import org.apache.camel.util.IOHelper;
+import org.apache.camel.impl.SerializationExchangeCodec;
+import org.apache.camel.spi.ExchangeCodec;
 
 /**
  * Adapted from HawtDBCamelCodec
  */
 public class JdbcCamelCodec {
 
+    private ExchangeCodec exchangeCodec = new JdbcSerializationExchangeCodec();
+
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the {@link ExchangeCodec} to use for encoding the exchanges, which by default is Java serialization.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec != null ? exchangeCodec : new JdbcSerializationExchangeCodec();
+    }
+
     public byte[] marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders) throws IOException {
         // use DefaultExchangeHolder to marshal to a serialized object
         DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false, allowSerializedHeaders);
@@ -69,28 +83,26 @@ public class JdbcCamelCodec {
         return answer;
     }
 
-    private byte[] encode(Object object) throws IOException {
+    private byte[] encode(DefaultExchangeHolder object) throws IOException {
         ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
-        ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut);
-        objectOut.writeObject(object);
-        objectOut.close();
-        byte[] data = bytesOut.toByteArray();
-        return data;
+        exchangeCodec.encode(object, bytesOut);
+        return bytesOut.toByteArray();
     }
 
     private DefaultExchangeHolder decode(CamelContext camelContext, byte[] dataIn) throws IOException, ClassNotFoundException {
         ByteArrayInputStream bytesIn = new ByteArrayInputStream(dataIn);
+        return exchangeCodec.decode(camelContext, bytesIn);
+    }
 
-        ObjectInputStream objectIn = null;
-        Object obj = null;
-        try {
-            objectIn = new ClassLoadingAwareObjectInputStream(camelContext, bytesIn);
-            obj = objectIn.readObject();
-        } finally {
-            IOHelper.close(objectIn);
-        }
+    /**
+     * Java serialization which resolves the classes using {@link ClassLoadingAwareObjectInputStream}.
+     */
+    private static final class JdbcSerializationExchangeCodec extends SerializationExchangeCodec {
 
-        return (DefaultExchangeHolder)obj;
+        @Override
+        protected ObjectInputStream createObjectInputStream(CamelContext camelContext, InputStream in) throws IOException {
+            return new ClassLoadingAwareObjectInputStream(camelContext, in);
+        }
     }
 
 }
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+public class JdbcAggregateIncrementalTest extends AbstractJdbcAggregationTestSupport {
+
+    @Override
+    public void postProcessTest() throws Exception {
+        super.postProcessTest();
+
+        repo = applicationContext.getBean("repo4", JdbcAggregationRepository.class);
+    }
+
+    @Test
+    public void testJdbcAggregateIncremental() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedBodiesReceived("ABCDE");
+
+        template.sendBodyAndHeader("direct:start", "A", "id", 123);
+        template.sendBodyAndHeader("direct:start", "B", "id", 123);
+        template.sendBodyAndHeader("direct:start", "C", "id", 123);
+        template.sendBodyAndHeader("direct:start", "D", "id", 123);
+        template.sendBodyAndHeader("direct:start", "E", "id", 123);
+
+        assertMockEndpointsSatisfied(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testJdbcAggregateIncrementalReplay() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedMessageCount(0);
+
+        template.sendBodyAndHeader("direct:start", "A", "id", 456);
+        template.sendBodyAndHeader("direct:start", "B", "id", 456);
+        template.sendBodyAndHeader("direct:start", "C", "id", 456);
+
+        assertMockEndpointsSatisfied();
+
+        // each incoming exchange is stored as its own row
+        DataSource dataSource = applicationContext.getBean("dataSource1", DataSource.class);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM aggregationRepo4 WHERE id = ?", Integer.class, "456"));
+
+        // a new repository has no cached aggregated exchange so it must replay the rows
+        JdbcAggregationRepository other = new JdbcAggregationRepository(
+                applicationContext.getBean("txManager1", DataSourceTransactionManager.class), "aggregationRepo4", dataSource);
+        other.setIncremental(true);
+        other.setAggregationStrategy(new MyAggregationStrategy());
+        other.start();
+        try {
+            Exchange replayed = other.get(context, "456");
+            assertNotNull(replayed);
+            assertEquals("ABC", replayed.getIn().getBody(String.class));
+            assertEquals(3, (int) replayed.getProperty(Exchange.AGGREGATED_SIZE, Integer.class));
+        } finally {
+            other.stop();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                        .aggregate(header("id"), new MyAggregationStrategy())
+                        .completionSize(5).aggregationRepository(repo)
+                        .to("mock:aggregated");
+            }
+        };
+    }
+}
@@ -24,4 +24,16 @@ CREATE TABLE aggregationRepo1_completed (
     id varchar(255) NOT NULL,
     exchange blob NOT NULL,
     constraint aggregationRepo1_completed_pk PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE aggregationRepo4 (
+    id varchar(255) NOT NULL,
+    seq bigint NOT NULL,
+    exchange blob NOT NULL,
+    constraint aggregationRepo4_pk PRIMARY KEY (id, seq)
+);
+CREATE TABLE aggregationRepo4_completed (
+    id varchar(255) NOT NULL,
+    exchange blob NOT NULL,
+    constraint aggregationRepo4_completed_pk PRIMARY KEY (id)
+);
@@ -202,6 +202,30 @@ public class KafkaComponentConfiguration {
          * values are: sync, async, or none. And sync is the default value.
          */
         private String autoCommitOnStop = "sync";
+        /**
+         * Number of worker threads used to process the records of different
+         * partitions in parallel. The records of the same partition are still
+         * processed in order, one at a time. The poll thread keeps track of
+         * the offsets of the processed records and commits them (or stores
+         * them in the offset repository) in batches, see the options
+         * commitBatchSize and commitIntervalMs. The automatic commit of the
+         * Kafka client is not used in this mode, as it would commit records
+         * which have been polled but not yet processed. By default this is 0
+         * which means the records are processed by the poll thread.
+         */
+        private Integer partitionWorkerPoolSize;
+        /**
+         * The number of processed records after which the offsets are
+         * committed asynchronously, when the records are processed by the
+         * partition worker pool.
+         */
+        private Integer commitBatchSize = 500;
+        /**
+         * The maximum time in millis between asynchronous commits of the
+         * offsets of the processed records, when the records are processed by
+         * the partition worker pool.
+         */
+        private Long commitIntervalMs = 1000L;
         /**
          * URL of the Kafka brokers to use. The format is
          * host1:port1,host2:port2, and the list can be a subset of brokers or a
@@ -767,6 +791,30 @@ public class KafkaComponentConfiguration {
             this.autoCommitOnStop = autoCommitOnStop;
         }
 
+        public Integer getPartitionWorkerPoolSize() {
+            return partitionWorkerPoolSize;
+        }
+
+        public void setPartitionWorkerPoolSize(Integer partitionWorkerPoolSize) {
+            this.partitionWorkerPoolSize = partitionWorkerPoolSize;
+        }
+
+        public Integer getCommitBatchSize() {
+            return commitBatchSize;
+        }
+
+        public void setCommitBatchSize(Integer commitBatchSize) {
+            this.commitBatchSize = commitBatchSize;
+        }
+
+        public Long getCommitIntervalMs() {
+            return commitIntervalMs;
+        }
+
+        public void setCommitIntervalMs(Long commitIntervalMs) {
+            this.commitIntervalMs = commitIntervalMs;
+        }
+
         public String getBrokers() {
             return brokers;
         }
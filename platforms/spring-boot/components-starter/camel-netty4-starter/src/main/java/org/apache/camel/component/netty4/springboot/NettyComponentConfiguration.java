@@ -27,6 +27,7 @@ import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutorGroup;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.component.netty4.ClientInitializerFactory;
+import org.apache.camel.component.netty4.NettyCamelStateCorrelationManager;
 import org.apache.camel.component.netty4.NettyComponent;
 import org.apache.camel.component.netty4.NettyServerBootstrapFactory;
 import org.apache.camel.component.netty4.ServerInitializerFactory;
@@ -290,6 +291,18 @@ public class NettyComponentConfiguration {
          * into {@link ByteBuf} before sending it out.
          */
         private Boolean useByteBuf = false;
+        /**
+         * If the zeroCopy is true, the received {@link ByteBuf} messages are
+         * used as the message body as-is, without copying the data into a
+         * byte array, and are released when the {@link Exchange} is done. Such
+         * a body is sent out again by the netty consumer (reply) and the netty
+         * producer (request) without copying as well, which allows to proxy
+         * between netty endpoints without copying the data. Use this together
+         * with <tt>allowDefaultCodec=false</tt> or custom decoders which
+         * outputs {@link ByteBuf}, as the default codecs decodes into objects
+         * or strings.
+         */
+        private Boolean zeroCopy = false;
         /**
          * For UDP only. If enabled the using byte array codec instead of Java
          * serialization protocol.
@@ -310,6 +323,23 @@ public class NettyComponentConfiguration {
          * well.
          */
         private Boolean reuseChannel = false;
+        /**
+         * To use a custom correlation manager to manage how request and reply
+         * messages are mapped when using request/reply with the netty producer.
+         * This should only be used if you have a way to map requests together
+         * with replies such as if there is correlation ids in both the request
+         * and reply messages. This can be used if you want to multiplex
+         * concurrent messages on the same channel (aka connection) in netty.
+         * When doing this you must have a way to correlate the request and
+         * reply messages so you can store the right reply on the inflight Camel
+         * Exchange before its continued routed.
+         * <p/>
+         * We recommend extending the {@link TimeoutCorrelationManagerSupport}
+         * when you build custom correlation managers. This provides support
+         * for timeout and other complexities you otherwise would need to
+         * implement as well.
+         */
+        private NettyCamelStateCorrelationManager correlationManager;
         /**
          * The protocol to use which can be tcp or udp.
          */
@@ -762,6 +792,14 @@ public class NettyComponentConfiguration {
             this.useByteBuf = useByteBuf;
         }
 
+        public Boolean getZeroCopy() {
+            return zeroCopy;
+        }
+
+        public void setZeroCopy(Boolean zeroCopy) {
+            this.zeroCopy = zeroCopy;
+        }
+
         public Boolean getUdpByteArrayCodec() {
             return udpByteArrayCodec;
         }
@@ -778,6 +816,15 @@ public class NettyComponentConfiguration {
             this.reuseChannel = reuseChannel;
         }
 
+        public NettyCamelStateCorrelationManager getCorrelationManager() {
+            return correlationManager;
+        }
+
+        public void setCorrelationManager(
+                NettyCamelStateCorrelationManager correlationManager) {
+            this.correlationManager = correlationManager;
+        }
+
         public String getProtocol() {
             return protocol;
         }
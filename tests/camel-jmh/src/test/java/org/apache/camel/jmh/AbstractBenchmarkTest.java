@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Base class for JMH benchmarks which are launched as JUnit tests.
+ * <p/>
+ * The benchmarks of the concrete class are run, and the results are written as a JSON report
+ * named after the class to the directory given by the <tt>jmh.reportDir</tt> system property,
+ * so the reports can be compared between releases to spot regressions.
+ * <p/>
+ * The number of forks and iterations can be tweaked using the <tt>jmh.forks</tt>,
+ * <tt>jmh.warmupIterations</tt> and <tt>jmh.measurementIterations</tt> system properties.
+ */
+public abstract class AbstractBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        File dir = new File(System.getProperty("jmh.reportDir", "target/jmh-reports"));
+        dir.mkdirs();
+        File report = new File(dir, getClass().getSimpleName() + ".json");
+
+        Options opt = new OptionsBuilder()
+                // only run the benchmarks from this class
+                .include(getClass().getName() + ".*")
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .warmupIterations(Integer.getInteger("jmh.warmupIterations", 5))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("jmh.measurementIterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .threads(1)
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .shouldFailOnError(true)
+                .shouldDoGC(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(report.getPath())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
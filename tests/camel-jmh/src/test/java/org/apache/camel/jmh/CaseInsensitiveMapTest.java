@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.camel.util.CaseInsensitiveMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link CaseInsensitiveMap} which is used for message headers,
+ * with a plain {@link HashMap} as baseline.
+ */
+public class CaseInsensitiveMapTest extends AbstractBenchmarkTest {
+
+    private static final int HEADERS = 20;
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        String[] keys;
+        String[] upperKeys;
+        Map<String, Object> caseInsensitiveMap;
+        Map<String, Object> hashMap;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            keys = new String[HEADERS];
+            upperKeys = new String[HEADERS];
+            caseInsensitiveMap = new CaseInsensitiveMap();
+            hashMap = new HashMap<String, Object>();
+            for (int i = 0; i < HEADERS; i++) {
+                keys[i] = "CamelHeader" + i;
+                upperKeys[i] = keys[i].toUpperCase();
+                caseInsensitiveMap.put(keys[i], "value" + i);
+                hashMap.put(keys[i], "value" + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void caseInsensitiveMapGet(BenchmarkState state, Blackhole bh) {
+        for (String key : state.keys) {
+            bh.consume(state.caseInsensitiveMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void caseInsensitiveMapGetOtherCase(BenchmarkState state, Blackhole bh) {
+        for (String key : state.upperKeys) {
+            bh.consume(state.caseInsensitiveMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> caseInsensitiveMapPut(BenchmarkState state) {
+        Map<String, Object> map = new CaseInsensitiveMap();
+        for (String key : state.keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Object> caseInsensitiveMapCopy(BenchmarkState state) {
+        return new CaseInsensitiveMap(state.caseInsensitiveMap);
+    }
+
+    @Benchmark
+    public void hashMapGet(BenchmarkState state, Blackhole bh) {
+        for (String key : state.keys) {
+            bh.consume(state.hashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> hashMapPut(BenchmarkState state) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (String key : state.keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Object> hashMapCopy(BenchmarkState state) {
+        return new HashMap<String, Object>(state.hashMap);
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks handing off messages to a route using the direct and seda components.
+ */
+public class DirectSedaTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        CamelContext camel;
+        ProducerTemplate template;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:start")
+                        .setBody().constant("Bye World");
+
+                    // use a bounded queue which blocks when full so the benchmark cannot run out of memory
+                    from("seda:start?size=1000&blockWhenFull=true")
+                        .setBody().constant("Bye World");
+                }
+            });
+            camel.start();
+            template = camel.createProducerTemplate();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            template.stop();
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void directInOnly(BenchmarkState state) {
+        state.template.sendBody("direct:start", "Hello World");
+    }
+
+    @Benchmark
+    public Object directInOut(BenchmarkState state) {
+        return state.template.requestBody("direct:start", "Hello World");
+    }
+
+    @Benchmark
+    public void sedaInOnly(BenchmarkState state) {
+        state.template.sendBody("seda:start?size=1000&blockWhenFull=true", "Hello World");
+    }
+
+    @Benchmark
+    public Object sedaInOut(BenchmarkState state) {
+        return state.template.requestBody("seda:start?size=1000&blockWhenFull=true", "Hello World");
+    }
+
+}
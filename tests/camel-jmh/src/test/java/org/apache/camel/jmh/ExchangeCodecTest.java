@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.BinaryExchangeCodec;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.impl.SerializationExchangeCodec;
+import org.apache.camel.spi.ExchangeCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks encoding and decoding a {@link DefaultExchangeHolder} using the {@link ExchangeCodec}s
+ * as done by the persistent aggregation repositories.
+ */
+public class ExchangeCodecTest extends AbstractBenchmarkTest {
+
+    private static final int HEADERS = 20;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        @Param({"serialization", "binary"})
+        String codecName;
+
+        CamelContext camel;
+        ExchangeCodec codec;
+        DefaultExchangeHolder holder;
+        byte[] encoded;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+
+            codec = "binary".equals(codecName) ? new BinaryExchangeCodec() : new SerializationExchangeCodec();
+
+            Exchange exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody("Hello World");
+            for (int i = 0; i < HEADERS; i++) {
+                exchange.getIn().setHeader("CamelHeader" + i, i % 2 == 0 ? "value" + i : i);
+            }
+            exchange.setProperty(Exchange.AGGREGATED_SIZE, 5);
+            holder = DefaultExchangeHolder.marshal(exchange);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            codec.encode(holder, bytes);
+            encoded = bytes.toByteArray();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(BenchmarkState state) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        state.codec.encode(state.holder, bytes);
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public DefaultExchangeHolder decode(BenchmarkState state) throws Exception {
+        return state.codec.decode(state.camel, new ByteArrayInputStream(state.encoded));
+    }
+
+}
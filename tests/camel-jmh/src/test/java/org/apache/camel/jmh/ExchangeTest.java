@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ExchangeHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks creating and copying {@link DefaultExchange} and its {@link org.apache.camel.impl.DefaultMessage}
+ * as done by the EIPs such as the Multicast, Splitter and WireTap.
+ */
+public class ExchangeTest extends AbstractBenchmarkTest {
+
+    private static final int HEADERS = 20;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        CamelContext camel;
+        Exchange exchange;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+
+            exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody("Hello World");
+            for (int i = 0; i < HEADERS; i++) {
+                exchange.getIn().setHeader("CamelHeader" + i, "value" + i);
+            }
+            exchange.setProperty("CamelProperty", "value");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public Exchange createExchange(BenchmarkState state) {
+        Exchange exchange = new DefaultExchange(state.camel);
+        exchange.getIn().setBody("Hello World");
+        return exchange;
+    }
+
+    @Benchmark
+    public Exchange createExchangeWithHeaders(BenchmarkState state) {
+        Exchange exchange = new DefaultExchange(state.camel);
+        exchange.getIn().setBody("Hello World");
+        for (int i = 0; i < HEADERS; i++) {
+            exchange.getIn().setHeader("CamelHeader" + i, "value");
+        }
+        return exchange;
+    }
+
+    @Benchmark
+    public Exchange copyExchange(BenchmarkState state) {
+        return state.exchange.copy();
+    }
+
+    @Benchmark
+    public Exchange createCorrelatedCopy(BenchmarkState state) {
+        return ExchangeHelper.createCorrelatedCopy(state.exchange, false);
+    }
+
+}
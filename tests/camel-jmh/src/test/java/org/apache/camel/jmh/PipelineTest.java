@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultConsumer;
+import org.apache.camel.impl.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks routing an {@link Exchange} through the processor of a route, which is a
+ * {@link org.apache.camel.processor.CamelInternalProcessor} wrapping a {@link org.apache.camel.processor.Pipeline}
+ * of channels, with a single step and with 10 steps.
+ */
+public class PipelineTest extends AbstractBenchmarkTest {
+
+    private static final Processor NOOP = new Processor() {
+        public void process(Exchange exchange) throws Exception {
+            // noop
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        CamelContext camel;
+        Processor single;
+        Processor pipeline;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:single").routeId("single")
+                        .process(NOOP);
+
+                    from("direct:pipeline").routeId("pipeline")
+                        .process(NOOP).process(NOOP).process(NOOP).process(NOOP).process(NOOP)
+                        .process(NOOP).process(NOOP).process(NOOP).process(NOOP).process(NOOP);
+                }
+            });
+            camel.start();
+
+            // use the processor of the route consumers so we do not benchmark the direct component
+            single = ((DefaultConsumer) camel.getRoute("single").getConsumer()).getProcessor();
+            pipeline = ((DefaultConsumer) camel.getRoute("pipeline").getConsumer()).getProcessor();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public Exchange singleStep(BenchmarkState state) throws Exception {
+        Exchange exchange = new DefaultExchange(state.camel);
+        state.single.process(exchange);
+        return exchange;
+    }
+
+    @Benchmark
+    public Exchange tenSteps(BenchmarkState state) throws Exception {
+        Exchange exchange = new DefaultExchange(state.camel);
+        state.pipeline.process(exchange);
+        return exchange;
+    }
+
+}
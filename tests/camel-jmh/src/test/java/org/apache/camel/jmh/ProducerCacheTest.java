@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.Producer;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.ProducerCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks acquiring and releasing producers from the {@link ProducerCache}, and sending
+ * an {@link Exchange} using a producer from the cache.
+ */
+public class ProducerCacheTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        CamelContext camel;
+        ProducerCache cache;
+        Endpoint endpoint;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+            cache = new ProducerCache(this, camel);
+            cache.start();
+            endpoint = camel.getEndpoint("log:foo?level=OFF");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            cache.stop();
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public Producer acquireRelease(BenchmarkState state) throws Exception {
+        Producer producer = state.cache.acquireProducer(state.endpoint);
+        state.cache.releaseProducer(state.endpoint, producer);
+        return producer;
+    }
+
+    @Benchmark
+    public Exchange send(BenchmarkState state) {
+        Exchange exchange = new DefaultExchange(state.camel);
+        state.cache.send(state.endpoint, exchange);
+        return exchange;
+    }
+
+}
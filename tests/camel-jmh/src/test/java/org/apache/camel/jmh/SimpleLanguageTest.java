@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.spi.Language;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks evaluating already parsed expressions and predicates of the Simple language,
+ * and the cost of parsing them.
+ */
+public class SimpleLanguageTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        CamelContext camel;
+        Language simple;
+        Exchange exchange;
+        Expression header;
+        Expression template;
+        Predicate predicate;
+        Predicate numericPredicate;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+            simple = camel.resolveLanguage("simple");
+
+            exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody("World");
+            exchange.getIn().setHeader("foo", "bar");
+            exchange.getIn().setHeader("amount", "123");
+
+            header = simple.createExpression("${header.foo}");
+            template = simple.createExpression("Hello ${body} from ${header.foo}");
+            predicate = simple.createPredicate("${header.foo} == 'bar'");
+            numericPredicate = simple.createPredicate("${header.amount} > 100");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public Object headerExpression(BenchmarkState state) {
+        return state.header.evaluate(state.exchange, Object.class);
+    }
+
+    @Benchmark
+    public String templateExpression(BenchmarkState state) {
+        return state.template.evaluate(state.exchange, String.class);
+    }
+
+    @Benchmark
+    public boolean predicate(BenchmarkState state) {
+        return state.predicate.matches(state.exchange);
+    }
+
+    @Benchmark
+    public boolean numericPredicate(BenchmarkState state) {
+        return state.numericPredicate.matches(state.exchange);
+    }
+
+    @Benchmark
+    public Predicate parsePredicate(BenchmarkState state) {
+        return state.simple.createPredicate("${header.foo} == 'bar'");
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.jmh;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the type converter registry, for conversions which hits a registered type converter,
+ * conversions which are a no-op, and conversions where no type converter exists (misses).
+ */
+public class TypeConverterTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        CamelContext camel;
+        TypeConverter converter;
+        byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+            converter = camel.getTypeConverter();
+            bytes = "Hello World".getBytes(StandardCharsets.UTF_8);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public Integer stringToInteger(BenchmarkState state) {
+        return state.converter.convertTo(Integer.class, "12345");
+    }
+
+    @Benchmark
+    public String bytesToString(BenchmarkState state) {
+        return state.converter.convertTo(String.class, state.bytes);
+    }
+
+    @Benchmark
+    public String integerToString(BenchmarkState state) {
+        return state.converter.convertTo(String.class, 12345);
+    }
+
+    @Benchmark
+    public String sameType(BenchmarkState state) {
+        return state.converter.convertTo(String.class, "Hello World");
+    }
+
+    @Benchmark
+    public CamelContext miss(BenchmarkState state) {
+        return state.converter.tryConvertTo(CamelContext.class, "Hello World");
+    }
+
+}
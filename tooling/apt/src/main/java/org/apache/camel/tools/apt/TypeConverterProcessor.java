@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.tools.apt;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+
+import static org.apache.camel.tools.apt.AnnotationProcessorHelper.dumpExceptionToErrorFile;
+
+/**
+ * APT compiler plugin to generate a type converter loader for all Camel <tt>@Converter</tt> classes,
+ * which registers the type converters as direct calls to the converter methods, so type conversions
+ * do not use reflection.
+ * <p/>
+ * The loader is generated in the same package as the converter class, and named as the class with the
+ * <tt>Loader</tt> suffix, which is how the <tt>AnnotationTypeConverterLoader</tt> in camel-core finds it.
+ * If a converter class uses anything the generated loader does not support, such as converter methods inherited
+ * from a super class, then no loader is generated, and the type converters are loaded using reflection as before.
+ */
+@SupportedAnnotationTypes({"org.apache.camel.Converter"})
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+public class TypeConverterProcessor extends AbstractProcessor {
+
+    private static final String CONVERTER = "org.apache.camel.Converter";
+    private static final String FALLBACK_CONVERTER = "org.apache.camel.FallbackConverter";
+    private static final String EXCHANGE = "org.apache.camel.Exchange";
+    private static final String TYPE_CONVERTER_REGISTRY = "org.apache.camel.spi.TypeConverterRegistry";
+    private static final String LOADER_SUFFIX = "Loader";
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        try {
+            if (roundEnv.processingOver()) {
+                return true;
+            }
+
+            TypeElement converter = processingEnv.getElementUtils().getTypeElement(CONVERTER);
+            if (converter == null) {
+                return true;
+            }
+            // the converter methods may be annotated without the class being annotated
+            Set<TypeElement> classes = new LinkedHashSet<TypeElement>();
+            Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(converter);
+            for (Element element : elements) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    classes.add((TypeElement) element);
+                } else if (element.getKind() == ElementKind.METHOD && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                    classes.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+            for (TypeElement classElement : classes) {
+                processConverterClass(classElement);
+            }
+        } catch (Throwable e) {
+            dumpExceptionToErrorFile("camel-apt-error.log", "Error processing @Converter", e);
+        }
+
+        return true;
+    }
+
+    private void processConverterClass(TypeElement classElement) throws Exception {
+        Elements elementUtils = processingEnv.getElementUtils();
+
+        final List<ConverterMethod> methods = findConverterMethods(classElement);
+        if (methods == null || methods.isEmpty()) {
+            return;
+        }
+
+        final String className = classElement.getQualifiedName().toString();
+        String binaryName = elementUtils.getBinaryName(classElement).toString();
+        final String loaderName = binaryName + LOADER_SUFFIX;
+        if (elementUtils.getTypeElement(loaderName) != null) {
+            // there is already such a class so we cannot generate the loader
+            return;
+        }
+
+        int idx = loaderName.lastIndexOf('.');
+        final String packageName = idx > 0 ? loaderName.substring(0, idx) : null;
+        final String simpleName = loaderName.substring(idx + 1);
+
+        JavaFileObject source = processingEnv.getFiler().createSourceFile(loaderName, classElement);
+        PrintWriter writer = new PrintWriter(source.openWriter());
+        try {
+            writeLoader(writer, packageName, simpleName, className, methods);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Finds the converter methods of the class, or <tt>null</tt> if the class has converter methods
+     * which cannot be invoked by the generated loader.
+     */
+    private List<ConverterMethod> findConverterMethods(TypeElement classElement) {
+        Types typeUtils = processingEnv.getTypeUtils();
+
+        // the converter methods of super classes are only loaded using reflection
+        TypeMirror superclass = classElement.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED || !"java.lang.Object".equals(typeUtils.erasure(superclass).toString())) {
+            return null;
+        }
+        // the generated loader must be able to access the class
+        if (classElement.getModifiers().contains(Modifier.PRIVATE)
+                || (classElement.getNestingKind() == NestingKind.MEMBER && !classElement.getModifiers().contains(Modifier.STATIC))
+                || (classElement.getNestingKind() != NestingKind.TOP_LEVEL && classElement.getNestingKind() != NestingKind.MEMBER)) {
+            return null;
+        }
+        if (!classElement.getTypeParameters().isEmpty()) {
+            return null;
+        }
+
+        boolean canInstantiate = !classElement.getModifiers().contains(Modifier.ABSTRACT);
+        List<ConverterMethod> answer = new ArrayList<ConverterMethod>();
+        for (ExecutableElement method : ElementFilter.methodsIn(classElement.getEnclosedElements())) {
+            AnnotationMirror converter = findAnnotation(method, CONVERTER);
+            AnnotationMirror fallback = findAnnotation(method, FALLBACK_CONVERTER);
+            if (converter == null && fallback == null) {
+                continue;
+            }
+
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                    || method.getReturnType().getKind() == TypeKind.VOID) {
+                return null;
+            }
+            boolean isStatic = modifiers.contains(Modifier.STATIC);
+            if (!isStatic && !canInstantiate) {
+                return null;
+            }
+
+            List<? extends VariableElement> parameters = method.getParameters();
+            ConverterMethod cm = new ConverterMethod();
+            cm.name = method.getSimpleName().toString();
+            cm.isStatic = isStatic;
+            if (converter != null) {
+                if (parameters.size() == 2 && isType(parameters.get(1).asType(), EXCHANGE)) {
+                    cm.useExchange = true;
+                } else if (parameters.size() != 1) {
+                    return null;
+                }
+                TypeMirror from = typeUtils.erasure(parameters.get(0).asType());
+                TypeMirror to = typeUtils.erasure(method.getReturnType());
+                if ("java.lang.Void".equals(to.toString())) {
+                    return null;
+                }
+                cm.fromType = from.toString();
+                cm.toType = to.toString();
+                if (from.getKind().isPrimitive()) {
+                    cm.valueType = typeUtils.boxedClass((PrimitiveType) from).getQualifiedName().toString();
+                } else {
+                    cm.valueType = cm.fromType;
+                }
+                cm.allowNull = getBooleanValue(converter, "allowNull");
+            } else {
+                int size = parameters.size();
+                if (size == 4 && isType(parameters.get(1).asType(), EXCHANGE)) {
+                    cm.useExchange = true;
+                } else if (size != 3) {
+                    return null;
+                }
+                if (!isType(parameters.get(0).asType(), "java.lang.Class")
+                        || !isType(parameters.get(size - 2).asType(), "java.lang.Object")
+                        || !isType(parameters.get(size - 1).asType(), TYPE_CONVERTER_REGISTRY)) {
+                    return null;
+                }
+                cm.fallback = true;
+                cm.allowNull = getBooleanValue(fallback, "allowNull");
+                cm.canPromote = getBooleanValue(fallback, "canPromote");
+            }
+            answer.add(cm);
+        }
+        return answer;
+    }
+
+    private void writeLoader(PrintWriter writer, String packageName, String simpleName, String className, List<ConverterMethod> methods) {
+        boolean instance = false;
+        for (ConverterMethod method : methods) {
+            instance |= !method.isStatic;
+        }
+
+        if (packageName != null) {
+            writer.println("package " + packageName + ";");
+            writer.println();
+        }
+        if (instance) {
+            writer.println("import org.apache.camel.RuntimeCamelException;");
+            writer.println("import org.apache.camel.TypeConverter;");
+        }
+        writer.println("import org.apache.camel.TypeConverterLoaderException;");
+        if (instance) {
+            writer.println("import org.apache.camel.impl.converter.CachingInjector;");
+            writer.println("import org.apache.camel.spi.TypeConverterAware;");
+        }
+        writer.println("import org.apache.camel.spi.TypeConverterLoader;");
+        writer.println("import org.apache.camel.spi.TypeConverterRegistry;");
+        writer.println("import org.apache.camel.support.SimpleTypeConverter;");
+        writer.println();
+        writer.println("/**");
+        writer.println(" * Loads the type converters of {@link " + className + "} without using reflection.");
+        writer.println(" * <p/>");
+        writer.println(" * Generated by camel-apt - do NOT edit this file!");
+        writer.println(" */");
+        writer.println("public final class " + simpleName + " implements TypeConverterLoader {");
+        writer.println();
+        writer.println("    @Override");
+        writer.println("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        writer.println("    public void load(final TypeConverterRegistry registry) throws TypeConverterLoaderException {");
+        if (instance) {
+            writer.println("        final CachingInjector<" + className + "> injector = new CachingInjector<" + className + ">(registry, "
+                    + className + ".class);");
+        }
+        for (ConverterMethod method : methods) {
+            String target = method.isStatic ? className : "((" + className + ") converter(injector, registry))";
+            if (method.fallback) {
+                String args = method.useExchange ? "type, exchange, value, registry" : "type, value, registry";
+                writer.println("        registry.addFallbackTypeConverter(new SimpleTypeConverter(" + method.allowNull + ",");
+                writer.println("            (type, exchange, value) -> " + target + "." + method.name + "(" + args + ")), " + method.canPromote + ");");
+            } else {
+                String args = "(" + method.valueType + ") value" + (method.useExchange ? ", exchange" : "");
+                writer.println("        registry.addTypeConverter(" + method.toType + ".class, " + method.fromType + ".class, new SimpleTypeConverter("
+                        + method.allowNull + ",");
+                writer.println("            (type, exchange, value) -> " + target + "." + method.name + "(" + args + ")));");
+            }
+        }
+        writer.println("    }");
+        if (instance) {
+            writer.println();
+            writer.println("    private static Object converter(CachingInjector<?> injector, TypeConverterRegistry registry) {");
+            writer.println("        Object instance = injector.newInstance();");
+            writer.println("        if (instance == null) {");
+            writer.println("            throw new RuntimeCamelException(\"Could not instantiate an instance of: "
+                    + className + "\");");
+            writer.println("        }");
+            writer.println("        // inject parent type converter");
+            writer.println("        if (instance instanceof TypeConverterAware && registry instanceof TypeConverter) {");
+            writer.println("            ((TypeConverterAware) instance).setTypeConverter((TypeConverter) registry);");
+            writer.println("        }");
+            writer.println("        return instance;");
+            writer.println("    }");
+        }
+        writer.println();
+        writer.println("}");
+    }
+
+    private boolean isType(TypeMirror type, String name) {
+        return name.equals(processingEnv.getTypeUtils().erasure(type).toString());
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (annotationName.equals(mirror.getAnnotationType().toString())) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private boolean getBooleanValue(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (name.equals(entry.getKey().getSimpleName().toString())) {
+                return Boolean.TRUE.equals(entry.getValue().getValue());
+            }
+        }
+        return false;
+    }
+
+    private static final class ConverterMethod {
+        private String name;
+        private boolean isStatic;
+        private boolean fallback;
+        private boolean useExchange;
+        private boolean allowNull;
+        private boolean canPromote;
+        private String fromType;
+        private String toType;
+        private String valueType;
+    }
+
+}